@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.adapter;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.TextView;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+import com.desk.android.sdk.benchmark.Fixtures;
+import com.desk.java.apiclient.model.Article;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>Benchmarks binding recycled rows in {@link ArticleListAdapter}.</p>
+ *
+ * <p>Views come from the stubbed android.jar so this measures the adapter's own work per row (holder
+ * lookup, item lookup, tracing and binding) rather than inflation, measure or layout which need a device.</p>
+ */
+public class ArticleListAdapterBenchmark {
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private List<Article> articles;
+    private ArticleListAdapter adapter;
+    private View convertView;
+    private int position;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = mock(Context.class);
+        articles = Fixtures.readArticlePage().getEntriesAsList();
+
+        // the stubbed ArrayAdapter doesn't hold on to its items
+        adapter = new ArticleListAdapter(context, articles) {
+            @Override
+            public Article getItem(int position) {
+                return articles.get(position);
+            }
+        };
+
+        View row = mock(View.class);
+        when(row.findViewById(android.R.id.text1)).thenReturn(new TextView(context));
+        final ArticleListAdapter.ViewHolder holder = new ArticleListAdapter.ViewHolder(row);
+        convertView = new View(context) {
+            @Override
+            public Object getTag() {
+                return holder;
+            }
+        };
+    }
+
+    @Test
+    public void bindRecycledRow() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                position = (position + 1) % articles.size();
+                return adapter.getView(position, convertView, null);
+            }
+        });
+    }
+}
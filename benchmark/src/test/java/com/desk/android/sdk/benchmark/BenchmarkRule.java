@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.benchmark;
+
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * <p>JUnit rule which measures the throughput and allocation rate of a small piece of code.</p>
+ *
+ * <p>Each call to {@link #measure(Operation)} warms the operation up, then runs a number of fixed length
+ * rounds and reports the median ops/sec along with the bytes allocated per op on the calling thread. The
+ * result is printed and appended to {@code results.csv} in the benchmark output directory tagged with the
+ * current revision so regressions can be compared commit to commit.</p>
+ *
+ * <pre>
+ * &#64;Rule public BenchmarkRule benchmark = new BenchmarkRule();
+ *
+ * &#64;Test public void parseArticles() {
+ *     benchmark.measure(new Operation() { ... });
+ * }
+ * </pre>
+ */
+public class BenchmarkRule extends TestWatcher {
+
+    /**
+     * Code to measure. The returned value is consumed so the JIT can't eliminate the work.
+     */
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    private static final String CSV_HEADER = "revision,benchmark,ops_per_sec,min_ops_per_sec,bytes_per_op\n";
+
+    private static final long WARMUP_MILLIS = Long.getLong("desk.benchmark.warmupMillis", 300);
+    private static final long ROUND_MILLIS = Long.getLong("desk.benchmark.roundMillis", 200);
+    private static final int ROUNDS = Integer.getInteger("desk.benchmark.rounds", 5);
+    private static final String OUTPUT_DIR = System.getProperty("desk.benchmark.outputDir");
+    private static final String REVISION = System.getProperty("desk.benchmark.revision", "unknown");
+
+    private static final AllocationCounter ALLOCATIONS = new AllocationCounter();
+
+    private String name;
+    private int sink;
+
+    @Override
+    protected void starting(Description description) {
+        name = description.getTestClass().getSimpleName() + "." + description.getMethodName();
+    }
+
+    /**
+     * Measures the operation and records the result under the name of the running test.
+     * @param operation the code to measure
+     * @return the result
+     */
+    public Result measure(Operation operation) {
+        try {
+            runFor(operation, WARMUP_MILLIS);
+
+            double[] opsPerSec = new double[ROUNDS];
+            long totalOps = 0;
+            long totalBytes = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long bytesBefore = ALLOCATIONS.currentThreadBytes();
+                long start = System.nanoTime();
+                long ops = runFor(operation, ROUND_MILLIS);
+                long elapsed = System.nanoTime() - start;
+                long bytesAfter = ALLOCATIONS.currentThreadBytes();
+
+                opsPerSec[i] = ops * 1e9 / elapsed;
+                totalOps += ops;
+                totalBytes += bytesAfter - bytesBefore;
+            }
+            Arrays.sort(opsPerSec);
+
+            double bytesPerOp = ALLOCATIONS.isSupported() ? (double) totalBytes / totalOps : Double.NaN;
+            Result result = new Result(name, opsPerSec[ROUNDS / 2], opsPerSec[0], bytesPerOp);
+            report(result);
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException("Benchmark " + name + " failed", e);
+        }
+    }
+
+    private long runFor(Operation operation, long millis) throws Exception {
+        long deadline = System.nanoTime() + millis * 1000000L;
+        long ops = 0;
+        int batch = 1;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < batch; i++) {
+                Object value = operation.run();
+                sink ^= value == null ? 0 : System.identityHashCode(value);
+            }
+            ops += batch;
+
+            // grow the batch so reading the clock doesn't dominate cheap operations
+            if (batch < 1024) {
+                batch <<= 1;
+            }
+        }
+        return ops;
+    }
+
+    private static void report(Result result) throws IOException {
+        System.out.println(result);
+        if (OUTPUT_DIR == null) {
+            return;
+        }
+        synchronized (BenchmarkRule.class) {
+            File dir = new File(OUTPUT_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Unable to create " + dir);
+            }
+            File file = new File(dir, "results.csv");
+            boolean writeHeader = !file.exists();
+            Writer writer = new FileWriter(file, true);
+            try {
+                if (writeHeader) {
+                    writer.write(CSV_HEADER);
+                }
+                writer.write(String.format(Locale.US, "%s,%s,%.1f,%.1f,%.1f\n", REVISION, result.name,
+                        result.opsPerSec, result.minOpsPerSec, result.bytesPerOp));
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * The outcome of a single benchmark
+     */
+    public static class Result {
+
+        private final String name;
+        private final double opsPerSec;
+        private final double minOpsPerSec;
+        private final double bytesPerOp;
+
+        Result(String name, double opsPerSec, double minOpsPerSec, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSec = opsPerSec;
+            this.minOpsPerSec = minOpsPerSec;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        /**
+         * Returns the median throughput across all rounds
+         * @return the ops per second
+         */
+        public double getOpsPerSec() {
+            return opsPerSec;
+        }
+
+        /**
+         * Returns the bytes allocated per op on the benchmark thread
+         * @return the bytes per op, {@link Double#NaN} if the JVM can't count allocations
+         */
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-60s %,15.0f ops/s %,12.1f B/op", name, opsPerSec, bytesPerOp);
+        }
+    }
+
+    /**
+     * Reads per thread allocation counts from the HotSpot management bean. Looked up reflectively as the
+     * unit tests compile against android.jar which doesn't contain java.lang.management.
+     */
+    private static class AllocationCounter {
+
+        private Object bean;
+        private Method allocatedBytes;
+
+        AllocationCounter() {
+            try {
+                Object threadBean = Class.forName("java.lang.management.ManagementFactory")
+                        .getMethod("getThreadMXBean")
+                        .invoke(null);
+                Class<?> hotspotBean = Class.forName("com.sun.management.ThreadMXBean");
+                if (hotspotBean.isInstance(threadBean)
+                        && (Boolean) hotspotBean.getMethod("isThreadAllocatedMemorySupported").invoke(threadBean)) {
+                    hotspotBean.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadBean, true);
+                    bean = threadBean;
+                    allocatedBytes = hotspotBean.getMethod("getThreadAllocatedBytes", long.class);
+                }
+            } catch (Exception ignored) {
+                // allocation counting is not available on this JVM
+            }
+        }
+
+        boolean isSupported() {
+            return bean != null;
+        }
+
+        long currentThreadBytes() throws Exception {
+            if (bean == null) {
+                return 0;
+            }
+            return (Long) allocatedBytes.invoke(bean, Thread.currentThread().getId());
+        }
+    }
+}
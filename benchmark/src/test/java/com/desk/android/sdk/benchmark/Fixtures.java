@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.benchmark;
+
+import com.desk.java.apiclient.model.ApiResponse;
+import com.desk.java.apiclient.model.Article;
+import com.desk.java.apiclient.util.ISO8601DateAdapter;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Date;
+
+/**
+ * Shared data for the benchmarks
+ */
+public class Fixtures {
+
+    /**
+     * A page of 25 articles as returned by the articles search endpoint
+     */
+    public static final String ARTICLE_PAGE_JSON = "/article_page.json";
+
+    public static final Type ARTICLE_PAGE_TYPE = new TypeToken<ApiResponse<Article>>() {}.getType();
+
+    /**
+     * Creates a {@link Gson} configured the same way as the api client
+     * @return the gson instance
+     */
+    public static Gson getDeskClientGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Date.class, ISO8601DateAdapter.TYPE_ADAPTER)
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .create();
+    }
+
+    /**
+     * Reads a resource from the test classpath
+     * @param name the resource name
+     * @return the contents
+     */
+    public static String readResource(String name) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException("Missing resource " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Parses {@link #ARTICLE_PAGE_JSON}
+     * @return the article page
+     */
+    public static ApiResponse<Article> readArticlePage() throws IOException {
+        return getDeskClientGson().fromJson(readResource(ARTICLE_PAGE_JSON), ARTICLE_PAGE_TYPE);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.config;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks for {@link ContactUsPropertyConfig} lookups with and without brand keys
+ */
+public class ContactUsPropertyConfigBenchmark {
+
+    private static final int BRAND_ID = 1234;
+
+    private static final String PROPERTIES =
+            "contact.us.enabled=true\n" +
+            "contact.us.subject=Feedback\n" +
+            "contact.us.subject.brand.1234=Brand feedback\n" +
+            "contact.us.subject.enabled=true\n" +
+            "contact.us.email.address=support@example.com\n" +
+            "contact.us.custom.field.keys=app_version,device,os_version,locale\n" +
+            "contact.us.custom.field.app_version.value=1.0\n" +
+            "contact.us.custom.field.device.value=Nexus 5X\n" +
+            "contact.us.custom.field.os_version.value=6.0\n" +
+            "contact.us.custom.field.locale.value=en_US\n" +
+            "contact.us.custom.field.keys.brand.1234=app_version,brand_tier\n" +
+            "contact.us.custom.field.app_version.value.brand.1234=1.0\n" +
+            "contact.us.custom.field.brand_tier.value.brand.1234=gold\n";
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private ContactUsPropertyConfig config;
+
+    @Before
+    public void setUp() throws Exception {
+        AssetManager assets = mock(AssetManager.class);
+        when(assets.open(anyString())).thenReturn(new ByteArrayInputStream(PROPERTIES.getBytes("ISO-8859-1")));
+        Context context = mock(Context.class);
+        when(context.getApplicationContext()).thenReturn(context);
+        when(context.getAssets()).thenReturn(assets);
+        config = new ContactUsPropertyConfig(context);
+    }
+
+    @Test
+    public void getSubject() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return config.getSubject();
+            }
+        });
+    }
+
+    @Test
+    public void getSubjectWithBrand() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return config.getSubject(BRAND_ID);
+            }
+        });
+    }
+
+    @Test
+    public void isContactUsEnabledWithBrand() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return config.isContactUsEnabled(BRAND_ID);
+            }
+        });
+    }
+
+    @Test
+    public void getCustomFieldProperties() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return config.getCustomFieldProperties();
+            }
+        });
+    }
+
+    @Test
+    public void getCustomFieldPropertiesWithBrand() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return config.getCustomFieldProperties(BRAND_ID);
+            }
+        });
+    }
+}
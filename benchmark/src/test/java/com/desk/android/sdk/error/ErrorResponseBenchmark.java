@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.error;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Benchmarks for mapping failures to an {@link ErrorResponse}
+ */
+public class ErrorResponseBenchmark {
+
+    private static final IOException NETWORK_ERROR = new IOException("Unable to resolve host");
+    private static final IllegalStateException CONVERSION_ERROR = new IllegalStateException("Expected BEGIN_OBJECT");
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    @Test
+    public void fromNetworkError() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return new ErrorResponse(NETWORK_ERROR);
+            }
+        });
+    }
+
+    @Test
+    public void fromConversionError() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return new ErrorResponse(CONVERSION_ERROR);
+            }
+        });
+    }
+
+    @Test
+    public void fromHttpError() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return new ErrorResponse(false, "Not Found", 404);
+            }
+        });
+    }
+}
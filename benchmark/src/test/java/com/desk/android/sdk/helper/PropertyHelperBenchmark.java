@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.helper;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Properties;
+
+/**
+ * Benchmarks for {@link PropertyHelper}
+ */
+public class PropertyHelperBenchmark {
+
+    private static final String STRING_KEY = "contact.us.subject";
+    private static final String STRING_BRAND_KEY = "contact.us.subject.brand.%s";
+    private static final String BOOLEAN_KEY = "contact.us.enabled";
+    private static final String BOOLEAN_BRAND_KEY = "contact.us.enabled.brand.%s";
+    private static final int BRAND_ID = 1234;
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private Properties properties;
+
+    @Before
+    public void setUp() throws Exception {
+        properties = new Properties();
+        for (int i = 0; i < 50; i++) {
+            properties.put("filler.key." + i, "value" + i);
+        }
+        properties.put(STRING_KEY, "Feedback");
+        properties.put(String.format(STRING_BRAND_KEY, BRAND_ID), "Brand feedback");
+        properties.put(BOOLEAN_KEY, "true");
+        properties.put(String.format(BOOLEAN_BRAND_KEY, BRAND_ID), "false");
+    }
+
+    @Test
+    public void getString() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return PropertyHelper.getString(STRING_KEY, properties);
+            }
+        });
+    }
+
+    @Test
+    public void getStringWithBrandKey() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return PropertyHelper.getStringWithArgs(STRING_BRAND_KEY, properties, BRAND_ID);
+            }
+        });
+    }
+
+    @Test
+    public void getBoolean() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return PropertyHelper.getBoolean(BOOLEAN_KEY, properties);
+            }
+        });
+    }
+
+    @Test
+    public void getBooleanWithBrandKey() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return PropertyHelper.getBooleanWithArgs(BOOLEAN_BRAND_KEY, false, properties, BRAND_ID);
+            }
+        });
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.model;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+import com.desk.java.apiclient.model.CaseType;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+/**
+ * Benchmarks for building a {@link CreateCaseRequest}
+ */
+public class CreateCaseRequestBenchmark {
+
+    private static final String BODY = "The app crashes when I rotate the screen on the contact us form.";
+    private static final String TO = "support@example.com";
+    private static final String FROM = "customer@example.com";
+    private static final String SUBJECT = "Feedback";
+    private static final String NAME = "Jane Customer";
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private HashMap<String, String> customFields;
+
+    @Before
+    public void setUp() throws Exception {
+        customFields = new HashMap<>();
+        customFields.put("app_version", "1.0");
+        customFields.put("device", "Nexus 5X");
+        customFields.put("os_version", "6.0");
+        customFields.put("locale", "en_US");
+    }
+
+    @Test
+    public void build() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return new CreateCaseRequest.Builder(CaseType.EMAIL, BODY, TO, FROM)
+                        .name(NAME)
+                        .subject(SUBJECT)
+                        .create();
+            }
+        });
+    }
+
+    @Test
+    public void buildWithCustomFields() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                return new CreateCaseRequest.Builder(CaseType.EMAIL, BODY, TO, FROM)
+                        .name(NAME)
+                        .subject(SUBJECT)
+                        .customFields(customFields)
+                        .create();
+            }
+        });
+    }
+}
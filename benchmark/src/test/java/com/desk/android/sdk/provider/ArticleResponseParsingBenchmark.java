@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+import com.desk.android.sdk.benchmark.Fixtures;
+import com.desk.java.apiclient.model.ApiResponse;
+import com.desk.java.apiclient.model.Article;
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+/**
+ * Benchmarks for parsing a full page of articles the way the api client does
+ */
+public class ArticleResponseParsingBenchmark {
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private Gson gson;
+    private String json;
+
+    @Before
+    public void setUp() throws Exception {
+        gson = Fixtures.getDeskClientGson();
+        json = Fixtures.readResource(Fixtures.ARTICLE_PAGE_JSON);
+    }
+
+    @Test
+    public void parseArticlePage() throws Exception {
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                ApiResponse<Article> response = gson.fromJson(new StringReader(json), Fixtures.ARTICLE_PAGE_TYPE);
+                return response.getEntriesAsList();
+            }
+        });
+    }
+}
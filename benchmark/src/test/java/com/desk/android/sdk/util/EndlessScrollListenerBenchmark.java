@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.util;
+
+import com.desk.android.sdk.benchmark.BenchmarkRule;
+import com.desk.android.sdk.benchmark.BenchmarkRule.Operation;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Benchmarks {@link EndlessScrollListener#onScroll} at the rate a list view calls it during a fling
+ */
+public class EndlessScrollListenerBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+    private static final int VISIBLE_ITEMS = 10;
+    private static final int MAX_ITEMS = 10000;
+
+    @Rule public BenchmarkRule benchmark = new BenchmarkRule();
+
+    private int firstVisibleItem;
+    private int totalItemCount = PAGE_SIZE;
+
+    @Test
+    public void onScroll() throws Exception {
+        final EndlessScrollListener listener = new EndlessScrollListener() {
+            @Override
+            public void onLoadMore(int page, int totalItemsCount) {
+                // pretend the next page arrived immediately
+                totalItemCount += PAGE_SIZE;
+            }
+        };
+        benchmark.measure(new Operation() {
+            @Override
+            public Object run() {
+                listener.onScroll(null, firstVisibleItem, VISIBLE_ITEMS, totalItemCount);
+                if (++firstVisibleItem + VISIBLE_ITEMS > totalItemCount) {
+                    firstVisibleItem = totalItemCount - VISIBLE_ITEMS;
+                }
+                if (totalItemCount > MAX_ITEMS) {
+                    // start over the same way a cleared adapter would
+                    firstVisibleItem = 0;
+                    totalItemCount = 0;
+                    listener.onScroll(null, 0, 0, 0);
+                    totalItemCount = PAGE_SIZE;
+                }
+                return null;
+            }
+        });
+    }
+}
@@ -30,12 +30,16 @@ import android.support.test.InstrumentationRegistry;
 import android.support.test.runner.AndroidJUnit4;
 import android.test.suitebuilder.annotation.SmallTest;
 
+import com.desk.android.sdk.cache.CacheBudget;
+import com.desk.android.sdk.cache.CachePartition;
+import com.desk.android.sdk.cache.PartitionStats;
 import com.desk.android.sdk.config.ContactUsConfig;
 import com.desk.android.sdk.config.ContactUsPropertyConfig;
 import com.desk.android.sdk.config.DeskConfig;
 import com.desk.android.sdk.config.DeskPropertyConfig;
 import com.desk.android.sdk.identity.Identity;
 import com.desk.android.sdk.identity.UserIdentity;
+import com.desk.android.sdk.provider.TopicProvider;
 import com.desk.android.sdk.util.DeskDefaultsRule;
 import com.desk.java.apiclient.DeskClient;
 
@@ -44,7 +48,10 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.Cache;
 
@@ -93,7 +100,18 @@ public class DeskTest {
     public void getResponseCacheReturnsResponseCache() throws Exception {
         Cache responseCache = desk.getResponseCache(InstrumentationRegistry.getContext());
         assertNotNull(responseCache);
-        assertEquals(responseCache.maxSize(), Desk.CACHE_MAX_SIZE);
+        assertTrue(responseCache.maxSize() >= CacheBudget.MIN_SIZE);
+        assertTrue(responseCache.maxSize() <= CacheBudget.MAX_SIZE);
+    }
+
+    @Test
+    public void getCachePartitionStatsReturnsDefaultPartitions() throws Exception {
+        List<PartitionStats> stats = desk.getCachePartitionStats();
+        assertEquals(CachePartition.defaults().size(), stats.size());
+        long budget = desk.getResponseCache(InstrumentationRegistry.getContext()).maxSize();
+        for (PartitionStats partition : stats) {
+            assertTrue(partition.getBudget() < budget);
+        }
     }
 
     @Test
@@ -168,6 +186,71 @@ public class DeskTest {
         assertNotNull(getNewDeskInstance().getCaseProvider());
     }
 
+    @Test
+    public void withNameReturnsSameNamedInstance() throws Exception {
+        Desk named = Desk.with(InstrumentationRegistry.getContext(), "other.desk.com");
+        assertTrue(named == Desk.with(InstrumentationRegistry.getContext(), "other.desk.com"));
+        assertEquals("other.desk.com", named.getName());
+    }
+
+    @Test
+    public void namedInstanceIsIndependentOfDefaultInstance() throws Exception {
+        Desk named = Desk.with(InstrumentationRegistry.getContext(), "other.desk.com");
+        assertFalse(named == desk);
+        named.setConfig(config);
+        assertTrue(config == named.getConfig());
+        assertFalse(desk.getClient() == named.getClient());
+        assertFalse(desk.getTopicProvider() == named.getTopicProvider());
+    }
+
+    @Test
+    public void namedInstancesShareExecutorsAndResponseCache() throws Exception {
+        Desk named = Desk.with(InstrumentationRegistry.getContext(), "other.desk.com");
+        assertTrue(desk.getWorkExecutor() == named.getWorkExecutor());
+        assertTrue(desk.getCallbackExecutor() == named.getCallbackExecutor());
+        assertTrue(desk.getResponseCache(InstrumentationRegistry.getContext())
+                == named.getResponseCache(InstrumentationRegistry.getContext()));
+    }
+
+    @Test
+    public void concurrentAccessCreatesOneClientAndOneSetOfProviders() throws Exception {
+        final Desk desk = getNewDeskInstance();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final Object[][] seen = new Object[threads][];
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        seen[index] = new Object[] {desk.getClient(), desk.getTopicProvider(),
+                                desk.getArticleProvider(), desk.getCaseProvider()};
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (Object[] objects : seen) {
+            for (int j = 0; j < objects.length; j++) {
+                assertTrue(objects[j] == seen[0][j]);
+            }
+        }
+    }
+
+    @Test
+    public void setConfigReplacesProvidersWithClient() throws Exception {
+        TopicProvider topicProvider = desk.getTopicProvider();
+        desk.setConfig(config);
+        assertFalse(topicProvider == desk.getTopicProvider());
+    }
+
     private Desk getNewDeskInstance() {
         Desk.release();
         return Desk.with(InstrumentationRegistry.getContext());
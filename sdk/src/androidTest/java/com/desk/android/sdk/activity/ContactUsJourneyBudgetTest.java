@@ -0,0 +1,103 @@
+package com.desk.android.sdk.activity;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.LargeTest;
+import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.R;
+import com.desk.android.sdk.config.ContactUsPropertyConfig;
+import com.desk.android.sdk.standin.RequestBudget;
+import com.desk.android.sdk.util.DeskDefaultsRule;
+import com.desk.android.sdk.util.StandInRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static android.support.test.InstrumentationRegistry.getContext;
+import static android.support.test.espresso.Espresso.closeSoftKeyboard;
+import static android.support.test.espresso.Espresso.onData;
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.Espresso.pressBack;
+import static android.support.test.espresso.action.ViewActions.click;
+import static android.support.test.espresso.assertion.ViewAssertions.matches;
+import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static com.desk.android.sdk.util.InstrumentationTestUtils.rotateScreen;
+import static com.desk.android.sdk.util.InstrumentationTestUtils.waitForItems;
+import static com.desk.android.sdk.util.InstrumentationTestUtils.waitForView;
+import static org.hamcrest.CoreMatchers.anything;
+
+/**
+ * Walks the topic, article and contact us journey against a stand-in server, rotating on every screen,
+ * and fails if the journey makes more requests or downloads more bytes than its budget allows.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ContactUsJourneyBudgetTest {
+
+    @ClassRule
+    public static DeskDefaultsRule resetRule = new DeskDefaultsRule();
+
+    @Rule public StandInRule standIn = new StandInRule();
+
+    @Rule public ActivityTestRule<TopicListActivity> activityRule =
+            new ActivityTestRule<>(TopicListActivity.class, false, false);
+
+    @Before
+    public void setUp() {
+        // an empty email address with the web form disabled makes contact us load the inbound mailbox
+        Desk.with(InstrumentationRegistry.getContext()).setContactUsConfig(new ContactUsPropertyConfig(getContext()) {
+            @Override
+            public boolean isWebFormEnabled() {
+                return false;
+            }
+
+            @Override
+            public String getEmailAddress() {
+                return "";
+            }
+        });
+    }
+
+    @Test
+    public void journeyStaysWithinRequestBudget() {
+        activityRule.launchActivity(null);
+
+        // topics
+        waitForItems(android.R.id.list);
+        rotateScreen();
+        waitForItems(android.R.id.list);
+        onData(anything()).inAdapterView(withId(android.R.id.list)).atPosition(0).perform(click());
+
+        // articles
+        waitForItems(android.R.id.list);
+        rotateScreen();
+        waitForItems(android.R.id.list);
+        onData(anything()).inAdapterView(withId(android.R.id.list)).atPosition(0).perform(click());
+
+        // article
+        rotateScreen();
+        waitForView(R.id.contact_us);
+        onView(withId(R.id.contact_us)).perform(click());
+
+        // contact us
+        rotateScreen();
+        closeSoftKeyboard();
+        pressBack();
+        pressBack();
+        pressBack();
+        onView(withId(R.id.topics)).check(matches(isDisplayed()));
+
+        new RequestBudget.Builder()
+                .endpoint("topics", "/api/v2/(brands/\\d+/)?topics(\\?.*)?", 1)
+                .endpoint("articles", ".*/articles(/search)?(\\?.*)?", 1)
+                .endpoint("inbound mailboxes", "/api/v2/mailboxes/inbound.*", 1)
+                .maxRequests(3)
+                .maxResponseBytes(1024 * 1024)
+                .create()
+                .check(standIn.getServer().getExchanges());
+    }
+}
@@ -1,9 +1,17 @@
 package com.desk.android.sdk.util;
 
+import android.app.Activity;
+import android.content.pm.ActivityInfo;
+import android.content.res.Configuration;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.espresso.ViewInteraction;
+import android.support.test.runner.lifecycle.ActivityLifecycleMonitorRegistry;
+import android.support.test.runner.lifecycle.Stage;
 import android.support.v7.widget.Toolbar;
+import android.view.View;
+import android.widget.AdapterView;
 
 import com.desk.android.sdk.Desk;
 import com.desk.android.sdk.activity.ContactUsActivity;
@@ -17,6 +25,8 @@ import static android.support.test.espresso.Espresso.onView;
 import static android.support.test.espresso.assertion.ViewAssertions.matches;
 import static android.support.test.espresso.matcher.ViewMatchers.isAssignableFrom;
 import static com.desk.android.sdk.util.TestUtils.readMockJsonFile;
+import java.util.Collection;
+
 import static org.hamcrest.core.Is.is;
 
 /**
@@ -53,4 +63,95 @@ public class InstrumentationTestUtils {
         return onView(isAssignableFrom(Toolbar.class))
                 .check(matches(ViewMatchers.withToolbarTitle(is(title))));
     }
+
+    /**
+     * Returns the activity currently in the foreground
+     */
+    public static Activity getResumedActivity() {
+        final Activity[] resumed = new Activity[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Collection<Activity> activities =
+                        ActivityLifecycleMonitorRegistry.getInstance().getActivitiesInStage(Stage.RESUMED);
+                resumed[0] = activities.isEmpty() ? null : activities.iterator().next();
+            }
+        });
+        return resumed[0];
+    }
+
+    /**
+     * Rotates the foreground activity between portrait and landscape and waits for it to be recreated
+     */
+    public static void rotateScreen() {
+        final Activity activity = getResumedActivity();
+        boolean portrait = activity.getResources().getConfiguration().orientation == Configuration.ORIENTATION_PORTRAIT;
+        activity.setRequestedOrientation(portrait
+                ? ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE
+                : ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
+        waitFor(new Condition() {
+            @Override
+            public boolean isMet(Activity resumed) {
+                return resumed != null && resumed != activity;
+            }
+        });
+    }
+
+    /**
+     * Waits until the adapter view with the given id in the foreground activity has items, for content
+     * loaded from the network which espresso doesn't know to wait for.
+     * @param adapterViewId the id of the adapter view
+     */
+    public static void waitForItems(final int adapterViewId) {
+        waitFor(new Condition() {
+            @Override
+            public boolean isMet(Activity resumed) {
+                View view = resumed != null ? resumed.findViewById(adapterViewId) : null;
+                return view instanceof AdapterView && ((AdapterView) view).getCount() > 0;
+            }
+        });
+    }
+
+    /**
+     * Waits until the view with the given id is shown in the foreground activity
+     * @param viewId the id of the view
+     */
+    public static void waitForView(final int viewId) {
+        waitFor(new Condition() {
+            @Override
+            public boolean isMet(Activity resumed) {
+                View view = resumed != null ? resumed.findViewById(viewId) : null;
+                return view != null && view.isShown();
+            }
+        });
+    }
+
+    public interface Condition {
+        boolean isMet(Activity resumed);
+    }
+
+    /**
+     * Polls the condition on the main thread until it's met
+     * @throws AssertionError if the condition isn't met within 10 seconds
+     */
+    public static void waitFor(final Condition condition) {
+        long deadline = SystemClock.uptimeMillis() + 10000;
+        final boolean[] met = new boolean[1];
+        while (SystemClock.uptimeMillis() < deadline) {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    Collection<Activity> activities =
+                            ActivityLifecycleMonitorRegistry.getInstance().getActivitiesInStage(Stage.RESUMED);
+                    met[0] = condition.isMet(activities.isEmpty() ? null : activities.iterator().next());
+                }
+            });
+            if (met[0]) {
+                return;
+            }
+            SystemClock.sleep(50);
+        }
+        throw new AssertionError("Timed out waiting for condition");
+    }
 }
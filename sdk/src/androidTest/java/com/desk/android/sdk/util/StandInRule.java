@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.util;
+
+import android.support.test.InstrumentationRegistry;
+
+import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.standin.StandInConfig;
+import com.desk.android.sdk.standin.StandInServer;
+
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+
+/**
+ * <p>
+ *     Rule which starts a {@link StandInServer} and routes every request made by the {@link Desk}
+ *     instance to it for the duration of the test.
+ * </p>
+ */
+public class StandInRule extends ExternalResource {
+
+    private final StandInServer server;
+    private Interceptor interceptor;
+
+    public StandInRule() {
+        this(new StandInConfig.Builder()
+                .dataset(1, 10, 20)
+                .create());
+    }
+
+    public StandInRule(StandInConfig config) {
+        super();
+        server = new StandInServer(config);
+    }
+
+    /**
+     * Gets the running stand-in server
+     * @return the server
+     */
+    public StandInServer getServer() {
+        return server;
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        server.start();
+        interceptor = server.interceptor();
+        Desk.with(InstrumentationRegistry.getContext()).addInterceptor(interceptor);
+    }
+
+    @Override
+    protected void after() {
+        Desk.with(InstrumentationRegistry.getContext()).removeInterceptor(interceptor);
+        try {
+            server.shutdown();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -26,6 +26,7 @@
 
 package com.desk.android.sdk.widget;
 
+import android.os.Parcelable;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.annotation.UiThreadTest;
 import android.support.test.rule.UiThreadTestRule;
@@ -319,6 +320,20 @@ public class ArticleListViewTest {
         assertTrue(savedState.haveError);
     }
 
+    @Test
+    @UiThreadTest
+    public void refreshAfterRestoreOnlyReplacesLastPage() throws Exception {
+        articleListView.onPageLoaded(mockArticles, 1, true);
+        articleListView.onPageLoaded(mockArticles.subList(0, 1), 2, true);
+        Parcelable state = articleListView.onSaveInstanceState();
+
+        ArticleListView restored = new ArticleListView(InstrumentationRegistry.getTargetContext());
+        restored.onRestoreInstanceState(state);
+        restored.onPageReceived(mockArticles.subList(0, 1), 2, true);
+        ListView list = (ListView) restored.findViewById(android.R.id.list);
+        assertEquals(mockArticles.size() + 1, list.getAdapter().getCount());
+    }
+
     private ListView getList() {
         return (ListView) articleListView.findViewById(android.R.id.list);
     }
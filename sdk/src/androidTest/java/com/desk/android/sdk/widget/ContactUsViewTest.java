@@ -62,6 +62,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -157,8 +159,40 @@ public class ContactUsViewTest {
         contactUsView.setFormListener(mockFormListener);
         getEmail(contactUsView).setText("valid@email.com");
         getSubject(contactUsView).setText("Valid subject");
+        getFeedback(contactUsView).setText("Valid feedback");
         getFeedback(contactUsView).setText(""); // empty feedback
-        verify(mockFormListener, atLeast(1)).onFormInvalid();
+        verify(mockFormListener, times(1)).onFormInvalid();
+    }
+
+    @Test
+    @UiThreadTest
+    public void formListenerOnlyCalledWhenValidityChanges() throws Exception {
+
+        // this sets up ContactUsView to have textChangedListeners on email and subject
+        Desk.with(context)
+                .setContactUsConfig(new BaseContactUsConfig(context) {
+                    @Override
+                    public String getSubject() {
+                        // don't want a subject so the text changed listener works
+                        return null;
+                    }
+
+                    @Override
+                    public boolean isSubjectEnabled() {
+                        return true;
+                    }
+                });
+
+        ContactUsView contactUsView = getNewContactUsView();
+        contactUsView.setFormListener(mockFormListener);
+        getEmail(contactUsView).setText("valid@email.com");
+        getSubject(contactUsView).setText("Valid subject");
+        TextView feedback = getFeedback(contactUsView);
+        for (int i = 0; i < 100; i++) {
+            feedback.append("a");
+        }
+        verify(mockFormListener, times(1)).onFormValid();
+        verify(mockFormListener, never()).onFormInvalid();
     }
 
     @Test
@@ -223,6 +223,25 @@ public class TopicListViewTest {
         assertThat(empty).hasText(topicListView.getErrorText());
     }
 
+    @Test
+    @UiThreadTest
+    public void onNetworkAvailableAfterErrorReloadsTopics() throws Exception {
+        ProgressBar progress = getProgress();
+        topicListView.onLoadError();
+        topicListView.onNetworkAvailable();
+        assertThat(progress).isVisible();
+        assertThat(getEmpty()).isGone();
+    }
+
+    @Test
+    @UiThreadTest
+    public void onNetworkAvailableWithoutErrorDoesNothing() throws Exception {
+        topicListView.onLoaded(mockTopics);
+        topicListView.onNetworkAvailable();
+        assertThat(getProgress()).isGone();
+        assertThat(getList()).isVisible();
+    }
+
     @Test
     @UiThreadTest
     public void onSaveInstanceStateSavesTopics() throws Exception {
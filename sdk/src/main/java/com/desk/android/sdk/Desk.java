@@ -26,27 +26,63 @@
 
 package com.desk.android.sdk;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
+import com.desk.android.sdk.cache.CacheBudget;
+import com.desk.android.sdk.cache.CachePartition;
+import com.desk.android.sdk.cache.PartitionStats;
+import com.desk.android.sdk.cache.PartitionedCache;
 import com.desk.android.sdk.config.ContactUsConfig;
 import com.desk.android.sdk.config.ContactUsPropertyConfig;
 import com.desk.android.sdk.config.DeskConfig;
 import com.desk.android.sdk.config.DeskPropertyConfig;
+import com.desk.android.sdk.config.PerformanceProfile;
 import com.desk.android.sdk.identity.Identity;
 import com.desk.android.sdk.identity.UserIdentity;
+import com.desk.android.sdk.metrics.DeskMetrics;
+import com.desk.android.sdk.metrics.DeskMetricsListener;
+import com.desk.android.sdk.metrics.MetricsInterceptor;
+import com.desk.android.sdk.network.NetworkMonitor;
+import com.desk.android.sdk.network.NetworkQualityEstimator;
+import com.desk.android.sdk.network.OfflineInterceptor;
+import com.desk.android.sdk.network.RateLimitInterceptor;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.android.sdk.network.ResilienceInterceptor;
+import com.desk.android.sdk.network.RetryPolicy;
 import com.desk.android.sdk.provider.ArticleProvider;
+import com.desk.android.sdk.provider.CacheStats;
 import com.desk.android.sdk.provider.CaseProvider;
+import com.desk.android.sdk.provider.ContentStore;
+import com.desk.android.sdk.provider.DraftStore;
 import com.desk.android.sdk.provider.InboundMailboxProvider;
 import com.desk.android.sdk.provider.TopicProvider;
+import com.desk.android.sdk.sync.SyncScheduler;
+import com.desk.android.sdk.util.DeskExecutors;
+import com.desk.android.sdk.util.DeskTrace;
+import com.desk.android.sdk.util.TraceInterceptor;
 import com.desk.java.apiclient.DeskClient;
 import com.desk.java.apiclient.DeskClientBuilder;
 
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import okhttp3.Cache;
+import okhttp3.Interceptor;
 
 /**
  * <p>Main class to interact with in the Desk SDK. This class allows you to provide various configurations
@@ -56,8 +92,8 @@ import okhttp3.Cache;
  * API token and Hostname to use either provide them in your desk.properties file or call
  * {@link #setConfig(DeskConfig)} passing a config object which provides them. To see which properties
  * to set refer to {@link DeskPropertyConfig}. The constructed {@link DeskClient} will have a response
- * cache of 20 Mb which will live in the external cache directory of the device if available, or else
- * it will live in the internal cache directory.</p>
+ * cache sized by {@link CacheBudget} which will live in the external cache directory of the device if
+ * available, or else it will live in the internal cache directory.</p>
  *
  * <p>To configure options for 'Contact Us', either provide your options in your desk.properties object
  * or call {@link #setContactUsConfig(ContactUsConfig)} passing a config object which provides them.
@@ -68,33 +104,61 @@ import okhttp3.Cache;
  * {@link UserIdentity#getEmail()} is provided the email address option will be hidden and the provided
  * email address will be used when creating a case. If {@link UserIdentity#getName()} is provided
  * the name option will be hidden and the name will be used when creating a case.</p>
+ *
+ * <p>To share your app's own thread pools with the SDK call {@link #setWorkExecutor(Executor)} and
+ * {@link #setCallbackExecutor(Executor)}.</p>
  */
 public final class Desk {
 
     private static final String USER_AGENT = "Desk Android SDK";
 
-    @VisibleForTesting
-    static final long CACHE_MAX_SIZE = 20 * 1024 * 1024; // 20 mb
-
     private static final boolean DEBUG = false;
     private static final String CONTACT_US_PATH = "/customer/portal/emails/new";
+    private static final String CONTENT_STORE_DIR = "desk_content";
+    private static final String DRAFT_STORE_DIR = "desk_drafts";
+
+    // every lazily created field is volatile and created with double-checked locking, so reads never lock
+    private static volatile Desk singleton;
+    private static final Map<String, Desk> namedInstances = new ConcurrentHashMap<>();
+    private static final AtomicBoolean trimCallbacksRegistered = new AtomicBoolean();
 
-    private static Desk singleton;
+    // shared by every instance
+    private static volatile Executor workExecutor;
+    private static volatile Executor callbackExecutor;
+    private static volatile Cache responseCache;
+    private static volatile PartitionedCache partitionedCache;
+    private static volatile List<CachePartition> cachePartitions = CachePartition.defaults();
+    private static volatile NetworkMonitor networkMonitor;
+    private static volatile NetworkQualityEstimator networkQualityEstimator;
+    private static volatile ResilienceInterceptor resilienceInterceptor;
+    private static volatile RateLimitInterceptor rateLimitInterceptor;
+    private static volatile RequestScheduler requestScheduler;
+    private static volatile RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
 
-    private Context context;
-    private DeskClient client;
+    private final Context context;
+    private final String name;
 
-    private CaseProvider caseProvider;
-    private ArticleProvider articleProvider;
-    private TopicProvider topicProvider;
-    private InboundMailboxProvider mInboundMailboxProvider;
+    private volatile DeskClient client;
+    private volatile Providers providers;
 
-    private Identity identity;
-    private DeskConfig config;
-    private ContactUsConfig contactUsConfig;
+    private volatile Identity identity;
+    private volatile DeskConfig config;
+    private volatile ContactUsConfig contactUsConfig;
 
-    private Desk(Context context) {
+    private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
+
+    private volatile ContentStore topicStore;
+    private volatile ContentStore articleStore;
+    private volatile DraftStore draftStore;
+    private volatile boolean searchHedging;
+    private final AtomicBoolean profileListenerRegistered = new AtomicBoolean();
+
+    private Desk(Context context, @Nullable String name) {
         this.context = context.getApplicationContext();
+        this.name = name;
+        if (trimCallbacksRegistered.compareAndSet(false, true)) {
+            this.context.registerComponentCallbacks(new TrimCallbacks());
+        }
     }
 
     /**
@@ -103,10 +167,60 @@ public final class Desk {
      * @return the singleton Desk instance
      */
     public static Desk with(Context context) {
-        if (singleton == null) {
-            singleton = new Desk(context);
+        Desk desk = singleton;
+        if (desk == null) {
+            synchronized (Desk.class) {
+                desk = singleton;
+                if (desk == null) {
+                    DeskTrace.begin("Desk.with");
+                    try {
+                        desk = new Desk(context, null);
+                        singleton = desk;
+                    } finally {
+                        DeskTrace.end();
+                    }
+                }
+            }
+        }
+        return desk;
+    }
+
+    /**
+     * Gets a named instance of Desk, creating one if necessary. Use a separate instance for each Desk site
+     * the app talks to and configure it with {@link #setConfig(DeskConfig)}. Brands of the same site don't
+     * need their own instance since providers take the brand id of each request. Each named instance has
+     * its own configs, identity, client, providers and in-memory caches, and shares the work and callback
+     * executors, the response cache, the request scheduler, the rate limiter and the resilience
+     * interceptor with every other instance. The SDK's activities and views use the default instance.
+     * @param context the application context
+     * @param name the name of the instance, e.g. the hostname of the site
+     * @return the named Desk instance
+     */
+    public static Desk with(Context context, @NonNull String name) {
+        //noinspection ConstantConditions
+        if (name == null) {
+            throw new NullPointerException("Name cannot be null.");
+        }
+        Desk desk = namedInstances.get(name);
+        if (desk == null) {
+            synchronized (namedInstances) {
+                desk = namedInstances.get(name);
+                if (desk == null) {
+                    desk = new Desk(context, name);
+                    namedInstances.put(name, desk);
+                }
+            }
         }
-        return singleton;
+        return desk;
+    }
+
+    /**
+     * Gets the name of this instance
+     * @return the name or null for the default instance
+     */
+    @Nullable
+    public String getName() {
+        return name;
     }
 
     /**
@@ -124,14 +238,33 @@ public final class Desk {
         return this;
     }
 
+    /**
+     * Gets the performance profile selected by the config or, if it doesn't select one, the profile for
+     * this device and its active connection, which is detected again whenever the device connects to a
+     * network.
+     * @return the profile
+     */
+    @NonNull
+    public PerformanceProfile getPerformanceProfile() {
+        PerformanceProfile profile = getConfig().getPerformanceProfile();
+        return profile != null ? profile : PerformanceProfile.detect(context);
+    }
+
     /**
      * Gets the desk config or creates a new {@link DeskPropertyConfig}.
      * @return the desk config
      */
     @NonNull
     public DeskConfig getConfig() {
+        DeskConfig config = this.config;
         if (config == null) {
-            config = new DeskPropertyConfig(context);
+            synchronized (this) {
+                config = this.config;
+                if (config == null) {
+                    config = new DeskPropertyConfig(context);
+                    this.config = config;
+                }
+            }
         }
         return config;
     }
@@ -175,18 +308,297 @@ public final class Desk {
      */
     @NonNull
     public ContactUsConfig getContactUsConfig() {
+        ContactUsConfig contactUsConfig = this.contactUsConfig;
         if (contactUsConfig == null) {
-            contactUsConfig = new ContactUsPropertyConfig(context);
+            synchronized (this) {
+                contactUsConfig = this.contactUsConfig;
+                if (contactUsConfig == null) {
+                    contactUsConfig = new ContactUsPropertyConfig(context);
+                    this.contactUsConfig = contactUsConfig;
+                }
+            }
         }
         return contactUsConfig;
     }
 
+    /**
+     * Set the executor used by the providers to process api responses (model mapping, filtering,
+     * index updates) off of the main thread. The executor is shared by every Desk instance and providers
+     * created after this call will use it.
+     * @param workExecutor the work executor
+     * @return the Desk instance
+     */
+    public Desk setWorkExecutor(@NonNull Executor workExecutor) {
+        //noinspection ConstantConditions
+        if (workExecutor == null) {
+            throw new NullPointerException("Work executor cannot be null.");
+        }
+        synchronized (Desk.class) {
+            Desk.workExecutor = workExecutor;
+        }
+        clearAllProviders();
+        return this;
+    }
+
+    /**
+     * Gets the work executor or creates one using {@link DeskExecutors#newWorkExecutor()}.
+     * @return the work executor
+     */
+    @NonNull
+    public Executor getWorkExecutor() {
+        Executor executor = workExecutor;
+        if (executor == null) {
+            synchronized (Desk.class) {
+                executor = workExecutor;
+                if (executor == null) {
+                    executor = DeskExecutors.newWorkExecutor();
+                    workExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Set the executor used by the providers to deliver results to their callbacks. The executor is shared
+     * by every Desk instance and providers created after this call will use it.
+     * @param callbackExecutor the callback executor
+     * @return the Desk instance
+     */
+    public Desk setCallbackExecutor(@NonNull Executor callbackExecutor) {
+        //noinspection ConstantConditions
+        if (callbackExecutor == null) {
+            throw new NullPointerException("Callback executor cannot be null.");
+        }
+        synchronized (Desk.class) {
+            Desk.callbackExecutor = callbackExecutor;
+        }
+        clearAllProviders();
+        return this;
+    }
+
+    /**
+     * Gets the callback executor, which delivers on the main thread by default.
+     * @return the callback executor
+     */
+    @NonNull
+    public Executor getCallbackExecutor() {
+        Executor executor = callbackExecutor;
+        if (executor == null) {
+            synchronized (Desk.class) {
+                executor = callbackExecutor;
+                if (executor == null) {
+                    executor = DeskExecutors.mainThread();
+                    callbackExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Set the listener which receives metrics for every request made by the SDK. Metrics are not
+     * collected while no listener is set.
+     * @param metricsListener the listener or null to stop collecting metrics
+     * @return the Desk instance
+     */
+    public Desk setMetricsListener(@Nullable DeskMetricsListener metricsListener) {
+        DeskMetrics.setListener(metricsListener);
+        return this;
+    }
+
+    /**
+     * Enables hedging of article searches to cut the time the slowest searches take, at the cost of a few
+     * extra requests. See {@link ArticleProvider#setSearchHedgingEnabled(boolean)}.
+     * @param enabled true to hedge searches
+     * @return the Desk instance
+     */
+    public Desk setSearchHedgingEnabled(boolean enabled) {
+        searchHedging = enabled;
+        Providers providers = this.providers;
+        if (providers != null) {
+            providers.articleProvider.setSearchHedgingEnabled(enabled);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an OkHttp application interceptor which sees every request made by the SDK, e.g. to route
+     * requests to a local stand-in server in tests. The client and providers are recreated to pick it up.
+     * @param interceptor the interceptor
+     * @return the Desk instance
+     */
+    public Desk addInterceptor(@NonNull Interceptor interceptor) {
+        //noinspection ConstantConditions
+        if (interceptor == null) {
+            throw new NullPointerException("Interceptor cannot be null.");
+        }
+        interceptors.add(interceptor);
+        clearClient();
+        clearProviders();
+        return this;
+    }
+
+    /**
+     * Removes an interceptor added with {@link #addInterceptor(Interceptor)}
+     * @param interceptor the interceptor
+     * @return the Desk instance
+     */
+    public Desk removeInterceptor(@NonNull Interceptor interceptor) {
+        if (interceptors.remove(interceptor)) {
+            clearClient();
+            clearProviders();
+        }
+        return this;
+    }
+
+    /**
+     * Set the partitions of the response cache, each of which gets a share of the cache for one class of
+     * content. Classes of content without a partition are only bounded by the size of the cache. The
+     * partitions are shared by every Desk instance.
+     * @param partitions the partitions, see {@link CachePartition#defaults()}
+     * @return the Desk instance
+     */
+    public Desk setCachePartitions(@NonNull List<CachePartition> partitions) {
+        //noinspection ConstantConditions
+        if (partitions == null) {
+            throw new NullPointerException("Cache partitions cannot be null.");
+        }
+        List<CachePartition> copy = Collections.unmodifiableList(new ArrayList<>(partitions));
+        synchronized (Desk.class) {
+            PartitionedCache cache = partitionedCache;
+            if (cache != null) {
+                cache.setPartitions(copy);
+            }
+            cachePartitions = copy;
+        }
+        return this;
+    }
+
+    /**
+     * Set the policy used to retry failed GET requests. Requests which fail with a network error, a
+     * timeout or a 5xx response are retried with exponential backoff and jitter, and an endpoint which keeps
+     * failing is given a break before it's tried again. Errors say how often a request was retried, see
+     * {@link com.desk.android.sdk.error.ErrorResponse#getType()}. The policy is shared by every Desk
+     * instance and applies to requests started after this call.
+     * @param policy the retry policy, {@link RetryPolicy#NONE} disables retries
+     * @return the Desk instance
+     */
+    public Desk setRetryPolicy(@NonNull RetryPolicy policy) {
+        //noinspection ConstantConditions
+        if (policy == null) {
+            throw new NullPointerException("Retry policy cannot be null.");
+        }
+        synchronized (Desk.class) {
+            ResilienceInterceptor interceptor = resilienceInterceptor;
+            if (interceptor != null) {
+                interceptor.setRetryPolicy(policy);
+            }
+            retryPolicy = policy;
+        }
+        return this;
+    }
+
+    /**
+     * Gets the size, budget, hit ratio and eviction count of each partition of the response cache
+     * @return the stats of each partition
+     */
+    @NonNull
+    public List<PartitionStats> getCachePartitionStats() {
+        return getPartitionedCache(context).getStats();
+    }
+
+    /**
+     * Enables the periodic background sync of topics and articles while the device is charging and on an
+     * unmetered network. Synced content is kept in a local store which the topic and article lists show
+     * while they load from the network.
+     * @param intervalMillis the interval between syncs
+     * @param brandIds the brands to sync, or none to sync topics and articles of all brands
+     * @return the Desk instance
+     */
+    public Desk enableBackgroundSync(long intervalMillis, int... brandIds) {
+        SyncScheduler.schedule(context, intervalMillis,
+                brandIds.length > 0 ? brandIds : new int[] {TopicProvider.ALL_BRANDS});
+        clearProviders();
+        return this;
+    }
+
+    /**
+     * Disables the background sync and deletes the synced content
+     * @return the Desk instance
+     */
+    public Desk disableBackgroundSync() {
+        SyncScheduler.cancel(context);
+        clearProviders();
+        final ContentStore topics = getTopicStore();
+        final ContentStore articles = getArticleStore();
+        getWorkExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                topics.clear();
+                articles.clear();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Releases in-memory caches for the trim level. This is called for every instance when the system
+     * trims memory, apps only need to call it to release memory for their own reasons.
+     * @param level the trim level, see {@link ComponentCallbacks2}
+     */
+    public void trimMemory(int level) {
+        Providers providers = this.providers;
+        if (providers == null) {
+            return;
+        }
+        DeskTrace.begin("Desk.trimMemory");
+        try {
+            providers.articleProvider.trimMemory(level);
+            providers.topicProvider.trimMemory(level);
+            providers.inboundMailboxProvider.trimMemory(level);
+        } finally {
+            DeskTrace.end();
+        }
+    }
+
+    /**
+     * Gets the sizes, hit and eviction counts of the in-memory caches of this instance's providers. The
+     * caches are released as memory runs low, search results first and topic, article and mailbox pages
+     * last.
+     * @return the stats of each cache, empty if no provider has been created yet
+     */
+    @NonNull
+    public List<CacheStats> getCacheStats() {
+        Providers providers = this.providers;
+        if (providers == null) {
+            return Collections.emptyList();
+        }
+        List<CacheStats> stats = new ArrayList<>(providers.articleProvider.getCacheStats());
+        stats.add(providers.topicProvider.getCacheStats());
+        stats.add(providers.inboundMailboxProvider.getCacheStats());
+        return stats;
+    }
+
+    private static void trimAllInstances(int level) {
+        Desk desk = singleton;
+        if (desk != null) {
+            desk.trimMemory(level);
+        }
+        for (Desk named : namedInstances.values()) {
+            named.trimMemory(level);
+        }
+    }
+
     /**
      * Releases the singleton instance for testing purposes
      */
     @VisibleForTesting
     static void release() {
-        singleton = null;
+        synchronized (Desk.class) {
+            singleton = null;
+        }
+        namedInstances.clear();
     }
 
     /**
@@ -195,20 +607,111 @@ public final class Desk {
      */
     @NonNull
     public DeskClient getClient() {
+        DeskClient client = this.client;
         if (client == null) {
-            client = DeskClient.create(new DeskClientBuilder(getConfig().getHostname(), getConfig().getApiToken())
-                    .userAgent(USER_AGENT)
-                    .responseCache(getResponseCache(context)));
+            synchronized (this) {
+                client = this.client;
+                if (client == null) {
+                    client = createClient();
+                    this.client = client;
+                }
+            }
         }
         return client;
     }
 
+    private DeskClient createClient() {
+        DeskTrace.begin("Desk.getClient");
+        try {
+            DeskConfig config = getConfig();
+            List<Interceptor> clientInterceptors = new ArrayList<>();
+            clientInterceptors.add(new TraceInterceptor());
+            clientInterceptors.add(getPartitionedCache(context));
+            clientInterceptors.add(new OfflineInterceptor(getNetworkMonitor()));
+            clientInterceptors.add(getResilienceInterceptor());
+            clientInterceptors.add(getRateLimitInterceptor());
+            clientInterceptors.add(new MetricsInterceptor());
+            clientInterceptors.add(getNetworkQualityEstimator());
+            clientInterceptors.add(getRequestScheduler().getTimeoutInterceptor());
+            clientInterceptors.addAll(interceptors);
+            return DeskClient.create(new DeskClientBuilder(config.getHostname(), config.getApiToken())
+                    .userAgent(USER_AGENT)
+                    .responseCache(getResponseCache(context))
+                    .applicationInterceptors(clientInterceptors));
+        } finally {
+            DeskTrace.end();
+        }
+    }
+
     public void clearClient() {
 
-        // clear client so it gets recreated
+        // clear client so it gets recreated, providers built on the old client are replaced on next access
         this.client = null;
     }
 
+    private void clearProviders() {
+        this.providers = null;
+    }
+
+    private static void clearAllProviders() {
+        Desk desk = singleton;
+        if (desk != null) {
+            desk.clearProviders();
+        }
+        for (Desk named : namedInstances.values()) {
+            named.clearProviders();
+        }
+    }
+
+    /**
+     * Gets the providers built on the current client, building them if they haven't been or the client has
+     * been replaced since. Readers which raced a config change may briefly see the previous bundle, but
+     * never a mix of providers from two clients.
+     */
+    private Providers getProviders() {
+        DeskClient client = getClient();
+        Providers providers = this.providers;
+        if (providers == null || providers.client != client) {
+            synchronized (this) {
+                providers = this.providers;
+                if (providers == null || providers.client != client) {
+                    providers = createProviders(client);
+                    this.providers = providers;
+                }
+            }
+        }
+        return providers;
+    }
+
+    private Providers createProviders(DeskClient client) {
+        DeskTrace.begin("Desk.createProviders");
+        try {
+            Executor workExecutor = getWorkExecutor();
+            Executor callbackExecutor = getCallbackExecutor();
+            RequestScheduler scheduler = getRequestScheduler();
+            ArticleProvider articleProvider = new ArticleProvider(client.articles(), workExecutor, callbackExecutor,
+                    scheduler);
+            TopicProvider topicProvider = new TopicProvider(client.topics(), workExecutor, callbackExecutor, scheduler);
+            articleProvider.setSearchHedgingEnabled(searchHedging);
+            articleProvider.setNetworkQualityEstimator(getNetworkQualityEstimator());
+            articleProvider.setPerformanceProfile(getPerformanceProfile());
+            if (profileListenerRegistered.compareAndSet(false, true)) {
+                getNetworkMonitor().addListener(new ProfileListener());
+            }
+            if (name == null && SyncScheduler.isScheduled(context)) {
+                articleProvider.setContentStore(getArticleStore());
+                topicProvider.setContentStore(getTopicStore());
+            }
+            return new Providers(client,
+                    new CaseProvider(client.cases(), callbackExecutor, scheduler),
+                    articleProvider,
+                    topicProvider,
+                    new InboundMailboxProvider(client.inboundMailboxes(), workExecutor, callbackExecutor, scheduler));
+        } finally {
+            DeskTrace.end();
+        }
+    }
+
     /**
      * Gets the language to be used when retrieving topics & articles from the api
      * @return the language
@@ -224,10 +727,7 @@ public final class Desk {
      */
     @NonNull
     public CaseProvider getCaseProvider() {
-        if (caseProvider == null) {
-            caseProvider = new CaseProvider(getClient().cases());
-        }
-        return caseProvider;
+        return getProviders().caseProvider;
     }
 
     /**
@@ -236,10 +736,7 @@ public final class Desk {
      */
     @NonNull
     public ArticleProvider getArticleProvider() {
-        if (articleProvider == null) {
-            articleProvider = new ArticleProvider(getClient().articles());
-        }
-        return articleProvider;
+        return getProviders().articleProvider;
     }
 
     /**
@@ -248,10 +745,7 @@ public final class Desk {
      */
     @NonNull
     public TopicProvider getTopicProvider() {
-        if (topicProvider == null) {
-            topicProvider = new TopicProvider(getClient().topics());
-        }
-        return topicProvider;
+        return getProviders().topicProvider;
     }
 
     /**
@@ -260,20 +754,84 @@ public final class Desk {
      */
     @NonNull
     public InboundMailboxProvider getInboundMailboxProvider() {
-        if (mInboundMailboxProvider == null) {
-            mInboundMailboxProvider = new InboundMailboxProvider(getClient().inboundMailboxes());
+        return getProviders().inboundMailboxProvider;
+    }
+
+    /**
+     * Gets the {@link DraftStore} which keeps unsent contact us forms, creating one if necessary.
+     * @return the draft store
+     */
+    @NonNull
+    public DraftStore getDraftStore() {
+        DraftStore draftStore = this.draftStore;
+        if (draftStore == null) {
+            synchronized (this) {
+                draftStore = this.draftStore;
+                if (draftStore == null) {
+                    draftStore = new DraftStore(getDirectory(DRAFT_STORE_DIR), getWorkExecutor(), getCallbackExecutor());
+                    this.draftStore = draftStore;
+                }
+            }
         }
-        return mInboundMailboxProvider;
+        return draftStore;
     }
 
     @VisibleForTesting
-    public void setTopicProvider(@NonNull TopicProvider topicProvider) {
-        this.topicProvider = topicProvider;
+    public synchronized void setTopicProvider(@NonNull TopicProvider topicProvider) {
+        Providers providers = getProviders();
+        this.providers = new Providers(providers.client, providers.caseProvider, providers.articleProvider,
+                topicProvider, providers.inboundMailboxProvider);
     }
 
     @VisibleForTesting
-    public void setArticleProvider(@NonNull ArticleProvider articleProvider) {
-        this.articleProvider = articleProvider;
+    public synchronized void setArticleProvider(@NonNull ArticleProvider articleProvider) {
+        Providers providers = getProviders();
+        this.providers = new Providers(providers.client, providers.caseProvider, articleProvider,
+                providers.topicProvider, providers.inboundMailboxProvider);
+    }
+
+    /**
+     * Gets the {@link NetworkMonitor} shared by every instance, creating one if necessary. While it reports
+     * the device offline requests are answered from the response cache or fail right away, and the SDK's
+     * list views refresh once the network is back.
+     * @return the network monitor
+     */
+    @NonNull
+    public NetworkMonitor getNetworkMonitor() {
+        NetworkMonitor monitor = networkMonitor;
+        if (monitor == null) {
+            synchronized (Desk.class) {
+                monitor = networkMonitor;
+                if (monitor == null) {
+                    monitor = new NetworkMonitor(context);
+                    networkMonitor = monitor;
+                }
+            }
+        }
+        return monitor;
+    }
+
+    /**
+     * Gets the {@link NetworkQualityEstimator} shared by every instance, creating one if necessary.
+     * Requests the user is waiting on time out sooner on a fast link, and article lists and searches load
+     * larger pages on a good link and smaller ones on a poor link.
+     * @return the network quality estimator
+     */
+    @NonNull
+    public NetworkQualityEstimator getNetworkQualityEstimator() {
+        NetworkQualityEstimator estimator = networkQualityEstimator;
+        if (estimator == null) {
+            synchronized (Desk.class) {
+                estimator = networkQualityEstimator;
+                if (estimator == null) {
+                    estimator = new NetworkQualityEstimator();
+                    getNetworkMonitor().addListener(estimator);
+                    getRequestScheduler().setNetworkQualityEstimator(estimator);
+                    networkQualityEstimator = estimator;
+                }
+            }
+        }
+        return estimator;
     }
 
     /**
@@ -285,13 +843,203 @@ public final class Desk {
         return getClient().getUrl(CONTACT_US_PATH);
     }
 
+    private ContentStore getTopicStore() {
+        ContentStore store = topicStore;
+        if (store == null) {
+            synchronized (this) {
+                store = topicStore;
+                if (store == null) {
+                    store = new ContentStore(new File(getDirectory(CONTENT_STORE_DIR), "topics"));
+                    topicStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    private ContentStore getArticleStore() {
+        ContentStore store = articleStore;
+        if (store == null) {
+            synchronized (this) {
+                store = articleStore;
+                if (store == null) {
+                    store = new ContentStore(new File(getDirectory(CONTENT_STORE_DIR), "articles"));
+                    articleStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Gets the directory for this instance's files, named instances get their own
+     */
+    private File getDirectory(String base) {
+        if (name == null) {
+            return new File(context.getFilesDir(), base);
+        }
+        try {
+            return new File(context.getFilesDir(), base + "_" + URLEncoder.encode(name, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the response cache shared by the clients of every instance. OkHttp requires a single cache per
+     * directory, and sharing it keeps the total size within the budget computed by {@link CacheBudget}.
+     * The budget is fixed when the cache is created, from the profile of the instance which creates it.
+     */
     @VisibleForTesting
     Cache getResponseCache(Context context) {
-        return new Cache(
-                context.getExternalCacheDir() != null
-                        ? context.getExternalCacheDir()
-                        : context.getCacheDir(),
-                CACHE_MAX_SIZE
-        );
+        Cache cache = responseCache;
+        if (cache == null) {
+
+            // resolved before taking the class lock since getConfig() locks this instance, which
+            // createClient() holds while it takes the class lock
+            PerformanceProfile profile = getPerformanceProfile();
+            synchronized (Desk.class) {
+                cache = responseCache;
+                if (cache == null) {
+                    File directory = context.getExternalCacheDir() != null
+                            ? context.getExternalCacheDir()
+                            : context.getCacheDir();
+                    cache = new Cache(directory, CacheBudget.forProfile(profile, directory));
+                    responseCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the interceptor which partitions the shared response cache and removes evicted responses on
+     * the work executor
+     */
+    private PartitionedCache getPartitionedCache(Context context) {
+        PartitionedCache cache = partitionedCache;
+        if (cache == null) {
+            Cache responseCache = getResponseCache(context);
+            Executor executor = getWorkExecutor();
+            synchronized (Desk.class) {
+                cache = partitionedCache;
+                if (cache == null) {
+                    cache = new PartitionedCache(responseCache, cachePartitions, executor);
+                    partitionedCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the interceptor which retries failed requests, shared so that every client sees the same
+     * circuit breakers
+     */
+    private static ResilienceInterceptor getResilienceInterceptor() {
+        ResilienceInterceptor interceptor = resilienceInterceptor;
+        if (interceptor == null) {
+            synchronized (Desk.class) {
+                interceptor = resilienceInterceptor;
+                if (interceptor == null) {
+                    interceptor = new ResilienceInterceptor(retryPolicy);
+                    resilienceInterceptor = interceptor;
+                }
+            }
+        }
+        return interceptor;
+    }
+
+    /**
+     * Gets the scheduler of the providers' requests, shared so that every instance competes for the same
+     * slots
+     */
+    private static RequestScheduler getRequestScheduler() {
+        RequestScheduler scheduler = requestScheduler;
+        if (scheduler == null) {
+            synchronized (Desk.class) {
+                scheduler = requestScheduler;
+                if (scheduler == null) {
+                    scheduler = new RequestScheduler();
+                    requestScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Gets the interceptor which keeps requests within the rate limit, shared so that every client draws
+     * from the same limit
+     */
+    private static RateLimitInterceptor getRateLimitInterceptor() {
+        RateLimitInterceptor interceptor = rateLimitInterceptor;
+        if (interceptor == null) {
+            synchronized (Desk.class) {
+                interceptor = rateLimitInterceptor;
+                if (interceptor == null) {
+                    interceptor = new RateLimitInterceptor();
+                    rateLimitInterceptor = interceptor;
+                }
+            }
+        }
+        return interceptor;
+    }
+
+    /**
+     * Applies the profile for the new connection to the providers, since a metered connection may have
+     * replaced an unmetered one while the device was offline
+     */
+    private final class ProfileListener implements NetworkMonitor.Listener {
+
+        @Override
+        public void onNetworkAvailable() {
+            Providers providers = Desk.this.providers;
+            if (providers != null) {
+                providers.articleProvider.setPerformanceProfile(getPerformanceProfile());
+            }
+        }
+    }
+
+    /**
+     * Trims the caches of every instance, registered once on the application context
+     */
+    private static final class TrimCallbacks implements ComponentCallbacks2 {
+
+        @Override
+        public void onTrimMemory(int level) {
+            trimAllInstances(level);
+        }
+
+        @Override
+        public void onLowMemory() {
+            trimAllInstances(TRIM_MEMORY_COMPLETE);
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+    }
+
+    /**
+     * Immutable bundle of the providers built on one client, swapped as a whole when the client or the
+     * executors change
+     */
+    private static final class Providers {
+
+        final DeskClient client;
+        final CaseProvider caseProvider;
+        final ArticleProvider articleProvider;
+        final TopicProvider topicProvider;
+        final InboundMailboxProvider inboundMailboxProvider;
+
+        Providers(DeskClient client, CaseProvider caseProvider, ArticleProvider articleProvider,
+                  TopicProvider topicProvider, InboundMailboxProvider inboundMailboxProvider) {
+            this.client = client;
+            this.caseProvider = caseProvider;
+            this.articleProvider = articleProvider;
+            this.topicProvider = topicProvider;
+            this.inboundMailboxProvider = inboundMailboxProvider;
+        }
     }
 }
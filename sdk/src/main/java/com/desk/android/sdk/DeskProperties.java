@@ -29,6 +29,8 @@ package com.desk.android.sdk;
 import android.content.Context;
 import android.content.res.AssetManager;
 
+import com.desk.android.sdk.util.DeskTrace;
+
 import java.io.IOException;
 import java.util.Properties;
 
@@ -42,13 +44,25 @@ public class DeskProperties extends Properties {
 
     private static final String PROPERTIES_FILE = "desk.properties";
 
-    private static DeskProperties singleton;
+    private static volatile DeskProperties singleton;
 
     public static DeskProperties with(Context context) {
-        if (singleton == null) {
-            singleton = new DeskProperties(context);
+        DeskProperties properties = singleton;
+        if (properties == null) {
+            synchronized (DeskProperties.class) {
+                properties = singleton;
+                if (properties == null) {
+                    DeskTrace.begin("DeskProperties.load");
+                    try {
+                        properties = new DeskProperties(context);
+                        singleton = properties;
+                    } finally {
+                        DeskTrace.end();
+                    }
+                }
+            }
         }
-        return singleton;
+        return properties;
     }
 
     private DeskProperties() {}
@@ -51,6 +51,7 @@ import com.desk.android.sdk.helper.DeskThemeHelper;
 import com.desk.android.sdk.helper.MenuHelper;
 import com.desk.android.sdk.model.CreateCaseRequest;
 import com.desk.android.sdk.widget.ContactUsView;
+import com.desk.java.apiclient.model.Article;
 import com.desk.java.apiclient.model.Case;
 import com.desk.java.apiclient.util.StringUtils;
 
@@ -62,7 +63,7 @@ import static com.desk.android.sdk.model.Constants.EXTRA_DESK_CASE;
  * Displays a {@link ContactUsView} to allow a user to submit feedback which in return creates a Case.
  */
 public class ContactUsActivity extends AppCompatActivity implements ContactUsView.FormListener,
-        CreateCaseHelper.CreateCaseListener, BrandProvider {
+        ContactUsView.SuggestionListener, CreateCaseHelper.CreateCaseListener, BrandProvider {
 
     private static final String EXTRA_TO_EMAIL_ADDRESS = "com.desk.android.sdk.EXTRA_TO_EMAIL_ADDRESS";
     private static final String STATE_REQUEST = "request";
@@ -131,6 +132,7 @@ public class ContactUsActivity extends AppCompatActivity implements ContactUsVie
         mProgress = (ProgressBar) findViewById(android.R.id.progress);
         mContactUs = (ContactUsView) findViewById(R.id.contact_us_view);
         mContactUs.setFormListener(this);
+        mContactUs.setSuggestionListener(this);
         initializeVariables();
         mCreateCaseHelper = CreateCaseHelper.attach(this);
     }
@@ -156,6 +158,7 @@ public class ContactUsActivity extends AppCompatActivity implements ContactUsVie
     protected void onDestroy() {
         super.onDestroy();
         mContactUs.clearFormListener();
+        mContactUs.setSuggestionListener(null);
     }
 
     @Override
@@ -224,6 +227,11 @@ public class ContactUsActivity extends AppCompatActivity implements ContactUsVie
         invalidateOptionsMenu();
     }
 
+    @Override
+    public void onSuggestionSelected(Article article) {
+        ArticleActivity.start(this, article, mThemeHelper.getThemeResId());
+    }
+
     private void submitForm() {
         mCreateCaseRequest = mContactUs.getRequest(mToEmailAddress);
         mCreateCaseHelper.createCase(mCreateCaseRequest);
@@ -240,6 +248,7 @@ public class ContactUsActivity extends AppCompatActivity implements ContactUsVie
 
     @Override
     public void onCaseCreated(Case deskCase) {
+        mContactUs.clearDraft();
         Toast.makeText(this, mThemeHelper.getCreateCaseSuccessToast(), Toast.LENGTH_LONG).show();
 
         Intent intent = new Intent();
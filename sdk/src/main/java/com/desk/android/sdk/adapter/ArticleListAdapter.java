@@ -33,6 +33,7 @@ import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.TextView;
 
+import com.desk.android.sdk.util.DeskTrace;
 import com.desk.java.apiclient.model.Article;
 
 import java.util.List;
@@ -55,19 +56,24 @@ public class ArticleListAdapter extends ArrayAdapter<Article> {
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder holder;
-        if (convertView == null) {
-            convertView = mInflater.inflate(android.R.layout.simple_list_item_1, parent, false);
-            holder = new ViewHolder(convertView);
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
-        }
+        DeskTrace.begin("ArticleListAdapter.getView");
+        try {
+            ViewHolder holder;
+            if (convertView == null) {
+                convertView = mInflater.inflate(android.R.layout.simple_list_item_1, parent, false);
+                holder = new ViewHolder(convertView);
+                convertView.setTag(holder);
+            } else {
+                holder = (ViewHolder) convertView.getTag();
+            }
 
-        Article article = getItem(position);
-        holder.text.setText(article.getSubject());
+            Article article = getItem(position);
+            holder.text.setText(article.getSubject());
 
-        return convertView;
+            return convertView;
+        } finally {
+            DeskTrace.end();
+        }
     }
 
     static class ViewHolder {
@@ -33,6 +33,7 @@ import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.TextView;
 
+import com.desk.android.sdk.util.DeskTrace;
 import com.desk.java.apiclient.model.Topic;
 
 import java.util.List;
@@ -55,19 +56,24 @@ public class TopicListAdapter extends ArrayAdapter<Topic> {
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder holder;
-        if (convertView == null) {
-            convertView = mInflater.inflate(android.R.layout.simple_list_item_1, parent, false);
-            holder = new ViewHolder(convertView);
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
-        }
+        DeskTrace.begin("TopicListAdapter.getView");
+        try {
+            ViewHolder holder;
+            if (convertView == null) {
+                convertView = mInflater.inflate(android.R.layout.simple_list_item_1, parent, false);
+                holder = new ViewHolder(convertView);
+                convertView.setTag(holder);
+            } else {
+                holder = (ViewHolder) convertView.getTag();
+            }
 
-        Topic topic = getItem(position);
-        holder.text.setText(topic.getName());
+            Topic topic = getItem(position);
+            holder.text.setText(topic.getName());
 
-        return convertView;
+            return convertView;
+        } finally {
+            DeskTrace.end();
+        }
     }
 
     static class ViewHolder {
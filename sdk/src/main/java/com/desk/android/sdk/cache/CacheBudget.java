@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.app.ActivityManagerCompat;
+
+import com.desk.android.sdk.config.PerformanceProfile;
+
+import java.io.File;
+
+/**
+ * Computes the size of the response cache from the storage available to it and the class of the device
+ */
+public final class CacheBudget {
+
+    /**
+     * The smallest budget, used when storage is short
+     */
+    public static final long MIN_SIZE = 5 * 1024 * 1024; // 5 mb
+
+    /**
+     * The largest budget
+     */
+    public static final long MAX_SIZE = 50 * 1024 * 1024; // 50 mb
+
+    /**
+     * The largest budget on low ram devices
+     */
+    public static final long LOW_RAM_MAX_SIZE = 10 * 1024 * 1024; // 10 mb
+
+    /**
+     * The cache takes at most 1/50th (2%) of the usable space
+     */
+    private static final int STORAGE_DIVISOR = 50;
+
+    private CacheBudget() {
+    }
+
+    /**
+     * Gets the budget for a response cache in the directory on this device
+     * @param context the context
+     * @param directory the cache directory
+     * @return the budget in bytes
+     */
+    public static long forDevice(Context context, File directory) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRamDevice = activityManager != null && ActivityManagerCompat.isLowRamDevice(activityManager);
+        return compute(directory.getUsableSpace(), lowRamDevice);
+    }
+
+    /**
+     * Gets the budget for a response cache in the directory under a performance profile, which is
+     * capped at {@link #LOW_RAM_MAX_SIZE} when the profile is for a low ram device. Only the low ram half
+     * of the profile counts: a detected profile turns data saver on and off with the connection, while the
+     * budget of a cache is fixed for the life of the process, so a metered session doesn't shrink it.
+     * @param profile the profile
+     * @param directory the cache directory
+     * @return the budget in bytes
+     */
+    public static long forProfile(PerformanceProfile profile, File directory) {
+        return compute(directory.getUsableSpace(), profile.isLowRam());
+    }
+
+    /**
+     * Gets a budget of 2% of the usable space, at least {@link #MIN_SIZE} and at most {@link #MAX_SIZE}, or
+     * {@link #LOW_RAM_MAX_SIZE} on low ram devices which also tend to have little storage
+     */
+    @VisibleForTesting
+    static long compute(long usableBytes, boolean lowRamDevice) {
+        long max = lowRamDevice ? LOW_RAM_MAX_SIZE : MAX_SIZE;
+        return Math.max(MIN_SIZE, Math.min(max, usableBytes / STORAGE_DIVISOR));
+    }
+}
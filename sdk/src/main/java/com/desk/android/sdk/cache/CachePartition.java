@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>A share of the response cache set aside for one {@link ContentClass}, so that e.g. a burst of
+ * searches can't push topic lists out of the cache.</p>
+ *
+ * <p>Use {@link Builder} to create a partition and pass every partition to
+ * {@link com.desk.android.sdk.Desk#setCachePartitions(List)}. See {@link #defaults()} for the partitions
+ * used when none are set.</p>
+ */
+public final class CachePartition {
+
+    private final ContentClass contentClass;
+    private final float share;
+    private final EvictionPolicy policy;
+
+    private CachePartition(Builder builder) {
+        this.contentClass = builder.contentClass;
+        this.share = builder.share;
+        this.policy = builder.policy;
+    }
+
+    /**
+     * Gets the default partitions. Articles get most of the cache, topics and mailboxes are small and kept
+     * as long as they are used, and search results are evicted oldest first.
+     * @return the default partitions
+     */
+    @NonNull
+    public static List<CachePartition> defaults() {
+        List<CachePartition> partitions = new ArrayList<>();
+        partitions.add(new Builder(ContentClass.TOPICS).share(0.1f).create());
+        partitions.add(new Builder(ContentClass.ARTICLES).share(0.6f).create());
+        partitions.add(new Builder(ContentClass.SEARCH).share(0.15f).policy(EvictionPolicy.OLDEST_FIRST).create());
+        partitions.add(new Builder(ContentClass.OTHER).share(0.15f).create());
+        return partitions;
+    }
+
+    @NonNull
+    public ContentClass getContentClass() {
+        return contentClass;
+    }
+
+    /**
+     * Gets the fraction of the response cache budget this partition may use
+     */
+    public float getShare() {
+        return share;
+    }
+
+    @NonNull
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public static class Builder {
+
+        private final ContentClass contentClass;
+        private float share;
+        private EvictionPolicy policy = EvictionPolicy.LEAST_RECENTLY_USED;
+
+        /**
+         * Creates a builder for the partition of a content class
+         * @param contentClass the content class
+         */
+        public Builder(@NonNull ContentClass contentClass) {
+            //noinspection ConstantConditions
+            if (contentClass == null) {
+                throw new NullPointerException("Content class cannot be null.");
+            }
+            this.contentClass = contentClass;
+        }
+
+        /**
+         * Set the fraction of the response cache budget the partition may use
+         * @param share the share, greater than 0 and at most 1
+         * @return the builder instance
+         */
+        public Builder share(float share) {
+            this.share = share;
+            return this;
+        }
+
+        /**
+         * Set the order in which responses are evicted once the partition is over budget, responses are
+         * evicted least recently used first by default
+         * @param policy the eviction policy
+         * @return the builder instance
+         */
+        public Builder policy(@NonNull EvictionPolicy policy) {
+            //noinspection ConstantConditions
+            if (policy == null) {
+                throw new NullPointerException("Eviction policy cannot be null.");
+            }
+            this.policy = policy;
+            return this;
+        }
+
+        public CachePartition create() {
+            if (share <= 0f || share > 1f) {
+                throw new IllegalArgumentException("Share must be greater than 0 and at most 1.");
+            }
+            return new CachePartition(this);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Classes of content the SDK caches, each of which can be given its own share of the response cache
+ */
+public enum ContentClass {
+
+    /**
+     * Topic lists
+     */
+    TOPICS,
+
+    /**
+     * Article lists, including the articles of a topic
+     */
+    ARTICLES,
+
+    /**
+     * Article search results
+     */
+    SEARCH,
+
+    /**
+     * Everything else, e.g. inbound mailboxes
+     */
+    OTHER;
+
+    /**
+     * Gets the class of the content at an api path
+     * @param path the path of the request, e.g. /api/v2/topics/1/articles
+     * @return the content class
+     */
+    @NonNull
+    public static ContentClass of(@NonNull String path) {
+        if (path.contains("/articles/search")) {
+            return SEARCH;
+        }
+        if (path.endsWith("/articles") || path.contains("/articles/")) {
+            return ARTICLES;
+        }
+        if (path.endsWith("/topics") || path.contains("/topics/")) {
+            return TOPICS;
+        }
+        return OTHER;
+    }
+}
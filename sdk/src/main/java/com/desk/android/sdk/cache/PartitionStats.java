@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Snapshot of the usage of a {@link CachePartition}
+ */
+public final class PartitionStats {
+
+    private final ContentClass contentClass;
+    private final long budget;
+    private final long size;
+    private final int entryCount;
+    private final int hitCount;
+    private final int missCount;
+    private final int evictionCount;
+
+    PartitionStats(ContentClass contentClass, long budget, long size, int entryCount, int hitCount,
+                   int missCount, int evictionCount) {
+        this.contentClass = contentClass;
+        this.budget = budget;
+        this.size = size;
+        this.entryCount = entryCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    @NonNull
+    public ContentClass getContentClass() {
+        return contentClass;
+    }
+
+    /**
+     * Gets the number of bytes the partition may use
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the number of bytes of the responses tracked by the partition
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Gets the number of responses served from the cache, including those revalidated with the server
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    public int getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the fraction of requests served from the cache
+     * @return the hit ratio or 0 if there have been no requests
+     */
+    public float getHitRatio() {
+        int requests = hitCount + missCount;
+        return requests == 0 ? 0f : (float) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return contentClass + "{budget=" + budget + ", size=" + size + ", entries=" + entryCount + ", hits="
+                + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + '}';
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import com.desk.android.sdk.util.DeskExecutors;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * <p>Application interceptor which splits a response {@link Cache} into {@link CachePartition}s. OkHttp
+ * keeps a single LRU for every response, so the interceptor tracks the responses of each content class
+ * and removes them from the cache once their partition is over budget, in the order of the partition's
+ * {@link EvictionPolicy}. The size of the cache as a whole still bounds every response, including those
+ * stored before the process started which the partitions learn about as they are read again.</p>
+ *
+ * <p>Only GET requests are tracked. Sizes are the decoded bytes of each response body, which is at least
+ * the size of the cached body.</p>
+ *
+ * <p>Removing a response means walking the cache's entries, so evictions are queued and removed in
+ * batches on an executor rather than on the thread reading the response body.</p>
+ */
+public final class PartitionedCache implements Interceptor {
+
+    private final Cache cache;
+    private final long budget;
+    private final Executor executor;
+    private final Set<String> pending = new LinkedHashSet<>();
+    private boolean draining;
+    private Map<ContentClass, Partition> partitions;
+
+    /**
+     * Creates an interceptor which partitions the cache and removes evicted responses on a
+     * {@link DeskExecutors#newWorkExecutor() work executor} of its own
+     * @param cache the response cache of the client the interceptor is added to
+     * @param partitions the partitions, see {@link CachePartition#defaults()}
+     */
+    public PartitionedCache(@NonNull Cache cache, @NonNull List<CachePartition> partitions) {
+        this(cache, partitions, DeskExecutors.newWorkExecutor());
+    }
+
+    /**
+     * Creates an interceptor which partitions the cache
+     * @param cache the response cache of the client the interceptor is added to
+     * @param partitions the partitions, see {@link CachePartition#defaults()}
+     * @param executor the executor on which evicted responses are removed from the cache
+     */
+    public PartitionedCache(@NonNull Cache cache, @NonNull List<CachePartition> partitions,
+                            @NonNull Executor executor) {
+        this.cache = cache;
+        this.budget = cache.maxSize();
+        this.executor = executor;
+        this.partitions = createPartitions(partitions, budget);
+    }
+
+    /**
+     * Replaces the partitions. Responses already in the cache are tracked again as they are read.
+     * @param partitions the partitions
+     */
+    public void setPartitions(@NonNull List<CachePartition> partitions) {
+        Map<ContentClass, Partition> created = createPartitions(partitions, budget);
+        synchronized (this) {
+            this.partitions = created;
+        }
+    }
+
+    private static Map<ContentClass, Partition> createPartitions(List<CachePartition> partitions, long budget) {
+        Map<ContentClass, Partition> created = new EnumMap<>(ContentClass.class);
+        float shares = 0f;
+        for (CachePartition partition : partitions) {
+            if (created.containsKey(partition.getContentClass())) {
+                throw new IllegalArgumentException("Only one partition per content class is allowed: "
+                        + partition.getContentClass());
+            }
+            shares += partition.getShare();
+            created.put(partition.getContentClass(), new Partition(partition, budget));
+        }
+        if (shares > 1.001f) {
+            throw new IllegalArgumentException("The shares of all partitions cannot add up to more than 1.");
+        }
+        return created;
+    }
+
+    /**
+     * Gets the usage of each partition
+     * @return the stats of each partition
+     */
+    @NonNull
+    public synchronized List<PartitionStats> getStats() {
+        List<PartitionStats> stats = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            stats.add(new PartitionStats(partition.config.getContentClass(), partition.budget, partition.size,
+                    partition.entries.size(), partition.hits, partition.misses, partition.evictions));
+        }
+        return stats;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+
+        // the response's request is the one sent, after any later interceptor rewrote it
+        final String url = response.request().url().toString();
+        final ContentClass contentClass = ContentClass.of(response.request().url().encodedPath());
+        Response networkResponse = response.networkResponse();
+        final boolean hit = response.cacheResponse() != null
+                && (networkResponse == null || networkResponse.code() == 304);
+        final boolean stored = !hit && networkResponse != null && response.code() == 200
+                && !request.cacheControl().noStore() && !response.cacheControl().noStore();
+        if (!recordRequest(contentClass, hit) || (!hit && !stored) || response.body() == null) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(new MeasuredBody(response.body()) {
+                    @Override
+                    void onMeasured(long bytes) {
+                        evict(record(contentClass, url, bytes, stored));
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Counts a request against its partition
+     * @return true if the content class has a partition
+     */
+    private synchronized boolean recordRequest(ContentClass contentClass, boolean hit) {
+        Partition partition = partitions.get(contentClass);
+        if (partition == null) {
+            return false;
+        }
+        if (hit) {
+            partition.hits++;
+        } else {
+            partition.misses++;
+        }
+        return true;
+    }
+
+    /**
+     * Tracks a response which was read from or stored in the cache and evicts responses from its
+     * partition until it is within budget
+     * @param stored true if the response was just stored, false if it was read from the cache
+     * @return the urls of the responses to remove from the cache
+     */
+    @VisibleForTesting
+    synchronized List<String> record(ContentClass contentClass, String url, long bytes, boolean stored) {
+        Partition partition = partitions.get(contentClass);
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+        Long previous = stored ? partition.entries.remove(url) : partition.entries.get(url);
+        if (previous == null || stored) {
+            if (previous != null) {
+                partition.size -= previous;
+            }
+            partition.entries.put(url, bytes);
+            partition.size += bytes;
+        }
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = partition.entries.entrySet().iterator();
+        while (partition.size > partition.budget && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            partition.size -= eldest.getValue();
+            partition.evictions++;
+            evicted.add(eldest.getKey());
+        }
+        return evicted;
+    }
+
+    /**
+     * Queues responses to be removed from the cache. Responses evicted while a removal is queued or
+     * running are removed along with it, so the cache is walked once per batch rather than once per
+     * response.
+     */
+    @VisibleForTesting
+    void evict(List<String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            pending.addAll(urls);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Removes the queued responses from the cache until none are left. Eviction is best effort, a
+     * response which can't be removed now is left to the cache's own LRU.
+     */
+    private void drain() {
+        while (true) {
+            Set<String> remaining;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                remaining = new HashSet<>(pending);
+                pending.clear();
+            }
+            try {
+                Iterator<String> cached = cache.urls();
+                while (cached.hasNext() && !remaining.isEmpty()) {
+                    if (remaining.remove(cached.next())) {
+                        cached.remove();
+                    }
+                }
+            } catch (IOException ignored) {
+            } catch (IllegalStateException ignored) {
+                // the cache was closed
+            }
+        }
+    }
+
+    /**
+     * Response body which measures the delegate body once it has been read to the end
+     */
+    private abstract static class MeasuredBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        MeasuredBody(ResponseBody delegate) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new MeasuredSource(delegate.source(), this));
+        }
+
+        abstract void onMeasured(long bytes);
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Source which counts the bytes read and reports them to its body when exhausted
+     */
+    private static class MeasuredSource extends ForwardingSource {
+
+        private final MeasuredBody body;
+        private long bytes;
+        private boolean measured;
+
+        MeasuredSource(Source delegate, MeasuredBody body) {
+            super(delegate);
+            this.body = body;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                if (!measured) {
+                    measured = true;
+                    body.onMeasured(bytes);
+                }
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * The responses tracked for a content class, in eviction order
+     */
+    private static final class Partition {
+
+        final CachePartition config;
+        final long budget;
+        final LinkedHashMap<String, Long> entries;
+        long size;
+        int hits;
+        int misses;
+        int evictions;
+
+        Partition(CachePartition config, long cacheBudget) {
+            this.config = config;
+            this.budget = (long) (cacheBudget * config.getShare());
+            this.entries = new LinkedHashMap<>(16, 0.75f,
+                    config.getPolicy() == EvictionPolicy.LEAST_RECENTLY_USED);
+        }
+    }
+}
@@ -42,4 +42,11 @@ public interface DeskConfig {
      * @return the hostname
      */
     String getHostname();
+
+    /**
+     * This is the profile which sets how much memory and data the SDK may use.
+     * @return the profile or null to pick one for the device and its connection, see
+     * {@link PerformanceProfile#detect(android.content.Context)}
+     */
+    PerformanceProfile getPerformanceProfile();
 }
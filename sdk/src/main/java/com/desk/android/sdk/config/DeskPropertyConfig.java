@@ -27,9 +27,11 @@
 package com.desk.android.sdk.config;
 
 import android.content.Context;
+import android.util.Log;
 
 import com.desk.android.sdk.DeskProperties;
 
+import java.util.Locale;
 import java.util.Properties;
 
 import static com.desk.android.sdk.helper.PropertyHelper.getString;
@@ -50,6 +52,15 @@ public class DeskPropertyConfig extends BaseDeskConfig implements PropertyConfig
      */
     public static final String KEY_HOSTNAME = "desk.hostname";
 
+    /**
+     * Property which maps to {@link DeskConfig#getPerformanceProfile()}, the name of a
+     * {@link PerformanceProfile} such as {@code low_ram}. Leave it out to detect the profile; an unknown name
+     * is logged and the profile detected.
+     */
+    public static final String KEY_PERFORMANCE_PROFILE = "desk.performance.profile";
+
+    private static final String TAG = "DeskPropertyConfig";
+
     private Properties properties;
 
     /**
@@ -83,4 +94,21 @@ public class DeskPropertyConfig extends BaseDeskConfig implements PropertyConfig
     public String getHostname() {
         return getString(KEY_HOSTNAME, properties);
     }
+
+    /**
+     * See {@link DeskConfig#getPerformanceProfile()}
+     */
+    @Override
+    public PerformanceProfile getPerformanceProfile() {
+        String profile = getString(KEY_PERFORMANCE_PROFILE, properties).trim();
+        if (profile.isEmpty()) {
+            return super.getPerformanceProfile();
+        }
+        try {
+            return PerformanceProfile.valueOf(profile.toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unknown " + KEY_PERFORMANCE_PROFILE + " '" + profile + "', detecting the profile instead");
+            return super.getPerformanceProfile();
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.config;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.support.annotation.NonNull;
+import android.support.v4.app.ActivityManagerCompat;
+import android.support.v4.net.ConnectivityManagerCompat;
+
+/**
+ * <p>How much of the device's memory and data the SDK may use. Select a profile with
+ * {@link DeskConfig#getPerformanceProfile()}, or leave it to {@link #detect(Context)} which picks one from
+ * the device and its connection.</p>
+ *
+ * <p>On {@link #LOW_RAM} devices the in-memory caches hold fewer pages, article lists load smaller pages
+ * and fewer rows ahead, and background sync doesn't run. With {@link #DATA_SAVER} article lists load
+ * small pages only once the user nears the end of the list, article pages don't download images and
+ * background sync doesn't run. {@link #LITE} combines both.</p>
+ */
+public enum PerformanceProfile {
+
+    STANDARD(false, false),
+    LOW_RAM(true, false),
+    DATA_SAVER(false, true),
+    LITE(true, true);
+
+    private final boolean lowRam;
+    private final boolean dataSaver;
+
+    PerformanceProfile(boolean lowRam, boolean dataSaver) {
+        this.lowRam = lowRam;
+        this.dataSaver = dataSaver;
+    }
+
+    /**
+     * Picks the profile for this device and its active connection: {@link #LOW_RAM} on devices which
+     * report {@link ActivityManager#isLowRamDevice()}, {@link #DATA_SAVER} on metered connections and
+     * {@link #LITE} for both. The connection is checked on each call.
+     * @param context the context
+     * @return the profile
+     */
+    @NonNull
+    public static PerformanceProfile detect(@NonNull Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        boolean lowRam = activityManager != null && ActivityManagerCompat.isLowRamDevice(activityManager);
+        boolean metered = connectivityManager != null
+                && ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager);
+        return of(lowRam, metered);
+    }
+
+    /**
+     * Gets the profile for a combination of constraints
+     * @param lowRam true if memory is scarce
+     * @param dataSaver true if data is scarce
+     * @return the profile
+     */
+    @NonNull
+    public static PerformanceProfile of(boolean lowRam, boolean dataSaver) {
+        if (lowRam) {
+            return dataSaver ? LITE : LOW_RAM;
+        }
+        return dataSaver ? DATA_SAVER : STANDARD;
+    }
+
+    public boolean isLowRam() {
+        return lowRam;
+    }
+
+    public boolean isDataSaver() {
+        return dataSaver;
+    }
+
+    /**
+     * Gets how many rows before the end of a list the next page is loaded
+     * @return the number of rows
+     */
+    public int getPrefetchRows() {
+        if (dataSaver) {
+            return 3;
+        }
+        return lowRam ? 5 : 10;
+    }
+
+    /**
+     * Gets the largest number of articles loaded per page, whatever the quality of the link
+     * @return the number of articles
+     */
+    public int getMaxPageSize() {
+        if (dataSaver) {
+            return 10;
+        }
+        return lowRam ? 25 : 50;
+    }
+
+    /**
+     * Gets the fraction of their full size the in-memory page caches may hold
+     * @return the fraction between 0 and 1
+     */
+    public float getMemoryCacheFraction() {
+        return lowRam ? 0.25f : 1f;
+    }
+
+    /**
+     * Returns whether article pages download their images
+     * @return true to load images
+     */
+    public boolean isArticleImagesEnabled() {
+        return !dataSaver;
+    }
+
+    /**
+     * Returns whether the background sync scheduled with
+     * {@link com.desk.android.sdk.Desk#enableBackgroundSync(long, int...)} runs
+     * @return true to sync
+     */
+    public boolean isBackgroundSyncEnabled() {
+        return !lowRam && !dataSaver;
+    }
+}
@@ -26,29 +26,155 @@
 
 package com.desk.android.sdk.error;
 
+import android.support.annotation.NonNull;
+
+import com.desk.android.sdk.network.CircuitOpenException;
+import com.desk.android.sdk.network.RateLimitedException;
+import com.desk.android.sdk.network.ResilienceInterceptor;
+import com.desk.android.sdk.network.RetriesExhaustedException;
+
 import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import retrofit2.Response;
 
 /**
  * Represents an error response from the desk api.
  */
 public class ErrorResponse {
 
+    /**
+     * The status of errors which happened without a response from the api
+     */
+    public static final int NO_STATUS = 0;
+
+    /**
+     * Classes of failure
+     */
+    public enum Type {
+
+        /**
+         * The request could not reach the api, e.g. the device is offline or the connection was reset
+         */
+        NETWORK,
+
+        /**
+         * The request timed out
+         */
+        TIMEOUT,
+
+        /**
+         * The api responded with 429 Too Many Requests, or the request was not sent because the rate limit
+         * would not reset in time, see {@link RateLimitedException}
+         */
+        RATE_LIMITED,
+
+        /**
+         * The api responded with a 5xx status
+         */
+        SERVER,
+
+        /**
+         * The api responded with a 4xx status other than 429
+         */
+        CLIENT,
+
+        /**
+         * The request was not sent because the endpoint has failed repeatedly, see {@link CircuitOpenException}
+         */
+        CIRCUIT_OPEN,
+
+        /**
+         * Any other failure
+         */
+        UNKNOWN
+    }
+
     private boolean isNetworkError;
     private String reason;
     private int status;
+    private Type type = Type.UNKNOWN;
+    private int retryCount;
 
     private ErrorResponse() {}
 
     public ErrorResponse(boolean isNetworkError, String reason, int status) {
+        this(isNetworkError, reason, status, 0);
+    }
+
+    /**
+     * Creates an error response
+     * @param isNetworkError whether the error was network related
+     * @param reason the human readable reason
+     * @param status the http status code or {@link #NO_STATUS}
+     * @param retryCount the number of times the request was retried before failing
+     */
+    public ErrorResponse(boolean isNetworkError, String reason, int status, int retryCount) {
         this.isNetworkError = isNetworkError;
         this.reason = reason;
         this.status = status;
+        this.retryCount = retryCount;
+        this.type = isNetworkError ? Type.NETWORK : typeOf(status);
     }
 
     public ErrorResponse(Throwable throwable) {
+        if (throwable instanceof RetriesExhaustedException) {
+            retryCount = ((RetriesExhaustedException) throwable).getRetryCount();
+            throwable = throwable.getCause();
+        }
         isNetworkError = throwable instanceof IOException;
-        reason = throwable.getMessage();
-        status = 500;
+        reason = throwable != null ? throwable.getMessage() : null;
+        status = NO_STATUS;
+        type = typeOf(throwable);
+    }
+
+    /**
+     * Creates an error response from an unsuccessful api response
+     * @param response the response
+     * @return the error response
+     */
+    @NonNull
+    public static ErrorResponse fromResponse(@NonNull Response<?> response) {
+        int retryCount = 0;
+        String retries = response.headers().get(ResilienceInterceptor.RETRY_COUNT_HEADER);
+        if (retries != null) {
+            try {
+                retryCount = Integer.parseInt(retries);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return new ErrorResponse(false, response.message(), response.code(), retryCount);
+    }
+
+    private static Type typeOf(int status) {
+        if (status == 429) {
+            return Type.RATE_LIMITED;
+        }
+        if (status >= 500) {
+            return Type.SERVER;
+        }
+        if (status >= 400) {
+            return Type.CLIENT;
+        }
+        return Type.UNKNOWN;
+    }
+
+    private static Type typeOf(Throwable throwable) {
+        if (throwable instanceof CircuitOpenException) {
+            return Type.CIRCUIT_OPEN;
+        }
+        if (throwable instanceof RateLimitedException) {
+            return Type.RATE_LIMITED;
+        }
+
+        // SocketTimeoutException is an InterruptedIOException, as are okio's timeouts
+        if (throwable instanceof InterruptedIOException) {
+            return Type.TIMEOUT;
+        }
+        if (throwable instanceof IOException) {
+            return Type.NETWORK;
+        }
+        return Type.UNKNOWN;
     }
 
     /**
@@ -69,10 +195,34 @@ public class ErrorResponse {
 
     /**
      * Returns the http status code
-     * @return the status code
+     * @return the status code or {@link #NO_STATUS} if the api didn't respond
      */
     public int getStatus() {
         return status;
     }
 
+    /**
+     * Returns the class of failure
+     * @return the type
+     */
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of times the request was retried before it failed
+     * @return the retry count
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Returns whether trying the request again later may succeed
+     * @return true for network errors, timeouts, rate limiting and server errors
+     */
+    public boolean isTransient() {
+        return type == Type.NETWORK || type == Type.TIMEOUT || type == Type.RATE_LIMITED || type == Type.SERVER;
+    }
 }
@@ -34,6 +34,7 @@ import android.support.annotation.StyleRes;
 import android.text.TextUtils;
 
 import com.desk.android.sdk.R;
+import com.desk.android.sdk.util.DeskTrace;
 
 /**
  * <p>Parses the {@link Activity}'s intent to see if a theme resource id is set with the key {@link #EXTRA_THEME_RES_ID}
@@ -94,6 +95,7 @@ public class DeskThemeHelper {
     }
 
     private void parseAttributes() {
+        DeskTrace.begin("DeskThemeHelper.parseAttributes");
         TypedArray ta = null;
         try {
             ta = mActivity.getTheme().obtainStyledAttributes(ATTRS);
@@ -125,6 +127,7 @@ public class DeskThemeHelper {
             if (ta != null) {
                 ta.recycle();
             }
+            DeskTrace.end();
         }
     }
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.desk.android.sdk.util.DeskTrace;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the registered {@link DeskMetricsListener} and records the metrics the SDK reports outside of
+ * the http client. When no listener is registered and tracing is disabled recording does not allocate.
+ */
+public final class DeskMetrics {
+
+    private static final String TAG = "DeskMetrics";
+
+    private static volatile DeskMetricsListener listener = DeskMetricsListener.NONE;
+
+    private DeskMetrics() {}
+
+    /**
+     * Set the listener to receive metrics
+     * @param metricsListener the listener or null to stop collecting metrics
+     */
+    public static void setListener(@Nullable DeskMetricsListener metricsListener) {
+        listener = metricsListener != null ? metricsListener : DeskMetricsListener.NONE;
+    }
+
+    /**
+     * Gets the registered listener
+     * @return the listener, or {@link DeskMetricsListener#NONE}
+     */
+    @NonNull
+    public static DeskMetricsListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Returns whether a listener is registered
+     * @return true if metrics are being collected
+     */
+    public static boolean isEnabled() {
+        return listener != DeskMetricsListener.NONE;
+    }
+
+    /**
+     * Executes a callback delivery, reporting how long it waited on the executor and tracing the
+     * delivery when {@link DeskTrace} is enabled
+     * @param executor the callback executor
+     * @param provider the name of the provider delivering the result
+     * @param delivery the delivery to execute
+     */
+    public static void deliver(@NonNull Executor executor, @NonNull final String provider,
+                               @NonNull final Runnable delivery) {
+        final DeskMetricsListener metricsListener = listener;
+        final boolean trace = DeskTrace.isEnabled();
+        if (metricsListener == DeskMetricsListener.NONE && !trace) {
+            executor.execute(delivery);
+            return;
+        }
+        final long queuedAt = System.nanoTime();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    metricsListener.onCallbackDelivered(provider,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Metrics listener failed", e);
+                }
+                if (trace) {
+                    DeskTrace.begin(provider + " callback");
+                }
+                try {
+                    delivery.run();
+                } finally {
+                    if (trace) {
+                        DeskTrace.end();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Reports a request to a listener. A listener which throws is logged and never changes the outcome
+     * of the request.
+     * @param metricsListener the listener
+     * @param metrics the metrics of the request
+     */
+    static void reportRequest(@NonNull DeskMetricsListener metricsListener, @NonNull RequestMetrics metrics) {
+        try {
+            metricsListener.onRequestCompleted(metrics);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Metrics listener failed", e);
+        }
+    }
+}
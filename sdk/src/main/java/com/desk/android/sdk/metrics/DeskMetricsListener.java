@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.metrics;
+
+import android.support.annotation.NonNull;
+
+/**
+ * <p>Receives performance metrics for the requests made by the SDK. Register a listener with
+ * {@link com.desk.android.sdk.Desk#setMetricsListener(DeskMetricsListener)} to feed them into your own
+ * telemetry.</p>
+ *
+ * <p>Listeners are called on the threads doing the work (OkHttp's threads for requests and the callback
+ * executor for deliveries) and must return quickly. No metrics are collected while no listener is
+ * registered.</p>
+ */
+public interface DeskMetricsListener {
+
+    /**
+     * A listener which ignores all metrics
+     */
+    DeskMetricsListener NONE = new DeskMetricsListener() {
+        @Override
+        public void onRequestCompleted(@NonNull RequestMetrics metrics) {
+        }
+
+        @Override
+        public void onCallbackDelivered(@NonNull String provider, long delayMillis) {
+        }
+    };
+
+    /**
+     * Called once the response body of a request has been consumed, or the request has failed. A request
+     * which is retried is reported once per attempt, and a request answered from the cache while offline
+     * is reported as a cache hit.
+     * @param metrics the metrics of the request
+     */
+    void onRequestCompleted(@NonNull RequestMetrics metrics);
+
+    /**
+     * Called when a provider delivers a result to its callback
+     * @param provider the name of the provider, e.g. {@code "articles"}
+     * @param delayMillis the time between the result being ready and the callback running
+     */
+    void onCallbackDelivered(@NonNull String provider, long delayMillis);
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.metrics;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * <p>Application interceptor which measures each request and reports it to the registered
+ * {@link DeskMetricsListener} once the response body has been consumed. Requests pass through untouched
+ * while no listener is registered, and a listener which throws doesn't fail the request.</p>
+ *
+ * <p>Add it after the interceptors which retry requests or wait, such as
+ * {@link com.desk.android.sdk.network.ResilienceInterceptor} and
+ * {@link com.desk.android.sdk.network.RateLimitInterceptor}, so that each attempt is measured on its own and
+ * their backoff and rate limit waits aren't reported as latency.</p>
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        DeskMetricsListener listener = DeskMetrics.getListener();
+        Request request = chain.request();
+        if (listener == DeskMetricsListener.NONE) {
+            return chain.proceed(request);
+        }
+        String endpoint = endpoint(request);
+        long requestBytes = request.body() != null ? Math.max(0, request.body().contentLength()) : 0;
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            DeskMetrics.reportRequest(listener, new RequestMetrics(endpoint, request.method(), 0,
+                    RequestMetrics.UNAVAILABLE, RequestMetrics.UNAVAILABLE, millisSince(start), requestBytes, 0,
+                    RequestMetrics.CacheResult.MISS, true));
+            throw e;
+        }
+        long headersAt = System.nanoTime();
+        Measurement measurement = new Measurement(listener, endpoint, request.method(), response.code(), start,
+                headersAt, requestBytes, cacheResult(response));
+        ResponseBody body = response.body();
+        if (body == null) {
+            measurement.report();
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingBody(body, measurement))
+                .build();
+    }
+
+    /**
+     * Gets the path of the request with numeric ids replaced by :id, e.g. /api/v2/topics/:id/articles
+     * @param request the request
+     * @return the endpoint
+     */
+    @NonNull
+    public static String endpoint(Request request) {
+        return ID_SEGMENT.matcher(request.url().encodedPath()).replaceAll("/:id");
+    }
+
+    @NonNull
+    static RequestMetrics.CacheResult cacheResult(Response response) {
+        if (response.cacheResponse() == null) {
+            return RequestMetrics.CacheResult.MISS;
+        }
+        return response.networkResponse() == null
+                ? RequestMetrics.CacheResult.HIT
+                : RequestMetrics.CacheResult.CONDITIONAL_HIT;
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Accumulates the metrics of a request until its body is consumed
+     */
+    private static class Measurement {
+
+        private final DeskMetricsListener listener;
+        private final String endpoint;
+        private final String method;
+        private final int status;
+        private final long start;
+        private final long headersAt;
+        private final long requestBytes;
+        private final RequestMetrics.CacheResult cacheResult;
+        private long responseBytes;
+        private boolean reported;
+
+        Measurement(DeskMetricsListener listener, String endpoint, String method, int status, long start,
+                    long headersAt, long requestBytes, RequestMetrics.CacheResult cacheResult) {
+            this.listener = listener;
+            this.endpoint = endpoint;
+            this.method = method;
+            this.status = status;
+            this.start = start;
+            this.headersAt = headersAt;
+            this.requestBytes = requestBytes;
+            this.cacheResult = cacheResult;
+        }
+
+        void report() {
+            if (reported) {
+                return;
+            }
+            reported = true;
+            long end = System.nanoTime();
+            DeskMetrics.reportRequest(listener, new RequestMetrics(endpoint, method, status,
+                    TimeUnit.NANOSECONDS.toMillis(headersAt - start),
+                    TimeUnit.NANOSECONDS.toMillis(end - headersAt),
+                    TimeUnit.NANOSECONDS.toMillis(end - start),
+                    requestBytes, responseBytes, cacheResult, false));
+        }
+    }
+
+    /**
+     * Response body which measures the reads of the delegate body
+     */
+    private static class CountingBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        CountingBody(ResponseBody delegate, Measurement measurement) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new CountingSource(delegate.source(), measurement));
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Source which counts the bytes read and reports the measurement when exhausted or closed
+     */
+    private static class CountingSource extends ForwardingSource {
+
+        private final Measurement measurement;
+
+        CountingSource(Source delegate, Measurement measurement) {
+            super(delegate);
+            this.measurement = measurement;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                measurement.report();
+            } else {
+                measurement.responseBytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            measurement.report();
+            super.close();
+        }
+    }
+}
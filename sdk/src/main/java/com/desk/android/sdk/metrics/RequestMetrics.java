@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.metrics;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Metrics of a single request made by the SDK. Times are in milliseconds; a time of {@link #UNAVAILABLE}
+ * means it could not be measured for the request.
+ */
+public class RequestMetrics {
+
+    /**
+     * Whether a response was served from the http response cache
+     */
+    public enum CacheResult {
+
+        /**
+         * Served from the cache without a network request
+         */
+        HIT,
+
+        /**
+         * Served from the cache after a conditional request confirmed it was not modified
+         */
+        CONDITIONAL_HIT,
+
+        /**
+         * Served from the network
+         */
+        MISS
+    }
+
+    public static final long UNAVAILABLE = -1;
+
+    private final String endpoint;
+    private final String method;
+    private final int status;
+    private final long ttfbMillis;
+    private final long bodyMillis;
+    private final long totalMillis;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final CacheResult cacheResult;
+    private final boolean failed;
+
+    RequestMetrics(String endpoint, String method, int status, long ttfbMillis, long bodyMillis, long totalMillis,
+                   long requestBytes, long responseBytes, CacheResult cacheResult, boolean failed) {
+        this.endpoint = endpoint;
+        this.method = method;
+        this.status = status;
+        this.ttfbMillis = ttfbMillis;
+        this.bodyMillis = bodyMillis;
+        this.totalMillis = totalMillis;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.cacheResult = cacheResult;
+        this.failed = failed;
+    }
+
+    /**
+     * Returns the path of the request with numeric ids replaced by {@code :id}, e.g.
+     * {@code /api/v2/topics/:id/articles}
+     * @return the endpoint
+     */
+    @NonNull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the http method
+     * @return the method
+     */
+    @NonNull
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the http status code, or 0 if the request failed without a response
+     * @return the status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the time spent resolving DNS. The http client used by the SDK does not report it.
+     * @return {@link #UNAVAILABLE}
+     */
+    public long getDnsMillis() {
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Returns the time spent connecting. The http client used by the SDK does not report it.
+     * @return {@link #UNAVAILABLE}
+     */
+    public long getConnectMillis() {
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Returns the time spent on the TLS handshake. The http client used by the SDK does not report it.
+     * @return {@link #UNAVAILABLE}
+     */
+    public long getTlsMillis() {
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Returns the time from starting the request until the response headers were received, including
+     * connection setup
+     * @return the time to first byte
+     */
+    public long getTtfbMillis() {
+        return ttfbMillis;
+    }
+
+    /**
+     * Returns the time spent reading the response body. The body is deserialized as it is read, so this
+     * is the deserialization time including the transfer of the body.
+     * @return the body time or {@link #UNAVAILABLE} if the request failed
+     */
+    public long getBodyMillis() {
+        return bodyMillis;
+    }
+
+    /**
+     * Returns the time from starting the request until the body was consumed or the request failed
+     * @return the total time
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Returns the size of the request body
+     * @return the request bytes
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * Returns the number of response body bytes read, whether from the network or the cache
+     * @return the response bytes
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Returns whether the response was served from the http response cache
+     * @return the cache result
+     */
+    @NonNull
+    public CacheResult getCacheResult() {
+        return cacheResult;
+    }
+
+    /**
+     * Returns whether the request failed without a response
+     * @return true if failed
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return method + ' ' + endpoint + ' ' + status + " ttfb=" + ttfbMillis + "ms body=" + bodyMillis
+                + "ms total=" + totalMillis + "ms req=" + requestBytes + "B res=" + responseBytes + "B cache="
+                + cacheResult;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.model;
+
+import android.support.annotation.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * The fields a user has typed into a contact us form but not yet submitted
+ */
+public class ContactUsDraft implements Serializable {
+
+    private final String name;
+    private final String email;
+    private final String subject;
+    private final String feedback;
+
+    public ContactUsDraft(@Nullable String name, @Nullable String email, @Nullable String subject,
+                          @Nullable String feedback) {
+        this.name = name;
+        this.email = email;
+        this.subject = subject;
+        this.feedback = feedback;
+    }
+
+    /**
+     * Get the name of the user
+     * @return the name
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the email address of the user
+     * @return the email address
+     */
+    @Nullable
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Get the subject
+     * @return the subject
+     */
+    @Nullable
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Get the feedback
+     * @return the feedback
+     */
+    @Nullable
+    public String getFeedback() {
+        return feedback;
+    }
+
+    /**
+     * Returns whether every field of the draft is empty
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return isEmpty(name) && isEmpty(email) && isEmpty(subject) && isEmpty(feedback);
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.length() == 0;
+    }
+}
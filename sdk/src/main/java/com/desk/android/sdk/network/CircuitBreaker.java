@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+/**
+ * <p>Circuit breaker for one endpoint. After {@code failureThreshold} consecutive failures the circuit
+ * opens and requests fail right away for {@code openMillis}. Then a single probe request is let
+ * through. Its success closes the circuit, and its failure opens it again.</p>
+ *
+ * <p>Times are passed in so the breaker doesn't depend on a clock.</p>
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Returns whether a request may be sent, letting one probe through once the circuit has been open
+     * long enough
+     */
+    synchronized boolean allowRequest(long nowMillis) {
+        switch (state) {
+            case OPEN:
+                if (nowMillis - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            case HALF_OPEN:
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probing = false;
+    }
+
+    synchronized void onFailure(long nowMillis) {
+        failures++;
+        probing = false;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nowMillis;
+        }
+    }
+
+    /**
+     * Releases the probe of a request which was cancelled before it could succeed or fail
+     */
+    synchronized void onCancelled() {
+        probing = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
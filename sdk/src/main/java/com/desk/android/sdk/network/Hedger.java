@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import com.desk.android.sdk.util.DeskExecutors;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * <p>Cuts the tail latency of a kind of request by hedging: when a call hasn't completed within the
+ * {@code percentile} of the recent latencies of its kind, a duplicate is sent, the first successful
+ * response is delivered and the other call is cancelled. The duplicate goes out on another connection
+ * since the first call's HTTP/1.1 connection is still busy, so a single slow path doesn't hold up both.</p>
+ *
+ * <p>Hedging only starts once {@link #MIN_SAMPLES} latencies have been observed, and a budget keeps the
+ * duplicates within {@code budget} of the calls made, e.g. 5% extra traffic with {@link #DEFAULT_BUDGET}.
+ * A failure is only delivered once both calls have failed. Each call adds one latency, from when it was
+ * enqueued until its race is over whichever way it ends, so the hedge delay follows what callers wait.</p>
+ */
+public class Hedger {
+
+    public static final float DEFAULT_PERCENTILE = 0.95f;
+    public static final float DEFAULT_BUDGET = 0.05f;
+
+    @VisibleForTesting
+    static final int MIN_SAMPLES = 10;
+
+    private static final int WINDOW_SIZE = 64;
+    private static final long MIN_DELAY_MILLIS = 50;
+
+    // hedges which may be saved up while latencies are low, so a burst of slow calls can be hedged
+    private static final double MAX_ALLOWANCE = 5;
+
+    private final RequestScheduler mScheduler;
+    private final ScheduledExecutorService mTimer;
+    private final float mPercentile;
+    private final float mBudget;
+    private final LatencyWindow mLatencies = new LatencyWindow(WINDOW_SIZE);
+    private double mAllowance;
+    private int mCalls;
+    private int mHedges;
+
+    public Hedger(@NonNull RequestScheduler scheduler) {
+        this(scheduler, DeskExecutors.timer(), DEFAULT_PERCENTILE, DEFAULT_BUDGET);
+    }
+
+    @VisibleForTesting
+    Hedger(@NonNull RequestScheduler scheduler, @NonNull ScheduledExecutorService timer, float percentile,
+           float budget) {
+        mScheduler = scheduler;
+        mTimer = timer;
+        mPercentile = percentile;
+        mBudget = budget;
+    }
+
+    /**
+     * Enqueues a call, hedging it if it is slow
+     * @param call the call
+     * @param callback the callback to notify once with the first successful response, or the failure
+     */
+    public <T> void enqueue(@NonNull Call<T> call, @NonNull Callback<T> callback) {
+        Race<T> race = new Race<>(call, callback, System.nanoTime());
+        long delay;
+        synchronized (this) {
+            mCalls++;
+            mAllowance = Math.min(MAX_ALLOWANCE, mAllowance + mBudget);
+            delay = mLatencies.size() >= MIN_SAMPLES
+                    ? Math.max(MIN_DELAY_MILLIS, mLatencies.percentile(mPercentile))
+                    : -1;
+        }
+        race.start(call);
+        if (delay >= 0) {
+            race.schedule(delay);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getCallCount() {
+        return mCalls;
+    }
+
+    @VisibleForTesting
+    synchronized int getHedgeCount() {
+        return mHedges;
+    }
+
+    @VisibleForTesting
+    void recordLatency(long millis) {
+        mLatencies.add(millis);
+    }
+
+    private synchronized boolean takeAllowance() {
+        if (mAllowance < 1) {
+            return false;
+        }
+        mAllowance--;
+        mHedges++;
+        return true;
+    }
+
+    /**
+     * A call and its duplicate, the first to succeed wins
+     */
+    private class Race<T> implements Runnable {
+
+        private final Call<T> original;
+        private final Callback<T> callback;
+        private final long start;
+        private Call<T> hedge;
+        private ScheduledFuture<?> timeout;
+        private int running;
+        private boolean done;
+        private Throwable failure;
+        private Response<T> failedResponse;
+
+        Race(Call<T> original, Callback<T> callback, long start) {
+            this.original = original;
+            this.callback = callback;
+            this.start = start;
+        }
+
+        void start(final Call<T> call) {
+            synchronized (this) {
+                running++;
+            }
+            mScheduler.enqueue(call, new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> c, Response<T> response) {
+                    if (response.isSuccessful()) {
+                        win(call, response);
+                    } else {
+                        lose(response, null);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> c, Throwable t) {
+                    lose(null, t);
+                }
+            });
+        }
+
+        synchronized void schedule(long delayMillis) {
+            if (!done) {
+                timeout = mTimer.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Sends the duplicate once the original has taken longer than the delay
+         */
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (done || hedge != null || running == 0 || !takeAllowance()) {
+                    return;
+                }
+                hedge = original.clone();
+            }
+            start(hedge);
+        }
+
+        private void win(Call<T> winner, Response<T> response) {
+            Call<T> loser;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                loser = winner == original ? hedge : original;
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+            recordRace();
+            if (loser != null) {
+                loser.cancel();
+            }
+            callback.onResponse(winner, response);
+        }
+
+        private void lose(Response<T> response, Throwable t) {
+            synchronized (this) {
+                running--;
+                if (done) {
+                    return;
+                }
+                if (failedResponse == null && failure == null) {
+                    failedResponse = response;
+                    failure = t;
+                }
+                if (running > 0) {
+                    // the other call may still succeed
+                    return;
+                }
+                done = true;
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+            recordRace();
+            if (failedResponse != null) {
+                callback.onResponse(original, failedResponse);
+            } else {
+                callback.onFailure(original, failure);
+            }
+        }
+
+        /**
+         * Records how long the race took from when the original was enqueued
+         */
+        private void recordRace() {
+            mLatencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
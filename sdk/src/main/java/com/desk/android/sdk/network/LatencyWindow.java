@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import java.util.Arrays;
+
+/**
+ * The most recent samples of a measurement, such as the latencies of a kind of request, from which
+ * percentiles are read
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    LatencyWindow(int size) {
+        samples = new long[size];
+    }
+
+    synchronized void add(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    synchronized void clear() {
+        count = 0;
+        next = 0;
+    }
+
+    /**
+     * Gets a percentile of the latencies in the window
+     * @param percentile the percentile between 0 and 1
+     * @return the latency in milliseconds or -1 if the window is empty
+     */
+    synchronized long percentile(float percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>Tracks whether the device has a connected network, so requests can skip the network while offline
+ * instead of waiting for a connect timeout, and views can refresh once the network returns.</p>
+ *
+ * <p>The monitor listens for connectivity broadcasts from its creation for the life of the process, which
+ * is why {@link com.desk.android.sdk.Desk#getNetworkMonitor()} shares one monitor between every
+ * instance.</p>
+ */
+public class NetworkMonitor {
+
+    /**
+     * Listener for the network becoming available
+     */
+    public interface Listener {
+
+        /**
+         * Called on the main thread when the device connects to a network after being offline
+         */
+        void onNetworkAvailable();
+    }
+
+    private final List<Listener> mListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean mConnected;
+
+    /**
+     * Creates a monitor which listens for connectivity changes
+     * @param context the context
+     */
+    public NetworkMonitor(@NonNull Context context) {
+        final ConnectivityManager cm =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        mConnected = isConnected(cm);
+        context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                setConnected(isConnected(cm));
+            }
+        }, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+    }
+
+    @VisibleForTesting
+    NetworkMonitor(boolean connected) {
+        mConnected = connected;
+    }
+
+    private static boolean isConnected(ConnectivityManager cm) {
+        if (cm == null) {
+            // without a connectivity manager assume we are online and let requests fail on their own
+            return true;
+        }
+        NetworkInfo network = cm.getActiveNetworkInfo();
+        return network != null && network.isConnected();
+    }
+
+    /**
+     * Returns whether the device has a connected network. A connected network may still be unable to
+     * reach the Desk api, so requests can fail while this is true.
+     * @return true if connected, false if the device is offline
+     */
+    public boolean isConnected() {
+        return mConnected;
+    }
+
+    /**
+     * Adds a listener which is notified when the network becomes available
+     * @param listener the listener
+     */
+    public void addListener(@NonNull Listener listener) {
+        mListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(Listener)}
+     * @param listener the listener
+     */
+    public void removeListener(@NonNull Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    @MainThread
+    @VisibleForTesting
+    void setConnected(boolean connected) {
+        boolean wasConnected = mConnected;
+        mConnected = connected;
+        if (connected && !wasConnected) {
+            for (Listener listener : mListeners) {
+                listener.onNetworkAvailable();
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * <p>Application interceptor which keeps a rolling estimate of the round trip time and bandwidth of the
+ * link from the SDK's own requests. The round trip time of a request is the time until its response
+ * headers arrive and the bandwidth is the rate at which its body is read, taken only from bodies large
+ * enough for the rate to say more about the link than about the round trip. Bodies are measured after
+ * OkHttp has decompressed them, so the bandwidth is that of the content rather than of the wire. Responses
+ * answered by the cache are ignored.</p>
+ *
+ * <p>The estimates are the medians of the most recent samples, which a single slow request doesn't move.
+ * They are discarded when the device connects to a network after being offline since the new network may
+ * be nothing like the old one.</p>
+ *
+ * <p>Add it after the interceptors which wait, such as {@link RateLimitInterceptor}, so that their waits
+ * aren't taken for a slow link.</p>
+ */
+public class NetworkQualityEstimator implements Interceptor, NetworkMonitor.Listener {
+
+    /**
+     * How fast the link is
+     */
+    public enum Quality {
+        /** not enough requests have been measured yet */
+        UNKNOWN,
+        POOR,
+        MODERATE,
+        GOOD
+    }
+
+    @VisibleForTesting
+    static final int WINDOW_SIZE = 20;
+
+    @VisibleForTesting
+    static final int MIN_SAMPLES = 3;
+
+    @VisibleForTesting
+    static final long MIN_TRANSFER_BYTES = 16 * 1024;
+
+    @VisibleForTesting
+    static final long GOOD_RTT_MILLIS = 300;
+
+    @VisibleForTesting
+    static final long POOR_RTT_MILLIS = 1000;
+
+    @VisibleForTesting
+    static final long GOOD_BYTES_PER_SECOND = 256 * 1024;
+
+    @VisibleForTesting
+    static final long POOR_BYTES_PER_SECOND = 32 * 1024;
+
+    // a page of articles with their bodies
+    @VisibleForTesting
+    static final long EXPECTED_RESPONSE_BYTES = 64 * 1024;
+
+    @VisibleForTesting
+    static final long MIN_TIMEOUT_MILLIS = 8000;
+
+    @VisibleForTesting
+    static final long MAX_TIMEOUT_MILLIS = 30000;
+
+    private static final int RTT_TIMEOUT_MULTIPLIER = 8;
+    private static final int TRANSFER_TIMEOUT_MULTIPLIER = 4;
+
+    private final LatencyWindow mRtt = new LatencyWindow(WINDOW_SIZE);
+    private final LatencyWindow mBandwidth = new LatencyWindow(WINDOW_SIZE);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long start = System.nanoTime();
+        Response response = chain.proceed(chain.request());
+        if (response.networkResponse() == null) {
+            return response;
+        }
+        recordRtt(millisSince(start));
+        ResponseBody body = response.body();
+        if (body == null || (body.contentLength() >= 0 && body.contentLength() < MIN_TRANSFER_BYTES)) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(new MeasuredBody(body))
+                .build();
+    }
+
+    @Override
+    public void onNetworkAvailable() {
+        mRtt.clear();
+        mBandwidth.clear();
+    }
+
+    /**
+     * Gets the quality of the link. It is {@link Quality#POOR} when either the round trip time or the
+     * bandwidth is poor and only {@link Quality#GOOD} when both are known to be good.
+     * @return the quality
+     */
+    @NonNull
+    public Quality getQuality() {
+        long rtt = getRttMillis();
+        if (rtt < 0) {
+            return Quality.UNKNOWN;
+        }
+        long bandwidth = getBytesPerSecond();
+        if (rtt >= POOR_RTT_MILLIS || (bandwidth >= 0 && bandwidth < POOR_BYTES_PER_SECOND)) {
+            return Quality.POOR;
+        }
+        if (rtt <= GOOD_RTT_MILLIS && bandwidth >= GOOD_BYTES_PER_SECOND) {
+            return Quality.GOOD;
+        }
+        return Quality.MODERATE;
+    }
+
+    /**
+     * Gets the estimated round trip time
+     * @return the round trip time in milliseconds or -1 if not enough requests have been measured
+     */
+    public long getRttMillis() {
+        return mRtt.size() >= MIN_SAMPLES ? mRtt.percentile(0.5f) : -1;
+    }
+
+    /**
+     * Gets the estimated bandwidth
+     * @return the bandwidth in bytes per second or -1 if not enough responses have been measured
+     */
+    public long getBytesPerSecond() {
+        return mBandwidth.size() >= MIN_SAMPLES ? mBandwidth.percentile(0.5f) : -1;
+    }
+
+    /**
+     * Gets how long a request should be given to complete on this link: several round trips plus a few
+     * times the transfer of a typical response, between {@link #MIN_TIMEOUT_MILLIS} and
+     * {@link #MAX_TIMEOUT_MILLIS}. The transfer is assumed to be poor while the bandwidth is unknown.
+     * @return the timeout in milliseconds or 0 while the round trip time is unknown
+     */
+    public long getTimeoutMillis() {
+        long rtt = getRttMillis();
+        if (rtt < 0) {
+            return 0;
+        }
+        long bandwidth = getBytesPerSecond();
+        if (bandwidth <= 0) {
+            bandwidth = POOR_BYTES_PER_SECOND;
+        }
+        long transfer = EXPECTED_RESPONSE_BYTES * 1000 / bandwidth;
+        long timeout = RTT_TIMEOUT_MULTIPLIER * rtt + TRANSFER_TIMEOUT_MULTIPLIER * transfer;
+        return Math.max(MIN_TIMEOUT_MILLIS, Math.min(MAX_TIMEOUT_MILLIS, timeout));
+    }
+
+    @VisibleForTesting
+    void recordRtt(long millis) {
+        mRtt.add(millis);
+    }
+
+    @VisibleForTesting
+    void recordTransfer(long bytes, long millis) {
+        if (bytes < MIN_TRANSFER_BYTES) {
+            return;
+        }
+        mBandwidth.add(bytes * 1000 / Math.max(1, millis));
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Body which times the read of its source
+     */
+    private class MeasuredBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        MeasuredBody(ResponseBody delegate) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new MeasuredSource(delegate.source()));
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Source which records the transfer once exhausted, from its first read so that time the body waits
+     * to be read isn't counted
+     */
+    private class MeasuredSource extends ForwardingSource {
+
+        private long start = -1;
+        private long bytes;
+        private boolean recorded;
+
+        MeasuredSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            if (start < 0) {
+                start = System.nanoTime();
+            }
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                if (!recorded) {
+                    recorded = true;
+                    recordTransfer(bytes, millisSince(start));
+                }
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+    }
+}
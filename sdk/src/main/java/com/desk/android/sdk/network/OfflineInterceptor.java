@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * <p>Application interceptor which keeps GET requests working from the response cache when the network
+ * can't be used.</p>
+ *
+ * <p>While the {@link NetworkMonitor} reports the device offline, requests are answered from the cache
+ * without opening a socket, or fail right away with an {@link OfflineException}. While online, a request
+ * which fails with an {@link IOException} or a server error is answered with the cached response if
+ * there is one, however stale, and fails as before otherwise.</p>
+ *
+ * <p>OkHttp never serves stale responses marked {@code must-revalidate}. For those the pages the providers
+ * keep in memory and in their {@link com.desk.android.sdk.provider.ContentStore} are the stale copy, which
+ * the list views keep showing when a refresh fails.</p>
+ *
+ * <p>Requests marked with {@link #forceCache(Request)} are answered as if the device were offline, which
+ * {@link RequestScheduler} uses to fall back on the cache once a request has timed out.</p>
+ */
+public class OfflineInterceptor implements Interceptor {
+
+    // requests don't override equals, so they are looked up by identity
+    private static final Map<Request, Boolean> forcedCache = new WeakHashMap<>();
+
+    private final NetworkMonitor mNetworkMonitor;
+
+    public OfflineInterceptor(@NonNull NetworkMonitor networkMonitor) {
+        mNetworkMonitor = networkMonitor;
+    }
+
+    /**
+     * Marks a request to be answered only from the cache, however stale, as if the device were offline
+     * @param request the request, ignored if null
+     */
+    public static void forceCache(@Nullable Request request) {
+        if (request == null) {
+            return;
+        }
+        synchronized (forcedCache) {
+            forcedCache.put(request, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method()) || request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        if (!mNetworkMonitor.isConnected() || isForcedCache(request)) {
+            Response cached = fromCache(chain, request);
+            if (cached == null) {
+                throw new OfflineException();
+            }
+            return cached;
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Response cached = fromCache(chain, request);
+            if (cached == null) {
+                throw e;
+            }
+            return cached;
+        }
+        if (response.code() >= 500) {
+            Response cached = fromCache(chain, request);
+            if (cached != null) {
+                response.body().close();
+                return cached;
+            }
+        }
+        return response;
+    }
+
+    private static boolean isForcedCache(Request request) {
+        synchronized (forcedCache) {
+            return forcedCache.containsKey(request);
+        }
+    }
+
+    /**
+     * Gets the cached response for the request, without going to the network
+     * @return the response or null if the cache can't satisfy the request
+     */
+    private static Response fromCache(Chain chain, Request request) throws IOException {
+        Response cached = chain.proceed(request.newBuilder()
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build());
+        if (cached.isSuccessful()) {
+            return cached;
+        }
+        cached.body().close();
+        return null;
+    }
+}
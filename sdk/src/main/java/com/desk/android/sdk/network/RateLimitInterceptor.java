@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * <p>Application interceptor which keeps requests within the rate limit of each api site. Every install of
+ * an app shares the api token, so the limit is read from the {@link #LIMIT_HEADER},
+ * {@link #REMAINING_HEADER} and {@link #RESET_HEADER} headers of the api's responses rather than assumed.
+ * Once the window runs out requests wait for it to reset instead of being sent, and requests below
+ * {@link RequestPriority#USER_VISIBLE} already wait while the rest of the window is needed for user visible
+ * requests.</p>
+ *
+ * <p>A 429 response is retried once the window resets. A request which would have to wait longer than
+ * its priority allows throws a {@link RateLimitedException}, or returns the 429 response if it was
+ * rejected by the api.</p>
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    public static final String LIMIT_HEADER = "X-Rate-Limit-Limit";
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+    public static final String RESET_HEADER = "X-Rate-Limit-Reset";
+
+    @VisibleForTesting
+    static final long USER_VISIBLE_MAX_WAIT = 10000;
+
+    @VisibleForTesting
+    static final long BACKGROUND_MAX_WAIT = 60000;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ConcurrentHashMap<String, RateLimiter> mLimiters = new ConcurrentHashMap<>();
+    private final long mUserVisibleMaxWait;
+    private final long mBackgroundMaxWait;
+
+    public RateLimitInterceptor() {
+        this(USER_VISIBLE_MAX_WAIT, BACKGROUND_MAX_WAIT);
+    }
+
+    @VisibleForTesting
+    RateLimitInterceptor(long userVisibleMaxWait, long backgroundMaxWait) {
+        mUserVisibleMaxWait = userVisibleMaxWait;
+        mBackgroundMaxWait = backgroundMaxWait;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        RequestPriority priority = RequestPriority.of(request);
+        long deadline = nowMillis()
+                + (priority != RequestPriority.USER_VISIBLE ? mBackgroundMaxWait : mUserVisibleMaxWait);
+        RateLimiter limiter = getLimiter(request.url().host());
+        int attempts = 0;
+        while (true) {
+            acquire(limiter, priority, deadline);
+            Response response = chain.proceed(request);
+            attempts++;
+            long resetMillis = update(limiter, response);
+            if (response.code() != 429 || attempts >= MAX_ATTEMPTS
+                    || resetMillis < 0 || nowMillis() + resetMillis > deadline) {
+                return response;
+            }
+            response.body().close();
+        }
+    }
+
+    /**
+     * Waits until the limiter lets the request through
+     * @throws RateLimitedException if that would be after the deadline
+     */
+    private static void acquire(RateLimiter limiter, RequestPriority priority, long deadline) throws IOException {
+        while (true) {
+            long wait = limiter.tryAcquire(priority, nowMillis());
+            if (wait == 0) {
+                return;
+            }
+            if (nowMillis() + wait > deadline) {
+                throw new RateLimitedException(wait);
+            }
+            sleep(wait);
+        }
+    }
+
+    /**
+     * Updates the limiter from the headers of a response
+     * @return the time until the window resets, or -1 if the response doesn't say
+     */
+    private static long update(RateLimiter limiter, Response response) {
+        long resetMillis = millis(response.header(RESET_HEADER));
+        if (response.code() == 429) {
+            resetMillis = Math.max(resetMillis, millis(response.header("Retry-After")));
+            if (resetMillis >= 0) {
+                limiter.onRateLimited(resetMillis, nowMillis());
+            }
+            return resetMillis;
+        }
+        long limit = parse(response.header(LIMIT_HEADER));
+        long remaining = parse(response.header(REMAINING_HEADER));
+        if (limit >= 0 && remaining >= 0 && resetMillis >= 0) {
+            limiter.update((int) limit, (int) remaining, resetMillis, nowMillis());
+        }
+        return resetMillis;
+    }
+
+    private RateLimiter getLimiter(String host) {
+        RateLimiter limiter = mLimiters.get(host);
+        if (limiter == null) {
+            limiter = new RateLimiter();
+            RateLimiter existing = mLimiters.putIfAbsent(host, limiter);
+            if (existing != null) {
+                limiter = existing;
+            }
+        }
+        return limiter;
+    }
+
+    /**
+     * Parses a header holding a whole number of seconds
+     * @return the time in milliseconds or -1 if the header is missing or malformed
+     */
+    private static long millis(String header) {
+        long seconds = parse(header);
+        return seconds < 0 ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    /**
+     * Parses a header holding a whole number
+     * @return the number or -1 if the header is missing or malformed
+     */
+    private static long parse(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit.");
+        }
+    }
+
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
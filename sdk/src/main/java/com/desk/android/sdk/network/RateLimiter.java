@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+/**
+ * <p>Token bucket for one api site, filled from the rate limit the api reports with each response. The
+ * bucket holds the requests remaining in the current window and refills when the window resets. Until a
+ * response has reported the state of the current window requests are not limited.</p>
+ *
+ * <p>Requests below {@link RequestPriority#USER_VISIBLE} leave {@link #BACKGROUND_RESERVE} of the limit to
+ * user visible requests. Times are passed in so the limiter doesn't depend on a clock.</p>
+ */
+class RateLimiter {
+
+    static final float BACKGROUND_RESERVE = 0.2f;
+
+    // a reset this much later than the known one starts a new window
+    private static final long NEW_WINDOW_MILLIS = 1000;
+
+    private int limit;
+    private int tokens;
+    private long resetAt;
+
+    /**
+     * Takes a token if one is available to a request of the priority
+     * @return 0 if the request may be sent, or else the time to wait before trying again
+     */
+    synchronized long tryAcquire(RequestPriority priority, long nowMillis) {
+        if (nowMillis >= resetAt) {
+            return 0;
+        }
+        int reserve = priority != RequestPriority.USER_VISIBLE ? (int) Math.ceil(limit * BACKGROUND_RESERVE) : 0;
+        if (tokens - reserve >= 1) {
+            tokens--;
+            return 0;
+        }
+        return resetAt - nowMillis;
+    }
+
+    /**
+     * Updates the bucket from the rate limit reported by a response
+     * @param limit the requests allowed per window
+     * @param remaining the requests remaining in the current window
+     * @param resetMillis the time until the window resets
+     */
+    synchronized void update(int limit, int remaining, long resetMillis, long nowMillis) {
+        long resetAt = nowMillis + resetMillis;
+        this.limit = limit;
+
+        // responses to concurrent requests arrive in any order, keep the lowest count within a window
+        if (nowMillis >= this.resetAt || resetAt - this.resetAt > NEW_WINDOW_MILLIS) {
+            tokens = remaining;
+        } else {
+            tokens = Math.min(tokens, remaining);
+        }
+        this.resetAt = Math.max(this.resetAt, resetAt);
+    }
+
+    /**
+     * Empties the bucket after the api rejected a request
+     * @param resetMillis the time until the api accepts requests again
+     */
+    synchronized void onRateLimited(long resetMillis, long nowMillis) {
+        tokens = 0;
+        resetAt = Math.max(resetAt, nowMillis + resetMillis);
+    }
+
+    /**
+     * Returns the requests remaining in the current window
+     * @return the remaining requests or -1 if the state of the current window isn't known
+     */
+    synchronized int getRemaining(long nowMillis) {
+        return nowMillis < resetAt ? tokens : -1;
+    }
+}
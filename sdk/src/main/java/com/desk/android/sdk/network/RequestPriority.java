@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import okhttp3.Request;
+
+/**
+ * <p>How urgently a request is needed, from most to least urgent. {@link #USER_VISIBLE} requests are
+ * waiting on something the user is looking at, {@link #PREFETCH} requests load content the user is likely
+ * to look at next and {@link #BACKGROUND} requests refresh content ahead of time. Requests below
+ * {@link #USER_VISIBLE} wait behind and may be preempted by user visible ones, see {@link RequestScheduler},
+ * and give way to them when the api's rate limit runs low, see {@link RateLimitInterceptor}.</p>
+ *
+ * <p>Requests executed on a thread take the priority set for that thread with {@link #set(RequestPriority)}.
+ * Requests which are enqueued run on OkHttp's threads, so code which enqueues requests on behalf of
+ * background work tags them with {@link #tag(Request, RequestPriority)}.</p>
+ */
+public enum RequestPriority {
+
+    USER_VISIBLE,
+    PREFETCH,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> current = new ThreadLocal<RequestPriority>() {
+        @Override
+        protected RequestPriority initialValue() {
+            return USER_VISIBLE;
+        }
+    };
+
+    // requests don't override equals, so they are looked up by identity
+    private static final Map<Request, RequestPriority> tags = new WeakHashMap<>();
+
+    /**
+     * Gets the priority of requests made on the calling thread
+     * @return the priority, {@link #USER_VISIBLE} unless set otherwise
+     */
+    @NonNull
+    public static RequestPriority current() {
+        return current.get();
+    }
+
+    /**
+     * Sets the priority of requests made on the calling thread. Restore the previous priority once done:
+     * <pre>
+     * RequestPriority previous = RequestPriority.set(RequestPriority.BACKGROUND);
+     * try {
+     *     ...
+     * } finally {
+     *     RequestPriority.set(previous);
+     * }
+     * </pre>
+     * @param priority the priority
+     * @return the previous priority of the thread
+     */
+    @NonNull
+    public static RequestPriority set(@NonNull RequestPriority priority) {
+        RequestPriority previous = current.get();
+        current.set(priority);
+        return previous;
+    }
+
+    /**
+     * Sets the priority of a request regardless of the thread it runs on
+     * @param request the request, ignored if null
+     * @param priority the priority
+     */
+    public static void tag(@Nullable Request request, @NonNull RequestPriority priority) {
+        if (request == null) {
+            return;
+        }
+        synchronized (tags) {
+            tags.put(request, priority);
+        }
+    }
+
+    /**
+     * Gets the priority of a request, its tag if it has one or else the priority of the calling thread
+     * @param request the request
+     * @return the priority
+     */
+    @NonNull
+    public static RequestPriority of(@NonNull Request request) {
+        RequestPriority priority;
+        synchronized (tags) {
+            priority = tags.get(request);
+        }
+        return priority != null ? priority : current();
+    }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.annotation.WorkerThread;
+
+import com.desk.android.sdk.util.DeskExecutors;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * <p>Schedules the providers' calls so that speculative work never adds latency to requests the user is
+ * waiting on. At most {@code maxRequestsPerHost} calls run against a host at once and the rest wait in
+ * order of their {@link RequestPriority}, then in the order they were made.</p>
+ *
+ * <p>When a {@link RequestPriority#USER_VISIBLE} call finds every slot taken it preempts the most recently
+ * started enqueued call of a lower priority: that call is cancelled, which its callback sees as a failure
+ * of a cancelled call, and the user visible call takes its slot. Owners of lower priority calls are
+ * expected to make them again, see {@link #isPreempted(Call)}. Calls which are executed are never
+ * preempted since their thread is already committed to them.</p>
+ *
+ * <p>Once a {@link NetworkQualityEstimator} is set, a user visible call whose network attempt takes
+ * longer than the estimator's timeout for the link is cancelled, so a request stuck on a fast link gives
+ * up in seconds rather than waiting out OkHttp's timeouts. Attempts are timed by
+ * {@link #getTimeoutInterceptor()} from when they are sent until their response body is closed, inside the
+ * interceptors which retry and rate limit requests so that their waits aren't counted. A call which times
+ * out is answered from the response cache, however stale, like a request made offline, see
+ * {@link OfflineInterceptor#forceCache(Request)}, and otherwise fails with a {@link SocketTimeoutException}.</p>
+ *
+ * <p>{@link #MAX_REQUESTS_PER_HOST} is one less than OkHttp's own limit so that the call which preempts
+ * another doesn't have to wait for OkHttp to release the cancelled call's connection.</p>
+ */
+public class RequestScheduler {
+
+    public static final int MAX_REQUESTS_PER_HOST = 4;
+
+    private static final RequestScheduler DIRECT = new RequestScheduler(Integer.MAX_VALUE, true, null);
+
+    private final int mMaxRequestsPerHost;
+    private final boolean mDirect;
+    private final ScheduledExecutorService mTimer;
+    private final Map<String, Host> mHosts = new HashMap<>();
+    private final Set<Call<?>> mPreempted = Collections.newSetFromMap(new WeakHashMap<Call<?>, Boolean>());
+    // requests don't override equals, so the timed calls are looked up by identity
+    private final Map<Request, Entry> mTimed = new WeakHashMap<>();
+    private final Interceptor mTimeoutInterceptor = new TimeoutInterceptor();
+    private long mSequence;
+    private volatile NetworkQualityEstimator mEstimator;
+
+    public RequestScheduler() {
+        this(MAX_REQUESTS_PER_HOST);
+    }
+
+    public RequestScheduler(int maxRequestsPerHost) {
+        this(maxRequestsPerHost, false, null);
+    }
+
+    @VisibleForTesting
+    RequestScheduler(int maxRequestsPerHost, @NonNull ScheduledExecutorService timer) {
+        this(maxRequestsPerHost, false, timer);
+    }
+
+    private RequestScheduler(int maxRequestsPerHost, boolean direct, ScheduledExecutorService timer) {
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("Max requests per host must be at least 1.");
+        }
+        mMaxRequestsPerHost = maxRequestsPerHost;
+        mDirect = direct;
+        mTimer = timer;
+    }
+
+    /**
+     * Gets a scheduler which starts every call right away without keeping track of it
+     * @return the direct scheduler
+     */
+    @NonNull
+    public static RequestScheduler direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Set the estimator whose timeout the network attempts of user visible calls started after this call
+     * are given. The direct scheduler never times calls out.
+     * @param estimator the estimator or null to leave calls to OkHttp's timeouts
+     */
+    public void setNetworkQualityEstimator(@Nullable NetworkQualityEstimator estimator) {
+        mEstimator = estimator;
+    }
+
+    /**
+     * Gets the application interceptor which times the network attempts of user visible calls. Add it
+     * after the interceptors which retry requests or wait, such as {@link ResilienceInterceptor} and
+     * {@link RateLimitInterceptor}.
+     * @return the interceptor
+     */
+    @NonNull
+    public Interceptor getTimeoutInterceptor() {
+        return mTimeoutInterceptor;
+    }
+
+    /**
+     * Enqueues a call with the priority of the calling thread
+     * @param call the call
+     * @param callback the callback to notify once the call completes
+     */
+    public <T> void enqueue(@NonNull Call<T> call, @NonNull Callback<T> callback) {
+        enqueue(call, RequestPriority.current(), callback);
+    }
+
+    /**
+     * Enqueues a call
+     * @param call the call
+     * @param priority the priority of the call
+     * @param callback the callback to notify once the call completes
+     */
+    public <T> void enqueue(@NonNull Call<T> call, @NonNull RequestPriority priority, @NonNull Callback<T> callback) {
+        tag(call, priority);
+        if (mDirect) {
+            call.enqueue(callback);
+            return;
+        }
+        ScheduledCallback<T> scheduled = new ScheduledCallback<>(callback);
+        Entry entry = new Entry(call, priority, scheduled);
+        scheduled.entry = entry;
+        schedule(entry);
+    }
+
+    /**
+     * Executes a call on the calling thread with its priority once a slot is free
+     * @param call the call
+     * @return the response
+     * @throws IOException if the call fails or the thread is interrupted while waiting
+     */
+    @WorkerThread
+    public <T> Response<T> execute(@NonNull Call<T> call) throws IOException {
+        RequestPriority priority = RequestPriority.current();
+        tag(call, priority);
+        if (mDirect) {
+            return call.execute();
+        }
+        Entry entry = new Entry(call, priority, null);
+        schedule(entry);
+        try {
+            awaitStart(entry);
+        } catch (InterruptedException e) {
+            if (!dequeue(entry)) {
+                // a slot was handed to the call as the thread was interrupted, pass it on
+                finish(entry);
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to execute.");
+        }
+        try {
+            return call.execute();
+        } catch (IOException e) {
+            if (!entry.timedOut) {
+                throw e;
+            }
+        } finally {
+            finish(entry);
+        }
+        Call<T> fallback = call.clone();
+        OfflineInterceptor.forceCache(fallback.request());
+        try {
+            return fallback.execute();
+        } catch (IOException e) {
+            throw timeout(entry);
+        }
+    }
+
+    /**
+     * Returns whether a call which failed was cancelled by the scheduler to make way for a user visible
+     * call, rather than by its owner
+     * @param call the call
+     * @return true if the call was preempted
+     */
+    public synchronized boolean isPreempted(@NonNull Call<?> call) {
+        return mPreempted.remove(call);
+    }
+
+    @VisibleForTesting
+    synchronized int getRunningCount(String host) {
+        Host h = mHosts.get(host);
+        return h != null ? h.running.size() : 0;
+    }
+
+    @VisibleForTesting
+    synchronized int getQueuedCount(String host) {
+        Host h = mHosts.get(host);
+        return h != null ? h.queue.size() : 0;
+    }
+
+    private void schedule(Entry entry) {
+        Entry victim = null;
+        List<Entry> start = new ArrayList<>(1);
+        synchronized (this) {
+            Host host = getHost(hostOf(entry.call));
+            entry.host = host;
+            entry.sequence = mSequence++;
+            if (host.running.size() < mMaxRequestsPerHost) {
+                host.running.add(entry);
+                start.add(entry);
+            } else if (entry.priority == RequestPriority.USER_VISIBLE
+                    && (victim = host.victim()) != null) {
+                host.running.remove(victim);
+                mPreempted.add(victim.call);
+                host.running.add(entry);
+                start.add(entry);
+            } else {
+                host.queue.add(entry);
+            }
+        }
+        if (victim != null) {
+            victim.call.cancel();
+        }
+        start(start);
+    }
+
+    private synchronized void awaitStart(Entry entry) throws InterruptedException {
+        while (!entry.started) {
+            wait();
+        }
+    }
+
+    /**
+     * Removes a call which hasn't been given a slot from its host's queue
+     * @return false if the call has already been given a slot
+     */
+    private synchronized boolean dequeue(Entry entry) {
+        return entry.host.queue.remove(entry);
+    }
+
+    private void finish(Entry entry) {
+        List<Entry> start = new ArrayList<>(1);
+        synchronized (this) {
+            disarm(entry);
+            if (entry.request != null) {
+                mTimed.remove(entry.request);
+            }
+            Host host = entry.host;
+            if (!host.running.remove(entry)) {
+                // preempted, its slot has already been taken
+                return;
+            }
+            Entry next = host.queue.poll();
+            if (next != null) {
+                host.running.add(next);
+                start.add(next);
+            }
+        }
+        start(start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(List<Entry> entries) {
+        for (Entry entry : entries) {
+            time(entry);
+            if (entry.callback == null) {
+                synchronized (this) {
+                    entry.started = true;
+                    notifyAll();
+                }
+            } else {
+                entry.call.enqueue(entry.callback);
+            }
+        }
+    }
+
+    /**
+     * Registers a user visible call so that its network attempts are timed by the timeout interceptor
+     */
+    private void time(Entry entry) {
+        if (mEstimator == null || entry.priority != RequestPriority.USER_VISIBLE) {
+            return;
+        }
+        Request request = entry.call.request();
+        if (request == null) {
+            return;
+        }
+        synchronized (this) {
+            entry.request = request;
+            mTimed.put(request, entry);
+        }
+    }
+
+    /**
+     * Cancels a call once its network attempt takes longer than the estimator's timeout
+     */
+    private void arm(final Entry entry) {
+        NetworkQualityEstimator estimator = mEstimator;
+        long timeout = estimator != null ? estimator.getTimeoutMillis() : 0;
+        if (timeout <= 0) {
+            return;
+        }
+        ScheduledExecutorService timer = mTimer != null ? mTimer : DeskExecutors.timer();
+        synchronized (this) {
+            if (!entry.host.running.contains(entry)) {
+                // already finished
+                return;
+            }
+            disarm(entry);
+            final int attempt = ++entry.attempts;
+            entry.timeoutMillis = timeout;
+            entry.watchdog = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (RequestScheduler.this) {
+                        if (entry.watchdog == null || entry.attempts != attempt
+                                || !entry.host.running.contains(entry)) {
+                            // the attempt or the call has already finished
+                            return;
+                        }
+                        entry.timedOut = true;
+                    }
+                    entry.call.cancel();
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void disarm(Entry entry) {
+        if (entry.watchdog != null) {
+            entry.watchdog.cancel(false);
+            entry.watchdog = null;
+        }
+    }
+
+    @Nullable
+    private synchronized Entry getTimed(Request request) {
+        return mTimed.get(request);
+    }
+
+    private static SocketTimeoutException timeout(Entry entry) {
+        return new SocketTimeoutException("Timed out after " + entry.timeoutMillis + " ms.");
+    }
+
+    private Host getHost(String name) {
+        Host host = mHosts.get(name);
+        if (host == null) {
+            host = new Host();
+            mHosts.put(name, host);
+        }
+        return host;
+    }
+
+    private static String hostOf(Call<?> call) {
+        Request request = call.request();
+        return request != null ? request.url().host() : "";
+    }
+
+    private static void tag(Call<?> call, RequestPriority priority) {
+        if (priority != RequestPriority.USER_VISIBLE) {
+            // calls run on OkHttp's threads, which don't know the priority
+            RequestPriority.tag(call.request(), priority);
+        }
+    }
+
+    /**
+     * The calls running and waiting for one host
+     */
+    private static class Host {
+
+        final List<Entry> running = new ArrayList<>();
+        final PriorityQueue<Entry> queue = new PriorityQueue<>();
+
+        /**
+         * Gets the running call a user visible call may preempt, the most recently started enqueued call
+         * of the lowest priority
+         */
+        Entry victim() {
+            Entry victim = null;
+            for (Entry entry : running) {
+                if (entry.callback == null || entry.priority == RequestPriority.USER_VISIBLE) {
+                    continue;
+                }
+                if (victim == null || entry.priority.compareTo(victim.priority) >= 0) {
+                    victim = entry;
+                }
+            }
+            return victim;
+        }
+    }
+
+    private static class Entry implements Comparable<Entry> {
+
+        final Call call;
+        final RequestPriority priority;
+        final Callback callback;
+        Host host;
+        long sequence;
+        boolean started;
+        Request request;
+        ScheduledFuture<?> watchdog;
+        int attempts;
+        long timeoutMillis;
+        volatile boolean timedOut;
+
+        Entry(Call<?> call, RequestPriority priority, Callback<?> callback) {
+            this.call = call;
+            this.priority = priority;
+            this.callback = callback;
+        }
+
+        @Override
+        public int compareTo(@NonNull Entry other) {
+            int byPriority = priority.compareTo(other.priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+
+    /**
+     * Times each network attempt of the calls registered with {@link #time(Entry)}, from when it is sent
+     * until it fails or its response body is closed. Responses from the cache aren't timed.
+     */
+    private class TimeoutInterceptor implements Interceptor {
+
+        @Override
+        public okhttp3.Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Entry entry = getTimed(request);
+            if (entry == null) {
+                return chain.proceed(request);
+            }
+            arm(entry);
+            okhttp3.Response response = null;
+            try {
+                response = chain.proceed(request);
+            } finally {
+                if (response == null || response.networkResponse() == null) {
+                    disarm(entry);
+                }
+            }
+            if (response.networkResponse() == null) {
+                return response;
+            }
+            return response.newBuilder()
+                    .body(new TimedBody(response.body(), entry))
+                    .build();
+        }
+    }
+
+    /**
+     * Body which stops timing its attempt once closed
+     */
+    private class TimedBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        TimedBody(ResponseBody delegate, final Entry entry) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        disarm(entry);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Frees the slot of a call once it completes, then notifies the callback. A call which timed out is
+     * answered from the response cache if it can be, and fails with a timeout rather than as a cancelled
+     * call otherwise.
+     */
+    private class ScheduledCallback<T> implements Callback<T> {
+
+        private final Callback<T> callback;
+        Entry entry;
+
+        ScheduledCallback(Callback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            finish(entry);
+            callback.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(final Call<T> call, Throwable t) {
+            finish(entry);
+            if (!entry.timedOut) {
+                callback.onFailure(call, t);
+                return;
+            }
+            Call<T> fallback = call.clone();
+            OfflineInterceptor.forceCache(fallback.request());
+            fallback.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> cacheCall, Response<T> response) {
+                    callback.onResponse(call, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> cacheCall, Throwable cacheFailure) {
+                    callback.onFailure(call, timeout(entry));
+                }
+            });
+        }
+    }
+}
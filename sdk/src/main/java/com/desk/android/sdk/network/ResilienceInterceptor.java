@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import com.desk.android.sdk.metrics.MetricsInterceptor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * <p>Application interceptor which retries failed GET requests following a {@link RetryPolicy} and stops
+ * sending requests to an endpoint which keeps failing with a per endpoint {@link CircuitBreaker}.</p>
+ *
+ * <p>Network errors, timeouts and 5xx responses are retried, 429 responses are left to the
+ * {@link RateLimitInterceptor} which knows when the rate limit resets. Other requests are never retried since they may not be
+ * idempotent, but they do count towards and respect the circuit breaker. Network errors and 5xx
+ * responses count as failures, any other response closes the circuit since the api is answering.
+ * Requests which may only be answered from the cache pass straight through.</p>
+ *
+ * <p>A response which was retried carries the number of retries in the {@link #RETRY_COUNT_HEADER}
+ * header and a request which still fails after retries throws a {@link RetriesExhaustedException}, which
+ * {@link com.desk.android.sdk.error.ErrorResponse} reads the retry count from.</p>
+ */
+public class ResilienceInterceptor implements Interceptor {
+
+    public static final String RETRY_COUNT_HEADER = "X-Desk-Retry-Count";
+
+    @VisibleForTesting
+    static final int FAILURE_THRESHOLD = 5;
+
+    @VisibleForTesting
+    static final long OPEN_MILLIS = 30000;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> mBreakers = new ConcurrentHashMap<>();
+    private final Random mRandom = new Random();
+    private final int mFailureThreshold;
+    private final long mOpenMillis;
+    private volatile RetryPolicy mRetryPolicy;
+
+    public ResilienceInterceptor(@NonNull RetryPolicy retryPolicy) {
+        this(retryPolicy, FAILURE_THRESHOLD, OPEN_MILLIS);
+    }
+
+    @VisibleForTesting
+    ResilienceInterceptor(@NonNull RetryPolicy retryPolicy, int failureThreshold, long openMillis) {
+        mRetryPolicy = retryPolicy;
+        mFailureThreshold = failureThreshold;
+        mOpenMillis = openMillis;
+    }
+
+    /**
+     * Set the policy for requests started after this call
+     * @param retryPolicy the retry policy
+     */
+    public void setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+        mRetryPolicy = retryPolicy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            // answered by the response cache, an unsatisfiable 504 says nothing about the endpoint
+            return chain.proceed(request);
+        }
+        RetryPolicy policy = mRetryPolicy;
+        boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+        String endpoint = request.method() + ' ' + MetricsInterceptor.endpoint(request);
+        CircuitBreaker breaker = getBreaker(endpoint);
+        long start = nowMillis();
+        int retries = 0;
+        while (true) {
+            if (!breaker.allowRequest(nowMillis())) {
+                throw new CircuitOpenException(endpoint);
+            }
+
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (isCancelled(e) || e instanceof OfflineException || e instanceof RateLimitedException) {
+                    breaker.onCancelled();
+                    throw e;
+                }
+                breaker.onFailure(nowMillis());
+                failure = e;
+            }
+
+            if (response != null) {
+                int code = response.code();
+                if (code >= 500) {
+                    breaker.onFailure(nowMillis());
+                } else {
+                    breaker.onSuccess();
+                }
+                if (code < 500) {
+                    return withRetryCount(response, retries);
+                }
+            }
+
+            long delay = -1;
+            if (idempotent && retries + 1 < policy.getMaxAttempts()) {
+                delay = policy.delayMillis(retries, mRandom);
+            }
+            if (delay < 0 || nowMillis() - start + delay > policy.getDeadlineMillis()) {
+                if (response != null) {
+                    return withRetryCount(response, retries);
+                }
+                throw retries == 0 ? failure : new RetriesExhaustedException(retries, failure);
+            }
+            if (response != null) {
+                response.body().close();
+            }
+            sleep(delay);
+            retries++;
+        }
+    }
+
+    private CircuitBreaker getBreaker(String endpoint) {
+        CircuitBreaker breaker = mBreakers.get(endpoint);
+        if (breaker == null) {
+            breaker = new CircuitBreaker(mFailureThreshold, mOpenMillis);
+            CircuitBreaker existing = mBreakers.putIfAbsent(endpoint, breaker);
+            if (existing != null) {
+                breaker = existing;
+            }
+        }
+        return breaker;
+    }
+
+    private static Response withRetryCount(Response response, int retries) {
+        if (retries == 0) {
+            return response;
+        }
+        return response.newBuilder()
+                .header(RETRY_COUNT_HEADER, String.valueOf(retries))
+                .build();
+    }
+
+    /**
+     * OkHttp fails calls cancelled mid-flight with an IOException with this message, retrying them
+     * would fail the same way
+     */
+    private static boolean isCancelled(IOException e) {
+        return "Canceled".equals(e.getMessage());
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry.");
+        }
+    }
+
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import java.util.Random;
+
+/**
+ * <p>How the {@link ResilienceInterceptor} retries failed requests. Retries wait an exponentially growing
+ * delay with full jitter, a random delay between 0 and {@code baseDelayMillis * 2^retry} capped at
+ * {@code maxDelayMillis}, so clients which failed together don't retry together. A request is not
+ * retried once its next attempt would start after {@code deadlineMillis}.</p>
+ *
+ * <p>Use {@link Builder} to create a policy, see {@link #DEFAULT} for the policy used when none is set.</p>
+ */
+public final class RetryPolicy {
+
+    /**
+     * Up to 3 attempts within 10 seconds, waiting up to 250ms before the first retry and 500ms before
+     * the second
+     */
+    public static final RetryPolicy DEFAULT = new Builder().create();
+
+    /**
+     * Never retries
+     */
+    public static final RetryPolicy NONE = new Builder().maxAttempts(1).create();
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.deadlineMillis = builder.deadlineMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Gets the delay before a retry
+     * @param retry the retry, 0 for the first retry
+     * @param random the source of jitter
+     * @return the delay in milliseconds
+     */
+    long delayMillis(int retry, Random random) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry, 30));
+        return ceiling <= 0 ? 0 : (long) (random.nextDouble() * ceiling);
+    }
+
+    public static class Builder {
+
+        private int maxAttempts = 3;
+        private long baseDelayMillis = 250;
+        private long maxDelayMillis = 4000;
+        private long deadlineMillis = 10000;
+
+        /**
+         * Set the number of attempts, including the first
+         * @param maxAttempts the attempts, at least 1
+         * @return the builder instance
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Set the ceiling of the delay before the first retry, which doubles with each retry
+         * @param baseDelayMillis the delay in milliseconds
+         * @return the builder instance
+         */
+        public Builder baseDelay(long baseDelayMillis) {
+            this.baseDelayMillis = baseDelayMillis;
+            return this;
+        }
+
+        /**
+         * Set the largest delay before a retry
+         * @param maxDelayMillis the delay in milliseconds
+         * @return the builder instance
+         */
+        public Builder maxDelay(long maxDelayMillis) {
+            this.maxDelayMillis = maxDelayMillis;
+            return this;
+        }
+
+        /**
+         * Set the time from the first attempt after which a request is no longer retried
+         * @param deadlineMillis the deadline in milliseconds
+         * @return the builder instance
+         */
+        public Builder deadline(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+            return this;
+        }
+
+        public RetryPolicy create() {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("Max attempts must be at least 1.");
+            }
+            if (baseDelayMillis < 0 || maxDelayMillis < 0 || deadlineMillis < 0) {
+                throw new IllegalArgumentException("Delays and deadline cannot be negative.");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
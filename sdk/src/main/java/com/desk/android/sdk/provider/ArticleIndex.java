@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.desk.java.apiclient.model.Article;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Immutable in-memory inverted index over the subjects and bodies of a set of {@link Article}s, used
+ * to suggest articles while a user types into a contact us form.</p>
+ *
+ * <p>Building the index is linear in the size of the articles and is done once per change to the cached
+ * pages; a search only touches the postings of the query's tokens so it completes in well under a
+ * millisecond for a few thousand articles. The last token of a query which doesn't end in a separator
+ * is matched as a prefix since the user is probably still typing it.</p>
+ */
+class ArticleIndex {
+
+    static final ArticleIndex EMPTY = new ArticleIndex(Collections.<Article>emptyList());
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int SUBJECT_WEIGHT = 3;
+    private static final int BODY_WEIGHT = 1;
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>|&[a-z]+;");
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "the", "and", "for", "are", "but", "not", "you", "your", "with", "this", "that", "have", "has",
+            "was", "can", "how", "what", "when", "why", "from", "there", "they", "will", "would", "could",
+            "should", "been", "into", "about", "just", "get", "got", "does", "did", "its", "our", "out"));
+
+    private final List<Article> articles;
+
+    // token to postings, each posting packs the article's position and the token's weight in it
+    private final TreeMap<String, int[]> postings;
+
+    ArticleIndex(@NonNull List<Article> articles) {
+        this.articles = articles;
+        this.postings = build(articles);
+    }
+
+    /**
+     * Gets the number of articles in the index
+     * @return the number of articles
+     */
+    int size() {
+        return articles.size();
+    }
+
+    /**
+     * Finds the articles which best match the text
+     * @param text the text typed by the user
+     * @param maxResults the maximum number of articles to return
+     * @return the matching articles, best match first
+     */
+    @NonNull
+    @WorkerThread
+    List<Article> search(@NonNull String text, int maxResults) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty() || articles.isEmpty() || maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        boolean lastIsPrefix = !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        int[] scores = new int[articles.size()];
+        int[] best = new int[articles.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+
+            // an article scores each query token once, with its best weight
+            Arrays.fill(best, 0);
+            if (lastIsPrefix && i == tokens.size() - 1) {
+                SortedMap<String, int[]> matches = postings.subMap(token, token + Character.MAX_VALUE);
+                for (int[] list : matches.values()) {
+                    collect(list, best);
+                }
+            } else {
+                int[] list = postings.get(token);
+                if (list != null) {
+                    collect(list, best);
+                }
+            }
+            for (int doc = 0; doc < best.length; doc++) {
+                scores[doc] += best[doc];
+            }
+        }
+        return top(scores, maxResults);
+    }
+
+    private List<Article> top(int[] scores, int maxResults) {
+        List<Article> results = new ArrayList<>(maxResults);
+        for (int n = 0; n < maxResults; n++) {
+            int bestDoc = -1;
+            for (int doc = 0; doc < scores.length; doc++) {
+                if (scores[doc] > 0 && (bestDoc == -1 || scores[doc] > scores[bestDoc])) {
+                    bestDoc = doc;
+                }
+            }
+            if (bestDoc == -1) {
+                break;
+            }
+            scores[bestDoc] = 0;
+            results.add(articles.get(bestDoc));
+        }
+        return results;
+    }
+
+    private static void collect(int[] list, int[] best) {
+        for (int posting : list) {
+            int doc = posting >>> 2;
+            int weight = posting & 3;
+            if (weight > best[doc]) {
+                best[doc] = weight;
+            }
+        }
+    }
+
+    private static TreeMap<String, int[]> build(List<Article> articles) {
+        Map<String, List<Integer>> building = new HashMap<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (int doc = 0; doc < articles.size(); doc++) {
+            Article article = articles.get(doc);
+            weights.clear();
+            addTokens(weights, article.getSubject(), SUBJECT_WEIGHT);
+            String body = article.getBody();
+            if (body != null) {
+                addTokens(weights, TAGS.matcher(body).replaceAll(" "), BODY_WEIGHT);
+            }
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                List<Integer> list = building.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    building.put(entry.getKey(), list);
+                }
+                list.add(doc << 2 | entry.getValue());
+            }
+        }
+        TreeMap<String, int[]> postings = new TreeMap<>();
+        for (Map.Entry<String, List<Integer>> entry : building.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] packed = new int[list.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = list.get(i);
+            }
+            postings.put(entry.getKey(), packed);
+        }
+        return postings;
+    }
+
+    private static void addTokens(Map<String, Integer> weights, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        for (String token : tokenize(text)) {
+            Integer existing = weights.get(token);
+            if (existing == null || existing < weight) {
+                weights.put(token, weight);
+            }
+        }
+    }
+
+    /**
+     * Splits text into lower case tokens of letters and digits, dropping short tokens and stop words
+     * @param text the text
+     * @return the tokens in order of first appearance, without duplicates
+     */
+    @NonNull
+    static List<String> tokenize(@NonNull String text) {
+        List<String> tokens = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start == -1) {
+                start = i;
+            } else if (!wordChar && start != -1) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    String token = text.substring(start, i).toLowerCase(Locale.US);
+                    if (!STOP_WORDS.contains(token) && seen.add(token)) {
+                        tokens.add(token);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
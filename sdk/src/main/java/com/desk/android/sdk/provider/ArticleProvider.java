@@ -27,16 +27,28 @@
 package com.desk.android.sdk.provider;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
+import android.support.annotation.WorkerThread;
 import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.config.PerformanceProfile;
+import com.desk.android.sdk.error.DeskException;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.metrics.DeskMetrics;
+import com.desk.android.sdk.network.Hedger;
+import com.desk.android.sdk.network.NetworkQualityEstimator;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.android.sdk.util.DeskExecutors;
 import com.desk.java.apiclient.model.ApiResponse;
 import com.desk.java.apiclient.model.Article;
 import com.desk.java.apiclient.model.BrandIds;
 import com.desk.java.apiclient.model.TopicIds;
 import com.desk.java.apiclient.service.ArticleService;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -72,16 +84,282 @@ public class ArticleProvider {
         void onArticlesLoadError(ErrorResponse error);
     }
 
+    /**
+     * Callbacks for loading all articles of a topic
+     */
+    public interface AllArticlesCallbacks {
+
+        /**
+         * Called when every page of articles has loaded successfully
+         * @param articles the articles in position order
+         */
+        void onAllArticlesLoaded(List<Article> articles);
+
+        /**
+         * Called when there is an error loading a page of articles
+         * @param error the error response
+         */
+        void onAllArticlesLoadError(ErrorResponse error);
+    }
+
+    /**
+     * Callbacks for article suggestions
+     */
+    public interface SuggestionCallbacks {
+
+        /**
+         * Called with the articles which best match the text. This is called once with the matches from
+         * the cached articles, which may be empty, and again with those merged with search results when
+         * the cached articles didn't provide enough matches and the search found more.
+         * @param articles the suggested articles, best match first
+         */
+        void onSuggestionsLoaded(List<Article> articles);
+    }
+
     public static final int ALL_TOPICS = 0;
     public static final int ALL_BRANDS = 0;
 
+    private static final String METRICS_NAME = "articles";
+
     @VisibleForTesting
     static final int PER_PAGE = 25;
 
+    @VisibleForTesting
+    static final int POOR_LINK_PER_PAGE = 10;
+
+    @VisibleForTesting
+    static final int GOOD_LINK_PER_PAGE = 50;
+
+    @VisibleForTesting
+    static final int MAX_CONCURRENT_PAGES = 4;
+
+    @VisibleForTesting
+    static final int MAX_PAGE_ATTEMPTS = 3;
+
+    private static final int MAX_CACHED_PAGES = 40;
+    private static final int MAX_CACHED_SEARCH_PAGES = 20;
+
+    @VisibleForTesting
+    static final int MAX_SUGGESTION_QUERY_TOKENS = 5;
+
     private ArticleService mArticleService;
+    private PageCache<Article> mPageCache;
+    private PageCache<Article> mSearchCache;
+    private Executor mWorkExecutor;
+    private Executor mCallbackExecutor;
+    private RequestScheduler mScheduler;
+    private volatile Hedger mSearchHedger;
+    private volatile NetworkQualityEstimator mNetworkQuality;
+    private volatile PerformanceProfile mProfile;
+
+    private ArticleIndex mIndex = ArticleIndex.EMPTY;
+    private String mIndexKey;
 
     public ArticleProvider(ArticleService articleService) {
+        this(articleService, DeskExecutors.direct(), DeskExecutors.direct());
+    }
+
+    /**
+     * Creates a provider which post-processes responses on {@code workExecutor} and notifies
+     * callbacks on {@code callbackExecutor}.
+     *
+     * @param articleService the article service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     */
+    public ArticleProvider(ArticleService articleService, @NonNull Executor workExecutor, @NonNull Executor callbackExecutor) {
+        this(articleService, workExecutor, callbackExecutor, RequestScheduler.direct());
+    }
+
+    /**
+     * Creates a provider which makes its requests through {@code scheduler}.
+     *
+     * @param articleService the article service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     * @param scheduler the scheduler of the provider's requests
+     */
+    public ArticleProvider(ArticleService articleService, @NonNull Executor workExecutor, @NonNull Executor callbackExecutor,
+                           @NonNull RequestScheduler scheduler) {
         mArticleService = articleService;
+        mWorkExecutor = workExecutor;
+        mCallbackExecutor = callbackExecutor;
+        mScheduler = scheduler;
+        mPageCache = new PageCache<>(MAX_CACHED_PAGES);
+        mSearchCache = new PageCache<>(MAX_CACHED_SEARCH_PAGES);
+    }
+
+    /**
+     * Attaches a {@link ContentStore} which article pages are written through to, and warms the
+     * in-memory cache from it on the work executor. Search results are never stored.
+     *
+     * @param store the store or null to stop storing pages
+     */
+    public void setContentStore(@Nullable ContentStore store) {
+        mPageCache.setStore(store);
+        if (store != null) {
+            mWorkExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mPageCache.warm();
+                }
+            });
+        }
+    }
+
+    /**
+     * Enables hedging of searches made with {@link #findArticles(long, long, String, int, ArticleCallbacks)}.
+     * A search which is slower than 95% of recent searches is sent a second time and the first response
+     * is used, which costs at most 5% extra search requests. Disabled by default.
+     *
+     * @param enabled true to hedge searches
+     */
+    public void setSearchHedgingEnabled(boolean enabled) {
+        if (enabled == (mSearchHedger != null)) {
+            return;
+        }
+        mSearchHedger = enabled ? new Hedger(mScheduler) : null;
+    }
+
+    /**
+     * Sizes the pages of the streams returned by {@link #articles(long, long)} and
+     * {@link #search(long, long, String)} for the link: {@value #GOOD_LINK_PER_PAGE} articles on a good
+     * link to save round trips and {@value #POOR_LINK_PER_PAGE} on a poor one so the first articles show
+     * sooner. Each stream keeps the size it was created with, and pages of another size are cached apart;
+     * article pages which are only cached with {@value #PER_PAGE} articles, such as synced ones, are sliced
+     * to the stream's size. Pages of {@value #PER_PAGE} articles are used while no estimator is set or the link is unknown.
+     *
+     * @param estimator the estimator or null to always use pages of {@value #PER_PAGE}
+     */
+    public void setNetworkQualityEstimator(@Nullable NetworkQualityEstimator estimator) {
+        mNetworkQuality = estimator;
+    }
+
+    /**
+     * Sets the profile which caps the page size of streams created after this call, see
+     * {@link PerformanceProfile#getMaxPageSize()}, and the number of pages held in memory, see
+     * {@link PerformanceProfile#getMemoryCacheFraction()}.
+     *
+     * @param profile the profile
+     */
+    public void setPerformanceProfile(@NonNull PerformanceProfile profile) {
+        mProfile = profile;
+        mPageCache.setBudget(profile.getMemoryCacheFraction());
+        mSearchCache.setBudget(profile.getMemoryCacheFraction());
+    }
+
+    /**
+     * Gets the size of the pages of streams created now, see
+     * {@link #setNetworkQualityEstimator(NetworkQualityEstimator)} and
+     * {@link #setPerformanceProfile(PerformanceProfile)}
+     *
+     * @return the number of articles per page
+     */
+    public final int getStreamPageSize() {
+        int pageSize = PER_PAGE;
+        NetworkQualityEstimator estimator = mNetworkQuality;
+        if (estimator != null) {
+            switch (estimator.getQuality()) {
+                case POOR:
+                    pageSize = POOR_LINK_PER_PAGE;
+                    break;
+                case GOOD:
+                    pageSize = GOOD_LINK_PER_PAGE;
+                    break;
+                default:
+                    break;
+            }
+        }
+        PerformanceProfile profile = mProfile;
+        return profile != null ? Math.min(pageSize, profile.getMaxPageSize()) : pageSize;
+    }
+
+    /**
+     * Releases in-memory caches for the trim level passed to
+     * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}. Search results and the suggestion
+     * index are released before article pages.
+     *
+     * @param level the trim level
+     */
+    public void trimMemory(int level) {
+        float keepResults = MemoryTrim.keepResults(level);
+        mSearchCache.trim(keepResults);
+        if (keepResults == 0f) {
+            synchronized (this) {
+                mIndex = ArticleIndex.EMPTY;
+                mIndexKey = null;
+            }
+        }
+        mPageCache.trim(MemoryTrim.keepEntities(level));
+    }
+
+    /**
+     * Gets the sizes and eviction counts of the article and search caches
+     *
+     * @return the stats of each cache
+     */
+    @NonNull
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        stats.add(mPageCache.stats(METRICS_NAME));
+        stats.add(mSearchCache.stats(METRICS_NAME + "_search"));
+        return stats;
+    }
+
+    /**
+     * Creates a stream of pages of {@link Article}s for the given topic and brand. Cached pages are
+     * emitted first, followed by the page from the network.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @return the stream of pages
+     */
+    @NonNull
+    public final PageStream<Article> articles(long topicId, long brandId) {
+        return articles(topicId, brandId, getStreamPageSize());
+    }
+
+    /**
+     * Creates a stream of pages of {@link Article}s for the given topic and brand with pages of the given
+     * size, e.g. to resume a list with the size its pages were loaded with.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param perPage the number of articles per page
+     * @return the stream of pages
+     */
+    @NonNull
+    public final PageStream<Article> articles(long topicId, long brandId, int perPage) {
+        return new ArticleStream(this, topicId, brandId, null, perPage);
+    }
+
+    /**
+     * Creates a stream of pages of {@link Article}s matching the query for the given topic and brand.
+     * Cached pages are emitted first, followed by the page from the network.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param query the search query
+     * @return the stream of pages
+     */
+    @NonNull
+    public final PageStream<Article> search(long topicId, long brandId, @NonNull String query) {
+        return search(topicId, brandId, query, getStreamPageSize());
+    }
+
+    /**
+     * Creates a stream of pages of {@link Article}s matching the query for the given topic and brand with
+     * pages of the given size, e.g. to resume a list with the size its pages were loaded with.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param query the search query
+     * @param perPage the number of articles per page
+     * @return the stream of pages
+     */
+    @NonNull
+    public final PageStream<Article> search(long topicId, long brandId, @NonNull String query, int perPage) {
+        return new ArticleStream(this, topicId, brandId, query, perPage);
     }
 
     /**
@@ -93,19 +371,30 @@ public class ArticleProvider {
      * @param callback the callback upon success or failure
      */
     public void getArticles(long topicId, long brandId, int page, @NonNull final ArticleCallbacks callback) {
-        TopicIds topicIds = ALL_TOPICS != topicId ? TopicIds.ids(topicId) : null;
-        BrandIds brandIds = ALL_BRANDS != brandId ? BrandIds.ids(brandId) : null;
+        getArticles(topicId, brandId, page, PER_PAGE, callback);
+    }
 
-        mArticleService.getArticles(
-                Desk.getLanguage(),
-                page,
-                PER_PAGE,
-                true,
-                topicIds,
-                brandIds,
-                FIELD_POSITION,
-                ASC)
-                .enqueue(new RetrofitCallback(callback));
+    void getArticles(long topicId, long brandId, int page, int perPage, @NonNull ArticleCallbacks callback) {
+        mScheduler.enqueue(articlesCall(topicId, brandId, page, perPage),
+                new RetrofitCallback(callback, mWorkExecutor, mCallbackExecutor, mPageCache,
+                        cacheKey(topicId, brandId, null, page, perPage)));
+    }
+
+    /**
+     * Retrieves {@link Article}s for the given topic and brand, blocking the calling thread until the
+     * request completes.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param page the current page
+     * @return the response containing the page of articles
+     * @throws DeskException if the request fails
+     */
+    @NonNull
+    @WorkerThread
+    public ApiResponse<Article> getArticles(long topicId, long brandId, int page) throws DeskException {
+        return executeAndCache(articlesCall(topicId, brandId, page, PER_PAGE), mPageCache,
+                cacheKey(topicId, brandId, null, page));
     }
 
     /**
@@ -118,45 +407,513 @@ public class ArticleProvider {
      * @param callback the callback upon success or failure
      */
     public void findArticles(long topicId, long brandId, String query, int page, @NonNull final ArticleCallbacks callback) {
+        findArticles(topicId, brandId, query, page, PER_PAGE, callback);
+    }
+
+    void findArticles(long topicId, long brandId, String query, int page, int perPage,
+                      @NonNull ArticleCallbacks callback) {
+        Call<ApiResponse<Article>> call = searchCall(topicId, brandId, query, page, perPage);
+        RetrofitCallback retrofitCallback = new RetrofitCallback(callback, mWorkExecutor, mCallbackExecutor, mSearchCache,
+                cacheKey(topicId, brandId, query, page, perPage));
+        Hedger hedger = mSearchHedger;
+        if (hedger != null) {
+            hedger.enqueue(call, retrofitCallback);
+        } else {
+            mScheduler.enqueue(call, retrofitCallback);
+        }
+    }
+
+    /**
+     * Finds {@link Article}s based on the query, topic and brand, blocking the calling thread until the
+     * request completes.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param query the search query
+     * @param page the current page
+     * @return the response containing the page of articles
+     * @throws DeskException if the request fails
+     */
+    @NonNull
+    @WorkerThread
+    public ApiResponse<Article> findArticles(long topicId, long brandId, String query, int page) throws DeskException {
+        return executeAndCache(searchCall(topicId, brandId, query, page, PER_PAGE), mSearchCache,
+                cacheKey(topicId, brandId, query, page));
+    }
+
+    /**
+     * Retrieves every {@link Article} for the given topic and brand. The first page is loaded to learn
+     * the total number of articles, then the remaining pages are loaded concurrently and reassembled in
+     * position order. Pages which fail with a network or server error are retried.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param callback the callback upon success or failure
+     * @return a handle which cancels the pages in flight
+     */
+    @NonNull
+    public Cancellable getAllArticles(final long topicId, final long brandId, @NonNull final AllArticlesCallbacks callback) {
+        PagedFetcher<Article> fetcher = allArticlesFetcher(topicId, brandId);
+        fetcher.start(new PagedFetcher.Listener<Article>() {
+            @Override
+            public void onComplete(final List<Article> articles) {
+                mWorkExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        cacheAllPages(topicId, brandId, articles);
+                        DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+                            @Override
+                            public void run() {
+                                callback.onAllArticlesLoaded(articles);
+                            }
+                        });
+                    }
+                });
+            }
+
+            @Override
+            public void onError(final ErrorResponse error) {
+                DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onAllArticlesLoadError(error);
+                    }
+                });
+            }
+        });
+        return fetcher;
+    }
+
+    /**
+     * Retrieves every {@link Article} for the given topic and brand, blocking the calling thread until
+     * all pages have loaded. See {@link #getAllArticles(long, long, AllArticlesCallbacks)}.
+     *
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @return the articles in position order
+     * @throws DeskException if a page could not be loaded
+     */
+    @NonNull
+    @WorkerThread
+    public List<Article> getAllArticles(long topicId, long brandId) throws DeskException {
+        List<Article> articles = allArticlesFetcher(topicId, brandId).fetch();
+        cacheAllPages(topicId, brandId, articles);
+        return articles;
+    }
+
+    /**
+     * Suggests {@link Article}s which match text typed by the user, such as the subject or feedback of a
+     * contact us form. Matching is done off of the main thread against an index of the cached articles;
+     * only when that finds fewer than {@code maxResults} articles is a single search request made. Callers
+     * should debounce calls and cancel the previous suggestion before making a new one.
+     *
+     * @param brandId the brand Id
+     * @param text the text to match
+     * @param maxResults the maximum number of articles to suggest
+     * @param callbacks the callbacks to deliver suggestions to
+     * @return a handle which cancels the suggestion and any search in flight
+     */
+    @NonNull
+    public Cancellable suggestArticles(final long brandId, @NonNull final String text, final int maxResults,
+                                       @NonNull final SuggestionCallbacks callbacks) {
+        final Suggestion suggestion = new Suggestion();
+        mWorkExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (suggestion.isCancelled()) {
+                    return;
+                }
+                final List<Article> local = getIndex(brandId).search(text, maxResults);
+                deliverSuggestions(suggestion, callbacks, local);
+                String query = suggestionQuery(text);
+                if (local.size() >= maxResults || query == null) {
+                    return;
+                }
+                String key = cacheKey(ALL_TOPICS, brandId, query, 1);
+                PageCache.Page<Article> cached = mSearchCache.get(key);
+                if (cached != null) {
+                    deliverMerged(suggestion, callbacks, local, cached.items, maxResults);
+                    return;
+                }
+                Call<ApiResponse<Article>> call = searchCall(ALL_TOPICS, brandId, query, 1, PER_PAGE);
+                if (!suggestion.setCall(call)) {
+                    return;
+                }
+                mScheduler.enqueue(call, new RetrofitCallback(new ArticleCallbacks() {
+                    @Override
+                    public void onArticlesLoaded(int page, List<Article> articles, boolean morePages) {
+                        deliverMerged(suggestion, callbacks, local, articles, maxResults);
+                    }
+
+                    @Override
+                    public void onArticlesLoadError(ErrorResponse error) {
+                        // the suggestions from the cached articles stand
+                    }
+                }, mWorkExecutor, DeskExecutors.direct(), mSearchCache, key));
+            }
+        });
+        return suggestion;
+    }
+
+    /**
+     * Gets the index of the cached articles of a brand, rebuilding it if the cache has changed since
+     */
+    @WorkerThread
+    private synchronized ArticleIndex getIndex(long brandId) {
+        String language = Desk.getLanguage();
+        String indexKey = language + '/' + brandId + '/' + mPageCache.version();
+        if (!indexKey.equals(mIndexKey)) {
+            mIndex = new ArticleIndex(getCachedArticles(language, brandId));
+            mIndexKey = indexKey;
+        }
+        return mIndex;
+    }
+
+    private List<Article> getCachedArticles(String language, long brandId) {
+        Map<Long, Article> articles = new LinkedHashMap<>();
+        for (Map.Entry<String, PageCache.Page<Article>> entry : mPageCache.snapshot().entrySet()) {
+
+            // keys are language/topic/brand/page[xperPage], see cacheKey()
+            String[] parts = entry.getKey().split("/");
+            if (parts.length < 4 || !parts[0].equals(language)
+                    || (ALL_BRANDS != brandId && !parts[2].equals(String.valueOf(brandId)))) {
+                continue;
+            }
+            for (Article article : entry.getValue().items) {
+                articles.put((long) article.getId(), article);
+            }
+        }
+        return new ArrayList<>(articles.values());
+    }
+
+    /**
+     * Builds the search query for suggestions from the first few meaningful words of the text
+     * @return the query or null if the text has no meaningful words
+     */
+    @Nullable
+    @VisibleForTesting
+    static String suggestionQuery(String text) {
+        List<String> tokens = ArticleIndex.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < Math.min(tokens.size(), MAX_SUGGESTION_QUERY_TOKENS); i++) {
+            if (i > 0) {
+                query.append(' ');
+            }
+            query.append(tokens.get(i));
+        }
+        return query.toString();
+    }
+
+    private void deliverMerged(Suggestion suggestion, SuggestionCallbacks callbacks, List<Article> local,
+                               List<Article> found, int maxResults) {
+        Map<Long, Article> merged = new LinkedHashMap<>();
+        for (Article article : local) {
+            merged.put((long) article.getId(), article);
+        }
+        for (Article article : found) {
+            if (merged.size() >= maxResults) {
+                break;
+            }
+            if (!merged.containsKey((long) article.getId())) {
+                merged.put((long) article.getId(), article);
+            }
+        }
+        if (merged.size() > local.size()) {
+            deliverSuggestions(suggestion, callbacks, new ArrayList<>(merged.values()));
+        }
+    }
+
+    private void deliverSuggestions(final Suggestion suggestion, final SuggestionCallbacks callbacks,
+                                    final List<Article> articles) {
+        DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+            @Override
+            public void run() {
+                if (!suggestion.isCancelled()) {
+                    callbacks.onSuggestionsLoaded(articles);
+                }
+            }
+        });
+    }
+
+    private PagedFetcher<Article> allArticlesFetcher(final long topicId, final long brandId) {
+        return new PagedFetcher<Article>(new PagedFetcher.CallFactory<Article>() {
+            @Override
+            public Call<ApiResponse<Article>> create(int page) {
+                return articlesCall(topicId, brandId, page, PER_PAGE);
+            }
+        }, mScheduler, PER_PAGE, MAX_CONCURRENT_PAGES, MAX_PAGE_ATTEMPTS);
+    }
+
+    /**
+     * Splits the articles back into pages so each is served from the cache like a single page load
+     */
+    private void cacheAllPages(long topicId, long brandId, List<Article> articles) {
+        int pageCount = Math.max(1, (articles.size() + PER_PAGE - 1) / PER_PAGE);
+        for (int page = 1; page <= pageCount; page++) {
+            List<Article> items = articles.subList((page - 1) * PER_PAGE, Math.min(page * PER_PAGE, articles.size()));
+            mPageCache.put(cacheKey(topicId, brandId, null, page), items, page < pageCount);
+        }
+    }
+
+    private Call<ApiResponse<Article>> articlesCall(long topicId, long brandId, int page, int perPage) {
+        TopicIds topicIds = ALL_TOPICS != topicId ? TopicIds.ids(topicId) : null;
+        BrandIds brandIds = ALL_BRANDS != brandId ? BrandIds.ids(brandId) : null;
+
+        return mArticleService.getArticles(
+                Desk.getLanguage(),
+                page,
+                perPage,
+                true,
+                topicIds,
+                brandIds,
+                FIELD_POSITION,
+                ASC);
+    }
+
+    private Call<ApiResponse<Article>> searchCall(long topicId, long brandId, String query, int page, int perPage) {
         TopicIds topicIds = ALL_TOPICS != topicId ? TopicIds.ids(topicId) : null;
         BrandIds brandIds = ALL_BRANDS != brandId ? BrandIds.ids(brandId) : null;
 
-        mArticleService.searchArticles(
+        return mArticleService.searchArticles(
                 Desk.getLanguage(),
                 page,
-                PER_PAGE,
+                perPage,
                 topicIds,
                 brandIds,
                 true,
                 FIELD_POSITION,
                 ASC,
-                query)
-                .enqueue(new RetrofitCallback(callback));
+                query);
+    }
+
+    private ApiResponse<Article> executeAndCache(Call<ApiResponse<Article>> call, PageCache<Article> cache,
+                                                 String cacheKey) throws DeskException {
+        ApiResponse<Article> apiResponse = Calls.execute(mScheduler, call);
+        if (apiResponse == null) {
+            return new ApiResponse<Article>();
+        }
+        cache.put(cacheKey, apiResponse.getEntriesAsList(), apiResponse.hasNextPage());
+        return apiResponse;
+    }
+
+    /**
+     * Gets a cached page of articles
+     * @param topicId the topic Id
+     * @param brandId the brand Id
+     * @param query the search query or null when not searching
+     * @param page the page
+     * @return the cached page or null if the page is not cached
+     */
+    @Nullable
+    PageCache.Page<Article> getCachedPage(long topicId, long brandId, @Nullable String query, int page) {
+        return getCachedPage(topicId, brandId, query, page, PER_PAGE);
+    }
+
+    /**
+     * Gets a cached page of articles of the given size. Article pages which weren't loaded with that size
+     * are sliced from the pages of {@value #PER_PAGE}, which are the ones synced and stored.
+     */
+    @Nullable
+    PageCache.Page<Article> getCachedPage(long topicId, long brandId, @Nullable String query, int page, int perPage) {
+        PageCache.Page<Article> cached =
+                (query == null ? mPageCache : mSearchCache).get(cacheKey(topicId, brandId, query, page, perPage));
+        if (cached != null || query != null || perPage == PER_PAGE) {
+            return cached;
+        }
+        return sliceCachedPage(topicId, brandId, page, perPage);
+    }
+
+    /**
+     * Assembles a page of the given size from the cached pages of {@value #PER_PAGE} articles which hold it
+     * @return the page or null if any of those pages isn't cached
+     */
+    @Nullable
+    private PageCache.Page<Article> sliceCachedPage(long topicId, long brandId, int page, int perPage) {
+        int start = (page - 1) * perPage;
+        int end = start + perPage;
+        List<Article> items = new ArrayList<>(perPage);
+        for (int cachedPage = start / PER_PAGE + 1; ; cachedPage++) {
+            PageCache.Page<Article> cached = mPageCache.get(cacheKey(topicId, brandId, null, cachedPage));
+            if (cached == null) {
+                return null;
+            }
+            int offset = (cachedPage - 1) * PER_PAGE;
+            int from = Math.max(0, start - offset);
+            int to = Math.min(cached.items.size(), end - offset);
+            if (from < to) {
+                items.addAll(cached.items.subList(from, to));
+            }
+            if (!cached.morePages) {
+                // the topic ends within the page; a page which starts after its end doesn't exist
+                return items.isEmpty() && page > 1 ? null
+                        : new PageCache.Page<>(items, end - offset < cached.items.size());
+            }
+            if (end <= offset + PER_PAGE) {
+                return new PageCache.Page<>(items, true);
+            }
+        }
+    }
+
+    static String cacheKey(long topicId, long brandId, @Nullable String query, int page) {
+        return cacheKey(topicId, brandId, query, page, PER_PAGE);
+    }
+
+    /**
+     * Pages of the default size keep the keys they had before page sizes varied, so stored pages stay valid
+     */
+    static String cacheKey(long topicId, long brandId, @Nullable String query, int page, int perPage) {
+        return Desk.getLanguage() + '/' + topicId + '/' + brandId + '/' + page
+                + (perPage != PER_PAGE ? "x" + perPage : "") + (query != null ? '?' + query : "");
     }
 
     static class RetrofitCallback implements Callback<ApiResponse<Article>> {
 
         ArticleCallbacks callbacks;
+        Executor workExecutor;
+        Executor callbackExecutor;
+        PageCache<Article> cache;
+        String cacheKey;
 
         public RetrofitCallback(ArticleCallbacks callbacks) {
+            this(callbacks, DeskExecutors.direct(), DeskExecutors.direct());
+        }
+
+        public RetrofitCallback(ArticleCallbacks callbacks, Executor workExecutor, Executor callbackExecutor) {
+            this(callbacks, workExecutor, callbackExecutor, null, null);
+        }
+
+        public RetrofitCallback(ArticleCallbacks callbacks, Executor workExecutor, Executor callbackExecutor,
+                                PageCache<Article> cache, String cacheKey) {
             this.callbacks = callbacks;
+            this.workExecutor = workExecutor;
+            this.callbackExecutor = callbackExecutor;
+            this.cache = cache;
+            this.cacheKey = cacheKey;
         }
 
         @Override
-        public void onResponse(Call<ApiResponse<Article>> call, Response<ApiResponse<Article>> response) {
+        public void onResponse(Call<ApiResponse<Article>> call, final Response<ApiResponse<Article>> response) {
+            if (callbacks != null && !response.isSuccessful()) {
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callbacks.onArticlesLoadError(ErrorResponse.fromResponse(response));
+                    }
+                });
+            } else if (callbacks != null) {
+                workExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ApiResponse<Article> apiResponse = response.body();
+                        if (apiResponse == null) {
+                            deliver(0, new ArrayList<Article>(), false);
+                            return;
+                        }
+                        List<Article> articles = apiResponse.getEntriesAsList();
+                        if (cache != null) {
+                            cache.put(cacheKey, articles, apiResponse.hasNextPage());
+                        }
+                        deliver(apiResponse.getPage(), articles, apiResponse.hasNextPage());
+                    }
+                });
+            }
+        }
+
+        @Override public void onFailure(Call<ApiResponse<Article>> call, final Throwable throwable) {
             if (callbacks != null) {
-                ApiResponse<Article> apiResponse = response.body();
-                if (apiResponse == null) {
-                    callbacks.onArticlesLoaded(0, new ArrayList<Article>(), false);
-                    return;
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callbacks.onArticlesLoadError(new ErrorResponse(throwable));
+                    }
+                });
+            }
+        }
+
+        private void deliver(final int page, final List<Article> articles, final boolean morePages) {
+            DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                @Override
+                public void run() {
+                    callbacks.onArticlesLoaded(page, articles, morePages);
                 }
-                callbacks.onArticlesLoaded(apiResponse.getPage(), apiResponse.getEntriesAsList(), apiResponse.hasNextPage());
+            });
+        }
+    }
+
+    static class Suggestion implements Cancellable {
+
+        private Call<?> call;
+        private boolean cancelled;
+
+        /**
+         * Sets the search call in flight
+         * @return false if the suggestion has already been cancelled
+         */
+        synchronized boolean setCall(Call<?> call) {
+            this.call = call;
+            return !cancelled;
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            if (call != null) {
+                call.cancel();
             }
         }
 
-        @Override public void onFailure(Call<ApiResponse<Article>> call, Throwable throwable) {
-            if (callbacks != null) {
-                callbacks.onArticlesLoadError(new ErrorResponse(throwable));
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    static class ArticleStream extends BasePageStream<Article> {
+
+        private final ArticleProvider provider;
+        private final long topicId;
+        private final long brandId;
+        private final String query;
+        private final int perPage;
+
+        ArticleStream(ArticleProvider provider, long topicId, long brandId, String query, int perPage) {
+            this.provider = provider;
+            this.topicId = topicId;
+            this.brandId = brandId;
+            this.query = query;
+            this.perPage = perPage;
+        }
+
+        @Override
+        PageCache.Page<Article> getCachedPage(int page) {
+            return provider.getCachedPage(topicId, brandId, query, page, perPage);
+        }
+
+        @Override
+        void loadPage(int page, final PageResult<Article> result) {
+            ArticleCallbacks callbacks = new ArticleCallbacks() {
+                @Override
+                public void onArticlesLoaded(int page, List<Article> articles, boolean morePages) {
+                    result.onPageLoaded(articles, morePages);
+                }
+
+                @Override
+                public void onArticlesLoadError(ErrorResponse error) {
+                    result.onPageError(error);
+                }
+            };
+            // pages of the default size go through the public methods, which subclasses may override
+            if (query == null && perPage == PER_PAGE) {
+                provider.getArticles(topicId, brandId, page, callbacks);
+            } else if (query == null) {
+                provider.getArticles(topicId, brandId, page, perPage, callbacks);
+            } else if (perPage == PER_PAGE) {
+                provider.findArticles(topicId, brandId, query, page, callbacks);
+            } else {
+                provider.findArticles(topicId, brandId, query, page, perPage, callbacks);
             }
         }
     }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.desk.android.sdk.error.ErrorResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Base {@link PageStream} which handles demand, cancellation and emitting cached pages. Each
+ * subscription fetches at most one page at a time and only while the subscriber has outstanding
+ * demand. Subclasses provide how a page is looked up in the cache and loaded from the network.</p>
+ *
+ * @param <T> the type of item contained in each page
+ */
+abstract class BasePageStream<T> implements PageStream<T> {
+
+    /**
+     * Receives the result of loading a single page
+     */
+    interface PageResult<T> {
+
+        void onPageLoaded(List<T> items, boolean morePages);
+
+        void onPageError(ErrorResponse error);
+    }
+
+    /**
+     * Gets the cached copy of a page
+     * @param page the page
+     * @return the cached page or null if it is not cached
+     */
+    @Nullable
+    abstract PageCache.Page<T> getCachedPage(int page);
+
+    /**
+     * Loads a page from the network
+     * @param page the page
+     * @param result the result to notify
+     */
+    abstract void loadPage(int page, PageResult<T> result);
+
+    @NonNull
+    @Override
+    public Subscription subscribe(@NonNull PageSubscriber<T> subscriber) {
+        return subscribe(subscriber, 1);
+    }
+
+    @NonNull
+    @Override
+    public Subscription subscribe(@NonNull PageSubscriber<T> subscriber, int firstPage) {
+        return new PageSubscription(subscriber, firstPage);
+    }
+
+    class PageSubscription implements Subscription, PageResult<T> {
+
+        private final PageSubscriber<T> subscriber;
+        private int nextPage;
+        private int demand;
+        private boolean loading;
+        private boolean complete;
+        private volatile boolean cancelled;
+
+        PageSubscription(PageSubscriber<T> subscriber, int firstPage) {
+            this.subscriber = subscriber;
+            this.nextPage = firstPage;
+        }
+
+        @Override
+        public void request(int pages) {
+            if (pages <= 0) {
+                throw new IllegalArgumentException("Must request at least one page.");
+            }
+            synchronized (this) {
+                demand += pages;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void drain() {
+            final int page;
+            synchronized (this) {
+                if (cancelled || complete || loading || demand == 0) {
+                    return;
+                }
+                loading = true;
+                page = nextPage;
+            }
+            PageCache.Page<T> cached = getCachedPage(page);
+            if (cached != null && !cancelled) {
+                subscriber.onPage(page, new ArrayList<T>(cached.items), cached.morePages, true);
+            }
+            if (!cancelled) {
+                loadPage(page, this);
+            }
+        }
+
+        @Override
+        public void onPageLoaded(List<T> items, boolean morePages) {
+            if (cancelled) {
+                return;
+            }
+            final int page;
+            synchronized (this) {
+                page = nextPage++;
+                demand--;
+                loading = false;
+                complete = !morePages;
+            }
+            subscriber.onPage(page, items, morePages, false);
+            if (!morePages) {
+                subscriber.onComplete();
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public void onPageError(ErrorResponse error) {
+            if (cancelled) {
+                return;
+            }
+            synchronized (this) {
+                // drop outstanding demand so the subscriber decides when to retry
+                demand = 0;
+                loading = false;
+            }
+            subscriber.onError(error);
+        }
+    }
+}
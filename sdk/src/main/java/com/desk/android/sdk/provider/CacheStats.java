@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+/**
+ * Snapshot of the size and activity of one of the SDK's in-memory caches
+ */
+public final class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final int hitCount;
+    private final int missCount;
+    private final int evictionCount;
+
+    CacheStats(String name, int size, int maxSize, int hitCount, int missCount, int evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Gets the name of the cache, e.g. "articles" or "article_search"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of entries in the cache
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of entries the cache holds
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of entries evicted, either to make room or because memory was trimmed
+     */
+    public int getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{size=" + size + ", maxSize=" + maxSize + ", hits=" + hitCount + ", misses=" + missCount
+                + ", evictions=" + evictionCount + '}';
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.WorkerThread;
+
+import com.desk.android.sdk.error.DeskException;
+import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.network.RequestScheduler;
+
+import java.io.IOException;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Helpers for executing retrofit {@link Call}s synchronously.
+ */
+final class Calls {
+
+    private Calls() {}
+
+    /**
+     * Executes the call on the current thread once the scheduler lets it run.
+     * @param scheduler the scheduler
+     * @param call the call to execute
+     * @param <T> the type of the response body
+     * @return the response body, which may be null if the api returned no content
+     * @throws DeskException if the request fails or the api responds with an error status
+     */
+    @WorkerThread
+    static <T> T execute(RequestScheduler scheduler, Call<T> call) throws DeskException {
+        Response<T> response;
+        try {
+            response = scheduler.execute(call);
+        } catch (IOException e) {
+            throw new DeskException(new ErrorResponse(e), e);
+        }
+        if (!response.isSuccessful()) {
+            throw new DeskException(ErrorResponse.fromResponse(response));
+        }
+        return response.body();
+    }
+}
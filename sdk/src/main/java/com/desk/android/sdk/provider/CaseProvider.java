@@ -27,14 +27,21 @@
 package com.desk.android.sdk.provider;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
 
+import com.desk.android.sdk.error.DeskException;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.metrics.DeskMetrics;
+import com.desk.android.sdk.network.RequestScheduler;
 import com.desk.android.sdk.model.CreateCaseRequest;
+import com.desk.android.sdk.util.DeskExecutors;
 import com.desk.java.apiclient.model.Case;
 import com.desk.java.apiclient.model.Message;
 import com.desk.java.apiclient.model.MessageDirection;
 import com.desk.java.apiclient.service.CaseService;
 
+import java.util.concurrent.Executor;
+
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -62,10 +69,36 @@ public class CaseProvider {
         void onCreateCaseError(ErrorResponse error);
     }
 
+    private static final String METRICS_NAME = "cases";
+
     private CaseService caseService;
+    private Executor callbackExecutor;
+    private RequestScheduler scheduler;
 
     public CaseProvider(CaseService caseService) {
+        this(caseService, DeskExecutors.direct());
+    }
+
+    /**
+     * Creates a provider which notifies callbacks on {@code callbackExecutor}.
+     * @param caseService the case service
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     */
+    public CaseProvider(CaseService caseService, @NonNull Executor callbackExecutor) {
+        this(caseService, callbackExecutor, RequestScheduler.direct());
+    }
+
+    /**
+     * Creates a provider which makes its requests through {@code scheduler}.
+     * @param caseService the case service
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     * @param scheduler the scheduler of the provider's requests
+     */
+    public CaseProvider(CaseService caseService, @NonNull Executor callbackExecutor,
+                        @NonNull RequestScheduler scheduler) {
         this.caseService = caseService;
+        this.callbackExecutor = callbackExecutor;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -74,7 +107,43 @@ public class CaseProvider {
      * @param callback the callback to notify on success or failure
      */
     public void createCase(@NonNull CreateCaseRequest request, @NonNull final CreateCaseCallback callback) {
+        scheduler.enqueue(createCaseCall(request), new Callback<Case>() {
+            @Override public void onResponse(Call<Case> call, final Response<Case> response) {
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        if (response.isSuccessful()) {
+                            callback.onCaseCreated(response.body());
+                        } else {
+                            callback.onCreateCaseError(ErrorResponse.fromResponse(response));
+                        }
+                    }
+                });
+            }
 
+            @Override public void onFailure(Call<Case> call, final Throwable throwable) {
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onCreateCaseError(new ErrorResponse(throwable));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Creates a case, blocking the calling thread until the request completes.
+     * @param request the request object to build the case
+     * @return the new case
+     * @throws DeskException if the request fails
+     */
+    @WorkerThread
+    public Case createCase(@NonNull CreateCaseRequest request) throws DeskException {
+        return Calls.execute(scheduler, createCaseCall(request));
+    }
+
+    private Call<Case> createCaseCall(CreateCaseRequest request) {
         // create case object
         Case newCase = new Case();
         newCase.setType(request.getType());
@@ -91,18 +160,9 @@ public class CaseProvider {
         newCase.setMessage(message);
 
         // create the case
-        caseService.createCase(
+        return caseService.createCase(
                 newCase,
                 null,
-                null)
-                .enqueue(new Callback<Case>() {
-                    @Override public void onResponse(Call<Case> call, Response<Case> response) {
-                        callback.onCaseCreated(response.body());
-                    }
-
-                    @Override public void onFailure(Call<Case> call, Throwable throwable) {
-                        callback.onCreateCaseError(new ErrorResponse(throwable));
-                    }
-                });
+                null);
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>File backed store of the pages synced by the background sync job. Each page is serialized to its own
+ * file in the store's directory, keyed by the same key used by the provider's in-memory {@link PageCache}.</p>
+ *
+ * <p>Providers which have a store write the pages they load through to it and warm their in-memory cache
+ * from it, so topic and article lists can open with stored data before the network responds. All methods
+ * perform disk I/O and must not be called on the main thread.</p>
+ */
+public class ContentStore {
+
+    private static final String TAG = "ContentStore";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+
+    public ContentStore(@NonNull File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads a stored page
+     * @param key the key of the page
+     * @param <T> the type of item in the page
+     * @return the page or null if it is not stored or cannot be read
+     */
+    @Nullable
+    @WorkerThread
+    <T> PageCache.Page<T> get(String key) {
+        File file = fileFor(key);
+        return file != null && file.exists() ? this.<T>read(file) : null;
+    }
+
+    /**
+     * Stores a page, leaving the stored file untouched if its contents have not changed.
+     * @param key the key of the page
+     * @param items the items in the page
+     * @param morePages whether there are more pages after this one
+     * @param <T> the type of item in the page
+     * @return true if the stored page changed, false if it was unchanged or could not be written
+     */
+    @WorkerThread
+    synchronized <T> boolean put(String key, List<T> items, boolean morePages) {
+        File file = fileFor(key);
+        if (file == null || !ensureDirectory()) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            bytes = serialize(key, items, morePages);
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to serialize page " + key, e);
+            return false;
+        }
+        if (file.exists() && file.length() == bytes.length && Arrays.equals(bytes, readBytes(file))) {
+            return false;
+        }
+        File temp = new File(directory, file.getName() + TEMP_SUFFIX);
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(temp);
+            out.write(bytes);
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write page " + key, e);
+            return false;
+        } finally {
+            closeQuietly(out);
+        }
+        return temp.renameTo(file);
+    }
+
+    /**
+     * Reads stored pages
+     * @param maxPages the maximum number of pages to read
+     * @param <T> the type of item in the pages
+     * @return the stored pages by key
+     */
+    @NonNull
+    @WorkerThread
+    <T> Map<String, PageCache.Page<T>> getAll(int maxPages) {
+        Map<String, PageCache.Page<T>> pages = new LinkedHashMap<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return pages;
+        }
+        for (File file : files) {
+            if (pages.size() >= maxPages) {
+                break;
+            }
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                continue;
+            }
+            StoredPage<T> stored = readStored(file);
+            if (stored != null) {
+                pages.put(stored.key, stored.page);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Deletes every stored page
+     */
+    @WorkerThread
+    public synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    @Nullable
+    private File fileFor(String key) {
+        try {
+            return new File(directory, URLEncoder.encode(key, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+
+    private boolean ensureDirectory() {
+        return directory.isDirectory() || directory.mkdirs();
+    }
+
+    @Nullable
+    private <T> PageCache.Page<T> read(File file) {
+        StoredPage<T> stored = readStored(file);
+        return stored != null ? stored.page : null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> StoredPage<T> readStored(File file) {
+        ObjectInputStream in = null;
+        try {
+            in = new ObjectInputStream(new FileInputStream(file));
+            String key = in.readUTF();
+            boolean morePages = in.readBoolean();
+            List<T> items = (List<T>) in.readObject();
+            return new StoredPage<>(key, new PageCache.Page<T>(items, morePages));
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+
+            // the stored page is corrupt or from an incompatible version, drop it
+            Log.w(TAG, "Unable to read stored page " + file.getName(), e);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static <T> byte[] serialize(String key, List<T> items, boolean morePages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeUTF(key);
+        out.writeBoolean(morePages);
+        out.writeObject(new ArrayList<>(items));
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    private static byte[] readBytes(File file) {
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            return bytes;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static class StoredPage<T> {
+
+        final String key;
+        final PageCache.Page<T> page;
+
+        StoredPage(String key, PageCache.Page<T> page) {
+            this.key = key;
+            this.page = page;
+        }
+    }
+}
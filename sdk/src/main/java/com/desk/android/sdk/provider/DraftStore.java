@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.util.Log;
+
+import com.desk.android.sdk.model.ContactUsDraft;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>File backed store of unsent {@link ContactUsDraft}s, one small file per key.</p>
+ *
+ * <p>Writes are write-behind: {@link #save(String, ContactUsDraft)} only records the latest draft for its key
+ * and queues a write on the work executor if one is not already queued, so any number of saves made
+ * before the write runs are coalesced into one. Callers are expected to debounce saves as well. None of
+ * the public methods touch the disk on the calling thread.</p>
+ */
+public class DraftStore {
+
+    private static final String TAG = "DraftStore";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Callbacks for loading a draft
+     */
+    public interface DraftCallbacks {
+
+        /**
+         * Called on the callback executor with the stored draft
+         * @param draft the draft or null if there isn't one
+         */
+        void onDraftLoaded(@Nullable ContactUsDraft draft);
+    }
+
+    private final File directory;
+    private final Executor workExecutor;
+    private final Executor callbackExecutor;
+
+    // latest unwritten draft by key, a null draft deletes the stored one
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    // held for all disk access, never taken on the calling thread
+    private final Object fileLock = new Object();
+
+    public DraftStore(@NonNull File directory, @NonNull Executor workExecutor, @NonNull Executor callbackExecutor) {
+        this.directory = directory;
+        this.workExecutor = workExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Saves a draft, replacing any draft stored for the key. Saving an empty draft clears it.
+     * @param key the key of the draft
+     * @param draft the draft
+     */
+    public void save(@NonNull String key, @NonNull ContactUsDraft draft) {
+        enqueue(key, draft.isEmpty() ? null : draft);
+    }
+
+    /**
+     * Clears the draft stored for a key
+     * @param key the key of the draft
+     */
+    public void clear(@NonNull String key) {
+        enqueue(key, null);
+    }
+
+    /**
+     * Loads the draft for a key, including one which has been saved but not yet written
+     * @param key the key of the draft
+     * @param callbacks the callbacks to deliver the draft to
+     */
+    public void load(@NonNull final String key, @NonNull final DraftCallbacks callbacks) {
+        synchronized (pending) {
+            Pending unwritten = pending.get(key);
+            if (unwritten != null) {
+                deliver(callbacks, unwritten.draft);
+                return;
+            }
+        }
+        workExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliver(callbacks, read(key));
+            }
+        });
+    }
+
+    private void enqueue(final String key, ContactUsDraft draft) {
+        synchronized (pending) {
+            if (pending.put(key, new Pending(draft)) != null) {
+
+                // a write for this key is already queued and will pick up the latest draft
+                return;
+            }
+        }
+        workExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+
+                // take the draft while holding the file lock so a load never reads an older file
+                // than the draft it just missed in the pending map
+                synchronized (fileLock) {
+                    Pending latest;
+                    synchronized (pending) {
+                        latest = pending.remove(key);
+                    }
+                    if (latest != null) {
+                        write(key, latest.draft);
+                    }
+                }
+            }
+        });
+    }
+
+    private void deliver(final DraftCallbacks callbacks, final ContactUsDraft draft) {
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                callbacks.onDraftLoaded(draft);
+            }
+        });
+    }
+
+    @WorkerThread
+    private void write(String key, @Nullable ContactUsDraft draft) {
+        File file = new File(directory, key);
+        if (draft == null) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Unable to create " + directory);
+            return;
+        }
+        File temp = new File(directory, key + TEMP_SUFFIX);
+        FileOutputStream stream = null;
+        try {
+            stream = new FileOutputStream(temp);
+            ObjectOutputStream out = new ObjectOutputStream(stream);
+            out.writeObject(draft);
+            out.flush();
+            stream.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write draft " + key, e);
+            return;
+        } finally {
+            closeQuietly(stream);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        temp.renameTo(file);
+    }
+
+    @Nullable
+    @WorkerThread
+    private ContactUsDraft read(String key) {
+        synchronized (fileLock) {
+            File file = new File(directory, key);
+            if (!file.exists()) {
+                return null;
+            }
+            ObjectInputStream in = null;
+            try {
+                in = new ObjectInputStream(new FileInputStream(file));
+                return (ContactUsDraft) in.readObject();
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+
+                // the draft is corrupt or from an incompatible version, drop it
+                Log.w(TAG, "Unable to read draft " + key, e);
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                return null;
+            } finally {
+                closeQuietly(in);
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static class Pending {
+
+        final ContactUsDraft draft;
+
+        Pending(ContactUsDraft draft) {
+            this.draft = draft;
+        }
+    }
+}
@@ -26,14 +26,24 @@
 
 package com.desk.android.sdk.provider;
 
+import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
+import android.support.annotation.WorkerThread;
 
+import com.desk.android.sdk.error.DeskException;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.metrics.DeskMetrics;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.android.sdk.util.DeskExecutors;
 import com.desk.java.apiclient.model.ApiResponse;
 import com.desk.java.apiclient.model.InboundMailbox;
 import com.desk.java.apiclient.service.InboundMailboxService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -69,45 +79,240 @@ public class InboundMailboxProvider {
     @VisibleForTesting
     static final int PER_PAGE = 1;
 
+    private static final String METRICS_NAME = "inbound_mailboxes";
+
+    private static final int MAX_CACHED_PAGES = 5;
+
     private InboundMailboxService mInboundMailboxService;
+    private PageCache<InboundMailbox> mPageCache;
+    private final Map<Integer, PendingPage> mPendingPages = new HashMap<>();
+    private Executor mWorkExecutor;
+    private Executor mCallbackExecutor;
+    private RequestScheduler mScheduler;
 
     public InboundMailboxProvider(InboundMailboxService inboundMailboxService) {
+        this(inboundMailboxService, DeskExecutors.direct(), DeskExecutors.direct());
+    }
+
+    /**
+     * Creates a provider which post-processes responses on {@code workExecutor} and notifies
+     * callbacks on {@code callbackExecutor}.
+     *
+     * @param inboundMailboxService the inbound mailbox service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     */
+    public InboundMailboxProvider(InboundMailboxService inboundMailboxService, @NonNull Executor workExecutor,
+                                  @NonNull Executor callbackExecutor) {
+        this(inboundMailboxService, workExecutor, callbackExecutor, RequestScheduler.direct());
+    }
+
+    /**
+     * Creates a provider which makes its requests through {@code scheduler}.
+     *
+     * @param inboundMailboxService the inbound mailbox service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     * @param scheduler the scheduler of the provider's requests
+     */
+    public InboundMailboxProvider(InboundMailboxService inboundMailboxService, @NonNull Executor workExecutor,
+                                  @NonNull Executor callbackExecutor, @NonNull RequestScheduler scheduler) {
         mInboundMailboxService = inboundMailboxService;
+        mPageCache = new PageCache<>(MAX_CACHED_PAGES);
+        mWorkExecutor = workExecutor;
+        mCallbackExecutor = callbackExecutor;
+        mScheduler = scheduler;
     }
 
     /**
-     * Retrieves {@link InboundMailbox}es for the given page.
+     * Retrieves {@link InboundMailbox}es for the given page. Pages are kept in memory once loaded and
+     * concurrent requests for the same page share a single network call, so every screen showing
+     * 'Contact Us' can ask for the mailbox without refetching it.
      *
      * @param page the current page
      * @param cb the callback upon success or failure
      */
-    public void getMailboxes(int page, InboundMailboxCallbacks cb) {
-        mInboundMailboxService.getInboundMailboxes(
+    public void getMailboxes(final int page, final InboundMailboxCallbacks cb) {
+        final PageCache.Page<InboundMailbox> cached = mPageCache.get(cacheKey(page));
+        if (cached != null) {
+            if (cb != null) {
+                DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        cb.onInboundMailboxesLoaded(page, new ArrayList<>(cached.items));
+                    }
+                });
+            }
+            return;
+        }
+
+        PendingPage pending;
+        synchronized (mPendingPages) {
+            pending = mPendingPages.get(page);
+            if (pending != null) {
+                pending.add(cb);
+                return;
+            }
+            pending = new PendingPage(page);
+            pending.add(cb);
+            mPendingPages.put(page, pending);
+        }
+        mScheduler.enqueue(mInboundMailboxService.getInboundMailboxes(
+                PER_PAGE,
+                page),
+                new RetrofitCallback(pending, mWorkExecutor, mCallbackExecutor));
+    }
+
+    /**
+     * Retrieves {@link InboundMailbox}es for the given page, blocking the calling thread until the
+     * request completes.
+     *
+     * @param page the current page
+     * @return the response containing the page of mailboxes
+     * @throws DeskException if the request fails
+     */
+    @NonNull
+    @WorkerThread
+    public ApiResponse<InboundMailbox> getMailboxes(int page) throws DeskException {
+        ApiResponse<InboundMailbox> apiResponse = Calls.execute(mScheduler, mInboundMailboxService.getInboundMailboxes(
                 PER_PAGE,
-                page)
-                .enqueue(new RetrofitCallback(cb));
+                page));
+        if (apiResponse == null) {
+            return new ApiResponse<InboundMailbox>();
+        }
+        List<InboundMailbox> mailboxes = apiResponse.getEntriesAsList();
+        if (mailboxes != null) {
+            mPageCache.put(cacheKey(page), mailboxes, apiResponse.hasNextPage());
+        }
+        return apiResponse;
+    }
+
+    /**
+     * Clears the mailboxes kept in memory so the next request goes to the network
+     */
+    public void clearCache() {
+        mPageCache.clear();
+    }
+
+    /**
+     * Releases cached mailboxes for the trim level passed to
+     * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}
+     *
+     * @param level the trim level
+     */
+    public void trimMemory(int level) {
+        mPageCache.trim(MemoryTrim.keepEntities(level));
+    }
+
+    /**
+     * Gets the size and eviction count of the mailbox cache
+     *
+     * @return the stats of the cache
+     */
+    @NonNull
+    public CacheStats getCacheStats() {
+        return mPageCache.stats(METRICS_NAME);
+    }
+
+    private static String cacheKey(int page) {
+        return String.valueOf(page);
+    }
+
+    /**
+     * Callbacks waiting on the network call for a page, which caches the page before handing it out
+     */
+    private class PendingPage implements InboundMailboxCallbacks {
+
+        private final int page;
+        private final List<InboundMailboxCallbacks> waiting = new ArrayList<>();
+
+        PendingPage(int page) {
+            this.page = page;
+        }
+
+        void add(InboundMailboxCallbacks cb) {
+            if (cb != null) {
+                waiting.add(cb);
+            }
+        }
+
+        private List<InboundMailboxCallbacks> finish() {
+            synchronized (mPendingPages) {
+                mPendingPages.remove(page);
+                return new ArrayList<>(waiting);
+            }
+        }
+
+        @Override
+        public void onInboundMailboxesLoaded(int page, List<InboundMailbox> mailboxes) {
+            if (mailboxes != null) {
+                mPageCache.put(cacheKey(page), mailboxes, false);
+            }
+            for (InboundMailboxCallbacks cb : finish()) {
+                cb.onInboundMailboxesLoaded(page, mailboxes);
+            }
+        }
+
+        @Override
+        public void onInboundMailboxLoadError(ErrorResponse error) {
+            for (InboundMailboxCallbacks cb : finish()) {
+                cb.onInboundMailboxLoadError(error);
+            }
+        }
     }
 
     static class RetrofitCallback implements Callback<ApiResponse<InboundMailbox>> {
 
         InboundMailboxCallbacks callbacks;
+        Executor workExecutor;
+        Executor callbackExecutor;
 
         public RetrofitCallback(InboundMailboxCallbacks callbacks) {
+            this(callbacks, DeskExecutors.direct(), DeskExecutors.direct());
+        }
+
+        public RetrofitCallback(InboundMailboxCallbacks callbacks, Executor workExecutor, Executor callbackExecutor) {
             this.callbacks = callbacks;
+            this.workExecutor = workExecutor;
+            this.callbackExecutor = callbackExecutor;
         }
 
         @Override
-        public void onResponse(Call<ApiResponse<InboundMailbox>> call, Response<ApiResponse<InboundMailbox>> response) {
-            ApiResponse<InboundMailbox> apiResponse = response.body();
-            if (callbacks != null) {
-                callbacks.onInboundMailboxesLoaded(apiResponse.getPage(), apiResponse.getEntriesAsList());
+        public void onResponse(Call<ApiResponse<InboundMailbox>> call, final Response<ApiResponse<InboundMailbox>> response) {
+            if (callbacks != null && (!response.isSuccessful() || response.body() == null)) {
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callbacks.onInboundMailboxLoadError(ErrorResponse.fromResponse(response));
+                    }
+                });
+            } else if (callbacks != null) {
+                workExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ApiResponse<InboundMailbox> apiResponse = response.body();
+                        final int page = apiResponse.getPage();
+                        final List<InboundMailbox> mailboxes = apiResponse.getEntriesAsList();
+                        DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                            @Override
+                            public void run() {
+                                callbacks.onInboundMailboxesLoaded(page, mailboxes);
+                            }
+                        });
+                    }
+                });
             }
         }
 
         @Override
-        public void onFailure(Call<ApiResponse<InboundMailbox>> call, Throwable throwable) {
+        public void onFailure(Call<ApiResponse<InboundMailbox>> call, final Throwable throwable) {
             if (callbacks != null) {
-                callbacks.onInboundMailboxLoadError(new ErrorResponse(throwable));
+                DeskMetrics.deliver(callbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        callbacks.onInboundMailboxLoadError(new ErrorResponse(throwable));
+                    }
+                });
             }
         }
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_MODERATE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+
+/**
+ * Decides how much of each tier of in-memory cache to keep at a trim level passed to
+ * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}. Results, i.e. search results and the
+ * suggestion index, are cheap to rebuild and go first. Entities, i.e. topic, article and mailbox pages,
+ * back the screens the user navigates between and are only trimmed once the process is close to being
+ * killed.
+ */
+final class MemoryTrim {
+
+    private MemoryTrim() {
+    }
+
+    /**
+     * Gets the fraction of result caches to keep at the trim level
+     */
+    static float keepResults(int level) {
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            return 0f;
+        }
+        if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+            return 0.5f;
+        }
+        return 1f;
+    }
+
+    /**
+     * Gets the fraction of entity caches to keep at the trim level. Levels are not ordered by severity, a
+     * foreground app at {@code TRIM_MEMORY_RUNNING_CRITICAL} trims more than a hidden one at
+     * {@code TRIM_MEMORY_BACKGROUND}.
+     */
+    static float keepEntities(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE) {
+            return 0f;
+        }
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            return 0.5f;
+        }
+        return 1f;
+    }
+}
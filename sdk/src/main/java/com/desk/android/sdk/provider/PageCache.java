@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory LRU cache of pages loaded by a provider, keyed by the request which loaded them. When a
+ * {@link ContentStore} is attached, pages put in the cache are written through to it.
+ * @param <T> the type of item contained in each page
+ */
+class PageCache<T> {
+
+    static class Page<T> {
+
+        final List<T> items;
+        final boolean morePages;
+
+        Page(List<T> items, boolean morePages) {
+            this.items = items;
+            this.morePages = morePages;
+        }
+    }
+
+    private final int maxPages;
+    private volatile int limit;
+    private final LruCache<String, Page<T>> pages;
+    private volatile ContentStore store;
+    private final AtomicInteger version = new AtomicInteger();
+
+    PageCache(int maxPages) {
+        this.maxPages = maxPages;
+        this.limit = maxPages;
+        pages = new LruCache<>(maxPages);
+    }
+
+    /**
+     * Limits the cache to a fraction of its size, evicting the least recently used pages beyond it
+     * @param fraction the fraction between 0 and 1, at least one page is always kept
+     */
+    void setBudget(float fraction) {
+        limit = Math.max(1, Math.min(maxPages, Math.round(maxPages * fraction)));
+        if (pages.size() > limit) {
+            pages.trimToSize(limit);
+            version.incrementAndGet();
+        }
+    }
+
+    void setStore(@Nullable ContentStore store) {
+        this.store = store;
+    }
+
+    @Nullable
+    Page<T> get(String key) {
+        return pages.get(key);
+    }
+
+    /**
+     * Puts a page in the cache, writing it through to the store if one is attached. Must not be called
+     * on the main thread when a store is attached.
+     */
+    void put(String key, List<T> items, boolean morePages) {
+        pages.put(key, new Page<T>(new ArrayList<T>(items), morePages));
+        int limit = this.limit;
+        if (pages.size() > limit) {
+            pages.trimToSize(limit);
+        }
+        version.incrementAndGet();
+        ContentStore store = this.store;
+        if (store != null) {
+            store.put(key, items, morePages);
+        }
+    }
+
+    /**
+     * Loads pages from the attached store into memory, without replacing pages which are already cached.
+     */
+    @WorkerThread
+    void warm() {
+        ContentStore store = this.store;
+        if (store == null) {
+            return;
+        }
+        int limit = this.limit;
+        Map<String, Page<T>> stored = store.getAll(limit);
+        for (Map.Entry<String, Page<T>> entry : stored.entrySet()) {
+            if (pages.size() < limit && pages.get(entry.getKey()) == null) {
+                pages.put(entry.getKey(), entry.getValue());
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets a number which changes whenever pages are added to or cleared from the cache, so anything
+     * derived from the cached pages knows when to rebuild
+     */
+    int version() {
+        return version.get();
+    }
+
+    /**
+     * Gets a copy of the cached pages by key, from least to most recently used
+     */
+    Map<String, Page<T>> snapshot() {
+        return pages.snapshot();
+    }
+
+    void clear() {
+        pages.evictAll();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Evicts the least recently used pages until only a fraction of the cached pages are left. Stored
+     * pages are kept and come back on the next {@link #warm()}.
+     * @param keep the fraction of pages to keep, 0 evicts every page
+     */
+    void trim(float keep) {
+        if (keep >= 1f) {
+            return;
+        }
+        int size = pages.size();
+        if (size == 0) {
+            return;
+        }
+        pages.trimToSize((int) (size * keep));
+        version.incrementAndGet();
+    }
+
+    CacheStats stats(String name) {
+        return new CacheStats(name, pages.size(), pages.maxSize(), pages.hitCount(), pages.missCount(),
+                pages.evictionCount());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import com.desk.android.sdk.error.ErrorResponse;
+
+import java.util.List;
+
+/**
+ * Receives pages emitted by a {@link PageStream}.
+ * @param <T> the type of item contained in each page
+ */
+public interface PageSubscriber<T> {
+
+    /**
+     * Called when a page is available. A page which is cached will be emitted first with {@code fromCache}
+     * set to true, followed by the same page from the network which should replace it.
+     * @param page the page number
+     * @param items the items on the page
+     * @param morePages true if there are additional pages, false if this is the last page
+     * @param fromCache true if the page was served from the cache
+     */
+    void onPage(int page, List<T> items, boolean morePages, boolean fromCache);
+
+    /**
+     * Called when there is an error loading a page. Call {@link Subscription#request(int)} to try again.
+     * @param error the error response
+     */
+    void onError(ErrorResponse error);
+
+    /**
+     * Called once the last page has been emitted from the network
+     */
+    void onComplete();
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.desk.android.sdk.error.DeskException;
+import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.network.RequestPriority;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.java.apiclient.model.ApiResponse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * <p>Fetches every page of a paginated endpoint. The first page is requested alone to learn the total
+ * number of entries, then the remaining pages are requested concurrently, at most
+ * {@code maxConcurrency} at a time. Failed pages are retried on transient errors up to {@code maxAttempts}
+ * times unless the client already retried them; any other failure fails the whole fetch and cancels the
+ * pages in flight. Pages preempted by the {@link RequestScheduler} are requested again without counting as
+ * an attempt.
+ * The pages are reassembled in page order once they have all loaded.</p>
+ *
+ * <p>Pages are requested with the {@link RequestPriority} of the thread which created the fetcher.
+ * Listeners are notified on the thread which completed the last request.</p>
+ *
+ * @param <T> the type of entry in each page
+ */
+class PagedFetcher<T> implements Cancellable {
+
+    /**
+     * Creates the call for a page
+     */
+    interface CallFactory<T> {
+        Call<ApiResponse<T>> create(int page);
+    }
+
+    /**
+     * Receives the pages loaded by the fetcher
+     */
+    interface Listener<T> {
+
+        /**
+         * Called once all pages have loaded
+         * @param entries the entries of all pages in page order
+         */
+        void onComplete(List<T> entries);
+
+        /**
+         * Called when a page could not be loaded
+         * @param error the error response
+         */
+        void onError(ErrorResponse error);
+    }
+
+    private final CallFactory<T> factory;
+    private final RequestScheduler scheduler;
+    private final int perPage;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final RequestPriority priority = RequestPriority.current();
+
+    private Listener<T> listener;
+    private final List<List<T>> pages = new ArrayList<>();
+    private final List<Integer> attempts = new ArrayList<>();
+    private final Set<Call<ApiResponse<T>>> inFlight = new HashSet<>();
+    private int pageCount = 1;
+    private int nextPage = 1;
+    private int loadedPages;
+    private boolean done;
+    private boolean cancelled;
+
+    PagedFetcher(@NonNull CallFactory<T> factory, @NonNull RequestScheduler scheduler, int perPage,
+                 int maxConcurrency, int maxAttempts) {
+        this.factory = factory;
+        this.scheduler = scheduler;
+        this.perPage = perPage;
+        this.maxConcurrency = maxConcurrency;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Starts fetching the pages
+     * @param listener the listener to notify
+     */
+    void start(@NonNull Listener<T> listener) {
+        synchronized (this) {
+            if (this.listener != null) {
+                throw new IllegalStateException("Fetch already started.");
+            }
+            this.listener = listener;
+        }
+        launch();
+    }
+
+    /**
+     * Fetches the pages, blocking the calling thread until they have all loaded
+     * @return the entries of all pages in page order
+     * @throws DeskException if a page could not be loaded
+     */
+    @NonNull
+    @WorkerThread
+    List<T> fetch() throws DeskException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<List<T>> result = new ArrayList<>(1);
+        final List<ErrorResponse> error = new ArrayList<>(1);
+        start(new Listener<T>() {
+            @Override
+            public void onComplete(List<T> entries) {
+                result.add(entries);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(ErrorResponse errorResponse) {
+                error.add(errorResponse);
+                latch.countDown();
+            }
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new DeskException(new ErrorResponse(e), e);
+        }
+        if (!error.isEmpty()) {
+            throw new DeskException(error.get(0));
+        }
+        return result.get(0);
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            cancelled = !done;
+        }
+        stop();
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Requests pages until the concurrency limit is reached or there are no more pages to request
+     */
+    private void launch() {
+        while (true) {
+            final int page;
+            synchronized (this) {
+                if (done || nextPage > pageCount || inFlight.size() >= maxConcurrency
+                        // wait for the first page to learn the page count
+                        || (nextPage > 1 && loadedPages == 0)) {
+                    return;
+                }
+                page = nextPage++;
+            }
+            request(page);
+        }
+    }
+
+    private void request(final int page) {
+        Call<ApiResponse<T>> call = factory.create(page);
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            inFlight.add(call);
+        }
+        scheduler.enqueue(call, priority, new Callback<ApiResponse<T>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<T>> call, Response<ApiResponse<T>> response) {
+                if (!finish(call)) {
+                    return;
+                }
+                if (response.isSuccessful()) {
+                    onPage(page, response.body());
+                } else {
+                    retryOrFail(page, ErrorResponse.fromResponse(response));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<T>> call, Throwable throwable) {
+                if (!finish(call)) {
+                    return;
+                }
+                if (scheduler.isPreempted(call)) {
+                    request(page);
+                } else {
+                    retryOrFail(page, new ErrorResponse(throwable));
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes a completed call from the calls in flight
+     * @return true if the fetch is still running
+     */
+    private synchronized boolean finish(Call<ApiResponse<T>> call) {
+        return inFlight.remove(call) && !done;
+    }
+
+    private void onPage(int page, ApiResponse<T> response) {
+        List<T> entries = response != null ? response.getEntriesAsList() : new ArrayList<T>();
+        Listener<T> listener;
+        List<T> all = null;
+        synchronized (this) {
+            listener = this.listener;
+            if (page == 1 && response != null) {
+                pageCount = Math.max(1, (response.getTotalEntries() + perPage - 1) / perPage);
+            }
+
+            // keep going if the api reports more pages than the total suggested
+            if (response != null && response.hasNextPage() && page >= pageCount) {
+                pageCount = page + 1;
+            }
+            set(pages, page, entries);
+            loadedPages++;
+            if (loadedPages == pageCount) {
+                done = true;
+                all = new ArrayList<>();
+                for (List<T> pageEntries : pages) {
+                    all.addAll(pageEntries);
+                }
+            }
+        }
+        if (all != null) {
+            listener.onComplete(all);
+        } else {
+            launch();
+        }
+    }
+
+    /**
+     * Stops the fetch and cancels the calls in flight
+     * @return true if the fetch was running
+     */
+    private boolean stop() {
+        List<Call<ApiResponse<T>>> calls;
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            calls = new ArrayList<>(inFlight);
+            inFlight.clear();
+        }
+        for (Call<ApiResponse<T>> call : calls) {
+            call.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * Retries a failed page if the failure is transient and wasn't already retried by the client's
+     * {@link com.desk.android.sdk.network.ResilienceInterceptor}
+     */
+    private void retryOrFail(int page, ErrorResponse error) {
+        boolean retryable = error.isTransient() && error.getRetryCount() == 0;
+        boolean retry;
+        synchronized (this) {
+            int attempt = get(attempts, page) + 1;
+            set(attempts, page, attempt);
+            retry = retryable && attempt < maxAttempts;
+        }
+        if (retry) {
+            request(page);
+            return;
+        }
+        if (stop()) {
+            listener.onError(error);
+        }
+    }
+
+    private static <E> void set(List<E> list, int page, E value) {
+        while (list.size() < page) {
+            list.add(null);
+        }
+        list.set(page - 1, value);
+    }
+
+    private static int get(List<Integer> list, int page) {
+        return page <= list.size() && list.get(page - 1) != null ? list.get(page - 1) : 0;
+    }
+}
@@ -26,17 +26,25 @@
 
 package com.desk.android.sdk.provider;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.annotation.WorkerThread;
+
 import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.error.DeskException;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.metrics.DeskMetrics;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.android.sdk.util.DeskExecutors;
 import com.desk.java.apiclient.model.ApiResponse;
 import com.desk.java.apiclient.model.Topic;
 import com.desk.java.apiclient.service.TopicService;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 import static com.desk.java.apiclient.model.SortDirection.ASC;
 import static com.desk.java.apiclient.service.TopicService.FIELD_POSITION;
@@ -69,47 +77,218 @@ public class TopicProvider {
 
     public static final int ALL_BRANDS = 0;
 
+    private static final String METRICS_NAME = "topics";
+
+    /**
+     * The maximum page size allowed by the api
+     */
+    @VisibleForTesting
+    static final int PER_PAGE = 100;
+
+    @VisibleForTesting
+    static final int MAX_CONCURRENT_PAGES = 4;
+
+    @VisibleForTesting
+    static final int MAX_PAGE_ATTEMPTS = 3;
+
+    private static final int MAX_CACHED_BRANDS = 8;
+
     private TopicService mTopicService;
+    private PageCache<Topic> mTopicCache;
+    private Executor mWorkExecutor;
+    private Executor mCallbackExecutor;
+    private RequestScheduler mScheduler;
 
     public TopicProvider(TopicService topicService) {
+        this(topicService, DeskExecutors.direct(), DeskExecutors.direct());
+    }
+
+    /**
+     * Creates a provider which post-processes responses on {@code workExecutor} and notifies
+     * callbacks on {@code callbackExecutor}.
+     *
+     * @param topicService the topic service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     */
+    public TopicProvider(TopicService topicService, @NonNull Executor workExecutor, @NonNull Executor callbackExecutor) {
+        this(topicService, workExecutor, callbackExecutor, RequestScheduler.direct());
+    }
+
+    /**
+     * Creates a provider which makes its requests through {@code scheduler}.
+     *
+     * @param topicService the topic service
+     * @param workExecutor the executor used to process responses
+     * @param callbackExecutor the executor used to deliver results to callbacks
+     * @param scheduler the scheduler of the provider's requests
+     */
+    public TopicProvider(TopicService topicService, @NonNull Executor workExecutor, @NonNull Executor callbackExecutor,
+                         @NonNull RequestScheduler scheduler) {
         mTopicService = topicService;
+        mWorkExecutor = workExecutor;
+        mCallbackExecutor = callbackExecutor;
+        mScheduler = scheduler;
+        mTopicCache = new PageCache<>(MAX_CACHED_BRANDS);
     }
 
     /**
-     * Retrieves the {@link Topic}s based on the {@code brandId} provided.
+     * Attaches a {@link ContentStore} which topics are written through to, and warms the in-memory
+     * cache from it on the work executor.
      *
-     * @param brandId the brand Id
-     * @param cb the callback upon success or failure
+     * @param store the store or null to stop storing topics
      */
-    public void getTopics(int brandId, TopicCallbacks cb) {
-        mTopicService.getTopics(
-                Desk.getLanguage(),
-                true,
-                brandId == ALL_BRANDS ? null : brandId,
-                FIELD_POSITION,
-                ASC)
-                .enqueue(new RetrofitCallback(cb));
+    public void setContentStore(@Nullable ContentStore store) {
+        mTopicCache.setStore(store);
+        if (store != null) {
+            mWorkExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mTopicCache.warm();
+                }
+            });
+        }
     }
 
-    static class RetrofitCallback implements Callback<ApiResponse<Topic>> {
+    /**
+     * Releases cached topics for the trim level passed to
+     * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}
+     *
+     * @param level the trim level
+     */
+    public void trimMemory(int level) {
+        mTopicCache.trim(MemoryTrim.keepEntities(level));
+    }
 
-        TopicCallbacks callbacks;
+    /**
+     * Gets the size and eviction count of the topic cache
+     *
+     * @return the stats of the cache
+     */
+    @NonNull
+    public CacheStats getCacheStats() {
+        return mTopicCache.stats(METRICS_NAME);
+    }
 
-        public RetrofitCallback(TopicCallbacks callbacks) {
-            this.callbacks = callbacks;
-        }
+    /**
+     * Creates a stream of the {@link Topic}s for the {@code brandId} provided. All topics are emitted as a
+     * single page; the cached topics are emitted first, followed by the topics from the network.
+     *
+     * @param brandId the brand Id
+     * @return the stream of topics
+     */
+    @NonNull
+    public final PageStream<Topic> topics(final int brandId) {
+        return new BasePageStream<Topic>() {
+            @Override
+            PageCache.Page<Topic> getCachedPage(int page) {
+                return getCachedTopics(brandId);
+            }
 
-        @Override
-        public void onResponse(Call<ApiResponse<Topic>> call, Response<ApiResponse<Topic>> response) {
-            if (callbacks != null) {
-                callbacks.onTopicsLoaded(response.body().getEntriesAsList());
+            @Override
+            void loadPage(int page, final PageResult<Topic> result) {
+                getTopics(brandId, new TopicCallbacks() {
+                    @Override
+                    public void onTopicsLoaded(List<Topic> topics) {
+                        result.onPageLoaded(topics, false);
+                    }
+
+                    @Override
+                    public void onTopicsLoadError(ErrorResponse error) {
+                        result.onPageError(error);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Retrieves all {@link Topic}s based on the {@code brandId} provided. The first page is loaded to
+     * learn the total number of topics, then the remaining pages are loaded concurrently and
+     * reassembled in position order. The assembled topics are cached per brand and language.
+     *
+     * @param brandId the brand Id
+     * @param cb the callback upon success or failure
+     */
+    public void getTopics(final int brandId, final TopicCallbacks cb) {
+        topicsFetcher(brandId).start(new PagedFetcher.Listener<Topic>() {
+            @Override
+            public void onComplete(final List<Topic> topics) {
+                if (cb == null) {
+                    return;
+                }
+                mWorkExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        mTopicCache.put(cacheKey(brandId), topics, false);
+                        DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+                            @Override
+                            public void run() {
+                                cb.onTopicsLoaded(topics);
+                            }
+                        });
+                    }
+                });
             }
-        }
 
-        @Override public void onFailure(Call<ApiResponse<Topic>> call, Throwable throwable) {
-            if (callbacks != null) {
-                callbacks.onTopicsLoadError(new ErrorResponse(throwable));
+            @Override
+            public void onError(final ErrorResponse error) {
+                if (cb == null) {
+                    return;
+                }
+                DeskMetrics.deliver(mCallbackExecutor, METRICS_NAME, new Runnable() {
+                    @Override
+                    public void run() {
+                        cb.onTopicsLoadError(error);
+                    }
+                });
             }
-        }
+        });
+    }
+
+    /**
+     * Retrieves all {@link Topic}s based on the {@code brandId} provided, blocking the calling thread
+     * until every page has loaded.
+     *
+     * @param brandId the brand Id
+     * @return the topics
+     * @throws DeskException if the request fails
+     */
+    @NonNull
+    @WorkerThread
+    public List<Topic> getTopics(int brandId) throws DeskException {
+        List<Topic> topics = topicsFetcher(brandId).fetch();
+        mTopicCache.put(cacheKey(brandId), topics, false);
+        return topics;
+    }
+
+    private PagedFetcher<Topic> topicsFetcher(final int brandId) {
+        return new PagedFetcher<Topic>(new PagedFetcher.CallFactory<Topic>() {
+            @Override
+            public Call<ApiResponse<Topic>> create(int page) {
+                return mTopicService.getTopics(
+                        Desk.getLanguage(),
+                        page,
+                        PER_PAGE,
+                        true,
+                        brandId == ALL_BRANDS ? null : brandId,
+                        FIELD_POSITION,
+                        ASC);
+            }
+        }, mScheduler, PER_PAGE, MAX_CONCURRENT_PAGES, MAX_PAGE_ATTEMPTS);
+    }
+
+    /**
+     * Gets the cached topics for a brand
+     * @param brandId the brand Id
+     * @return the cached topics or null if they are not cached
+     */
+    @Nullable
+    PageCache.Page<Topic> getCachedTopics(int brandId) {
+        return mTopicCache.get(cacheKey(brandId));
+    }
+
+    static String cacheKey(int brandId) {
+        return Desk.getLanguage() + '/' + brandId;
     }
 }
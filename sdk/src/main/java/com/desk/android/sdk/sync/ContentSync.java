@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.sync;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.error.DeskException;
+import com.desk.android.sdk.network.RequestPriority;
+import com.desk.android.sdk.provider.ArticleProvider;
+import com.desk.android.sdk.provider.Cancellable;
+import com.desk.android.sdk.provider.TopicProvider;
+import com.desk.java.apiclient.model.Topic;
+
+import java.util.List;
+
+/**
+ * <p>Refreshes the topics and articles of the synced brands into the providers' {@link com.desk.android.sdk.provider.ContentStore}s
+ * using the blocking provider methods. A sync runs on the calling thread and can be cancelled between
+ * requests.</p>
+ *
+ * <p>Requests go through the {@link com.desk.java.apiclient.DeskClient}'s response cache, so pages which
+ * have not changed since the last sync are revalidated with conditional requests rather than transferred
+ * again, and the stored copy of an unchanged page is not rewritten.</p>
+ *
+ * <p>Requests are made with {@link RequestPriority#BACKGROUND} so a sync gives way to requests the user is
+ * waiting on when the api's rate limit runs low.</p>
+ */
+public class ContentSync implements Cancellable {
+
+    private final TopicProvider topicProvider;
+    private final ArticleProvider articleProvider;
+    private final int[] brandIds;
+    private volatile boolean cancelled;
+
+    public ContentSync(@NonNull TopicProvider topicProvider, @NonNull ArticleProvider articleProvider,
+                       @NonNull int[] brandIds) {
+        this.topicProvider = topicProvider;
+        this.articleProvider = articleProvider;
+        this.brandIds = brandIds;
+    }
+
+    /**
+     * Creates a sync of the brands scheduled with {@link SyncScheduler} using the providers of {@link Desk}.
+     * @param context the context
+     * @return the sync
+     */
+    @NonNull
+    public static ContentSync create(@NonNull Context context) {
+        Desk desk = Desk.with(context);
+        return new ContentSync(desk.getTopicProvider(), desk.getArticleProvider(), SyncScheduler.getBrandIds(context));
+    }
+
+    /**
+     * Runs the sync on the calling thread
+     * @throws DeskException if a request fails, in which case the remaining content is not synced
+     */
+    @WorkerThread
+    public void run() throws DeskException {
+        RequestPriority previous = RequestPriority.set(RequestPriority.BACKGROUND);
+        try {
+            for (int brandId : brandIds) {
+                if (cancelled) {
+                    return;
+                }
+                List<Topic> topics = topicProvider.getTopics(brandId);
+                for (Topic topic : topics) {
+                    if (cancelled) {
+                        return;
+                    }
+                    articleProvider.getAllArticles(topic.getId(), brandId);
+                }
+            }
+        } finally {
+            RequestPriority.set(previous);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.sync;
+
+import android.annotation.TargetApi;
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.os.Build;
+import android.util.Log;
+
+import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.error.DeskException;
+
+/**
+ * Runs the background sync on API 21+ on the {@link Desk#getWorkExecutor() work executor}. Scheduled by
+ * {@link SyncScheduler}.
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class SyncJobService extends JobService {
+
+    private static final String TAG = "SyncJobService";
+
+    private ContentSync mSync;
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        if (!SyncScheduler.isEnabledByProfile(this)) {
+            return false;
+        }
+        final ContentSync sync = ContentSync.create(this);
+        mSync = sync;
+        Desk.with(this).getWorkExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean reschedule = false;
+                try {
+                    sync.run();
+                } catch (DeskException e) {
+                    Log.w(TAG, "Sync failed", e);
+                    reschedule = e.getErrorResponse().isNetworkError();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Sync failed", e);
+                } finally {
+                    if (!sync.isCancelled()) {
+                        jobFinished(params, reschedule);
+                    }
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        if (mSync != null) {
+            mSync.cancel();
+            mSync = null;
+        }
+
+        // the constraints are no longer met, try again when they are
+        return true;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.sync;
+
+import android.annotation.TargetApi;
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.v4.net.ConnectivityManagerCompat;
+import android.text.TextUtils;
+
+import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.provider.TopicProvider;
+
+/**
+ * <p>Schedules the periodic background sync of topics and articles. On API 21+ the sync runs as a
+ * {@link SyncJobService} which the system only starts on an unmetered network while the device is
+ * charging. On older devices an inexact, non-waking alarm starts {@link SyncService}, which checks the
+ * same constraints itself before syncing. Neither syncs while the
+ * {@link com.desk.android.sdk.config.PerformanceProfile} turns background sync off.</p>
+ *
+ * <p>The schedule and the brands to sync are persisted so the sync can run after the app's process
+ * has been restarted. The job is persisted across reboots by the system, and {@link SyncBootReceiver}
+ * sets the alarm again after a reboot. The receiver is only enabled while the sync is scheduled, so
+ * apps which don't sync aren't started at boot.</p>
+ */
+public final class SyncScheduler {
+
+    private static final int JOB_ID = 0x6465736b; // "desk"
+    private static final String PREFS_NAME = "com.desk.android.sdk.sync";
+    private static final String KEY_INTERVAL = "interval";
+    private static final String KEY_BRAND_IDS = "brand_ids";
+
+    /**
+     * The minimum battery level, in percent, at which the fallback sync will run
+     */
+    private static final int MIN_BATTERY_PERCENT = 15;
+
+    private SyncScheduler() {}
+
+    /**
+     * Schedules the periodic sync, replacing any existing schedule
+     * @param context the context
+     * @param intervalMillis the interval between syncs
+     * @param brandIds the brands to sync, or {@link TopicProvider#ALL_BRANDS}
+     */
+    public static void schedule(@NonNull Context context, long intervalMillis, @NonNull int[] brandIds) {
+        Context appContext = context.getApplicationContext();
+        getPrefs(appContext).edit()
+                .putLong(KEY_INTERVAL, intervalMillis)
+                .putString(KEY_BRAND_IDS, joinBrandIds(brandIds))
+                .apply();
+        setBootReceiverEnabled(appContext, true);
+        arm(appContext, intervalMillis);
+    }
+
+    /**
+     * Schedules the persisted sync again, e.g. after a reboot has cleared its alarm. Does nothing if the
+     * sync isn't scheduled.
+     * @param context the context
+     */
+    static void reschedule(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        long intervalMillis = getPrefs(appContext).getLong(KEY_INTERVAL, 0);
+        if (intervalMillis > 0) {
+            arm(appContext, intervalMillis);
+        }
+    }
+
+    private static void arm(Context context, long intervalMillis) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            scheduleJob(context, intervalMillis);
+        } else {
+            getAlarmManager(context).setInexactRepeating(
+                    AlarmManager.ELAPSED_REALTIME,
+                    SystemClock.elapsedRealtime() + intervalMillis,
+                    intervalMillis,
+                    getServiceIntent(context));
+        }
+    }
+
+    /**
+     * Cancels the periodic sync
+     * @param context the context
+     */
+    public static void cancel(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        getPrefs(appContext).edit().clear().apply();
+        setBootReceiverEnabled(appContext, false);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            cancelJob(appContext);
+        } else {
+            getAlarmManager(appContext).cancel(getServiceIntent(appContext));
+        }
+    }
+
+    /**
+     * Returns whether the periodic sync is scheduled
+     * @param context the context
+     * @return true if scheduled, false if not
+     */
+    public static boolean isScheduled(@NonNull Context context) {
+        return getPrefs(context.getApplicationContext()).contains(KEY_INTERVAL);
+    }
+
+    @NonNull
+    static int[] getBrandIds(@NonNull Context context) {
+        String joined = getPrefs(context.getApplicationContext()).getString(KEY_BRAND_IDS, null);
+        if (TextUtils.isEmpty(joined)) {
+            return new int[] {TopicProvider.ALL_BRANDS};
+        }
+        String[] split = joined.split(",");
+        int[] brandIds = new int[split.length];
+        for (int i = 0; i < split.length; i++) {
+            brandIds[i] = Integer.parseInt(split[i]);
+        }
+        return brandIds;
+    }
+
+    /**
+     * Returns whether the device is on an unmetered network and charging with enough battery, which
+     * the system enforces for the job on API 21+.
+     * @param context the context
+     * @return true if the sync may run
+     */
+    static boolean canSync(@NonNull Context context) {
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkInfo network = cm.getActiveNetworkInfo();
+        if (network == null || !network.isConnected() || ConnectivityManagerCompat.isActiveNetworkMetered(cm)) {
+            return false;
+        }
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery == null) {
+            return false;
+        }
+        boolean charging = battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        return charging && level >= 0 && scale > 0 && level * 100 / scale >= MIN_BATTERY_PERCENT;
+    }
+
+    /**
+     * Returns whether the performance profile lets the sync run
+     * @param context the context
+     * @return true if the sync may run
+     */
+    static boolean isEnabledByProfile(@NonNull Context context) {
+        return Desk.with(context).getPerformanceProfile().isBackgroundSyncEnabled();
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static void scheduleJob(Context context, long intervalMillis) {
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, SyncJobService.class))
+                .setPeriodic(intervalMillis)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPersisted(true)
+                .build();
+        getJobScheduler(context).schedule(job);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static void cancelJob(Context context) {
+        getJobScheduler(context).cancel(JOB_ID);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static JobScheduler getJobScheduler(Context context) {
+        return (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+    }
+
+    private static void setBootReceiverEnabled(Context context, boolean enabled) {
+        context.getPackageManager().setComponentEnabledSetting(
+                new ComponentName(context, SyncBootReceiver.class),
+                enabled ? PackageManager.COMPONENT_ENABLED_STATE_ENABLED
+                        : PackageManager.COMPONENT_ENABLED_STATE_DISABLED,
+                PackageManager.DONT_KILL_APP);
+    }
+
+    private static AlarmManager getAlarmManager(Context context) {
+        return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    }
+
+    private static PendingIntent getServiceIntent(Context context) {
+        return PendingIntent.getService(context, 0, new Intent(context, SyncService.class),
+                PendingIntent.FLAG_UPDATE_CURRENT);
+    }
+
+    private static SharedPreferences getPrefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static String joinBrandIds(int[] brandIds) {
+        StringBuilder builder = new StringBuilder();
+        for (int brandId : brandIds) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(brandId);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.sync;
+
+import android.app.IntentService;
+import android.content.Intent;
+import android.os.Process;
+import android.util.Log;
+
+import com.desk.android.sdk.error.DeskException;
+
+/**
+ * Runs the background sync on devices older than API 21, where {@link SyncScheduler} starts it with an
+ * inexact alarm. The sync is skipped unless the device is on an unmetered network and charging.
+ */
+public class SyncService extends IntentService {
+
+    private static final String TAG = "SyncService";
+
+    public SyncService() {
+        super(TAG);
+    }
+
+    @Override
+    protected void onHandleIntent(Intent intent) {
+        if (!SyncScheduler.isScheduled(this) || !SyncScheduler.canSync(this)
+                || !SyncScheduler.isEnabledByProfile(this)) {
+            return;
+        }
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        try {
+            ContentSync.create(this).run();
+        } catch (DeskException e) {
+            Log.w(TAG, "Sync failed", e);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Sync failed", e);
+        }
+    }
+}
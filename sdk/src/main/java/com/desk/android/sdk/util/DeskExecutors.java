@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Factory methods for the {@link Executor}s used by the SDK. Providers run heavy post-processing
+ * of api responses (model mapping, filtering, index updates) on a work executor and deliver results
+ * to their callbacks on a callback executor, which is the main thread by default.</p>
+ *
+ * <p>Host apps which already maintain their own thread pools can share them with the SDK by passing
+ * them to {@link com.desk.android.sdk.Desk#setWorkExecutor(Executor)} and
+ * {@link com.desk.android.sdk.Desk#setCallbackExecutor(Executor)}.</p>
+ */
+public final class DeskExecutors {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int WORK_POOL_SIZE = Math.max(2, Math.min(CPU_COUNT - 1, 4));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private static Executor mainThread;
+    private static ScheduledExecutorService timer;
+
+    private DeskExecutors() {}
+
+    /**
+     * Gets an executor which runs each task immediately on the calling thread
+     * @return the direct executor
+     */
+    @NonNull
+    public static Executor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Gets an executor which posts each task to the main thread
+     * @return the main thread executor
+     */
+    @NonNull
+    public static synchronized Executor mainThread() {
+        if (mainThread == null) {
+            mainThread = new MainThreadExecutor();
+        }
+        return mainThread;
+    }
+
+    /**
+     * Gets the executor which runs the SDK's delayed tasks, such as hedged requests, on a single thread.
+     * Tasks must be short and hand any real work to another executor.
+     * @return the timer
+     */
+    @NonNull
+    public static synchronized ScheduledExecutorService timer() {
+        if (timer == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "desk-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            timer = executor;
+        }
+        return timer;
+    }
+
+    /**
+     * Creates the default work executor. Threads run at background priority and are released
+     * when the SDK has been idle for a while.
+     * @return a new work executor
+     */
+    @NonNull
+    public static ExecutorService newWorkExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                WORK_POOL_SIZE,
+                WORK_POOL_SIZE,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new WorkThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static class MainThreadExecutor implements Executor {
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                command.run();
+            } else {
+                handler.post(command);
+            }
+        }
+    }
+
+    static class WorkThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "desk-work-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.util;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>Emits named sections around the SDK's hot paths so its work shows up in systrace and Perfetto.
+ * Tracing is off by default; call {@link #setEnabled(boolean)} before using the SDK to turn it on. While
+ * disabled each call is a single volatile read.</p>
+ *
+ * <p>Synchronous sections require API 18 and must be ended on the thread which began them. Async sections,
+ * used for network requests, rely on a hidden platform API which is looked up reflectively and silently
+ * skipped where unavailable.</p>
+ */
+public final class DeskTrace {
+
+    private static final String TAG = "DeskTrace";
+    private static final String PREFIX = "Desk:";
+
+    private static volatile boolean enabled;
+
+    private static boolean asyncResolved;
+    private static long traceTagApp;
+    private static Method asyncTraceBegin;
+    private static Method asyncTraceEnd;
+
+    private DeskTrace() {}
+
+    /**
+     * Enables or disables tracing
+     * @param enable true to emit trace sections
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Returns whether tracing is enabled
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    /**
+     * Begins a section on the current thread. Every call must be paired with {@link #end()}.
+     * @param section the name of the section
+     */
+    public static void begin(@NonNull String section) {
+        if (isEnabled()) {
+            beginSection(section);
+        }
+    }
+
+    /**
+     * Ends the most recent section begun on the current thread
+     */
+    public static void end() {
+        if (isEnabled()) {
+            endSection();
+        }
+    }
+
+    /**
+     * Begins an async section which may end on another thread
+     * @param section the name of the section
+     * @param cookie identifies the section among concurrent sections with the same name
+     */
+    public static void beginAsync(@NonNull String section, int cookie) {
+        if (isEnabled() && resolveAsync()) {
+            invoke(asyncTraceBegin, PREFIX + section, cookie);
+        }
+    }
+
+    /**
+     * Ends an async section
+     * @param section the name of the section
+     * @param cookie the cookie passed to {@link #beginAsync(String, int)}
+     */
+    public static void endAsync(@NonNull String section, int cookie) {
+        if (isEnabled() && resolveAsync()) {
+            invoke(asyncTraceEnd, PREFIX + section, cookie);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginSection(String section) {
+        Trace.beginSection(PREFIX + section);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endSection() {
+        Trace.endSection();
+    }
+
+    private static synchronized boolean resolveAsync() {
+        if (!asyncResolved) {
+            asyncResolved = true;
+            try {
+                traceTagApp = Trace.class.getField("TRACE_TAG_APP").getLong(null);
+                asyncTraceBegin = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+                asyncTraceEnd = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+            } catch (Exception e) {
+                Log.w(TAG, "Async trace sections are unavailable", e);
+                asyncTraceBegin = null;
+                asyncTraceEnd = null;
+            }
+        }
+        return asyncTraceBegin != null;
+    }
+
+    private static void invoke(Method method, String section, int cookie) {
+        try {
+            method.invoke(null, traceTagApp, section, cookie);
+        } catch (Exception e) {
+            Log.w(TAG, "Unable to trace " + section, e);
+        }
+    }
+}
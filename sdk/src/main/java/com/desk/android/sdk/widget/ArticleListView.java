@@ -44,7 +44,12 @@ import com.desk.android.sdk.R;
 import com.desk.android.sdk.adapter.ArticleListAdapter;
 import com.desk.android.sdk.brand.BrandProvider;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.network.NetworkMonitor;
 import com.desk.android.sdk.provider.ArticleProvider;
+import com.desk.android.sdk.provider.PageStream;
+import com.desk.android.sdk.provider.PageSubscriber;
+import com.desk.android.sdk.provider.Subscription;
+import com.desk.android.sdk.util.DeskTrace;
 import com.desk.android.sdk.util.EndlessScrollListener;
 import com.desk.java.apiclient.model.Article;
 import java.io.Serializable;
@@ -67,9 +72,17 @@ import static com.desk.android.sdk.provider.ArticleProvider.ALL_TOPICS;
  * and override the {@link com.desk.android.sdk.R.styleable#ArticleListView_dk_errorText} attribute, or
  * override the {@link com.desk.android.sdk.R.styleable#ArticleListView_dk_errorText} attribute in your layout file.</p>
  *
+ * <p>Articles are loaded from a {@link PageStream} and the next page is only requested as the user
+ * scrolls toward the end of the list. When loading fails while articles are showing they stay on screen,
+ * and the failed page is loaded again once the network becomes available. The size of the pages is chosen
+ * when loading starts and kept until the list is loaded again, so that resuming never skips articles.
+ * How far ahead of the end of the list the next page is loaded depends on the
+ * {@link com.desk.android.sdk.config.PerformanceProfile}.</p>
+ *
  * Created by Matt Kranzler on 6/29/15.
  */
-public class ArticleListView extends FrameLayout implements AdapterView.OnItemClickListener {
+public class ArticleListView extends FrameLayout implements AdapterView.OnItemClickListener,
+        NetworkMonitor.Listener {
 
     /**
      * Listener for when an article is selected from the list
@@ -83,8 +96,6 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
     @VisibleForTesting
     static final int MODE_SEARCH = 1;
 
-    private static final int VISIBLE_THRESHOLD = 10;
-
     private ListView mList;
     private ProgressBar mProgress;
     private TextView mEmpty;
@@ -100,13 +111,17 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
     private String mQuery;
     private int mMode;
     private int mCurrentPage;
+    private int mCurrentPageSize;
+    private int mPageSize;
     private boolean mHaveNextPage;
     private boolean mHaveError;
+    private boolean mStale;
 
     private long mBrandId;
     private boolean mIsBranded;
 
     private ArticleSelectedListener mArticleSelectedListener;
+    private Subscription mSubscription;
 
     public ArticleListView(Context context) {
         this(context, null);
@@ -143,11 +158,12 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
     private void initializeList() {
         if (mList.getAdapter() == null) {
             mList.setAdapter(mAdapter);
-            mList.setOnScrollListener(new EndlessScrollListener(VISIBLE_THRESHOLD, mCurrentPage) {
+            int prefetchRows = mDesk.getPerformanceProfile().getPrefetchRows();
+            mList.setOnScrollListener(new EndlessScrollListener(prefetchRows, mCurrentPage) {
                 @Override
                 public void onLoadMore(int page, int totalItemsCount) {
                     if (mHaveNextPage) {
-                        loadPage(page);
+                        requestNextPage();
                     }
                 }
             });
@@ -174,11 +190,14 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         mTopicId = topicId;
         mQuery = null;
         mCurrentPage = 0;
+        mCurrentPageSize = 0;
+        mPageSize = 0;
         hideList();
         mAdapter.clear();
         hideEmptyView();
         showProgress();
-        loadPage(1);
+        subscribe(1);
+        mSubscription.request(1);
     }
 
     /**
@@ -201,39 +220,88 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         mTopicId = topicId;
         mQuery = query;
         mCurrentPage = 0;
+        mCurrentPageSize = 0;
+        mPageSize = 0;
         hideList();
         mAdapter.clear();
         hideEmptyView();
         showProgress();
-        loadPage(1);
+        subscribe(1);
+        mSubscription.request(1);
     }
 
-    private void loadPage(int page) {
+    private void subscribe(int firstPage) {
+        cancelSubscription();
         ArticleProvider provider = mDesk.getArticleProvider();
+        if (mPageSize == 0) {
+            mPageSize = provider.getStreamPageSize();
+        }
+        PageStream<Article> stream;
         if (MODE_TOPIC == mMode) {
-            provider.getArticles(mTopicId, mBrandId, page, new Callback());
+            stream = provider.articles(mTopicId, mBrandId, mPageSize);
         } else if (MODE_SEARCH == mMode) {
-            provider.findArticles(mTopicId, mBrandId, mQuery, page, new Callback());
+            stream = provider.search(mTopicId, mBrandId, mQuery, mPageSize);
         } else {
             throw new IllegalStateException("Unexpected mode " + mMode);
         }
+        mSubscription = stream.subscribe(new Subscriber(), firstPage);
+    }
+
+    private void requestNextPage() {
+
+        // resume where we left off if the subscription was cancelled or restored from state
+        if (mSubscription == null || mSubscription.isCancelled()) {
+            subscribe(mCurrentPage + 1);
+        }
+        mSubscription.request(1);
+    }
+
+    private void cancelSubscription() {
+        if (mSubscription != null) {
+            mSubscription.cancel();
+            mSubscription = null;
+        }
+    }
+
+    @VisibleForTesting
+    void onPageReceived(List<Article> articles, int page, boolean haveNextPage) {
+
+        // a cached copy of this page is showing, replace it with the fresh page in a single update
+        boolean replacing = page == mCurrentPage && mCurrentPageSize > 0;
+        if (replacing) {
+            int size = mArticles.size();
+            mAdapter.setNotifyOnChange(false);
+            mArticles.subList(size - mCurrentPageSize, size).clear();
+            mCurrentPageSize = 0;
+        }
+        onPageLoaded(articles, page, haveNextPage);
+        if (replacing) {
+            mAdapter.notifyDataSetChanged();
+        }
     }
 
     @VisibleForTesting
     void onPageLoaded(List<Article> articles, int page, boolean haveNextPage) {
-        if (getContext() != null) {
-            mCurrentPage = page;
-            mHaveNextPage = haveNextPage;
-            hideProgress();
-            if (articles.isEmpty()) {
-                if (page == 1) {
-                    showEmptyView(mEmptyText);
+        DeskTrace.begin("ArticleListView.onPageLoaded");
+        try {
+            if (getContext() != null) {
+                mCurrentPage = page;
+                mCurrentPageSize = articles.size();
+                mHaveNextPage = haveNextPage;
+                hideProgress();
+                if (articles.isEmpty()) {
+                    if (page == 1) {
+                        hideList();
+                        showEmptyView(mEmptyText);
+                    }
+                    return;
                 }
-                return;
+                initializeList();
+                mAdapter.addAll(articles);
+                showList();
             }
-            initializeList();
-            mAdapter.addAll(articles);
-            showList();
+        } finally {
+            DeskTrace.end();
         }
     }
 
@@ -291,12 +359,38 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         }
     }
 
+    @Override
+    public void onNetworkAvailable() {
+        if (mHaveError) {
+            if (MODE_SEARCH == mMode) {
+                searchArticles(mTopicId, mQuery);
+            } else {
+                loadArticles(mTopicId);
+            }
+        } else if (mStale) {
+            if (mSubscription == null || mSubscription.isCancelled()) {
+                subscribe(mCurrentPage);
+            }
+            mSubscription.request(1);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mDesk.getNetworkMonitor().addListener(this);
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        mDesk.getNetworkMonitor().removeListener(this);
 
         // clear reference so we don't leak
         mArticleSelectedListener = null;
+
+        // stop fetching pages, scrolling will resume from the current page
+        cancelSubscription();
     }
 
     @Override
@@ -308,6 +402,8 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         savedState.query = mQuery;
         savedState.mode = mMode;
         savedState.currentPage = mCurrentPage;
+        savedState.currentPageSize = mCurrentPageSize;
+        savedState.pageSize = mPageSize;
         savedState.haveNextPage = mHaveNextPage;
         savedState.haveError = mHaveError;
         return savedState;
@@ -321,6 +417,7 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         mQuery = savedState.query;
         mMode = savedState.mode;
         mCurrentPage = savedState.currentPage;
+        mPageSize = savedState.pageSize;
         mHaveNextPage = savedState.haveNextPage;
         mHaveError = savedState.haveError;
 
@@ -329,19 +426,37 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
             onArticleLoadError();
         } else if (savedState.articles != null) {
             onPageLoaded(savedState.articles, mCurrentPage, mHaveNextPage);
+
+            // the restored articles span every page loaded, a refresh only replaces the last one
+            mCurrentPageSize = savedState.currentPageSize;
         }
     }
 
-    class Callback implements ArticleProvider.ArticleCallbacks {
+    class Subscriber implements PageSubscriber<Article> {
 
         @Override
-        public void onArticlesLoaded(int page, List<Article> articles, boolean morePages) {
-            onPageLoaded(articles, page, morePages);
+        public void onPage(int page, List<Article> articles, boolean morePages, boolean fromCache) {
+            mHaveError = false;
+            if (!fromCache) {
+                mStale = false;
+            }
+            onPageReceived(articles, page, morePages);
         }
 
         @Override
-        public void onArticlesLoadError(ErrorResponse error) {
-            onArticleLoadError();
+        public void onError(ErrorResponse error) {
+            if (mArticles.isEmpty()) {
+                onArticleLoadError();
+            } else {
+                // keep showing the cached articles and retry once the network is back
+                mStale = true;
+                hideProgress();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            mSubscription = null;
         }
     }
 
@@ -352,6 +467,8 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
         String query;
         int mode;
         int currentPage;
+        int currentPageSize;
+        int pageSize;
         boolean haveNextPage;
         boolean haveError;
 
@@ -367,6 +484,8 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
             query = in.readString();
             mode = in.readInt();
             currentPage = in.readInt();
+            currentPageSize = in.readInt();
+            pageSize = in.readInt();
             haveNextPage = in.readInt() == 1;
             haveError = in.readInt() == 1;
         }
@@ -379,6 +498,8 @@ public class ArticleListView extends FrameLayout implements AdapterView.OnItemCl
             dest.writeString(query);
             dest.writeInt(mode);
             dest.writeInt(currentPage);
+            dest.writeInt(currentPageSize);
+            dest.writeInt(pageSize);
             dest.writeInt(haveNextPage ? 1 : 0);
             dest.writeInt(haveError ? 1 : 0);
         }
@@ -36,11 +36,13 @@ import android.webkit.WebViewClient;
 import android.widget.FrameLayout;
 import android.widget.ProgressBar;
 
+import com.desk.android.sdk.Desk;
 import com.desk.android.sdk.R;
 import com.desk.java.apiclient.model.Article;
 
 /**
- * <p>FrameLayout containing a WebView and ProgressBar which can load an article's url.</p>
+ * <p>FrameLayout containing a WebView and ProgressBar which can load an article's url. Images are only
+ * downloaded when the {@link com.desk.android.sdk.config.PerformanceProfile} allows it.</p>
  *
  * Created by Matt Kranzler on 6/30/15.
  */
@@ -86,6 +88,8 @@ public class ArticleView extends FrameLayout {
      * @param article the article to load
      */
     public void loadArticle(Article article) {
+        boolean loadImages = Desk.with(getContext()).getPerformanceProfile().isArticleImagesEnabled();
+        webView.getSettings().setBlockNetworkImage(!loadImages);
         webView.loadUrl(article.getPublicUrl());
     }
 
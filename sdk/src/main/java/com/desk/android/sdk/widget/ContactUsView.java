@@ -28,6 +28,7 @@ package com.desk.android.sdk.widget;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 import android.util.AttributeSet;
@@ -36,6 +37,7 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.LinearLayout;
+import android.widget.TextView;
 
 import com.desk.android.sdk.Desk;
 import com.desk.android.sdk.R;
@@ -44,12 +46,20 @@ import com.desk.android.sdk.config.ContactUsConfig;
 import com.desk.android.sdk.error.IncompleteFormException;
 import com.desk.android.sdk.identity.Identity;
 import com.desk.android.sdk.identity.UserIdentity;
+import com.desk.android.sdk.provider.ArticleProvider;
+import com.desk.android.sdk.provider.Cancellable;
+import com.desk.android.sdk.provider.DraftStore;
+import com.desk.android.sdk.model.ContactUsDraft;
 import com.desk.android.sdk.model.CreateCaseRequest;
 import com.desk.android.sdk.model.CustomFieldProperties;
+import com.desk.android.sdk.util.DeskTrace;
 import com.desk.android.sdk.util.TextWatcherAdapter;
+import com.desk.java.apiclient.model.Article;
 import com.desk.java.apiclient.model.CaseType;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -57,11 +67,35 @@ import java.util.Map;
  * implement {@link com.desk.android.sdk.widget.ContactUsView.FormListener} and call
  * {@link #setFormListener(FormListener)}. Get a {@link CreateCaseRequest} by calling {@link #getRequest(String)}
  * which can be used to create a case.
+ *
+ * <p>While the user types, a draft of the form is saved in the background through the {@link DraftStore}
+ * and restored the next time the form is shown, until {@link #clearDraft()} is called. Articles which match
+ * the subject and feedback are suggested below the form, see {@link #setSuggestionsEnabled(boolean)}.</p>
  */
 public class ContactUsView extends LinearLayout {
 
     /**
-     * Callbacks for various form events
+     * How long to wait after the last change to the email address before matching it
+     */
+    private static final long EMAIL_VALIDATION_DELAY_MS = 300;
+
+    /**
+     * How long to wait after the last change to any field before saving a draft of the form
+     */
+    private static final long DRAFT_SAVE_DELAY_MS = 1000;
+
+    private static final String DRAFT_KEY = "contact_us";
+
+    /**
+     * How long to wait after the last change to the subject or feedback before suggesting articles
+     */
+    private static final long SUGGESTION_DELAY_MS = 250;
+
+    private static final int MAX_SUGGESTIONS = 3;
+
+    /**
+     * Callbacks for various form events. These are only called when the form goes from valid to
+     * invalid or back, not for every change to a field.
      */
     public interface FormListener {
 
@@ -76,6 +110,18 @@ public class ContactUsView extends LinearLayout {
         void onFormInvalid();
     }
 
+    /**
+     * Callback for when a suggested article is selected
+     */
+    public interface SuggestionListener {
+
+        /**
+         * A suggested article was selected
+         * @param article the article
+         */
+        void onSuggestionSelected(Article article);
+    }
+
     private EditText mUserName;
     private EditText mUserEmail;
     private EditText mUserSubject;
@@ -101,6 +147,39 @@ public class ContactUsView extends LinearLayout {
 
     private FormListener mListener;
 
+    private DraftStore mDraftStore;
+    private String mDraftKey;
+    private boolean mEdited;
+    private boolean mRestoring;
+    private boolean mDraftSavePending;
+
+    private final Runnable mSaveDraft = new Runnable() {
+        @Override
+        public void run() {
+            saveDraft();
+        }
+    };
+
+    private LinearLayout mSuggestedArticles;
+    private boolean mSuggestionsEnabled = true;
+    private SuggestionListener mSuggestionListener;
+    private Cancellable mSuggestion;
+
+    private final Runnable mSuggest = new Runnable() {
+        @Override
+        public void run() {
+            suggestArticles();
+        }
+    };
+
+    private final FormValidator mValidator = new FormValidator(Patterns.EMAIL_ADDRESS);
+    private final Runnable mValidateEmail = new Runnable() {
+        @Override
+        public void run() {
+            mValidator.validateEmail();
+        }
+    };
+
     public ContactUsView(Context context) {
         this(context, null);
     }
@@ -127,6 +206,7 @@ public class ContactUsView extends LinearLayout {
         mUserEmail = (EditText) findViewById(R.id.user_email);
         mUserSubject = (EditText) findViewById(R.id.user_subject);
         mUserFeedback = (EditText) findViewById(R.id.user_feedback);
+        mSuggestedArticles = (LinearLayout) findViewById(R.id.suggested_articles);
 
         if (getContext() instanceof BrandProvider) {
             BrandProvider provider = (BrandProvider) getContext();
@@ -138,8 +218,28 @@ public class ContactUsView extends LinearLayout {
         checkConfig(desk.getContactUsConfig());
         checkIdentity(desk.getIdentity());
         setInitialFieldValues();
+        mValidator.reset(mEmail, mSubject, mFeedback);
+        mValidator.setListener(new FormValidator.Listener() {
+            @Override
+            public void onValidityChanged(boolean valid) {
+                notifyFormListener(valid);
+            }
+        });
         setupListeners();
         setInitialFocus();
+
+        mDraftStore = desk.getDraftStore();
+        mDraftKey = mIsBranded ? DRAFT_KEY + "_" + mBrandId : DRAFT_KEY;
+        mDraftStore.load(mDraftKey, new DraftStore.DraftCallbacks() {
+            @Override
+            public void onDraftLoaded(@Nullable ContactUsDraft draft) {
+
+                // don't overwrite anything typed, or restored from instance state, while loading
+                if (draft != null && !mEdited) {
+                    restoreDraft(draft);
+                }
+            }
+        });
     }
 
     private void setInitialFieldValues() {
@@ -159,6 +259,7 @@ public class ContactUsView extends LinearLayout {
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
                     mName = s.toString().trim();
+                    onFieldChanged();
                 }
             });
         } else {
@@ -171,7 +272,11 @@ public class ContactUsView extends LinearLayout {
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
                     mEmail = s.toString().trim();
-                    checkForm();
+                    onFieldChanged();
+                    removeCallbacks(mValidateEmail);
+                    if (mValidator.setEmail(mEmail)) {
+                        postDelayed(mValidateEmail, EMAIL_VALIDATION_DELAY_MS);
+                    }
                 }
             });
         } else {
@@ -184,7 +289,9 @@ public class ContactUsView extends LinearLayout {
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
                     mSubject = s.toString().trim();
-                    checkForm();
+                    onFieldChanged();
+                    scheduleSuggestions();
+                    mValidator.setSubject(mSubject);
                 }
             });
         } else {
@@ -195,7 +302,9 @@ public class ContactUsView extends LinearLayout {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 mFeedback = s.toString().trim();
-                checkForm();
+                onFieldChanged();
+                scheduleSuggestions();
+                mValidator.setFeedback(mFeedback);
             }
         });
     }
@@ -221,6 +330,149 @@ public class ContactUsView extends LinearLayout {
         focusField.requestFocus();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mValidateEmail);
+        removeCallbacks(mSuggest);
+        cancelSuggestion();
+
+        // write the latest changes now rather than dropping them with the pending save
+        if (mDraftSavePending) {
+            removeCallbacks(mSaveDraft);
+            saveDraft();
+        }
+    }
+
+    private void onFieldChanged() {
+        if (mRestoring) {
+            return;
+        }
+        mEdited = true;
+        mDraftSavePending = true;
+        removeCallbacks(mSaveDraft);
+        postDelayed(mSaveDraft, DRAFT_SAVE_DELAY_MS);
+    }
+
+    private void saveDraft() {
+        mDraftSavePending = false;
+        mDraftStore.save(mDraftKey, new ContactUsDraft(
+                mUserNameEnabled ? mName : null,
+                View.VISIBLE == mUserEmail.getVisibility() ? mEmail : null,
+                mUserSubjectEnabled ? mSubject : null,
+                mFeedback));
+    }
+
+    private void restoreDraft(ContactUsDraft draft) {
+        mRestoring = true;
+        if (mUserNameEnabled) {
+            setTextIfEmpty(mUserName, draft.getName());
+        }
+        if (View.VISIBLE == mUserEmail.getVisibility()) {
+            setTextIfEmpty(mUserEmail, draft.getEmail());
+        }
+        if (mUserSubjectEnabled) {
+            setTextIfEmpty(mUserSubject, draft.getSubject());
+        }
+        setTextIfEmpty(mUserFeedback, draft.getFeedback());
+        mRestoring = false;
+    }
+
+    private static void setTextIfEmpty(EditText field, String text) {
+        if (TextUtils.isEmpty(field.getText()) && !TextUtils.isEmpty(text)) {
+            field.setText(text);
+        }
+    }
+
+    /**
+     * Enables or disables suggesting articles which match the subject and feedback as they're typed.
+     * Suggestions are enabled by default.
+     * @param enabled true to suggest articles, false otherwise
+     */
+    public void setSuggestionsEnabled(boolean enabled) {
+        mSuggestionsEnabled = enabled;
+        if (!enabled) {
+            removeCallbacks(mSuggest);
+            cancelSuggestion();
+            showSuggestions(Collections.<Article>emptyList());
+        }
+    }
+
+    /**
+     * Set the listener notified when a suggested article is selected
+     * @param listener the listener or null to clear it
+     */
+    public void setSuggestionListener(SuggestionListener listener) {
+        mSuggestionListener = listener;
+    }
+
+    private void scheduleSuggestions() {
+        if (mSuggestionsEnabled) {
+            removeCallbacks(mSuggest);
+            postDelayed(mSuggest, SUGGESTION_DELAY_MS);
+        }
+    }
+
+    private void suggestArticles() {
+        cancelSuggestion();
+        String text = mUserSubjectEnabled && mSubject != null ? mSubject + "\n" : "";
+        if (mFeedback != null) {
+            text += mFeedback;
+        }
+        if (TextUtils.isEmpty(text)) {
+            showSuggestions(Collections.<Article>emptyList());
+            return;
+        }
+        mSuggestion = Desk.with(getContext()).getArticleProvider().suggestArticles(
+                mIsBranded ? mBrandId : ArticleProvider.ALL_BRANDS, text, MAX_SUGGESTIONS,
+                new ArticleProvider.SuggestionCallbacks() {
+                    @Override
+                    public void onSuggestionsLoaded(List<Article> articles) {
+                        showSuggestions(articles);
+                    }
+                });
+    }
+
+    private void cancelSuggestion() {
+        if (mSuggestion != null) {
+            mSuggestion.cancel();
+            mSuggestion = null;
+        }
+    }
+
+    private void showSuggestions(List<Article> articles) {
+
+        // the first child is the title
+        while (mSuggestedArticles.getChildCount() > 1) {
+            mSuggestedArticles.removeViewAt(1);
+        }
+        LayoutInflater inflater = LayoutInflater.from(getContext());
+        for (final Article article : articles) {
+            TextView item = (TextView) inflater.inflate(R.layout.contact_us_suggestion_item, mSuggestedArticles, false);
+            item.setText(article.getSubject());
+            item.setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (mSuggestionListener != null) {
+                        mSuggestionListener.onSuggestionSelected(article);
+                    }
+                }
+            });
+            mSuggestedArticles.addView(item);
+        }
+        mSuggestedArticles.setVisibility(articles.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    /**
+     * Clears the saved draft of this form. Call this once the case has been created so the form opens
+     * empty next time.
+     */
+    public void clearDraft() {
+        removeCallbacks(mSaveDraft);
+        mDraftSavePending = false;
+        mDraftStore.clear(mDraftKey);
+    }
+
     /**
      * Set the form listener to listen for callbacks
      * @param listener the form listener
@@ -247,8 +499,7 @@ public class ContactUsView extends LinearLayout {
      */
     public boolean isFormValid() {
         // the form is valid if we have a valid email address, subject and feedback
-        return !(TextUtils.isEmpty(mEmail) || !Patterns.EMAIL_ADDRESS.matcher(mEmail).matches()
-                || TextUtils.isEmpty(mSubject) || TextUtils.isEmpty(mFeedback));
+        return mValidator.isValid();
     }
 
     /**
@@ -297,14 +548,19 @@ public class ContactUsView extends LinearLayout {
         return customFields;
     }
 
-    private void checkForm() {
-        if (mListener == null) {
-            return;
-        }
-        if (isFormValid()) {
-            mListener.onFormValid();
-        } else {
-            mListener.onFormInvalid();
+    private void notifyFormListener(boolean valid) {
+        DeskTrace.begin("ContactUsView.notifyFormListener");
+        try {
+            if (mListener == null) {
+                return;
+            }
+            if (valid) {
+                mListener.onFormValid();
+            } else {
+                mListener.onFormInvalid();
+            }
+        } finally {
+            DeskTrace.end();
         }
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.widget;
+
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ *     Incremental validator for the fields of a {@link ContactUsView}. The validity of each field is
+ *     cached so a change only re-validates the field that changed, and the {@link Listener} is only
+ *     notified when the form as a whole goes from valid to invalid or back.
+ * </p>
+ *
+ * <p>
+ *     Email addresses are first checked with a cheap structural test. Only addresses which pass it are
+ *     matched against the full pattern, and that match is deferred until {@link #validateEmail()} is
+ *     called so callers can debounce it while the user is typing.
+ * </p>
+ */
+class FormValidator {
+
+    /**
+     * Callback for changes in the validity of the form
+     */
+    interface Listener {
+
+        /**
+         * The form went from invalid to valid or the other way around
+         * @param valid whether the form is now valid
+         */
+        void onValidityChanged(boolean valid);
+    }
+
+    private final Pattern mEmailPattern;
+    private Listener mListener;
+
+    private boolean mEmailValid;
+    private boolean mSubjectValid;
+    private boolean mFeedbackValid;
+    private String mPendingEmail;
+
+    private boolean mValid;
+
+    FormValidator(Pattern emailPattern) {
+        mEmailPattern = emailPattern;
+    }
+
+    /**
+     * Sets the listener notified of validity changes
+     * @param listener the listener or null to clear it
+     */
+    void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Sets the initial values of the fields without notifying the listener
+     */
+    void reset(String email, String subject, String feedback) {
+        mPendingEmail = null;
+        mEmailValid = isStructurallyValid(email) && mEmailPattern.matcher(email).matches();
+        mSubjectValid = !isEmpty(subject);
+        mFeedbackValid = !isEmpty(feedback);
+        mValid = mEmailValid && mSubjectValid && mFeedbackValid;
+    }
+
+    /**
+     * Updates the email address
+     * @param email the email address
+     * @return true if the address needs a full match through {@link #validateEmail()}, false if its
+     * validity is already known
+     */
+    boolean setEmail(String email) {
+        if (!isStructurallyValid(email)) {
+            mPendingEmail = null;
+            mEmailValid = false;
+            update();
+            return false;
+        }
+        mPendingEmail = email;
+        return true;
+    }
+
+    /**
+     * Runs the full match of a pending email address, if there is one. A pending address is also
+     * matched as soon as another field changes.
+     */
+    void validateEmail() {
+        if (mPendingEmail != null) {
+            validatePendingEmail();
+            update();
+        }
+    }
+
+    /**
+     * Updates the subject
+     * @param subject the subject
+     */
+    void setSubject(String subject) {
+        validatePendingEmail();
+        mSubjectValid = !isEmpty(subject);
+        update();
+    }
+
+    /**
+     * Updates the feedback
+     * @param feedback the feedback
+     */
+    void setFeedback(String feedback) {
+        validatePendingEmail();
+        mFeedbackValid = !isEmpty(feedback);
+        update();
+    }
+
+    /**
+     * Returns whether the form is valid, validating a pending email address first
+     * @return true if valid, false otherwise
+     */
+    boolean isValid() {
+        validateEmail();
+        return mValid;
+    }
+
+    // the user has moved on from the email address so there's no point deferring the match any longer
+    private void validatePendingEmail() {
+        if (mPendingEmail != null) {
+            mEmailValid = mEmailPattern.matcher(mPendingEmail).matches();
+            mPendingEmail = null;
+        }
+    }
+
+    private void update() {
+        boolean valid = mEmailValid && mSubjectValid && mFeedbackValid;
+        if (valid != mValid) {
+            mValid = valid;
+            if (mListener != null) {
+                mListener.onValidityChanged(valid);
+            }
+        }
+    }
+
+    /**
+     * Cheap test every address matched by the email pattern passes: a local part, an '@' and a '.'
+     * somewhere in the domain.
+     */
+    private static boolean isStructurallyValid(String email) {
+        if (isEmpty(email)) {
+            return false;
+        }
+        int at = email.indexOf('@');
+        return at > 0 && email.indexOf('.', at) > at + 1 && email.charAt(email.length() - 1) != '.';
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.length() == 0;
+    }
+}
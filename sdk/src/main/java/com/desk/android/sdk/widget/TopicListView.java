@@ -45,7 +45,9 @@ import com.desk.android.sdk.R;
 import com.desk.android.sdk.adapter.TopicListAdapter;
 import com.desk.android.sdk.brand.BrandProvider;
 import com.desk.android.sdk.error.ErrorResponse;
-import com.desk.android.sdk.provider.TopicProvider;
+import com.desk.android.sdk.network.NetworkMonitor;
+import com.desk.android.sdk.provider.PageSubscriber;
+import com.desk.android.sdk.provider.Subscription;
 import com.desk.java.apiclient.model.Topic;
 
 import java.io.Serializable;
@@ -67,9 +69,13 @@ import static com.desk.android.sdk.provider.TopicProvider.ALL_BRANDS;
  * and override the {@link com.desk.android.sdk.R.styleable#TopicListView_dk_errorText} attribute, or
  * override the {@link com.desk.android.sdk.R.styleable#TopicListView_dk_errorText} attribute in your layout file.</p>
  *
+ * <p>When loading fails while topics are showing they stay on screen, and the topics are loaded again once
+ * the network becomes available.</p>
+ *
  * Created by Matt Kranzler on 6/29/15.
  */
-public class TopicListView extends FrameLayout implements AdapterView.OnItemClickListener {
+public class TopicListView extends FrameLayout implements AdapterView.OnItemClickListener,
+        NetworkMonitor.Listener {
 
     /**
      * Listener for when a topic is selected from the list
@@ -89,6 +95,8 @@ public class TopicListView extends FrameLayout implements AdapterView.OnItemClic
     private TopicListAdapter mAdapter;
     private List<Topic> mTopics;
     private boolean mHaveError;
+    private boolean mStale;
+    private Subscription mSubscription;
 
     private int mBrandId;
     private boolean mIsBranded;
@@ -148,18 +156,43 @@ public class TopicListView extends FrameLayout implements AdapterView.OnItemClic
         hideEmptyView();
         showProgress();
 
-        mDesk.getTopicProvider()
-                .getTopics(mIsBranded ? mBrandId : ALL_BRANDS, new TopicProvider.TopicCallbacks()  {
+        // stored topics are shown right away and replaced once the network responds
+        cancelSubscription();
+        mSubscription = mDesk.getTopicProvider()
+                .topics(mIsBranded ? mBrandId : ALL_BRANDS)
+                .subscribe(new PageSubscriber<Topic>() {
                     @Override
-                    public void onTopicsLoaded(List<Topic> topics) {
+                    public void onPage(int page, List<Topic> topics, boolean morePages, boolean fromCache) {
+                        mHaveError = false;
+                        if (!fromCache) {
+                            mStale = false;
+                        }
                         onLoaded(topics);
                     }
 
                     @Override
-                    public void onTopicsLoadError(ErrorResponse error) {
-                        onLoadError();
+                    public void onError(ErrorResponse error) {
+                        if (mTopics.isEmpty()) {
+                            onLoadError();
+                        } else {
+                            // keep showing the cached topics and refresh them once the network is back
+                            mStale = true;
+                        }
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        mSubscription = null;
                     }
                 });
+        mSubscription.request(1);
+    }
+
+    private void cancelSubscription() {
+        if (mSubscription != null) {
+            mSubscription.cancel();
+            mSubscription = null;
+        }
     }
 
     @VisibleForTesting
@@ -167,9 +200,15 @@ public class TopicListView extends FrameLayout implements AdapterView.OnItemClic
         if (getContext() != null) {
             hideProgress();
             if (topics.size() > 0) {
+                hideEmptyView();
+                mAdapter.setNotifyOnChange(false);
+                mAdapter.clear();
                 mAdapter.addAll(topics);
+                mAdapter.notifyDataSetChanged();
                 showList();
             } else {
+                mAdapter.clear();
+                hideList();
                 showEmptyView(mEmptyText);
             }
         }
@@ -229,9 +268,28 @@ public class TopicListView extends FrameLayout implements AdapterView.OnItemClic
         }
     }
 
+    @Override
+    public void onNetworkAvailable() {
+        if (mHaveError) {
+            loadTopics();
+        } else if (mStale && mSubscription != null) {
+
+            // retry the failed load, which replaces the topics showing without clearing them first
+            mSubscription.request(1);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mDesk.getNetworkMonitor().addListener(this);
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        mDesk.getNetworkMonitor().removeListener(this);
+        cancelSubscription();
 
         // clear reference so we don't leak
         mTopicSelectedListener = null;
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import org.junit.Test;
+
+import static com.desk.android.sdk.cache.CacheBudget.LOW_RAM_MAX_SIZE;
+import static com.desk.android.sdk.cache.CacheBudget.MAX_SIZE;
+import static com.desk.android.sdk.cache.CacheBudget.MIN_SIZE;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link CacheBudget}
+ */
+public class CacheBudgetTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void budgetIsShareOfUsableSpace() throws Exception {
+        assertEquals(20 * MB, CacheBudget.compute(1000 * MB, false));
+    }
+
+    @Test
+    public void budgetIsAtLeastMinSize() throws Exception {
+        assertEquals(MIN_SIZE, CacheBudget.compute(10 * MB, false));
+        assertEquals(MIN_SIZE, CacheBudget.compute(0, true));
+    }
+
+    @Test
+    public void budgetIsAtMostMaxSize() throws Exception {
+        assertEquals(MAX_SIZE, CacheBudget.compute(64 * 1024 * MB, false));
+    }
+
+    @Test
+    public void lowRamDevicesGetSmallerBudget() throws Exception {
+        assertEquals(LOW_RAM_MAX_SIZE, CacheBudget.compute(64 * 1024 * MB, true));
+        assertEquals(8 * MB, CacheBudget.compute(400 * MB, true));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.cache;
+
+import com.desk.android.sdk.standin.StandInConfig;
+import com.desk.android.sdk.standin.StandInServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link PartitionedCache}
+ */
+public class PartitionedCacheTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private Cache cache;
+    private PartitionedCache partitionedCache;
+    private StandInServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new Cache(folder.getRoot(), 1000);
+        partitionedCache = new PartitionedCache(cache, Arrays.asList(
+                new CachePartition.Builder(ContentClass.TOPICS).share(0.3f).create(),
+                new CachePartition.Builder(ContentClass.SEARCH).share(0.3f)
+                        .policy(EvictionPolicy.OLDEST_FIRST).create()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.shutdown();
+        }
+        cache.close();
+    }
+
+    @Test
+    public void contentClassOfPath() throws Exception {
+        assertEquals(ContentClass.TOPICS, ContentClass.of("/api/v2/topics"));
+        assertEquals(ContentClass.TOPICS, ContentClass.of("/api/v2/brands/1/topics"));
+        assertEquals(ContentClass.ARTICLES, ContentClass.of("/api/v2/articles"));
+        assertEquals(ContentClass.ARTICLES, ContentClass.of("/api/v2/topics/1/articles"));
+        assertEquals(ContentClass.SEARCH, ContentClass.of("/api/v2/articles/search"));
+        assertEquals(ContentClass.OTHER, ContentClass.of("/api/v2/mailboxes/inbound"));
+    }
+
+    @Test
+    public void leastRecentlyUsedPartitionKeepsUsedResponses() throws Exception {
+        partitionedCache.record(ContentClass.TOPICS, "a", 100, true);
+        partitionedCache.record(ContentClass.TOPICS, "b", 100, true);
+        partitionedCache.record(ContentClass.TOPICS, "c", 100, true);
+        partitionedCache.record(ContentClass.TOPICS, "a", 100, false);
+        assertEquals(Collections.singletonList("b"), partitionedCache.record(ContentClass.TOPICS, "d", 100, true));
+    }
+
+    @Test
+    public void oldestFirstPartitionEvictsOldestResponsesEvenWhenUsed() throws Exception {
+        partitionedCache.record(ContentClass.SEARCH, "a", 100, true);
+        partitionedCache.record(ContentClass.SEARCH, "b", 100, true);
+        partitionedCache.record(ContentClass.SEARCH, "c", 100, true);
+        partitionedCache.record(ContentClass.SEARCH, "a", 100, false);
+        assertEquals(Collections.singletonList("a"), partitionedCache.record(ContentClass.SEARCH, "d", 100, true));
+    }
+
+    @Test
+    public void partitionsHaveSeparateBudgets() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            partitionedCache.record(ContentClass.SEARCH, "search" + i, 100, true);
+        }
+        partitionedCache.record(ContentClass.TOPICS, "topics", 100, true);
+        for (PartitionStats stats : partitionedCache.getStats()) {
+            if (stats.getContentClass() == ContentClass.TOPICS) {
+                assertEquals(1, stats.getEntryCount());
+                assertEquals(0, stats.getEvictionCount());
+            } else {
+                assertEquals(3, stats.getEntryCount());
+                assertEquals(7, stats.getEvictionCount());
+                assertEquals(300, stats.getBudget());
+            }
+        }
+    }
+
+    @Test
+    public void storingResponseAgainReplacesItsSize() throws Exception {
+        partitionedCache.record(ContentClass.TOPICS, "a", 100, true);
+        partitionedCache.record(ContentClass.TOPICS, "a", 250, true);
+        assertEquals(250, topicStats().getSize());
+        assertEquals(1, topicStats().getEntryCount());
+    }
+
+    @Test
+    public void contentWithoutPartitionIsNotTracked() throws Exception {
+        assertTrue(partitionedCache.record(ContentClass.ARTICLES, "a", 10000, true).isEmpty());
+    }
+
+    @Test
+    public void sharesCannotExceedCache() throws Exception {
+        try {
+            partitionedCache.setPartitions(Arrays.asList(
+                    new CachePartition.Builder(ContentClass.TOPICS).share(0.6f).create(),
+                    new CachePartition.Builder(ContentClass.SEARCH).share(0.6f).create()));
+            fail("expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void revalidatedResponseCountsAsHit() throws Exception {
+        server = new StandInServer(new StandInConfig.Builder().dataset(1, 2, 2).create());
+        server.start();
+        cache.close();
+        cache = new Cache(folder.newFolder(), 1024 * 1024);
+        partitionedCache = new PartitionedCache(cache, CachePartition.defaults());
+        OkHttpClient client = new OkHttpClient.Builder()
+                .cache(cache)
+                .addInterceptor(partitionedCache)
+                .addInterceptor(server.interceptor())
+                .build();
+
+        get(client, "/api/v2/topics");
+        get(client, "/api/v2/topics");
+
+        PartitionStats stats = topicStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5f, stats.getHitRatio(), 0f);
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getSize() > 0);
+    }
+
+    @Test
+    public void evictionsAreRemovedInBatchesOffTheReadPath() throws Exception {
+        server = new StandInServer(new StandInConfig.Builder().dataset(1, 2, 2).create());
+        server.start();
+        cache.close();
+        cache = new Cache(folder.newFolder(), 1024 * 1024);
+        final List<Runnable> removals = new ArrayList<>();
+        partitionedCache = new PartitionedCache(cache, CachePartition.defaults(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                removals.add(command);
+            }
+        });
+        OkHttpClient client = new OkHttpClient.Builder()
+                .cache(cache)
+                .addInterceptor(partitionedCache)
+                .addInterceptor(server.interceptor())
+                .build();
+        get(client, "/api/v2/topics?page=1");
+        get(client, "/api/v2/topics?page=2");
+
+        partitionedCache.evict(Collections.singletonList("https://standin.desk.com/api/v2/topics?page=1"));
+        partitionedCache.evict(Collections.singletonList("https://standin.desk.com/api/v2/topics?page=2"));
+        assertEquals(1, removals.size());
+        assertTrue(cache.urls().hasNext());
+
+        removals.get(0).run();
+        assertFalse(cache.urls().hasNext());
+
+        partitionedCache.evict(Collections.singletonList("https://standin.desk.com/api/v2/topics?page=1"));
+        assertEquals(2, removals.size());
+    }
+
+    private PartitionStats topicStats() {
+        List<PartitionStats> stats = partitionedCache.getStats();
+        for (PartitionStats partition : stats) {
+            if (partition.getContentClass() == ContentClass.TOPICS) {
+                return partition;
+            }
+        }
+        throw new AssertionError("no topics partition");
+    }
+
+    private static void get(OkHttpClient client, String path) throws Exception {
+        Response response = client.newCall(new Request.Builder()
+                .url("https://standin.desk.com" + path)
+                .build()).execute();
+        response.body().string();
+    }
+}
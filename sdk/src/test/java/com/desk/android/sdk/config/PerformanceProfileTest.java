@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.config;
+
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static com.desk.android.sdk.config.DeskPropertyConfig.KEY_PERFORMANCE_PROFILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link PerformanceProfile}
+ */
+public class PerformanceProfileTest {
+
+    @Test
+    public void combinesConstraints() throws Exception {
+        assertEquals(PerformanceProfile.STANDARD, PerformanceProfile.of(false, false));
+        assertEquals(PerformanceProfile.LOW_RAM, PerformanceProfile.of(true, false));
+        assertEquals(PerformanceProfile.DATA_SAVER, PerformanceProfile.of(false, true));
+        assertEquals(PerformanceProfile.LITE, PerformanceProfile.of(true, true));
+    }
+
+    @Test
+    public void scarceResourcesLightenEveryKnob() throws Exception {
+        for (PerformanceProfile profile : PerformanceProfile.values()) {
+            if (profile == PerformanceProfile.STANDARD) {
+                continue;
+            }
+            PerformanceProfile standard = PerformanceProfile.STANDARD;
+            assertTrue(profile.getPrefetchRows() < standard.getPrefetchRows());
+            assertTrue(profile.getMaxPageSize() < standard.getMaxPageSize());
+            assertFalse(profile.isBackgroundSyncEnabled());
+        }
+    }
+
+    @Test
+    public void onlyLowRamProfilesShrinkMemoryCaches() throws Exception {
+        assertEquals(1f, PerformanceProfile.DATA_SAVER.getMemoryCacheFraction(), 0f);
+        assertTrue(PerformanceProfile.LOW_RAM.getMemoryCacheFraction() < 1f);
+        assertTrue(PerformanceProfile.LITE.getMemoryCacheFraction() < 1f);
+    }
+
+    @Test
+    public void onlyDataSaverProfilesBlockImages() throws Exception {
+        assertTrue(PerformanceProfile.LOW_RAM.isArticleImagesEnabled());
+        assertFalse(PerformanceProfile.DATA_SAVER.isArticleImagesEnabled());
+        assertFalse(PerformanceProfile.LITE.isArticleImagesEnabled());
+    }
+
+    @Test
+    public void propertyConfigReadsProfileByName() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PERFORMANCE_PROFILE, " data_saver ");
+        assertEquals(PerformanceProfile.DATA_SAVER, new DeskPropertyConfig(properties).getPerformanceProfile());
+    }
+
+    @Test
+    public void propertyConfigLeavesProfileToDetectionWhenUnset() throws Exception {
+        assertNull(new DeskPropertyConfig(new Properties()).getPerformanceProfile());
+    }
+
+    @Test
+    public void propertyConfigLeavesProfileToDetectionWhenUnknown() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PERFORMANCE_PROFILE, "low-ram");
+        assertNull(new DeskPropertyConfig(properties).getPerformanceProfile());
+    }
+}
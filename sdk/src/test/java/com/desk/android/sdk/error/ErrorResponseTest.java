@@ -28,12 +28,24 @@ package com.desk.android.sdk.error;
 
 import android.test.suitebuilder.annotation.SmallTest;
 
+import com.desk.android.sdk.network.CircuitOpenException;
+import com.desk.android.sdk.network.RateLimitedException;
+import com.desk.android.sdk.network.ResilienceInterceptor;
+import com.desk.android.sdk.network.RetriesExhaustedException;
+
 import org.junit.Test;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -71,4 +83,60 @@ public class ErrorResponseTest {
         ErrorResponse errorResponse = new ErrorResponse(false, TEST_REASON, TEST_STATUS);
         assertEquals(TEST_STATUS, errorResponse.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void throwableHasNoStatus() throws Exception {
+        assertEquals(ErrorResponse.NO_STATUS, new ErrorResponse(new IOException()).getStatus());
+    }
+
+    @Test
+    public void classifiesThrowables() throws Exception {
+        assertSame(ErrorResponse.Type.NETWORK, new ErrorResponse(new IOException()).getType());
+        assertSame(ErrorResponse.Type.TIMEOUT, new ErrorResponse(new SocketTimeoutException()).getType());
+        assertSame(ErrorResponse.Type.CIRCUIT_OPEN,
+                new ErrorResponse(new CircuitOpenException("GET /api/v2/topics")).getType());
+        assertSame(ErrorResponse.Type.RATE_LIMITED, new ErrorResponse(new RateLimitedException(1000)).getType());
+        assertSame(ErrorResponse.Type.UNKNOWN, new ErrorResponse(new Exception()).getType());
+    }
+
+    @Test
+    public void classifiesStatuses() throws Exception {
+        assertSame(ErrorResponse.Type.RATE_LIMITED, new ErrorResponse(false, TEST_REASON, 429).getType());
+        assertSame(ErrorResponse.Type.SERVER, new ErrorResponse(false, TEST_REASON, 503).getType());
+        assertSame(ErrorResponse.Type.CLIENT, new ErrorResponse(false, TEST_REASON, TEST_STATUS).getType());
+        assertSame(ErrorResponse.Type.NETWORK, new ErrorResponse(true, TEST_REASON, 0).getType());
+    }
+
+    @Test
+    public void isTransient() throws Exception {
+        assertTrue(new ErrorResponse(new IOException()).isTransient());
+        assertTrue(new ErrorResponse(false, TEST_REASON, 503).isTransient());
+        assertFalse(new ErrorResponse(false, TEST_REASON, TEST_STATUS).isTransient());
+        assertFalse(new ErrorResponse(new CircuitOpenException("GET /api/v2/topics")).isTransient());
+    }
+
+    @Test
+    public void unwrapsRetriesExhausted() throws Exception {
+        ErrorResponse errorResponse = new ErrorResponse(
+                new RetriesExhaustedException(2, new SocketTimeoutException()));
+        assertEquals(2, errorResponse.getRetryCount());
+        assertSame(ErrorResponse.Type.TIMEOUT, errorResponse.getType());
+        assertTrue(errorResponse.isNetworkError());
+    }
+
+    @Test
+    public void fromResponseReadsRetryCount() throws Exception {
+        Response<Object> response = Response.error(ResponseBody.create(MediaType.parse("text/plain"), ""),
+                new okhttp3.Response.Builder()
+                        .code(503)
+                        .message("Service Unavailable")
+                        .protocol(okhttp3.Protocol.HTTP_1_1)
+                        .request(new okhttp3.Request.Builder().url(TEST_URL).build())
+                        .headers(Headers.of(ResilienceInterceptor.RETRY_COUNT_HEADER, "2"))
+                        .build());
+        ErrorResponse errorResponse = ErrorResponse.fromResponse(response);
+        assertEquals(503, errorResponse.getStatus());
+        assertEquals(2, errorResponse.getRetryCount());
+        assertSame(ErrorResponse.Type.SERVER, errorResponse.getType());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.metrics;
+
+import com.desk.android.sdk.util.QueueExecutor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link DeskMetrics} and {@link MetricsInterceptor}
+ */
+public class DeskMetricsTest {
+
+    private static final Request REQUEST = new Request.Builder()
+            .url("https://example.desk.com/api/v2/topics/123/articles?page=2")
+            .build();
+
+    @After
+    public void tearDown() throws Exception {
+        DeskMetrics.setListener(null);
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        assertFalse(DeskMetrics.isEnabled());
+        assertEquals(DeskMetricsListener.NONE, DeskMetrics.getListener());
+    }
+
+    @Test
+    public void deliverRunsDeliveryDirectlyWhenDisabled() throws Exception {
+        Runnable delivery = mock(Runnable.class);
+        QueueExecutor executor = new QueueExecutor();
+        DeskMetrics.deliver(executor, "articles", delivery);
+        executor.runAll();
+        verify(delivery).run();
+    }
+
+    @Test
+    public void deliverReportsDeliveryDelay() throws Exception {
+        DeskMetricsListener listener = mock(DeskMetricsListener.class);
+        DeskMetrics.setListener(listener);
+        Runnable delivery = mock(Runnable.class);
+        QueueExecutor executor = new QueueExecutor();
+
+        DeskMetrics.deliver(executor, "articles", delivery);
+        verify(listener, never()).onCallbackDelivered(eq("articles"), anyLong());
+
+        executor.runAll();
+        verify(listener).onCallbackDelivered(eq("articles"), anyLong());
+        verify(delivery).run();
+    }
+
+    @Test
+    public void deliverRunsDeliveryWhenListenerThrows() throws Exception {
+        DeskMetricsListener listener = mock(DeskMetricsListener.class);
+        doThrow(new IllegalStateException()).when(listener).onCallbackDelivered(anyString(), anyLong());
+        DeskMetrics.setListener(listener);
+        Runnable delivery = mock(Runnable.class);
+        QueueExecutor executor = new QueueExecutor();
+
+        DeskMetrics.deliver(executor, "articles", delivery);
+        executor.runAll();
+        verify(delivery).run();
+    }
+
+    @Test
+    public void responseIsReadWhenListenerThrows() throws Exception {
+        DeskMetricsListener listener = mock(DeskMetricsListener.class);
+        doThrow(new IllegalStateException()).when(listener).onRequestCompleted(any(RequestMetrics.class));
+        DeskMetrics.setListener(listener);
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(REQUEST);
+        when(chain.proceed(REQUEST)).thenReturn(response().body(ResponseBody.create(null, "topics")).build());
+
+        Response response = new MetricsInterceptor().intercept(chain);
+        assertEquals("topics", response.body().string());
+        verify(listener).onRequestCompleted(any(RequestMetrics.class));
+    }
+
+    @Test
+    public void requestFailureIsKeptWhenListenerThrows() throws Exception {
+        DeskMetricsListener listener = mock(DeskMetricsListener.class);
+        doThrow(new IllegalStateException()).when(listener).onRequestCompleted(any(RequestMetrics.class));
+        DeskMetrics.setListener(listener);
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        IOException failure = new IOException("connection reset");
+        when(chain.request()).thenReturn(REQUEST);
+        when(chain.proceed(REQUEST)).thenThrow(failure);
+
+        try {
+            new MetricsInterceptor().intercept(chain);
+            fail("expected an IOException");
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void endpointReplacesIdsAndDropsQuery() throws Exception {
+        assertEquals("/api/v2/topics/:id/articles", MetricsInterceptor.endpoint(REQUEST));
+    }
+
+    @Test
+    public void cacheResultIsMissForNetworkResponse() throws Exception {
+        Response response = response().networkResponse(response().build()).build();
+        assertEquals(RequestMetrics.CacheResult.MISS, MetricsInterceptor.cacheResult(response));
+    }
+
+    @Test
+    public void cacheResultIsHitForCacheOnlyResponse() throws Exception {
+        Response response = response().cacheResponse(response().build()).build();
+        assertEquals(RequestMetrics.CacheResult.HIT, MetricsInterceptor.cacheResult(response));
+    }
+
+    @Test
+    public void cacheResultIsConditionalHitForValidatedResponse() throws Exception {
+        Response response = response()
+                .cacheResponse(response().build())
+                .networkResponse(response().code(304).build())
+                .build();
+        assertEquals(RequestMetrics.CacheResult.CONDITIONAL_HIT, MetricsInterceptor.cacheResult(response));
+    }
+
+    private static Response.Builder response() {
+        return new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK");
+    }
+}
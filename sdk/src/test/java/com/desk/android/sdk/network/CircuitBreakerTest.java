@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link CircuitBreaker}
+ */
+public class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 1000);
+
+    @Test
+    public void staysClosedBelowThreshold() throws Exception {
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest(0));
+    }
+
+    @Test
+    public void successResetsFailures() throws Exception {
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onSuccess();
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void opensAtThresholdAndBlocksUntilOpenTimeElapses() throws Exception {
+        open(100);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(100));
+        assertFalse(breaker.allowRequest(1099));
+    }
+
+    @Test
+    public void letsOneProbeThroughWhenHalfOpen() throws Exception {
+        open(0);
+        assertTrue(breaker.allowRequest(1000));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(1000));
+    }
+
+    @Test
+    public void successfulProbeClosesCircuit() throws Exception {
+        open(0);
+        breaker.allowRequest(1000);
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest(1000));
+    }
+
+    @Test
+    public void failedProbeReopensCircuit() throws Exception {
+        open(0);
+        breaker.allowRequest(1000);
+        breaker.onFailure(1000);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(1500));
+        assertTrue(breaker.allowRequest(2000));
+    }
+
+    @Test
+    public void cancelledProbeLetsAnotherThrough() throws Exception {
+        open(0);
+        breaker.allowRequest(1000);
+        breaker.onCancelled();
+        assertTrue(breaker.allowRequest(1000));
+    }
+
+    private void open(long nowMillis) {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(nowMillis);
+        }
+    }
+}
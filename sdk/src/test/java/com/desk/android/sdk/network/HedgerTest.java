@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link Hedger}
+ */
+@SuppressWarnings("unchecked")
+public class HedgerTest {
+
+    private ScheduledExecutorService timer;
+    private Callback<String> callback;
+    private Map<Call<String>, Callback<String>> callbacks;
+
+    @Before
+    public void setUp() throws Exception {
+        timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenReturn(mock(ScheduledFuture.class));
+        callback = mock(Callback.class);
+        callbacks = new HashMap<>();
+    }
+
+    @Test
+    public void doesNotHedgeUntilEnoughLatenciesAreKnown() throws Exception {
+        Hedger hedger = hedger(1f);
+        record(hedger, Hedger.MIN_SAMPLES - 1, 100);
+        hedger.enqueue(call(), callback);
+        verifyZeroInteractions(timer);
+    }
+
+    @Test
+    public void hedgesAfterPercentileOfRecentLatencies() throws Exception {
+        Hedger hedger = hedger(1f);
+        record(hedger, 20, 100);
+        hedger.recordLatency(2000);
+        Call<String> original = call();
+        hedger.enqueue(original, callback);
+        verify(timer).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void firstResponseWinsAndOtherIsCancelled() throws Exception {
+        Hedger hedger = hedger(1f);
+        record(hedger, Hedger.MIN_SAMPLES, 100);
+        Call<String> original = call();
+        Call<String> hedge = call();
+        when(original.clone()).thenReturn(hedge);
+        hedger.enqueue(original, callback);
+        fireTimer();
+
+        Response<String> response = Response.success("articles");
+        callbacks.get(hedge).onResponse(hedge, response);
+        verify(original).cancel();
+        verify(callback).onResponse(hedge, response);
+
+        callbacks.get(original).onFailure(original, new IOException("Canceled"));
+        verify(callback, never()).onFailure(any(Call.class), any(Throwable.class));
+        assertEquals(1, hedger.getHedgeCount());
+    }
+
+    @Test
+    public void failureIsDeliveredOnceBothCallsFail() throws Exception {
+        Hedger hedger = hedger(1f);
+        record(hedger, Hedger.MIN_SAMPLES, 100);
+        Call<String> original = call();
+        Call<String> hedge = call();
+        when(original.clone()).thenReturn(hedge);
+        hedger.enqueue(original, callback);
+        fireTimer();
+
+        callbacks.get(original).onResponse(original, Response.<String>error(503,
+                ResponseBody.create(MediaType.parse("application/json"), "{}")));
+        verify(callback, never()).onResponse(any(Call.class), any(Response.class));
+
+        callbacks.get(hedge).onFailure(hedge, new IOException());
+        verify(callback).onResponse(eq(original), any(Response.class));
+    }
+
+    @Test
+    public void raceWonByHedgeIsTimedFromOriginal() throws Exception {
+        Hedger hedger = new Hedger(RequestScheduler.direct(), timer, 1f, 1f);
+        record(hedger, Hedger.MIN_SAMPLES, 0);
+        Call<String> original = call();
+        Call<String> hedge = call();
+        when(original.clone()).thenReturn(hedge);
+        hedger.enqueue(original, callback);
+        Thread.sleep(200);
+        fireTimer();
+        callbacks.get(hedge).onResponse(hedge, Response.success("articles"));
+
+        hedger.enqueue(call(), callback);
+        ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+        verify(timer, times(2)).schedule(any(Runnable.class), delays.capture(), eq(TimeUnit.MILLISECONDS));
+        assertTrue(delays.getAllValues().get(1) >= 200);
+    }
+
+    @Test
+    public void failedRaceIsTimed() throws Exception {
+        Hedger hedger = hedger(1f);
+        record(hedger, Hedger.MIN_SAMPLES - 1, 100);
+        Call<String> original = call();
+        hedger.enqueue(original, callback);
+        callbacks.get(original).onFailure(original, new IOException());
+        verifyZeroInteractions(timer);
+
+        hedger.enqueue(call(), callback);
+        verify(timer).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void budgetLimitsHedges() throws Exception {
+        Hedger hedger = hedger(0.5f);
+        record(hedger, Hedger.MIN_SAMPLES, 100);
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        for (int i = 0; i < 4; i++) {
+            Call<String> original = call();
+            when(original.clone()).thenReturn(call());
+            hedger.enqueue(original, callback);
+        }
+        verify(timer, times(4)).schedule(tasks.capture(), anyLong(), any(TimeUnit.class));
+        for (Runnable task : tasks.getAllValues()) {
+            task.run();
+        }
+        assertEquals(4, hedger.getCallCount());
+        assertEquals(2, hedger.getHedgeCount());
+    }
+
+    private Hedger hedger(float budget) {
+        return new Hedger(RequestScheduler.direct(), timer, Hedger.DEFAULT_PERCENTILE, budget);
+    }
+
+    private static void record(Hedger hedger, int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            hedger.recordLatency(millis);
+        }
+    }
+
+    private void fireTimer() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(timer).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+        task.getValue().run();
+    }
+
+    private Call<String> call() {
+        final Call<String> call = mock(Call.class);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                callbacks.put(call, (Callback<String>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(call).enqueue(any(Callback.class));
+        return call;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link NetworkMonitor}
+ */
+public class NetworkMonitorTest {
+
+    private NetworkMonitor monitor;
+    private NetworkMonitor.Listener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        monitor = new NetworkMonitor(false);
+        listener = mock(NetworkMonitor.Listener.class);
+        monitor.addListener(listener);
+    }
+
+    @Test
+    public void listenerNotifiedWhenNetworkReturns() throws Exception {
+        monitor.setConnected(true);
+        assertTrue(monitor.isConnected());
+        verify(listener).onNetworkAvailable();
+    }
+
+    @Test
+    public void listenerNotNotifiedWhileConnected() throws Exception {
+        monitor.setConnected(true);
+        monitor.setConnected(true);
+        verify(listener, times(1)).onNetworkAvailable();
+    }
+
+    @Test
+    public void listenerNotNotifiedWhenGoingOffline() throws Exception {
+        monitor.setConnected(false);
+        assertFalse(monitor.isConnected());
+        verify(listener, never()).onNetworkAvailable();
+    }
+
+    @Test
+    public void removedListenerNotNotified() throws Exception {
+        monitor.removeListener(listener);
+        monitor.setConnected(true);
+        verify(listener, never()).onNetworkAvailable();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.desk.android.sdk.network.NetworkQualityEstimator.GOOD_BYTES_PER_SECOND;
+import static com.desk.android.sdk.network.NetworkQualityEstimator.MAX_TIMEOUT_MILLIS;
+import static com.desk.android.sdk.network.NetworkQualityEstimator.MIN_SAMPLES;
+import static com.desk.android.sdk.network.NetworkQualityEstimator.MIN_TIMEOUT_MILLIS;
+import static com.desk.android.sdk.network.NetworkQualityEstimator.MIN_TRANSFER_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link NetworkQualityEstimator}
+ */
+public class NetworkQualityEstimatorTest {
+
+    private NetworkQualityEstimator estimator;
+
+    @Before
+    public void setUp() throws Exception {
+        estimator = new NetworkQualityEstimator();
+    }
+
+    @Test
+    public void qualityIsUnknownUntilEnoughRequestsAreMeasured() throws Exception {
+        recordRtt(MIN_SAMPLES - 1, 100);
+        assertEquals(NetworkQualityEstimator.Quality.UNKNOWN, estimator.getQuality());
+        assertEquals(-1, estimator.getRttMillis());
+        assertEquals(0, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void fastLinkIsGood() throws Exception {
+        recordRtt(MIN_SAMPLES, 100);
+        recordBandwidth(MIN_SAMPLES, 2 * GOOD_BYTES_PER_SECOND);
+        assertEquals(NetworkQualityEstimator.Quality.GOOD, estimator.getQuality());
+    }
+
+    @Test
+    public void linkIsNotGoodWhileBandwidthIsUnknown() throws Exception {
+        recordRtt(MIN_SAMPLES, 100);
+        assertEquals(NetworkQualityEstimator.Quality.MODERATE, estimator.getQuality());
+    }
+
+    @Test
+    public void slowRoundTripsMakeLinkPoor() throws Exception {
+        recordRtt(MIN_SAMPLES, 1500);
+        recordBandwidth(MIN_SAMPLES, 2 * GOOD_BYTES_PER_SECOND);
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+    }
+
+    @Test
+    public void lowBandwidthMakesLinkPoor() throws Exception {
+        recordRtt(MIN_SAMPLES, 100);
+        recordBandwidth(MIN_SAMPLES, 8 * 1024);
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+    }
+
+    @Test
+    public void singleSlowRequestDoesNotMoveEstimate() throws Exception {
+        recordRtt(4, 100);
+        estimator.recordRtt(5000);
+        assertEquals(100, estimator.getRttMillis());
+    }
+
+    @Test
+    public void smallTransfersAreNotMeasured() throws Exception {
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            estimator.recordTransfer(MIN_TRANSFER_BYTES - 1, 1);
+        }
+        assertEquals(-1, estimator.getBytesPerSecond());
+    }
+
+    @Test
+    public void timeoutIsClampedToBounds() throws Exception {
+        recordRtt(MIN_SAMPLES, 50);
+        recordBandwidth(MIN_SAMPLES, 10 * GOOD_BYTES_PER_SECOND);
+        assertEquals(MIN_TIMEOUT_MILLIS, estimator.getTimeoutMillis());
+
+        estimator.onNetworkAvailable();
+        recordRtt(MIN_SAMPLES, 10000);
+        assertEquals(MAX_TIMEOUT_MILLIS, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void timeoutGrowsWithRoundTripTime() throws Exception {
+        recordRtt(MIN_SAMPLES, 1500);
+        recordBandwidth(MIN_SAMPLES, 10 * GOOD_BYTES_PER_SECOND);
+        assertEquals(12100, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void estimatesAreDiscardedWhenNetworkReturns() throws Exception {
+        recordRtt(MIN_SAMPLES, 100);
+        recordBandwidth(MIN_SAMPLES, GOOD_BYTES_PER_SECOND);
+        estimator.onNetworkAvailable();
+        assertEquals(NetworkQualityEstimator.Quality.UNKNOWN, estimator.getQuality());
+        assertEquals(-1, estimator.getBytesPerSecond());
+    }
+
+    @Test
+    public void measuresResponsesFromNetwork() throws Exception {
+        MockWebServer server = new MockWebServer();
+        char[] body = new char[(int) MIN_TRANSFER_BYTES * 2];
+        Arrays.fill(body, 'a');
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            server.enqueue(new MockResponse().setBody(new String(body)));
+        }
+        server.start();
+        try {
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .addInterceptor(estimator)
+                    .build();
+            for (int i = 0; i < MIN_SAMPLES; i++) {
+                Response response = client.newCall(new Request.Builder().url(server.url("/api/v2/articles")).build())
+                        .execute();
+                response.body().string();
+            }
+        } finally {
+            server.shutdown();
+        }
+        assertTrue(estimator.getRttMillis() >= 0);
+        assertTrue(estimator.getBytesPerSecond() > 0);
+    }
+
+    private void recordRtt(int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            estimator.recordRtt(millis);
+        }
+    }
+
+    private void recordBandwidth(int count, long bytesPerSecond) {
+        for (int i = 0; i < count; i++) {
+            // over a few seconds so that even slow links transfer enough to be measured
+            estimator.recordTransfer(bytesPerSecond * 4, 4000);
+        }
+    }
+}
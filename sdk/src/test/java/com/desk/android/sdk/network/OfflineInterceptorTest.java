@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import com.desk.android.sdk.standin.StandInConfig;
+import com.desk.android.sdk.standin.StandInServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link OfflineInterceptor}
+ */
+public class OfflineInterceptorTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private NetworkMonitor monitor;
+    private Cache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        monitor = new NetworkMonitor(true);
+        cache = new Cache(folder.getRoot(), 1024 * 1024);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cache.close();
+    }
+
+    @Test
+    public void offlineRequestFailsWithoutReachingServer() throws Exception {
+        StandInServer server = new StandInServer(new StandInConfig.Builder().create());
+        server.start();
+        try {
+            monitor.setConnected(false);
+            try {
+                get(client(server.interceptor()), "https://standin.desk.com/api/v2/topics");
+                fail("expected an OfflineException");
+            } catch (OfflineException expected) {
+            }
+            assertEquals(0, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void offlineRequestServedFromCache() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("topics").setHeader("Cache-Control", "max-age=60"));
+        server.start();
+        try {
+            OkHttpClient client = client(null);
+            String url = server.url("/api/v2/topics").toString();
+            get(client, url).body().string();
+
+            monitor.setConnected(false);
+            Response response = get(client, url);
+            assertEquals(200, response.code());
+            assertEquals("topics", response.body().string());
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void serverErrorFallsBackToStaleCachedResponse() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("topics").setHeader("Cache-Control", "max-age=0"));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+        try {
+            OkHttpClient client = client(null);
+            String url = server.url("/api/v2/topics").toString();
+            get(client, url).body().close();
+
+            Response response = get(client, url);
+            assertEquals(200, response.code());
+            assertEquals("topics", response.body().string());
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void serverErrorWithoutCachedResponseIsReturned() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+        try {
+            Response response = get(client(null), server.url("/api/v2/topics").toString());
+            assertEquals(503, response.code());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private OkHttpClient client(Interceptor interceptor) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .cache(cache)
+                .addInterceptor(new OfflineInterceptor(monitor));
+        if (interceptor != null) {
+            builder.addInterceptor(interceptor);
+        }
+        return builder.build();
+    }
+
+    private static Response get(OkHttpClient client, String url) throws IOException {
+        return client.newCall(new Request.Builder().url(url).build()).execute();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link RateLimitInterceptor}
+ */
+public class RateLimitInterceptorTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new RateLimitInterceptor(5000, 100))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RequestPriority.set(RequestPriority.USER_VISIBLE);
+        server.shutdown();
+    }
+
+    @Test
+    public void rateLimitedRequestIsRetriedAfterReset() throws Exception {
+        server.enqueue(rateLimited(1));
+        server.enqueue(new MockResponse().setBody("topics"));
+        long start = System.currentTimeMillis();
+        Response response = get("/api/v2/topics");
+        assertEquals(200, response.code());
+        assertEquals(2, server.getRequestCount());
+        if (System.currentTimeMillis() - start < 900) {
+            fail("expected the retry to wait for the reset");
+        }
+    }
+
+    @Test
+    public void rateLimitedResponseIsReturnedWhenResetIsTooFarOff() throws Exception {
+        server.enqueue(rateLimited(60));
+        assertEquals(429, get("/api/v2/topics").code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void exhaustedWindowFailsWithoutReachingServer() throws Exception {
+        server.enqueue(rateLimited(60));
+        get("/api/v2/topics").body().close();
+        try {
+            get("/api/v2/articles");
+            fail("expected a RateLimitedException");
+        } catch (RateLimitedException expected) {
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void backgroundRequestsGiveWayWhenLimitRunsLow() throws Exception {
+        server.enqueue(limited(10, 2, 60));
+        server.enqueue(new MockResponse().setBody("articles"));
+        get("/api/v2/topics").body().close();
+
+        RequestPriority.set(RequestPriority.BACKGROUND);
+        try {
+            get("/api/v2/articles");
+            fail("expected a RateLimitedException");
+        } catch (RateLimitedException expected) {
+        }
+
+        RequestPriority.set(RequestPriority.USER_VISIBLE);
+        assertEquals(200, get("/api/v2/articles").code());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void taggedRequestTakesPriorityOfTag() throws Exception {
+        server.enqueue(limited(10, 2, 60));
+        get("/api/v2/topics").body().close();
+
+        Request request = new Request.Builder().url(server.url("/api/v2/articles")).build();
+        RequestPriority.tag(request, RequestPriority.BACKGROUND);
+        try {
+            client.newCall(request).execute();
+            fail("expected a RateLimitedException");
+        } catch (RateLimitedException expected) {
+        }
+    }
+
+    @Test
+    public void limitsArePerHost() throws Exception {
+        MockWebServer other = new MockWebServer();
+        other.enqueue(new MockResponse().setBody("topics"));
+        other.start();
+        try {
+            server.enqueue(rateLimited(60));
+            client.newCall(new Request.Builder()
+                    .url(server.url("/api/v2/topics").newBuilder().host("localhost").build())
+                    .build()).execute().body().close();
+            Response response = client.newCall(new Request.Builder()
+                    .url(other.url("/api/v2/topics").newBuilder().host("127.0.0.1").build())
+                    .build()).execute();
+            assertEquals(200, response.code());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    private static MockResponse rateLimited(int resetSeconds) {
+        return limited(10, 0, resetSeconds).setResponseCode(429).setHeader("Retry-After", resetSeconds);
+    }
+
+    private static MockResponse limited(int limit, int remaining, int resetSeconds) {
+        return new MockResponse()
+                .setHeader(RateLimitInterceptor.LIMIT_HEADER, limit)
+                .setHeader(RateLimitInterceptor.REMAINING_HEADER, remaining)
+                .setHeader(RateLimitInterceptor.RESET_HEADER, resetSeconds);
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link RateLimiter}
+ */
+public class RateLimiterTest {
+
+    private final RateLimiter limiter = new RateLimiter();
+
+    @Test
+    public void unknownWindowIsNotLimited() throws Exception {
+        assertEquals(0, limiter.tryAcquire(RequestPriority.BACKGROUND, 0));
+        assertEquals(-1, limiter.getRemaining(0));
+    }
+
+    @Test
+    public void takesTokensUntilWindowRunsOut() throws Exception {
+        limiter.update(10, 2, 1000, 0);
+        assertEquals(0, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+        assertEquals(0, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+        assertEquals(900, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 100));
+    }
+
+    @Test
+    public void backgroundLeavesReserveToUserVisible() throws Exception {
+        limiter.update(10, 3, 1000, 0);
+        assertEquals(0, limiter.tryAcquire(RequestPriority.BACKGROUND, 0));
+        assertEquals(1000, limiter.tryAcquire(RequestPriority.BACKGROUND, 0));
+        assertEquals(0, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+        assertEquals(0, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+    }
+
+    @Test
+    public void refillsWhenWindowResets() throws Exception {
+        limiter.update(10, 0, 1000, 0);
+        assertEquals(1000, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+        assertEquals(0, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 1000));
+    }
+
+    @Test
+    public void keepsLowestCountWithinWindow() throws Exception {
+        limiter.update(10, 5, 1000, 0);
+        limiter.update(10, 7, 900, 100);
+        assertEquals(5, limiter.getRemaining(100));
+    }
+
+    @Test
+    public void newWindowReplacesCount() throws Exception {
+        limiter.update(10, 1, 1000, 0);
+        limiter.update(10, 9, 60000, 500);
+        assertEquals(9, limiter.getRemaining(500));
+    }
+
+    @Test
+    public void rateLimitedEmptiesBucket() throws Exception {
+        limiter.update(10, 5, 1000, 0);
+        limiter.onRateLimited(2000, 0);
+        assertEquals(0, limiter.getRemaining(0));
+        assertEquals(2000, limiter.tryAcquire(RequestPriority.USER_VISIBLE, 0));
+    }
+}
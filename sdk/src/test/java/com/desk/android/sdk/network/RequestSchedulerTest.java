@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RequestScheduler}
+ */
+@SuppressWarnings("unchecked")
+public class RequestSchedulerTest {
+
+    private static final String HOST = "standin.desk.com";
+
+    private final List<Call<String>> started = new ArrayList<>();
+    private final Map<Call<String>, Callback<String>> callbacks = new HashMap<>();
+    private final List<Runnable> watchdogs = new ArrayList<>();
+
+    @Test
+    public void limitsRunningCallsPerHost() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(2);
+        Call<String> first = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        Call<String> second = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        Call<String> third = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        assertEquals(2, scheduler.getRunningCount(HOST));
+        assertEquals(1, scheduler.getQueuedCount(HOST));
+
+        complete(first);
+        assertEquals(listOf(first, second, third), started);
+        assertEquals(0, scheduler.getQueuedCount(HOST));
+    }
+
+    @Test
+    public void hostsHaveSeparateLimits() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> first = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        Call<String> second = enqueue(scheduler, "other.desk.com", RequestPriority.BACKGROUND);
+        assertEquals(listOf(first, second), started);
+    }
+
+    @Test
+    public void queuedCallsStartInPriorityOrder() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> running = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+        Call<String> background = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        Call<String> prefetch = enqueue(scheduler, HOST, RequestPriority.PREFETCH);
+        Call<String> userVisible = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+
+        complete(running);
+        complete(userVisible);
+        complete(prefetch);
+        assertEquals(listOf(running, userVisible, prefetch, background), started);
+    }
+
+    @Test
+    public void userVisibleCallPreemptsLowerPriorityCall() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> background = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        Call<String> userVisible = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+
+        verify(background).cancel();
+        assertEquals(listOf(background, userVisible), started);
+        assertTrue(scheduler.isPreempted(background));
+        assertFalse(scheduler.isPreempted(userVisible));
+
+        // the cancelled call completing doesn't free the slot the user visible call took
+        Call<String> next = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        callbacks.get(background).onFailure(background, new IOException("Canceled"));
+        assertEquals(1, scheduler.getQueuedCount(HOST));
+        complete(userVisible);
+        assertEquals(listOf(background, userVisible, next), started);
+    }
+
+    @Test
+    public void lowerPriorityCallsDontPreempt() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> background = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        enqueue(scheduler, HOST, RequestPriority.PREFETCH);
+        verify(background, never()).cancel();
+        assertEquals(1, scheduler.getQueuedCount(HOST));
+    }
+
+    @Test
+    public void callbackIsNotifiedWithResponse() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Callback<String> callback = mock(Callback.class);
+        Call<String> call = call(HOST);
+        scheduler.enqueue(call, RequestPriority.USER_VISIBLE, callback);
+        Response<String> response = Response.success("topics");
+        callbacks.get(call).onResponse(call, response);
+        verify(callback).onResponse(call, response);
+    }
+
+    @Test
+    public void directSchedulerPassesCallbackThrough() throws Exception {
+        Callback<String> callback = mock(Callback.class);
+        Call<String> call = call(HOST);
+        RequestScheduler.direct().enqueue(call, RequestPriority.BACKGROUND, callback);
+        assertSame(callback, callbacks.get(call));
+    }
+
+    @Test
+    public void executeRunsOnCallingThread() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> call = call(HOST);
+        Response<String> response = Response.success("topics");
+        when(call.execute()).thenReturn(response);
+        assertSame(response, scheduler.execute(call));
+        assertEquals(0, scheduler.getRunningCount(HOST));
+    }
+
+    @Test
+    public void interruptedExecuteFreesSlotHandedToIt() throws Exception {
+        final RequestScheduler scheduler = new RequestScheduler(1);
+        Call<String> running = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+        final Call<String> waiting = call(HOST);
+        final AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scheduler.execute(waiting);
+                } catch (IOException e) {
+                    failure.set(e);
+                }
+            }
+        });
+        worker.start();
+        awaitState(worker, Thread.State.WAITING);
+
+        // the running call hands its slot to the waiting one while the worker is interrupted
+        synchronized (scheduler) {
+            worker.interrupt();
+            awaitState(worker, Thread.State.BLOCKED);
+            complete(running);
+        }
+        worker.join(5000);
+        assertTrue(failure.get() instanceof InterruptedIOException);
+        assertEquals(0, scheduler.getRunningCount(HOST));
+    }
+
+    @Test
+    public void userVisibleCallTimesOutAfterEstimatedTimeout() throws Exception {
+        ScheduledExecutorService timer = timer();
+        RequestScheduler scheduler = new RequestScheduler(1, timer);
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Callback<String> callback = mock(Callback.class);
+        Call<String> call = call(HOST);
+        Call<String> fallback = call(HOST);
+        when(call.clone()).thenReturn(fallback);
+        scheduler.enqueue(call, RequestPriority.USER_VISIBLE, callback);
+
+        try {
+            attempt(scheduler, call, timeOut());
+            fail();
+        } catch (IOException expected) {
+            // the call was cancelled
+        }
+        verify(timer).schedule(any(Runnable.class), eq(9000L), eq(TimeUnit.MILLISECONDS));
+        verify(call).cancel();
+
+        // nothing is cached
+        callbacks.get(call).onFailure(call, new IOException("Canceled"));
+        callbacks.get(fallback).onFailure(fallback, new OfflineException());
+        verify(callback).onFailure(eq(call), isA(SocketTimeoutException.class));
+        assertEquals(0, scheduler.getRunningCount(HOST));
+    }
+
+    @Test
+    public void timedOutCallIsAnsweredFromCache() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, timer());
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Callback<String> callback = mock(Callback.class);
+        Call<String> call = call(HOST);
+        Call<String> fallback = call(HOST);
+        when(call.clone()).thenReturn(fallback);
+        scheduler.enqueue(call, RequestPriority.USER_VISIBLE, callback);
+
+        try {
+            attempt(scheduler, call, timeOut());
+            fail();
+        } catch (IOException expected) {
+            // the call was cancelled
+        }
+        callbacks.get(call).onFailure(call, new IOException("Canceled"));
+        Response<String> cached = Response.success("cached topics");
+        callbacks.get(fallback).onResponse(fallback, cached);
+        verify(callback).onResponse(call, cached);
+        verify(callback, never()).onFailure(any(Call.class), any(Throwable.class));
+    }
+
+    @Test
+    public void waitBetweenAttemptsIsNotTimed() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, timer());
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Call<String> call = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+
+        try {
+            attempt(scheduler, call, new Answer() {
+                @Override
+                public Object answer(InvocationOnMock invocation) throws Throwable {
+                    throw new IOException("unexpected end of stream");
+                }
+            });
+            fail();
+        } catch (IOException expected) {
+            // left to the interceptors which retry
+        }
+
+        // the failed attempt's timeout passes while the retry backs off
+        watchdogs.get(0).run();
+        verify(call, never()).cancel();
+    }
+
+    @Test
+    public void attemptIsTimedUntilItsBodyIsClosed() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, timer());
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Call<String> first = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+        okhttp3.Response response = attempt(scheduler, first, respond());
+        watchdogs.get(0).run();
+        verify(first).cancel();
+
+        Call<String> second = enqueue(scheduler, "other.desk.com", RequestPriority.USER_VISIBLE);
+        attempt(scheduler, second, respond()).body().close();
+        watchdogs.get(1).run();
+        verify(second, never()).cancel();
+        response.body().close();
+    }
+
+    @Test
+    public void completedCallIsNotTimedOut() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, timer());
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Call<String> call = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+
+        attempt(scheduler, call, respond());
+        complete(call);
+        watchdogs.get(0).run();
+        verify(call, never()).cancel();
+    }
+
+    @Test
+    public void onlyUserVisibleCallsAreTimedOut() throws Exception {
+        ScheduledExecutorService timer = timer();
+        RequestScheduler scheduler = new RequestScheduler(1, timer);
+        scheduler.setNetworkQualityEstimator(estimator(9000));
+        Call<String> call = enqueue(scheduler, HOST, RequestPriority.BACKGROUND);
+        attempt(scheduler, call, respond());
+        verifyZeroInteractions(timer);
+    }
+
+    @Test
+    public void callsAreNotTimedOutWhileLinkIsUnknown() throws Exception {
+        ScheduledExecutorService timer = timer();
+        RequestScheduler scheduler = new RequestScheduler(1, timer);
+        scheduler.setNetworkQualityEstimator(estimator(0));
+        Call<String> call = enqueue(scheduler, HOST, RequestPriority.USER_VISIBLE);
+        attempt(scheduler, call, respond());
+        verifyZeroInteractions(timer);
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(state, thread.getState());
+    }
+
+    private ScheduledExecutorService timer() {
+        ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                watchdogs.add((Runnable) invocation.getArguments()[0]);
+                return mock(ScheduledFuture.class);
+            }
+        });
+        return timer;
+    }
+
+    /**
+     * Runs a network attempt of the call through the scheduler's timeout interceptor
+     */
+    private static okhttp3.Response attempt(RequestScheduler scheduler, Call<String> call, Answer network)
+            throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(call.request());
+        when(chain.proceed(any(Request.class))).thenAnswer(network);
+        return scheduler.getTimeoutInterceptor().intercept(chain);
+    }
+
+    /**
+     * Answers an attempt once its timeout has passed, which cancels the call
+     */
+    private Answer timeOut() {
+        return new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                watchdogs.get(watchdogs.size() - 1).run();
+                throw new IOException("Canceled");
+            }
+        };
+    }
+
+    /**
+     * Answers an attempt with a response from the network
+     */
+    private static Answer respond() {
+        return new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Request request = (Request) invocation.getArguments()[0];
+                okhttp3.Response network = new okhttp3.Response.Builder()
+                        .request(request)
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .build();
+                return network.newBuilder()
+                        .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                        .networkResponse(network)
+                        .build();
+            }
+        };
+    }
+
+    private static NetworkQualityEstimator estimator(long timeoutMillis) {
+        NetworkQualityEstimator estimator = mock(NetworkQualityEstimator.class);
+        when(estimator.getTimeoutMillis()).thenReturn(timeoutMillis);
+        return estimator;
+    }
+
+    private Call<String> enqueue(RequestScheduler scheduler, String host, RequestPriority priority) {
+        Call<String> call = call(host);
+        scheduler.enqueue(call, priority, mock(Callback.class));
+        return call;
+    }
+
+    private Call<String> call(String host) {
+        final Call<String> call = mock(Call.class);
+        when(call.request()).thenReturn(new Request.Builder().url("https://" + host + "/api/v2/topics").build());
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                started.add(call);
+                callbacks.put(call, (Callback<String>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(call).enqueue(any(Callback.class));
+        return call;
+    }
+
+    private void complete(Call<String> call) {
+        callbacks.get(call).onResponse(call, Response.success("ok"));
+    }
+
+    private static List<Call<String>> listOf(Call<String>... calls) {
+        List<Call<String>> list = new ArrayList<>();
+        for (Call<String> call : calls) {
+            list.add(call);
+        }
+        return list;
+    }
+}
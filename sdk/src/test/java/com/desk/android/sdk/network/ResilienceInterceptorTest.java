@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link ResilienceInterceptor}
+ */
+public class ResilienceInterceptorTest {
+
+    private static final RetryPolicy POLICY = new RetryPolicy.Builder()
+            .maxAttempts(3)
+            .baseDelay(1)
+            .maxDelay(5)
+            .deadline(5000)
+            .create();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = client(POLICY);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void serverErrorIsRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("topics"));
+        Response response = get("/api/v2/topics");
+        assertEquals(200, response.code());
+        assertEquals("topics", response.body().string());
+        assertEquals("1", response.header(ResilienceInterceptor.RETRY_COUNT_HEADER));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void networkErrorIsRetried() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setBody("topics"));
+        Response response = get("/api/v2/topics");
+        assertEquals(200, response.code());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void successIsNotMarked() throws Exception {
+        server.enqueue(new MockResponse().setBody("topics"));
+        Response response = get("/api/v2/topics");
+        assertNull(response.header(ResilienceInterceptor.RETRY_COUNT_HEADER));
+    }
+
+    @Test
+    public void clientErrorIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        assertEquals(404, get("/api/v2/topics/1").code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void postIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        Response response = client.newCall(new Request.Builder()
+                .url(server.url("/api/v2/customers/cases"))
+                .post(RequestBody.create(null, "{}"))
+                .build()).execute();
+        assertEquals(503, response.code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void lastResponseIsReturnedAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        Response response = get("/api/v2/topics");
+        assertEquals(500, response.code());
+        assertEquals("2", response.header(ResilienceInterceptor.RETRY_COUNT_HEADER));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void networkErrorsThrowRetriesExhausted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        }
+        try {
+            get("/api/v2/articles");
+            fail("expected a RetriesExhaustedException");
+        } catch (RetriesExhaustedException e) {
+            assertEquals(2, e.getRetryCount());
+        }
+    }
+
+    @Test
+    public void openCircuitFailsWithoutReachingServer() throws Exception {
+        client = client(RetryPolicy.NONE);
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        get("/api/v2/topics").body().close();
+        get("/api/v2/topics").body().close();
+        try {
+            get("/api/v2/topics");
+            fail("expected a CircuitOpenException");
+        } catch (CircuitOpenException expected) {
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void circuitIsPerEndpoint() throws Exception {
+        client = client(RetryPolicy.NONE);
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("mailboxes"));
+        get("/api/v2/topics").body().close();
+        get("/api/v2/topics").body().close();
+        assertEquals(200, get("/api/v2/mailboxes/inbound").code());
+    }
+
+    private static OkHttpClient client(RetryPolicy policy) {
+        // OkHttp would otherwise silently retry the disconnects itself
+        return new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .addInterceptor(new ResilienceInterceptor(policy, 2, 60000))
+                .build();
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.desk.java.apiclient.model.Article;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ArticleIndex}
+ */
+@SmallTest
+public class ArticleIndexTest {
+
+    private Article password;
+    private Article billing;
+    private Article shipping;
+    private ArticleIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        password = article("Resetting your password", "<p>Open <b>settings</b> and tap reset.</p>");
+        billing = article("Updating billing details", "Change the card used for your subscription in settings.");
+        shipping = article("Shipping times", "Orders ship within two days. Tracking is emailed&nbsp;once shipped.");
+        index = new ArticleIndex(Arrays.asList(password, billing, shipping));
+    }
+
+    @Test
+    public void tokenizeDropsShortWordsStopWordsAndDuplicates() throws Exception {
+        assertEquals(Arrays.asList("reset", "password", "again"),
+                ArticleIndex.tokenize("How do I reset my PASSWORD? Reset it again"));
+    }
+
+    @Test
+    public void subjectMatchesRankAboveBodyMatches() throws Exception {
+        List<Article> results = index.search("billing settings ", 3);
+        assertSame(billing, results.get(0));
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void lastWordIsMatchedAsPrefix() throws Exception {
+        assertSame(password, index.search("I forgot my passw", 3).get(0));
+    }
+
+    @Test
+    public void lastWordIsMatchedExactlyAfterSeparator() throws Exception {
+        assertTrue(index.search("passw ", 3).isEmpty());
+    }
+
+    @Test
+    public void markupIsNotIndexed() throws Exception {
+        assertTrue(index.search("nbsp ", 3).isEmpty());
+        assertSame(shipping, index.search("emailed ", 3).get(0));
+    }
+
+    @Test
+    public void searchReturnsAtMostMaxResults() throws Exception {
+        assertEquals(1, index.search("settings ", 1).size());
+    }
+
+    @Test
+    public void searchWithoutMeaningfulWordsReturnsNothing() throws Exception {
+        assertTrue(index.search("how do I", 3).isEmpty());
+        assertTrue(ArticleIndex.EMPTY.search("password", 3).isEmpty());
+    }
+
+    private static Article article(String subject, String body) {
+        Article article = mock(Article.class);
+        when(article.getSubject()).thenReturn(subject);
+        when(article.getBody()).thenReturn(body);
+        return article;
+    }
+}
@@ -26,10 +26,15 @@
 
 package com.desk.android.sdk.provider;
 
+import android.content.ComponentCallbacks2;
 import android.test.suitebuilder.annotation.SmallTest;
 
 import com.desk.android.sdk.Desk;
+import com.desk.android.sdk.config.PerformanceProfile;
+import com.desk.android.sdk.error.DeskException;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.network.NetworkQualityEstimator;
+import com.desk.android.sdk.util.QueueExecutor;
 import com.desk.android.sdk.util.TestUtils;
 import com.desk.java.apiclient.model.ApiResponse;
 import com.desk.java.apiclient.model.Article;
@@ -39,8 +44,17 @@ import com.desk.java.apiclient.model.TopicIds;
 import com.desk.java.apiclient.service.ArticleService;
 import com.google.gson.reflect.TypeToken;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
@@ -53,8 +67,17 @@ import retrofit2.Response;
 import static com.desk.android.sdk.provider.ArticleProvider.ALL_BRANDS;
 import static com.desk.android.sdk.provider.ArticleProvider.ALL_TOPICS;
 import static com.desk.android.sdk.provider.ArticleProvider.ArticleCallbacks;
+import static com.desk.android.sdk.provider.ArticleProvider.GOOD_LINK_PER_PAGE;
 import static com.desk.android.sdk.provider.ArticleProvider.PER_PAGE;
+import static com.desk.android.sdk.provider.ArticleProvider.POOR_LINK_PER_PAGE;
 import static com.desk.android.sdk.provider.ArticleProvider.RetrofitCallback;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyInt;
@@ -62,9 +85,12 @@ import static org.mockito.Mockito.anyListOf;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.isNotNull;
 import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -557,8 +583,463 @@ public class ArticleProviderTest {
         );
     }
 
+    @Test
+    public void retrofitCallbackProcessesOnWorkExecutorAndDeliversOnCallbackExecutor() throws Exception {
+        QueueExecutor workExecutor = new QueueExecutor();
+        QueueExecutor callbackExecutor = new QueueExecutor();
+        ApiResponse<Article> response = getMockApiResponse("/mock_article_response_with_next.json");
+        RetrofitCallback articleCallback = new RetrofitCallback(callback, workExecutor, callbackExecutor);
+        articleCallback.onResponse(mock(Call.class), Response.success(response));
+        verify(callback, never()).onArticlesLoaded(anyInt(), anyListOf(Article.class), anyBoolean());
+
+        workExecutor.runAll();
+        verify(callback, never()).onArticlesLoaded(anyInt(), anyListOf(Article.class), anyBoolean());
+
+        callbackExecutor.runAll();
+        verify(callback).onArticlesLoaded(eq(response.getPage()), anyListOf(Article.class), eq(true));
+    }
+
+    @Test
+    public void retrofitCallbackDeliversErrorOnCallbackExecutor() throws Exception {
+        QueueExecutor workExecutor = new QueueExecutor();
+        QueueExecutor callbackExecutor = new QueueExecutor();
+        RetrofitCallback articleCallback = new RetrofitCallback(callback, workExecutor, callbackExecutor);
+        articleCallback.onFailure(mock(Call.class), new RuntimeException());
+        verify(callback, never()).onArticlesLoadError(any(ErrorResponse.class));
+
+        callbackExecutor.runAll();
+        verify(callback).onArticlesLoadError(any(ErrorResponse.class));
+    }
+
+    // endregion
+
+    // region articles() stream tests
+
+    @Test
+    public void articlesStreamDoesNotFetchUntilRequested() throws Exception {
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(mock(PageSubscriber.class));
+        verify(mockArticleService, never()).getArticles(
+                anyString(),
+                anyInt(),
+                anyInt(),
+                anyBoolean(),
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyString(),
+                any(SortDirection.class));
+    }
+
+    @Test
+    public void articlesStreamFetchesRequestedPage() throws Exception {
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(mock(PageSubscriber.class), 3).request(1);
+        verify(mockArticleService).getArticles(
+                anyString(),
+                eq(3), // testing that this is the first page of the subscription
+                anyInt(),
+                anyBoolean(),
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyString(),
+                any(SortDirection.class));
+    }
+
+    @Test
+    public void articlesStreamEmitsCachedPageBeforeNetworkPage() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response_with_next.json"));
+
+        // load the first page once so it is cached
+        articleProvider.getArticles(ALL_TOPICS, ALL_BRANDS, 1, callback);
+
+        PageSubscriber<Article> subscriber = mock(PageSubscriber.class);
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(subscriber).request(1);
+        InOrder inOrder = inOrder(subscriber);
+        inOrder.verify(subscriber).onPage(eq(1), anyListOf(Article.class), eq(true), eq(true));
+        inOrder.verify(subscriber).onPage(eq(1), anyListOf(Article.class), eq(true), eq(false));
+    }
+
+    @Test
+    public void articlesStreamOnlyFetchesRequestedPages() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response_with_next.json"));
+        PageSubscriber<Article> subscriber = mock(PageSubscriber.class);
+        Subscription subscription = articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(subscriber);
+        subscription.request(2);
+        verify(subscriber, times(2)).onPage(anyInt(), anyListOf(Article.class), anyBoolean(), eq(false));
+        verify(subscriber, never()).onComplete();
+    }
+
+    @Test
+    public void articlesStreamStopsEmittingWhenCancelled() throws Exception {
+        final Call mockCall = mock(Call.class);
+        mockArticlesCall(mockCall);
+        PageSubscriber<Article> subscriber = mock(PageSubscriber.class);
+        Subscription subscription = articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(subscriber);
+        subscription.request(1);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(captor.capture());
+        subscription.cancel();
+        captor.getValue().onResponse(mockCall, Response.success(getMockApiResponse("/mock_article_response_with_next.json")));
+        verify(subscriber, never()).onPage(anyInt(), anyListOf(Article.class), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void articlesStreamUsesLargerPagesOnGoodLink() throws Exception {
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.GOOD));
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(mock(PageSubscriber.class)).request(1);
+        verify(mockArticleService).getArticles(
+                anyString(),
+                eq(1),
+                eq(GOOD_LINK_PER_PAGE), // testing that the page size follows the link
+                anyBoolean(),
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyString(),
+                any(SortDirection.class));
+    }
+
+    @Test
+    public void searchStreamUsesSmallerPagesOnPoorLink() throws Exception {
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.POOR));
+        articleProvider.search(ALL_TOPICS, ALL_BRANDS, "password").subscribe(mock(PageSubscriber.class)).request(1);
+        verify(mockArticleService).searchArticles(
+                anyString(),
+                eq(1),
+                eq(POOR_LINK_PER_PAGE), // testing that the page size follows the link
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyBoolean(),
+                anyString(),
+                any(SortDirection.class),
+                eq("password"));
+    }
+
+    @Test
+    public void articlesStreamUsesDefaultPagesWhileLinkIsUnknown() throws Exception {
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.UNKNOWN));
+        assertEquals(PER_PAGE, articleProvider.getStreamPageSize());
+    }
+
+    @Test
+    public void profileCapsStreamPageSize() throws Exception {
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.GOOD));
+        articleProvider.setPerformanceProfile(PerformanceProfile.LOW_RAM);
+        assertEquals(PerformanceProfile.LOW_RAM.getMaxPageSize(), articleProvider.getStreamPageSize());
+
+        articleProvider.setPerformanceProfile(PerformanceProfile.DATA_SAVER);
+        assertEquals(PerformanceProfile.DATA_SAVER.getMaxPageSize(), articleProvider.getStreamPageSize());
+    }
+
+    @Test
+    public void pagesOfOtherSizesAreCachedApart() throws Exception {
+        assertEquals(ArticleProvider.cacheKey(ALL_TOPICS, ALL_BRANDS, null, 1),
+                ArticleProvider.cacheKey(ALL_TOPICS, ALL_BRANDS, null, 1, PER_PAGE));
+        assertFalse(ArticleProvider.cacheKey(ALL_TOPICS, ALL_BRANDS, null, 1)
+                .equals(ArticleProvider.cacheKey(ALL_TOPICS, ALL_BRANDS, null, 1, GOOD_LINK_PER_PAGE)));
+    }
+
+    @Test
+    public void syncedTopicIsServedToStreamsOfOtherPageSizes() throws Exception {
+        mockSyncedArticles(PER_PAGE + 5);
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        // the third page of 10 spans the end of the first stored page and the start of the second
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.POOR));
+        PageSubscriber<Article> poorLinkSubscriber = mock(PageSubscriber.class);
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(poorLinkSubscriber, 3).request(1);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(poorLinkSubscriber).onPage(eq(3), captor.capture(), eq(false), eq(true));
+        assertEquals(POOR_LINK_PER_PAGE, captor.getValue().size());
+
+        articleProvider.setNetworkQualityEstimator(estimator(NetworkQualityEstimator.Quality.GOOD));
+        PageSubscriber<Article> goodLinkSubscriber = mock(PageSubscriber.class);
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(goodLinkSubscriber).request(1);
+        verify(goodLinkSubscriber).onPage(eq(1), captor.capture(), eq(false), eq(true));
+        assertEquals(PER_PAGE + 5, captor.getValue().size());
+    }
+
+    @Test
+    public void pagesPastTheEndOfASyncedTopicAreNotSliced() throws Exception {
+        mockSyncedArticles(PER_PAGE + 5);
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        assertNotNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 3, POOR_LINK_PER_PAGE));
+        assertNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 4, POOR_LINK_PER_PAGE));
+        assertTrue(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 1, POOR_LINK_PER_PAGE).morePages);
+    }
+
+    @Test
+    public void articlesStreamCompletesOnLastPage() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        PageSubscriber<Article> subscriber = mock(PageSubscriber.class);
+        articleProvider.articles(ALL_TOPICS, ALL_BRANDS).subscribe(subscriber).request(5);
+        verify(subscriber).onPage(eq(1), anyListOf(Article.class), eq(false), eq(false));
+        verify(subscriber).onComplete();
+    }
+
     // endregion
 
+    // region blocking getArticles() tests
+
+    @Test
+    public void getArticlesBlockingReturnsResponseAndCachesPage() throws Exception {
+        ApiResponse<Article> response = getMockApiResponse("/mock_article_response_with_next.json");
+        Call mockCall = mock(Call.class);
+        mockArticlesCall(mockCall);
+        when(mockCall.execute()).thenReturn(Response.success(response));
+
+        ApiResponse<Article> result = articleProvider.getArticles(ALL_TOPICS, ALL_BRANDS, 1);
+        assertSame(response, result);
+        assertNotNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 1));
+        verify(mockCall, never()).enqueue(any(Callback.class));
+    }
+
+    @Test
+    public void getArticlesBlockingThrowsNetworkErrorOnIOException() throws Exception {
+        Call mockCall = mock(Call.class);
+        mockArticlesCall(mockCall);
+        when(mockCall.execute()).thenThrow(new IOException());
+        try {
+            articleProvider.getArticles(ALL_TOPICS, ALL_BRANDS, 1);
+            fail("expected a DeskException");
+        } catch (DeskException e) {
+            assertTrue(e.getErrorResponse().isNetworkError());
+        }
+    }
+
+    @Test
+    public void getArticlesBlockingThrowsErrorWithStatusOnHttpError() throws Exception {
+        Call mockCall = mock(Call.class);
+        mockArticlesCall(mockCall);
+        when(mockCall.execute()).thenReturn(Response.error(404, ResponseBody.create(MediaType.parse("application/json"), "{}")));
+        try {
+            articleProvider.getArticles(ALL_TOPICS, ALL_BRANDS, 1);
+            fail("expected a DeskException");
+        } catch (DeskException e) {
+            assertFalse(e.getErrorResponse().isNetworkError());
+            assertEquals(404, e.getErrorResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void getAllArticlesBlockingReturnsArticlesAndCachesPages() throws Exception {
+        ApiResponse<Article> response = getMockApiResponse("/mock_article_response.json");
+        mockArticlesResponse(response);
+
+        List<Article> articles = articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+        assertEquals(response.getEntriesAsList().size(), articles.size());
+        assertNotNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 1));
+    }
+
+    // endregion
+
+    // region suggestArticles() Tests
+
+    @Test
+    public void suggestArticlesMatchesCachedArticlesWithoutSearching() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        ArticleProvider.SuggestionCallbacks callbacks = mock(ArticleProvider.SuggestionCallbacks.class);
+        articleProvider.suggestArticles(ALL_BRANDS, "How do I change my portal", 1, callbacks);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(callbacks).onSuggestionsLoaded(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("Sample :: Customizing your Portal", ((Article) captor.getValue().get(0)).getSubject());
+        verify(mockArticleService, never()).searchArticles(anyString(), anyInt(), anyInt(), any(TopicIds.class),
+                any(BrandIds.class), anyBoolean(), anyString(), any(SortDirection.class), anyString());
+    }
+
+    @Test
+    public void suggestArticlesMatchesLastWordAsPrefix() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        ArticleProvider.SuggestionCallbacks callbacks = mock(ArticleProvider.SuggestionCallbacks.class);
+        articleProvider.suggestArticles(ALL_BRANDS, "custom", 1, callbacks);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(callbacks).onSuggestionsLoaded(captor.capture());
+        assertEquals("Sample :: Customizing your Portal", ((Article) captor.getValue().get(0)).getSubject());
+    }
+
+    @Test
+    public void suggestArticlesSearchesWhenCacheHasTooFewMatches() throws Exception {
+        Call mockCall = mockSearchCall();
+        ArticleProvider.SuggestionCallbacks callbacks = mock(ArticleProvider.SuggestionCallbacks.class);
+        articleProvider.suggestArticles(ALL_BRANDS, "How do I change my portal?", 3, callbacks);
+
+        verify(callbacks).onSuggestionsLoaded(anyListOf(Article.class));
+        verify(mockArticleService).searchArticles(anyString(), eq(1), anyInt(), isNull(TopicIds.class),
+                isNull(BrandIds.class), anyBoolean(), anyString(), any(SortDirection.class), eq("change portal"));
+        verify(mockCall).enqueue(any(Callback.class));
+    }
+
+    @Test
+    public void suggestArticlesMergesSearchResults() throws Exception {
+        final Call mockCall = mockSearchCall();
+        final ApiResponse<Article> response = getMockApiResponse("/mock_article_response.json");
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((Callback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(response));
+                return null;
+            }
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        ArticleProvider.SuggestionCallbacks callbacks = mock(ArticleProvider.SuggestionCallbacks.class);
+        articleProvider.suggestArticles(ALL_BRANDS, "portal", 3, callbacks);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(callbacks, times(2)).onSuggestionsLoaded(captor.capture());
+        assertTrue(captor.getAllValues().get(0).isEmpty());
+        assertEquals(2, captor.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void cancellingSuggestionCancelsSearch() throws Exception {
+        Call mockCall = mockSearchCall();
+        Cancellable suggestion = articleProvider.suggestArticles(ALL_BRANDS, "portal", 3,
+                mock(ArticleProvider.SuggestionCallbacks.class));
+        suggestion.cancel();
+        assertTrue(suggestion.isCancelled());
+        verify(mockCall).cancel();
+    }
+
+    @Test
+    public void suggestArticlesDoesNotSearchWithoutMeaningfulWords() throws Exception {
+        articleProvider.suggestArticles(ALL_BRANDS, "how do I", 3, mock(ArticleProvider.SuggestionCallbacks.class));
+        verify(mockArticleService, never()).searchArticles(anyString(), anyInt(), anyInt(), any(TopicIds.class),
+                any(BrandIds.class), anyBoolean(), anyString(), any(SortDirection.class), anyString());
+    }
+
+    @Test
+    public void suggestionQueryIsLimitedToFirstWords() throws Exception {
+        assertEquals("one two three four five",
+                ArticleProvider.suggestionQuery("one two three four five six seven"));
+    }
+
+    // endregion
+
+    // region trimMemory() Tests
+
+    @Test
+    public void trimMemoryInBackgroundKeepsArticlePages() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        articleProvider.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertNotNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 1));
+        assertEquals(0, articleProvider.getCacheStats().get(0).getEvictionCount());
+    }
+
+    @Test
+    public void trimMemoryCompleteReleasesArticlePages() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+
+        articleProvider.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        assertNull(articleProvider.getCachedPage(ALL_TOPICS, ALL_BRANDS, null, 1));
+        CacheStats stats = articleProvider.getCacheStats().get(0);
+        assertEquals(0, stats.getSize());
+        assertEquals(1, stats.getEvictionCount());
+    }
+
+    @Test
+    public void suggestionsSearchAfterTrimReleasesArticlePages() throws Exception {
+        mockArticlesResponse(getMockApiResponse("/mock_article_response.json"));
+        articleProvider.getAllArticles(ALL_TOPICS, ALL_BRANDS);
+        mockSearchCall();
+
+        articleProvider.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        articleProvider.suggestArticles(ALL_BRANDS, "How do I change my portal", 1,
+                mock(ArticleProvider.SuggestionCallbacks.class));
+        verify(mockArticleService).searchArticles(anyString(), anyInt(), anyInt(), any(TopicIds.class),
+                any(BrandIds.class), anyBoolean(), anyString(), any(SortDirection.class), anyString());
+    }
+
+    // endregion
+
+    private static NetworkQualityEstimator estimator(NetworkQualityEstimator.Quality quality) {
+        NetworkQualityEstimator estimator = mock(NetworkQualityEstimator.class);
+        when(estimator.getQuality()).thenReturn(quality);
+        return estimator;
+    }
+
+    private Call mockSearchCall() {
+        Call mockCall = mock(Call.class);
+        when(mockArticleService.searchArticles(
+                anyString(),
+                anyInt(),
+                anyInt(),
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyBoolean(),
+                anyString(),
+                any(SortDirection.class),
+                anyString())).thenReturn(mockCall);
+        return mockCall;
+    }
+
+    /**
+     * Mocks the pages of {@value ArticleProvider#PER_PAGE} articles which sync loads for a topic
+     */
+    private void mockSyncedArticles(int totalEntries) {
+        int pageCount = (totalEntries + PER_PAGE - 1) / PER_PAGE;
+        for (int page = 1; page <= pageCount; page++) {
+            List<Article> articles = new ArrayList<>();
+            for (int i = (page - 1) * PER_PAGE; i < Math.min(page * PER_PAGE, totalEntries); i++) {
+                articles.add(mock(Article.class));
+            }
+            final ApiResponse<Article> response = mock(ApiResponse.class);
+            when(response.getTotalEntries()).thenReturn(totalEntries);
+            when(response.hasNextPage()).thenReturn(page < pageCount);
+            when(response.getEntriesAsList()).thenReturn(articles);
+
+            final Call mockCall = mock(Call.class);
+            doAnswer(new Answer() {
+                @Override
+                public Object answer(InvocationOnMock invocation) throws Throwable {
+                    ((Callback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(response));
+                    return null;
+                }
+            }).when(mockCall).enqueue(any(Callback.class));
+            when(mockArticleService.getArticles(
+                    anyString(),
+                    eq(page),
+                    eq(PER_PAGE),
+                    anyBoolean(),
+                    any(TopicIds.class),
+                    any(BrandIds.class),
+                    anyString(),
+                    any(SortDirection.class))).thenReturn(mockCall);
+        }
+    }
+
+    private void mockArticlesResponse(final ApiResponse<Article> response) {
+        final Call mockCall = mock(Call.class);
+        mockArticlesCall(mockCall);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((Callback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(response));
+                return null;
+            }
+        }).when(mockCall).enqueue(any(Callback.class));
+    }
+
+    private void mockArticlesCall(Call mockCall) {
+        when(mockArticleService.getArticles(
+                anyString(),
+                anyInt(),
+                anyInt(),
+                anyBoolean(),
+                any(TopicIds.class),
+                any(BrandIds.class),
+                anyString(),
+                any(SortDirection.class))).thenReturn(mockCall);
+    }
+
     private ApiResponse<Article> getMockApiResponse(String jsonFile) {
         return TestUtils.readMockJsonFile(
                 new TypeToken<ApiResponse<Article>>() {}.getType(),
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ContentStore}
+ */
+public class ContentStoreTest {
+
+    private static final String KEY = "en/1/0/1";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private ContentStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(folder.getRoot(), "store");
+        store = new ContentStore(directory);
+    }
+
+    @Test
+    public void getReturnsNullWhenNotStored() throws Exception {
+        assertNull(store.get(KEY));
+    }
+
+    @Test
+    public void putThenGetReturnsStoredPage() throws Exception {
+        List<String> items = Arrays.asList("one", "two");
+        assertTrue(store.put(KEY, items, true));
+
+        PageCache.Page<String> page = store.get(KEY);
+        assertNotNull(page);
+        assertEquals(items, page.items);
+        assertTrue(page.morePages);
+    }
+
+    @Test
+    public void putUnchangedPageDoesNotRewrite() throws Exception {
+        List<String> items = Arrays.asList("one", "two");
+        store.put(KEY, items, false);
+        assertFalse(store.put(KEY, items, false));
+        assertTrue(store.put(KEY, Arrays.asList("one", "three"), false));
+    }
+
+    @Test
+    public void getAllReturnsPagesByKey() throws Exception {
+        store.put(KEY, Arrays.asList("one"), false);
+        store.put("en/2/0/1", Arrays.asList("two"), false);
+
+        Map<String, PageCache.Page<String>> pages = store.getAll(10);
+        assertEquals(2, pages.size());
+        assertEquals(Arrays.asList("two"), pages.get("en/2/0/1").items);
+    }
+
+    @Test
+    public void getAllStopsAtMaxPages() throws Exception {
+        store.put(KEY, Arrays.asList("one"), false);
+        store.put("en/2/0/1", Arrays.asList("two"), false);
+        assertEquals(1, store.<String>getAll(1).size());
+    }
+
+    @Test
+    public void corruptPageIsDropped() throws Exception {
+        store.put(KEY, Arrays.asList("one"), false);
+        File file = directory.listFiles()[0];
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        assertNull(store.get(KEY));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void clearDeletesStoredPages() throws Exception {
+        store.put(KEY, Arrays.asList("one"), false);
+        store.clear();
+        assertNull(store.get(KEY));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import com.desk.android.sdk.model.ContactUsDraft;
+import com.desk.android.sdk.util.QueueExecutor;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link DraftStore}
+ */
+public class DraftStoreTest {
+
+    private static final String KEY = "contact_us";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private QueueExecutor workExecutor;
+    private QueueExecutor callbackExecutor;
+    private DraftStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(folder.getRoot(), "drafts");
+        workExecutor = new QueueExecutor();
+        callbackExecutor = new QueueExecutor();
+        store = new DraftStore(directory, workExecutor, callbackExecutor);
+    }
+
+    @Test
+    public void saveDoesNotWriteOnCallingThread() throws Exception {
+        store.save(KEY, draft("feedback"));
+        assertFalse(new File(directory, KEY).exists());
+        workExecutor.runAll();
+        assertTrue(new File(directory, KEY).exists());
+    }
+
+    @Test
+    public void savesAreCoalescedIntoOneWrite() throws Exception {
+        store.save(KEY, draft("f"));
+        store.save(KEY, draft("fe"));
+        store.save(KEY, draft("fee"));
+        assertEquals(1, workExecutor.size());
+        workExecutor.runAll();
+
+        assertEquals("fee", loadFromDisk().getFeedback());
+    }
+
+    @Test
+    public void saveAfterWriteQueuesAnotherWrite() throws Exception {
+        store.save(KEY, draft("f"));
+        workExecutor.runAll();
+        store.save(KEY, draft("fe"));
+        assertEquals(1, workExecutor.size());
+    }
+
+    @Test
+    public void loadReturnsUnwrittenDraft() throws Exception {
+        store.save(KEY, draft("feedback"));
+        DraftStore.DraftCallbacks callbacks = mock(DraftStore.DraftCallbacks.class);
+        store.load(KEY, callbacks);
+        callbackExecutor.runAll();
+
+        ArgumentCaptor<ContactUsDraft> captor = ArgumentCaptor.forClass(ContactUsDraft.class);
+        verify(callbacks).onDraftLoaded(captor.capture());
+        assertEquals("feedback", captor.getValue().getFeedback());
+    }
+
+    @Test
+    public void loadReturnsNullWhenNothingStored() throws Exception {
+        DraftStore.DraftCallbacks callbacks = mock(DraftStore.DraftCallbacks.class);
+        store.load(KEY, callbacks);
+        workExecutor.runAll();
+        callbackExecutor.runAll();
+        verify(callbacks).onDraftLoaded((ContactUsDraft) isNull());
+    }
+
+    @Test
+    public void clearDeletesStoredDraft() throws Exception {
+        store.save(KEY, draft("feedback"));
+        workExecutor.runAll();
+        store.clear(KEY);
+        workExecutor.runAll();
+        assertFalse(new File(directory, KEY).exists());
+    }
+
+    @Test
+    public void clearReplacesQueuedSave() throws Exception {
+        store.save(KEY, draft("feedback"));
+        store.clear(KEY);
+        workExecutor.runAll();
+        assertNull(loadFromDisk());
+    }
+
+    @Test
+    public void savingEmptyDraftClearsIt() throws Exception {
+        store.save(KEY, draft("feedback"));
+        workExecutor.runAll();
+        store.save(KEY, new ContactUsDraft(null, "", null, ""));
+        workExecutor.runAll();
+        assertFalse(new File(directory, KEY).exists());
+    }
+
+    @Test
+    public void corruptDraftIsDropped() throws Exception {
+        assertTrue(directory.mkdirs());
+        FileOutputStream out = new FileOutputStream(new File(directory, KEY));
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        assertNull(loadFromDisk());
+        assertFalse(new File(directory, KEY).exists());
+    }
+
+    private ContactUsDraft loadFromDisk() {
+        DraftStore.DraftCallbacks callbacks = mock(DraftStore.DraftCallbacks.class);
+        new DraftStore(directory, workExecutor, callbackExecutor).load(KEY, callbacks);
+        workExecutor.runAll();
+        callbackExecutor.runAll();
+        ArgumentCaptor<ContactUsDraft> captor = ArgumentCaptor.forClass(ContactUsDraft.class);
+        verify(callbacks).onDraftLoaded(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ContactUsDraft draft(String feedback) {
+        return new ContactUsDraft("name", "user@test.com", "subject", feedback);
+    }
+}
@@ -34,11 +34,17 @@ import com.desk.java.apiclient.service.InboundMailboxService;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -51,6 +57,7 @@ import static org.mockito.Mockito.anyListOf;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -136,4 +143,89 @@ public class InboundMailboxProviderTest {
         inboundMailboxProvider.getMailboxes(1, callbacks);
         verify(callbacks).onInboundMailboxLoadError(any(ErrorResponse.class));
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getMailboxesSharesInFlightRequest() throws Exception {
+        Call<ApiResponse<InboundMailbox>> mockCall = mock(Call.class);
+        when(mockInboundMailboxService.getInboundMailboxes(anyInt(), anyInt())).thenReturn(mockCall);
+        InboundMailboxCallbacks otherCallbacks = mock(InboundMailboxCallbacks.class);
+
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+        inboundMailboxProvider.getMailboxes(1, otherCallbacks);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(captor.capture());
+        captor.getValue().onResponse(mockCall, Response.success(mailboxResponse()));
+
+        verify(mockInboundMailboxService, times(1)).getInboundMailboxes(anyInt(), anyInt());
+        verify(callbacks).onInboundMailboxesLoaded(eq(1), anyListOf(InboundMailbox.class));
+        verify(otherCallbacks).onInboundMailboxesLoaded(eq(1), anyListOf(InboundMailbox.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getMailboxesServesLoadedPageFromMemory() throws Exception {
+        final Call<ApiResponse<InboundMailbox>> mockCall = mock(Call.class);
+        when(mockInboundMailboxService.getInboundMailboxes(anyInt(), anyInt())).thenReturn(mockCall);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((RetrofitCallback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(mailboxResponse()));
+                return null;
+            }
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+
+        verify(mockInboundMailboxService, times(1)).getInboundMailboxes(anyInt(), anyInt());
+        verify(callbacks, times(2)).onInboundMailboxesLoaded(eq(1), anyListOf(InboundMailbox.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getMailboxesRetriesAfterError() throws Exception {
+        final Call<ApiResponse<InboundMailbox>> mockCall = mock(Call.class);
+        when(mockInboundMailboxService.getInboundMailboxes(anyInt(), anyInt())).thenReturn(mockCall);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((RetrofitCallback) invocation.getArguments()[0]).onResponse(mockCall,
+                        Response.<ApiResponse<InboundMailbox>>error(503,
+                                ResponseBody.create(MediaType.parse("application/json"), "{}")));
+                return null;
+            }
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+
+        verify(mockInboundMailboxService, times(2)).getInboundMailboxes(anyInt(), anyInt());
+        verify(callbacks, times(2)).onInboundMailboxLoadError(any(ErrorResponse.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void blockingGetMailboxesFillsCache() throws Exception {
+        Call<ApiResponse<InboundMailbox>> mockCall = mock(Call.class);
+        when(mockInboundMailboxService.getInboundMailboxes(anyInt(), anyInt())).thenReturn(mockCall);
+        Response<ApiResponse<InboundMailbox>> response = Response.success(mailboxResponse());
+        when(mockCall.execute()).thenReturn(response);
+
+        inboundMailboxProvider.getMailboxes(1);
+        inboundMailboxProvider.getMailboxes(1, callbacks);
+
+        verify(mockInboundMailboxService, times(1)).getInboundMailboxes(anyInt(), anyInt());
+        verify(callbacks).onInboundMailboxesLoaded(eq(1), anyListOf(InboundMailbox.class));
+    }
+
+    private static ApiResponse<InboundMailbox> mailboxResponse() {
+        ApiResponse<InboundMailbox> response = mock(ApiResponse.class);
+        List<InboundMailbox> mailboxes = new ArrayList<>();
+        mailboxes.add(mock(InboundMailbox.class));
+        when(response.getEntriesAsList()).thenReturn(mailboxes);
+        when(response.getPage()).thenReturn(1);
+        return response;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import org.junit.Test;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_MODERATE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link MemoryTrim}
+ */
+public class MemoryTrimTest {
+
+    @Test
+    public void resultsAreTrimmedBeforeEntities() throws Exception {
+        assertEquals(0.5f, MemoryTrim.keepResults(TRIM_MEMORY_RUNNING_MODERATE), 0f);
+        assertEquals(1f, MemoryTrim.keepEntities(TRIM_MEMORY_RUNNING_MODERATE), 0f);
+        assertEquals(0f, MemoryTrim.keepResults(TRIM_MEMORY_RUNNING_LOW), 0f);
+        assertEquals(1f, MemoryTrim.keepEntities(TRIM_MEMORY_RUNNING_LOW), 0f);
+    }
+
+    @Test
+    public void hiddenAppKeepsEntities() throws Exception {
+        assertEquals(0f, MemoryTrim.keepResults(TRIM_MEMORY_UI_HIDDEN), 0f);
+        assertEquals(1f, MemoryTrim.keepEntities(TRIM_MEMORY_UI_HIDDEN), 0f);
+        assertEquals(1f, MemoryTrim.keepEntities(TRIM_MEMORY_BACKGROUND), 0f);
+    }
+
+    @Test
+    public void entitiesAreHalvedWhenCritical() throws Exception {
+        assertEquals(0.5f, MemoryTrim.keepEntities(TRIM_MEMORY_RUNNING_CRITICAL), 0f);
+        assertEquals(0.5f, MemoryTrim.keepEntities(TRIM_MEMORY_MODERATE), 0f);
+    }
+
+    @Test
+    public void everythingIsReleasedWhenComplete() throws Exception {
+        assertEquals(0f, MemoryTrim.keepResults(TRIM_MEMORY_COMPLETE), 0f);
+        assertEquals(0f, MemoryTrim.keepEntities(TRIM_MEMORY_COMPLETE), 0f);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link PageCache}
+ */
+public class PageCacheTest {
+
+    private static final List<String> ITEMS = Collections.singletonList("item");
+
+    private PageCache<String> cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new PageCache<>(4);
+        for (int i = 1; i <= 4; i++) {
+            cache.put(String.valueOf(i), ITEMS, false);
+        }
+    }
+
+    @Test
+    public void trimKeepsMostRecentlyUsedPages() throws Exception {
+        cache.get("1");
+        cache.trim(0.5f);
+        assertNotNull(cache.get("1"));
+        assertNotNull(cache.get("4"));
+        assertNull(cache.get("2"));
+        assertNull(cache.get("3"));
+    }
+
+    @Test
+    public void budgetEvictsLeastRecentlyUsedPages() throws Exception {
+        cache.get("1");
+        cache.setBudget(0.5f);
+        assertEquals(2, cache.stats("test").getSize());
+        assertNotNull(cache.get("1"));
+        assertNotNull(cache.get("4"));
+    }
+
+    @Test
+    public void budgetLimitsPagesPutAfterwards() throws Exception {
+        cache.setBudget(0.25f);
+        cache.put("5", ITEMS, false);
+        assertEquals(1, cache.stats("test").getSize());
+        assertNotNull(cache.get("5"));
+    }
+
+    @Test
+    public void trimToNothingEvictsEveryPage() throws Exception {
+        cache.trim(0f);
+        assertEquals(0, cache.stats("test").getSize());
+        assertEquals(4, cache.stats("test").getEvictionCount());
+    }
+
+    @Test
+    public void trimKeepingEverythingDoesNotChangeVersion() throws Exception {
+        int version = cache.version();
+        cache.trim(1f);
+        assertEquals(version, cache.version());
+        assertEquals(4, cache.stats("test").getSize());
+    }
+
+    @Test
+    public void trimChangesVersion() throws Exception {
+        int version = cache.version();
+        cache.trim(0.5f);
+        assertNotEquals(version, cache.version());
+    }
+
+    @Test
+    public void statsCountHitsAndMisses() throws Exception {
+        cache.get("1");
+        cache.get("5");
+        CacheStats stats = cache.stats("test");
+        assertEquals("test", stats.getName());
+        assertEquals(4, stats.getMaxSize());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0, stats.getEvictionCount());
+    }
+}
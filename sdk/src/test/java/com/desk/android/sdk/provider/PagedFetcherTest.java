@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.network.RequestPriority;
+import com.desk.android.sdk.network.RequestScheduler;
+import com.desk.java.apiclient.model.ApiResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PagedFetcher}
+ */
+@SuppressWarnings("unchecked")
+public class PagedFetcherTest {
+
+    private static final int PER_PAGE = 2;
+
+    private List<Integer> requestedPages;
+    private Map<Integer, Callback<ApiResponse<String>>> pending;
+    private List<Call<ApiResponse<String>>> calls;
+    private PagedFetcher.Listener<String> listener;
+
+    @Before
+    public void setUp() throws Exception {
+        requestedPages = new ArrayList<>();
+        pending = new LinkedHashMap<>();
+        calls = new ArrayList<>();
+        listener = mock(PagedFetcher.Listener.class);
+    }
+
+    @Test
+    public void requestsOnlyFirstPageUntilTotalIsKnown() throws Exception {
+        newFetcher(4, 3).start(listener);
+        assertEquals(Arrays.asList(1), requestedPages);
+    }
+
+    @Test
+    public void fansOutRemainingPagesUpToConcurrencyLimit() throws Exception {
+        newFetcher(2, 3).start(listener);
+        respond(1, page(10, false, "a", "b"));
+
+        // 5 pages in total, but only 2 may be in flight at once
+        assertEquals(Arrays.asList(1, 2, 3), requestedPages);
+        respond(2, page(10, false, "c", "d"));
+        assertEquals(Arrays.asList(1, 2, 3, 4), requestedPages);
+    }
+
+    @Test
+    public void reassemblesPagesInOrder() throws Exception {
+        newFetcher(4, 3).start(listener);
+        respond(1, page(5, true, "a", "b"));
+        respond(3, page(5, false, "e"));
+        respond(2, page(5, true, "c", "d"));
+        verify(listener).onComplete(Arrays.asList("a", "b", "c", "d", "e"));
+    }
+
+    @Test
+    public void retriesPageAfterNetworkError() throws Exception {
+        newFetcher(4, 3).start(listener);
+        respond(1, page(3, true, "a", "b"));
+        fail(2, new IOException());
+        respond(2, page(3, false, "c"));
+        verify(listener).onComplete(Arrays.asList("a", "b", "c"));
+        verify(listener, never()).onError(any(ErrorResponse.class));
+    }
+
+    @Test
+    public void failsAfterMaxAttemptsAndCancelsPagesInFlight() throws Exception {
+        newFetcher(4, 2).start(listener);
+        respond(1, page(6, true, "a", "b"));
+        fail(2, new IOException());
+        fail(2, new IOException());
+        verify(listener).onError(any(ErrorResponse.class));
+        verify(listener, never()).onComplete(anyListOf(String.class));
+        verify(calls.get(2)).cancel(); // page 3 was still in flight
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws Exception {
+        newFetcher(4, 3).start(listener);
+        Response<ApiResponse<String>> notFound = Response.error(404,
+                ResponseBody.create(MediaType.parse("application/json"), "{}"));
+        pending.remove(1).onResponse(callFor(1), notFound);
+        verify(listener).onError(any(ErrorResponse.class));
+        assertEquals(Arrays.asList(1), requestedPages);
+    }
+
+    @Test
+    public void cancelStopsRequestingPages() throws Exception {
+        PagedFetcher<String> fetcher = newFetcher(4, 3);
+        fetcher.start(listener);
+        fetcher.cancel();
+        respond(1, page(10, true, "a", "b"));
+        assertTrue(fetcher.isCancelled());
+        assertEquals(Arrays.asList(1), requestedPages);
+        verify(listener, never()).onComplete(anyListOf(String.class));
+    }
+
+    @Test
+    public void requestsPreemptedPageAgainWithoutCountingAttempt() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1);
+        RequestPriority previous = RequestPriority.set(RequestPriority.BACKGROUND);
+        PagedFetcher<String> fetcher;
+        try {
+            fetcher = newFetcher(scheduler, 4, 1);
+        } finally {
+            RequestPriority.set(previous);
+        }
+        fetcher.start(listener);
+
+        Call<ApiResponse<String>> userVisible = mock(Call.class);
+        scheduler.enqueue(userVisible, RequestPriority.USER_VISIBLE, mock(Callback.class));
+        verify(calls.get(0)).cancel();
+        fail(1, new IOException("Canceled"));
+        verify(listener, never()).onError(any(ErrorResponse.class));
+        assertEquals(Arrays.asList(1, 1), requestedPages);
+    }
+
+    private PagedFetcher<String> newFetcher(int maxConcurrency, int maxAttempts) {
+        return newFetcher(RequestScheduler.direct(), maxConcurrency, maxAttempts);
+    }
+
+    private PagedFetcher<String> newFetcher(RequestScheduler scheduler, int maxConcurrency, int maxAttempts) {
+        return new PagedFetcher<String>(new PagedFetcher.CallFactory<String>() {
+            @Override
+            public Call<ApiResponse<String>> create(final int page) {
+                requestedPages.add(page);
+                Call<ApiResponse<String>> call = mock(Call.class);
+                doAnswer(new Answer() {
+                    @Override
+                    public Object answer(InvocationOnMock invocation) throws Throwable {
+                        pending.put(page, (Callback<ApiResponse<String>>) invocation.getArguments()[0]);
+                        return null;
+                    }
+                }).when(call).enqueue(any(Callback.class));
+                calls.add(call);
+                return call;
+            }
+        }, scheduler, PER_PAGE, maxConcurrency, maxAttempts);
+    }
+
+    private void respond(int page, ApiResponse<String> response) {
+        pending.remove(page).onResponse(callFor(page), Response.success(response));
+    }
+
+    private void fail(int page, Throwable throwable) {
+        pending.remove(page).onFailure(callFor(page), throwable);
+    }
+
+    private Call<ApiResponse<String>> callFor(int page) {
+        return calls.get(requestedPages.lastIndexOf(page));
+    }
+
+    private static ApiResponse<String> page(int totalEntries, boolean hasNextPage, String... entries) {
+        ApiResponse<String> response = mock(ApiResponse.class);
+        when(response.getTotalEntries()).thenReturn(totalEntries);
+        when(response.hasNextPage()).thenReturn(hasNextPage);
+        when(response.getEntriesAsList()).thenReturn(new ArrayList<>(Arrays.asList(entries)));
+        return response;
+    }
+}
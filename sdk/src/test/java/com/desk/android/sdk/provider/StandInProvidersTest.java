@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.provider;
+
+import android.test.suitebuilder.annotation.MediumTest;
+
+import com.desk.android.sdk.error.DeskException;
+import com.desk.android.sdk.model.CreateCaseRequest;
+import com.desk.android.sdk.standin.Latency;
+import com.desk.android.sdk.standin.StandInConfig;
+import com.desk.android.sdk.standin.StandInServer;
+import com.desk.java.apiclient.DeskClient;
+import com.desk.java.apiclient.DeskClientBuilder;
+import com.desk.java.apiclient.model.ApiResponse;
+import com.desk.java.apiclient.model.Article;
+import com.desk.java.apiclient.model.Case;
+import com.desk.java.apiclient.model.CaseType;
+import com.desk.java.apiclient.model.InboundMailbox;
+import com.desk.java.apiclient.model.Topic;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+
+import static com.desk.android.sdk.provider.ArticleProvider.ALL_BRANDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the providers against a {@link StandInServer} so real HTTP, pagination and concurrency are exercised.
+ */
+@MediumTest
+public class StandInProvidersTest {
+
+    private StandInServer server;
+    private DeskClient client;
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void getTopicsFetchesEveryPage() throws Exception {
+        start(new StandInConfig.Builder().dataset(2, 130, 0).create());
+        List<Topic> topics = new TopicProvider(client.topics()).getTopics(TopicProvider.ALL_BRANDS);
+        assertEquals(260, topics.size());
+    }
+
+    @Test
+    public void getAllArticlesFetchesEveryPageConcurrently() throws Exception {
+        start(new StandInConfig.Builder()
+                .dataset(1, 2, 160)
+                .latency(Latency.uniform(5, 25))
+                .create());
+        long topicId = server.getDataset().getTopicIds(server.getDataset().getBrandIds().get(0)).get(1);
+        server.clearExchanges();
+
+        List<Article> articles = new ArticleProvider(client.articles()).getAllArticles(topicId, ALL_BRANDS);
+
+        assertEquals(160, articles.size());
+        assertEquals((160 + ArticleProvider.PER_PAGE - 1) / ArticleProvider.PER_PAGE, server.getRequestCount());
+    }
+
+    @Test
+    public void getAllArticlesRetriesServerErrors() throws Exception {
+        // with this seed the first request fails with a 503 and the retry succeeds
+        start(new StandInConfig.Builder()
+                .dataset(1, 1, 20)
+                .serverErrorRate(0.5)
+                .seed(3)
+                .create());
+        long topicId = server.getDataset().getTopicIds(server.getDataset().getBrandIds().get(0)).get(0);
+
+        List<Article> articles = new ArticleProvider(client.articles()).getAllArticles(topicId, ALL_BRANDS);
+
+        assertEquals(20, articles.size());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(503, server.getExchanges().get(0).getStatus());
+    }
+
+    @Test
+    public void rateLimitedRequestsSurfaceAsErrors() throws Exception {
+        start(new StandInConfig.Builder().rateLimit(1, 1, TimeUnit.MINUTES).create());
+        InboundMailboxProvider provider = new InboundMailboxProvider(client.inboundMailboxes());
+        ApiResponse<InboundMailbox> mailboxes = provider.getMailboxes(1);
+        assertEquals(server.getDataset().getInboundMailboxCount(), mailboxes.getEntriesAsList().size());
+        try {
+            provider.getMailboxes(2);
+            fail("Expected a rate limit error");
+        } catch (DeskException e) {
+            assertEquals(429, e.getErrorResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void createCaseReturnsCase() throws Exception {
+        start(new StandInConfig.Builder().create());
+        CreateCaseRequest request = new CreateCaseRequest.Builder(CaseType.EMAIL, "It broke", "support@example.com",
+                "customer@example.com").subject("Help").create();
+        Case deskCase = new CaseProvider(client.cases()).createCase(request);
+        assertNotNull(deskCase);
+        assertEquals("Help", deskCase.getSubject());
+    }
+
+    private void start(StandInConfig config) throws IOException {
+        server = new StandInServer(config);
+        server.start();
+        client = DeskClient.create(new DeskClientBuilder("standin.desk.com", "token")
+                .applicationInterceptors(Collections.<Interceptor>singletonList(server.interceptor())));
+    }
+}
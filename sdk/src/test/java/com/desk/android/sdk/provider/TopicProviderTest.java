@@ -28,11 +28,14 @@ package com.desk.android.sdk.provider;
 
 import com.desk.android.sdk.Desk;
 import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.util.QueueExecutor;
 import com.desk.java.apiclient.model.ApiResponse;
 import com.desk.java.apiclient.model.SortDirection;
 import com.desk.java.apiclient.model.Topic;
 import com.desk.java.apiclient.service.TopicService;
 
+import java.util.ArrayList;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -46,6 +49,7 @@ import retrofit2.Response;
 
 import static com.desk.android.sdk.provider.TopicProvider.ALL_BRANDS;
 import static com.desk.android.sdk.provider.TopicProvider.TopicCallbacks;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyInt;
@@ -55,6 +59,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -77,6 +82,8 @@ public class TopicProviderTest {
 
         when(mockTopicService.getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(), // testing that the brand id is null
                 anyString(),
@@ -88,6 +95,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(mockTopicService).getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 isNull(Integer.class), // testing that the brand id is null
                 anyString(),
@@ -100,6 +109,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(brandId, callbacks);
         verify(mockTopicService).getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 eq(brandId), // testing that this brand id is the same
                 anyString(),
@@ -111,6 +122,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(mockTopicService).getTopics(
                 eq(Desk.getLanguage()), // testing that this is correct
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(),
                 anyString(),
@@ -122,6 +135,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(mockTopicService).getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 eq(true), // testing that this is true
                 anyInt(),
                 anyString(),
@@ -133,6 +148,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(mockTopicService).getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(),
                 eq(TopicService.FIELD_POSITION), // testing that this is the position field
@@ -144,6 +161,8 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(mockTopicService).getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(),
                 anyString(),
@@ -156,6 +175,8 @@ public class TopicProviderTest {
 
         when(mockTopicService.getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(),
                 anyString(),
@@ -164,7 +185,7 @@ public class TopicProviderTest {
         doAnswer(new Answer() {
             @Override
             public Object answer(InvocationOnMock invocation) throws Throwable {
-                ((TopicProvider.RetrofitCallback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(new ApiResponse<Topic>()));
+                ((Callback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(new ApiResponse<Topic>()));
                 return null;
             }
         }).when(mockCall).enqueue(any(Callback.class));
@@ -179,6 +200,8 @@ public class TopicProviderTest {
 
         when(mockTopicService.getTopics(
                 anyString(),
+                anyInt(),
+                anyInt(),
                 anyBoolean(),
                 anyInt(),
                 anyString(),
@@ -187,7 +210,7 @@ public class TopicProviderTest {
         doAnswer(new Answer() {
             @Override
             public Object answer(InvocationOnMock invocation) throws Throwable {
-                ((TopicProvider.RetrofitCallback) invocation.getArguments()[0]).onFailure(mockCall, new RuntimeException());
+                ((Callback) invocation.getArguments()[0]).onFailure(mockCall, new RuntimeException());
                 return null;
             }
         }).when(mockCall).enqueue(any(Callback.class));
@@ -195,4 +218,82 @@ public class TopicProviderTest {
         topicProvider.getTopics(ALL_BRANDS, callbacks);
         verify(callbacks).onTopicsLoadError(any(ErrorResponse.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getTopicsProcessesOnWorkExecutorAndDeliversOnCallbackExecutor() throws Exception {
+        QueueExecutor workExecutor = new QueueExecutor();
+        QueueExecutor callbackExecutor = new QueueExecutor();
+        topicProvider = new TopicProvider(mockTopicService, workExecutor, callbackExecutor);
+        mockTopicsResponse(new ApiResponse<Topic>());
+
+        topicProvider.getTopics(ALL_BRANDS, callbacks);
+        verify(callbacks, never()).onTopicsLoaded(anyListOf(Topic.class));
+
+        workExecutor.runAll();
+        verify(callbacks, never()).onTopicsLoaded(anyListOf(Topic.class));
+
+        callbackExecutor.runAll();
+        verify(callbacks).onTopicsLoaded(anyListOf(Topic.class));
+    }
+
+    @Test
+    public void getTopicsRequestsMaximumPageSize() throws Exception {
+        topicProvider.getTopics(ALL_BRANDS, callbacks);
+        verify(mockTopicService).getTopics(
+                anyString(),
+                eq(1),
+                eq(TopicProvider.PER_PAGE), // testing that this is the maximum page size
+                anyBoolean(),
+                anyInt(),
+                anyString(),
+                any(SortDirection.class));
+    }
+
+    @Test
+    public void getTopicsFetchesEveryPage() throws Exception {
+        ApiResponse<Topic> response = mock(ApiResponse.class);
+        when(response.getTotalEntries()).thenReturn(TopicProvider.PER_PAGE * 2 + 1);
+        when(response.getEntriesAsList()).thenReturn(new ArrayList<Topic>());
+        mockTopicsResponse(response);
+
+        topicProvider.getTopics(ALL_BRANDS, callbacks);
+        for (int page = 1; page <= 3; page++) {
+            verify(mockTopicService).getTopics(
+                    anyString(),
+                    eq(page), // testing that each page is requested
+                    anyInt(),
+                    anyBoolean(),
+                    anyInt(),
+                    anyString(),
+                    any(SortDirection.class));
+        }
+        verify(callbacks).onTopicsLoaded(anyListOf(Topic.class));
+    }
+
+    @Test
+    public void getTopicsBlockingReturnsTopicsAndCachesThem() throws Exception {
+        mockTopicsResponse(new ApiResponse<Topic>());
+
+        assertNotNull(topicProvider.getTopics(ALL_BRANDS));
+        assertNotNull(topicProvider.getCachedTopics(ALL_BRANDS));
+    }
+
+    private void mockTopicsResponse(final ApiResponse<Topic> response) {
+        final Call mockCall = mock(Call.class);
+        when(mockTopicService.getTopics(
+                anyString(),
+                anyInt(),
+                anyInt(),
+                anyBoolean(),
+                anyInt(),
+                anyString(),
+                any(SortDirection.class))).thenReturn(mockCall);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((Callback) invocation.getArguments()[0]).onResponse(mockCall, Response.success(response));
+                return null;
+            }
+        }).when(mockCall).enqueue(any(Callback.class));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.sync;
+
+import com.desk.android.sdk.error.DeskException;
+import com.desk.android.sdk.error.ErrorResponse;
+import com.desk.android.sdk.provider.ArticleProvider;
+import com.desk.android.sdk.provider.TopicProvider;
+import com.desk.java.apiclient.model.Article;
+import com.desk.java.apiclient.model.Topic;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ContentSync}
+ */
+public class ContentSyncTest {
+
+    private static final int BRAND_ID = 2;
+
+    @Mock TopicProvider mockTopicProvider;
+    @Mock ArticleProvider mockArticleProvider;
+
+    private ContentSync sync;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        sync = new ContentSync(mockTopicProvider, mockArticleProvider, new int[] {BRAND_ID});
+        when(mockTopicProvider.getTopics(BRAND_ID)).thenReturn(Arrays.asList(mock(Topic.class), mock(Topic.class)));
+    }
+
+    @Test
+    public void syncsAllArticlesOfEachTopic() throws Exception {
+        sync.run();
+        verify(mockArticleProvider, times(2)).getAllArticles(anyLong(), eq(BRAND_ID));
+    }
+
+    @Test
+    public void stopsBetweenTopicsWhenCancelled() throws Exception {
+        when(mockArticleProvider.getAllArticles(anyLong(), eq(BRAND_ID))).thenAnswer(new Answer<List<Article>>() {
+            @Override
+            public List<Article> answer(InvocationOnMock invocation) throws Throwable {
+                sync.cancel();
+                return Collections.emptyList();
+            }
+        });
+        sync.run();
+        verify(mockArticleProvider, times(1)).getAllArticles(anyLong(), eq(BRAND_ID));
+    }
+
+    @Test
+    public void doesNothingWhenCancelled() throws Exception {
+        sync.cancel();
+        sync.run();
+        verify(mockTopicProvider, never()).getTopics(anyInt());
+    }
+
+    @Test(expected = DeskException.class)
+    public void propagatesErrors() throws Exception {
+        when(mockTopicProvider.getTopics(BRAND_ID)).thenThrow(new DeskException(new ErrorResponse(true, "offline", 0)));
+        sync.run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.widget;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@SmallTest
+public class FormValidatorTest {
+
+    private static final Pattern EMAIL = Pattern.compile("[a-z]+@[a-z]+(\\.[a-z]+)+");
+
+    private FormValidator validator;
+    private FormValidator.Listener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        listener = mock(FormValidator.Listener.class);
+        validator = new FormValidator(EMAIL);
+        validator.reset(null, null, null);
+        validator.setListener(listener);
+    }
+
+    @Test
+    public void resetDoesNotNotifyListener() throws Exception {
+        validator.reset("valid@email.com", "subject", "feedback");
+        assertTrue(validator.isValid());
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void notifiesOnlyOnTransitions() throws Exception {
+        validator.reset("valid@email.com", "subject", null);
+        validator.setFeedback("f");
+        validator.setFeedback("fe");
+        validator.setFeedback("fee");
+        verify(listener, times(1)).onValidityChanged(true);
+        validator.setFeedback("");
+        validator.setFeedback("");
+        verify(listener, times(1)).onValidityChanged(false);
+    }
+
+    @Test
+    public void structurallyInvalidEmailIsRejectedImmediately() throws Exception {
+        validator.reset("valid@email.com", "subject", "feedback");
+        assertFalse(validator.setEmail("valid@email"));
+        verify(listener).onValidityChanged(false);
+        assertFalse(validator.isValid());
+    }
+
+    @Test
+    public void emailMatchIsDeferredUntilValidated() throws Exception {
+        validator.reset(null, "subject", "feedback");
+        assertTrue(validator.setEmail("valid@email.com"));
+        verify(listener, never()).onValidityChanged(true);
+        validator.validateEmail();
+        verify(listener).onValidityChanged(true);
+    }
+
+    @Test
+    public void pendingEmailFailingPatternIsInvalid() throws Exception {
+        validator.reset("valid@email.com", "subject", "feedback");
+        assertTrue(validator.setEmail("IN VALID@email.com"));
+        validator.validateEmail();
+        verify(listener).onValidityChanged(false);
+    }
+
+    @Test
+    public void isValidMatchesPendingEmail() throws Exception {
+        validator.reset(null, "subject", "feedback");
+        validator.setEmail("valid@email.com");
+        assertTrue(validator.isValid());
+    }
+
+    @Test
+    public void changingAnotherFieldMatchesPendingEmail() throws Exception {
+        validator.reset(null, "subject", null);
+        validator.setEmail("valid@email.com");
+        validator.setFeedback("feedback");
+        verify(listener).onValidityChanged(true);
+    }
+}
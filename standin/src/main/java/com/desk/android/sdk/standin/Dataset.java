@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The brands, topics, articles and inbound mailboxes served by a {@link StandInServer}. Everything is
+ * generated from the {@link StandInConfig} so the same configuration always produces the same payloads.
+ */
+public class Dataset {
+
+    private static final long FIRST_BRAND_ID = 1001;
+    private static final long FIRST_TOPIC_ID = 782001;
+    private static final long FIRST_ARTICLE_ID = 1935001;
+    private static final long FIRST_MAILBOX_ID = 121001;
+    private static final long FIRST_CASE_ID = 5001;
+
+    private static final String SITE = "https://standin.desk.com";
+
+    private static final String[] WORDS = {
+            "account", "billing", "password", "reset", "portal", "mobile", "app", "sync", "export", "import",
+            "invoice", "refund", "shipping", "order", "tracking", "profile", "settings", "notification",
+            "privacy", "security", "login", "subscription", "upgrade", "device", "offline", "search", "report",
+            "integration", "language", "support"
+    };
+
+    private final List<Long> brandIds = new ArrayList<>();
+    private final Map<Long, List<JsonObject>> topicsByBrand = new LinkedHashMap<>();
+    private final Map<Long, List<JsonObject>> articlesByTopic = new LinkedHashMap<>();
+    private final Map<Long, Long> brandByTopic = new LinkedHashMap<>();
+    private final Map<JsonObject, String> searchText = new IdentityHashMap<>();
+    private final List<JsonObject> inboundMailboxes = new ArrayList<>();
+    private final AtomicLong nextCaseId = new AtomicLong(FIRST_CASE_ID);
+    private final String timestamp;
+
+    Dataset(StandInConfig config) {
+        Random random = new Random(config.getSeed());
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        timestamp = format.format(new Date(1435708800000L + random.nextInt(365) * 86400000L));
+
+        long topicId = FIRST_TOPIC_ID;
+        long articleId = FIRST_ARTICLE_ID;
+        for (int b = 0; b < config.getBrands(); b++) {
+            long brandId = FIRST_BRAND_ID + b;
+            brandIds.add(brandId);
+            List<JsonObject> topics = new ArrayList<>(config.getTopicsPerBrand());
+            for (int t = 0; t < config.getTopicsPerBrand(); t++, topicId++) {
+                topics.add(topic(topicId, brandId, t + 1, random));
+                brandByTopic.put(topicId, brandId);
+                List<JsonObject> articles = new ArrayList<>(config.getArticlesPerTopic());
+                for (int a = 0; a < config.getArticlesPerTopic(); a++, articleId++) {
+                    articles.add(article(articleId, topicId, brandId, a + 1, random));
+                }
+                articlesByTopic.put(topicId, articles);
+            }
+            topicsByBrand.put(brandId, topics);
+        }
+        for (int m = 0; m < config.getInboundMailboxes(); m++) {
+            inboundMailboxes.add(inboundMailbox(FIRST_MAILBOX_ID + m, m));
+        }
+    }
+
+    /**
+     * Returns the ids of every brand
+     * @return the brand ids
+     */
+    public List<Long> getBrandIds() {
+        return Collections.unmodifiableList(brandIds);
+    }
+
+    /**
+     * Returns the ids of the topics in a brand
+     * @param brandId the brand id
+     * @return the topic ids
+     */
+    public List<Long> getTopicIds(long brandId) {
+        List<Long> ids = new ArrayList<>();
+        List<JsonObject> topics = topicsByBrand.get(brandId);
+        if (topics != null) {
+            for (JsonObject topic : topics) {
+                ids.add(topic.get("id").getAsLong());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of articles in a topic
+     * @param topicId the topic id
+     * @return the article count
+     */
+    public int getArticleCount(long topicId) {
+        List<JsonObject> articles = articlesByTopic.get(topicId);
+        return articles != null ? articles.size() : 0;
+    }
+
+    /**
+     * Returns the number of inbound mailboxes
+     * @return the mailbox count
+     */
+    public int getInboundMailboxCount() {
+        return inboundMailboxes.size();
+    }
+
+    List<JsonObject> topics(Set<Long> brandIds) {
+        List<JsonObject> result = new ArrayList<>();
+        for (Map.Entry<Long, List<JsonObject>> entry : topicsByBrand.entrySet()) {
+            if (brandIds == null || brandIds.contains(entry.getKey())) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    List<JsonObject> articles(Set<Long> topicIds, Set<Long> brandIds, String text) {
+        String query = text != null ? text.toLowerCase(Locale.US).trim() : null;
+        List<JsonObject> result = new ArrayList<>();
+        for (Map.Entry<Long, List<JsonObject>> entry : articlesByTopic.entrySet()) {
+            if (topicIds != null && !topicIds.contains(entry.getKey())) {
+                continue;
+            }
+            if (brandIds != null && !brandIds.contains(brandByTopic.get(entry.getKey()))) {
+                continue;
+            }
+            for (JsonObject article : entry.getValue()) {
+                if (query == null || query.isEmpty() || searchText.get(article).contains(query)) {
+                    result.add(article);
+                }
+            }
+        }
+        return result;
+    }
+
+    List<JsonObject> inboundMailboxes() {
+        return inboundMailboxes;
+    }
+
+    JsonObject createCase(JsonObject request) {
+        long id = nextCaseId.getAndIncrement();
+        JsonObject message = request.has("message") && request.get("message").isJsonObject()
+                ? request.getAsJsonObject("message") : new JsonObject();
+        String body = string(message, "body");
+        String subject = request.has("subject") ? string(request, "subject") : string(message, "subject");
+
+        JsonObject deskCase = new JsonObject();
+        deskCase.addProperty("id", id);
+        deskCase.add("external_id", JsonNull.INSTANCE);
+        deskCase.addProperty("blurb", body.length() > 100 ? body.substring(0, 100) : body);
+        deskCase.addProperty("priority", 4);
+        deskCase.add("locked_until", JsonNull.INSTANCE);
+        deskCase.add("label_ids", new JsonArray());
+        deskCase.add("labels", new JsonArray());
+        deskCase.addProperty("language", "en");
+        deskCase.addProperty("active_at", timestamp);
+        deskCase.addProperty("changed_at", timestamp);
+        deskCase.addProperty("created_at", timestamp);
+        deskCase.addProperty("updated_at", timestamp);
+        deskCase.addProperty("received_at", timestamp);
+        deskCase.add("first_opened_at", JsonNull.INSTANCE);
+        deskCase.add("opened_at", JsonNull.INSTANCE);
+        deskCase.add("first_resolved_at", JsonNull.INSTANCE);
+        deskCase.add("resolved_at", JsonNull.INSTANCE);
+        deskCase.addProperty("status", "new");
+        deskCase.addProperty("type", request.has("type") ? string(request, "type") : "email");
+        deskCase.addProperty("subject", subject);
+        deskCase.add("custom_fields", request.has("custom_fields") ? request.get("custom_fields") : new JsonObject());
+        JsonObject links = new JsonObject();
+        links.add("self", link("/api/v2/cases/" + id, "case"));
+        links.add("message", link("/api/v2/cases/" + id + "/message", "email"));
+        links.add("customer", link("/api/v2/customers/" + (id + 90000), "customer"));
+        deskCase.add("_links", links);
+        return deskCase;
+    }
+
+    private JsonObject topic(long id, long brandId, int position, Random random) {
+        JsonObject topic = new JsonObject();
+        topic.addProperty("id", id);
+        topic.addProperty("name", capitalize(phrase(random, 2 + random.nextInt(3))));
+        topic.addProperty("description", capitalize(phrase(random, 6 + random.nextInt(8))));
+        topic.addProperty("position", position);
+        topic.addProperty("allow_questions", true);
+        topic.addProperty("in_support_center", true);
+        topic.addProperty("updated_at", timestamp);
+        topic.addProperty("created_at", timestamp);
+        JsonObject links = new JsonObject();
+        links.add("self", link("/api/v2/topics/" + id, "topic"));
+        links.add("articles", link("/api/v2/topics/" + id + "/articles", "article"));
+        links.add("translations", link("/api/v2/topics/" + id + "/translations", "topic_translation"));
+        links.add("brand", link("/api/v2/brands/" + brandId, "brand"));
+        topic.add("_links", links);
+        return topic;
+    }
+
+    private JsonObject article(long id, long topicId, long brandId, int position, Random random) {
+        String subject = capitalize(phrase(random, 3 + random.nextInt(6)));
+        StringBuilder html = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        int paragraphs = 2 + random.nextInt(8);
+        for (int p = 0; p < paragraphs; p++) {
+            String paragraph = capitalize(phrase(random, 20 + random.nextInt(60))) + ".";
+            html.append("<p> ").append(paragraph).append("</p> ");
+            text.append(paragraph).append("\n\n");
+        }
+        String body = html.toString().trim();
+        String plain = text.toString().trim();
+        String url = SITE + "/customer/en/portal/articles/" + id + "-" + subject.toLowerCase(Locale.US).replace(' ', '-');
+
+        JsonObject article = new JsonObject();
+        article.addProperty("id", id);
+        article.addProperty("locale", "en");
+        article.addProperty("subject", subject);
+        article.addProperty("body", body);
+        for (String channel : new String[] {"email", "chat", "web_callback", "twitter", "qna", "phone", "facebook"}) {
+            article.addProperty("body_" + channel, plain);
+            article.addProperty("body_" + channel + "_auto", true);
+        }
+        article.addProperty("rating", 0);
+        article.addProperty("rating_count", 0);
+        article.addProperty("rating_score", 0);
+        article.add("keywords", JsonNull.INSTANCE);
+        article.addProperty("position", position);
+        article.addProperty("quickcode", "Q" + id);
+        article.addProperty("publish_at", timestamp);
+        article.addProperty("updated_at", timestamp);
+        article.addProperty("created_at", timestamp);
+        article.addProperty("in_support_center", true);
+        article.add("internal_notes", JsonNull.INSTANCE);
+        article.addProperty("public_url", url);
+        JsonObject links = new JsonObject();
+        links.add("self", link("/api/v2/articles/" + id, "article"));
+        links.add("topic", link("/api/v2/topics/" + topicId, "topic"));
+        links.add("translations", link("/api/v2/articles/" + id + "/translations", "article_translation"));
+        JsonObject attachments = link("/api/v2/articles/" + id + "/attachments", "attachment");
+        attachments.addProperty("count", 0);
+        links.add("attachments", attachments);
+        links.add("brand", link("/api/v2/brands/" + brandId, "brand"));
+        article.add("_links", links);
+
+        searchText.put(article, (subject + " " + plain).toLowerCase(Locale.US));
+        return article;
+    }
+
+    private JsonObject inboundMailbox(long id, int index) {
+        JsonObject mailbox = new JsonObject();
+        mailbox.addProperty("id", id);
+        mailbox.addProperty("name", "Stand-in Support " + (index + 1));
+        mailbox.addProperty("hostname", "imap.standin.desk.com");
+        mailbox.addProperty("email", "support" + (index + 1) + "@standin.desk-mail.com");
+        mailbox.add("last_checked_at", JsonNull.INSTANCE);
+        mailbox.addProperty("created_at", timestamp);
+        mailbox.addProperty("updated_at", timestamp);
+        mailbox.add("last_error", JsonNull.INSTANCE);
+        mailbox.addProperty("inbound_address_filter", "");
+        mailbox.addProperty("outbound_address_filter", "");
+        mailbox.addProperty("port", "993");
+        mailbox.addProperty("enabled", true);
+        mailbox.addProperty("type", "imaps");
+        JsonObject links = new JsonObject();
+        links.add("self", link("/api/v2/mailboxes/inbound/" + id, "inbound_mailbox"));
+        mailbox.add("_links", links);
+        return mailbox;
+    }
+
+    static JsonObject link(String href, String linkClass) {
+        JsonObject link = new JsonObject();
+        link.addProperty("href", href);
+        link.addProperty("class", linkClass);
+        return link;
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static String capitalize(String value) {
+        return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private static String string(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : "";
+    }
+}
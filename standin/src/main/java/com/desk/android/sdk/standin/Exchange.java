@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+/**
+ * A request received by a {@link StandInServer} and how it was answered.
+ */
+public class Exchange {
+
+    /**
+     * Status recorded when the connection was dropped without a response
+     */
+    public static final int DISCONNECTED = 0;
+
+    private final String method;
+    private final String path;
+    private final int status;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long latencyMillis;
+
+    Exchange(String method, String path, int status, long requestBytes, long responseBytes, long latencyMillis) {
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Returns the http method
+     * @return the method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the request path including the query
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the http status code of the response
+     * @return the status code, {@link #DISCONNECTED} if the connection was dropped
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the size of the request body
+     * @return the bytes received
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * Returns the size of the response body
+     * @return the bytes sent
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Returns the simulated latency before the response headers were sent
+     * @return the latency in milliseconds
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " -> " + status + " (" + responseBytes + " bytes, " + latencyMillis + " ms)";
+    }
+}
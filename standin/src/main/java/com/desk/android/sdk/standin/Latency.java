@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import java.util.Random;
+
+/**
+ * A distribution of server think time, the delay between receiving a request and sending the response
+ * headers. Use {@link StandInConfig.Builder#bandwidth(long)} to slow down the body.
+ */
+public abstract class Latency {
+
+    /**
+     * Responds immediately
+     */
+    public static final Latency NONE = fixed(0);
+
+    /**
+     * Returns the next delay
+     * @param random the source of randomness
+     * @return the delay in milliseconds
+     */
+    public abstract long nextMillis(Random random);
+
+    /**
+     * Always delays for the same amount of time
+     * @param millis the delay in milliseconds
+     * @return the latency
+     */
+    public static Latency fixed(final long millis) {
+        checkNotNegative(millis);
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return millis;
+            }
+        };
+    }
+
+    /**
+     * Delays for a uniformly distributed amount of time
+     * @param minMillis the shortest delay in milliseconds
+     * @param maxMillis the longest delay in milliseconds
+     * @return the latency
+     */
+    public static Latency uniform(final long minMillis, final long maxMillis) {
+        checkNotNegative(minMillis);
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("maxMillis must be >= minMillis");
+        }
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            }
+        };
+    }
+
+    /**
+     * Delays for a log-normally distributed amount of time, which has the long tail real servers have.
+     * A sigma of 0.5 puts the 99th percentile at about three times the median.
+     * @param medianMillis the median delay in milliseconds
+     * @param sigma the standard deviation of the underlying normal distribution
+     * @return the latency
+     */
+    public static Latency logNormal(final long medianMillis, final double sigma) {
+        checkNotNegative(medianMillis);
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma must be >= 0");
+        }
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private static void checkNotNegative(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative");
+        }
+    }
+}
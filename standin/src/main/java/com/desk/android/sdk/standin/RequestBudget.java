@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * <p>The most requests and bytes a user journey may cost. Check the {@link Exchange}s recorded by a
+ * {@link StandInServer} against it to catch changes which make a flow chattier than intended.</p>
+ *
+ * <pre>
+ * RequestBudget budget = new RequestBudget.Builder()
+ *         .endpoint("topics", "/api/v2/topics.*", 1)
+ *         .endpoint("inbound mailboxes", "/api/v2/mailboxes/inbound.*", 1)
+ *         .maxRequests(3)
+ *         .maxResponseBytes(512 * 1024)
+ *         .create();
+ * budget.check(server.getExchanges());
+ * </pre>
+ */
+public class RequestBudget {
+
+    private final List<Endpoint> endpoints;
+    private final int maxRequests;
+    private final long maxResponseBytes;
+
+    private RequestBudget(Builder builder) {
+        this.endpoints = new ArrayList<>(builder.endpoints);
+        this.maxRequests = builder.maxRequests;
+        this.maxResponseBytes = builder.maxResponseBytes;
+    }
+
+    /**
+     * Checks the exchanges against the budget
+     * @param exchanges the exchanges of the journey
+     * @throws AssertionError describing every exceeded limit and the requests made
+     */
+    public void check(List<Exchange> exchanges) {
+        List<String> violations = new ArrayList<>();
+
+        for (Endpoint endpoint : endpoints) {
+            int count = 0;
+            for (Exchange exchange : exchanges) {
+                if (endpoint.matches(exchange)) {
+                    count++;
+                }
+            }
+            if (count > endpoint.maxRequests) {
+                violations.add(String.format(Locale.US, "%s: %d requests, budget is %d",
+                        endpoint.name, count, endpoint.maxRequests));
+            }
+        }
+
+        if (maxRequests >= 0 && exchanges.size() > maxRequests) {
+            violations.add(String.format(Locale.US, "total: %d requests, budget is %d", exchanges.size(), maxRequests));
+        }
+
+        long bytes = 0;
+        for (Exchange exchange : exchanges) {
+            bytes += exchange.getResponseBytes();
+        }
+        if (maxResponseBytes >= 0 && bytes > maxResponseBytes) {
+            violations.add(String.format(Locale.US, "total: %d response bytes, budget is %d", bytes, maxResponseBytes));
+        }
+
+        if (!violations.isEmpty()) {
+            StringBuilder message = new StringBuilder("Request budget exceeded\n");
+            for (String violation : violations) {
+                message.append("  ").append(violation).append('\n');
+            }
+            message.append("Requests made:\n");
+            for (Exchange exchange : exchanges) {
+                message.append("  ").append(exchange).append('\n');
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    private static class Endpoint {
+
+        final String name;
+        final Pattern path;
+        final int maxRequests;
+
+        Endpoint(String name, Pattern path, int maxRequests) {
+            this.name = name;
+            this.path = path;
+            this.maxRequests = maxRequests;
+        }
+
+        boolean matches(Exchange exchange) {
+            return path.matcher(exchange.getPath()).matches();
+        }
+    }
+
+    /**
+     * Builder which aids in creating {@link RequestBudget} instances. Limits which aren't set are not
+     * checked.
+     */
+    public static class Builder {
+
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private int maxRequests = -1;
+        private long maxResponseBytes = -1;
+
+        /**
+         * Limit the requests made to an endpoint
+         * @param name the name used when reporting
+         * @param pathRegex a regular expression matching the full request path including the query
+         * @param maxRequests the most requests allowed
+         * @return the builder instance
+         */
+        public Builder endpoint(String name, String pathRegex, int maxRequests) {
+            endpoints.add(new Endpoint(name, Pattern.compile(pathRegex), maxRequests));
+            return this;
+        }
+
+        /**
+         * Limit the total number of requests
+         * @param maxRequests the most requests allowed
+         * @return the builder instance
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Limit the total size of the response bodies
+         * @param maxResponseBytes the most bytes allowed
+         * @return the builder instance
+         */
+        public Builder maxResponseBytes(long maxResponseBytes) {
+            this.maxResponseBytes = maxResponseBytes;
+            return this;
+        }
+
+        /**
+         * Creates the {@link RequestBudget} instance
+         * @return the instance
+         */
+        public RequestBudget create() {
+            return new RequestBudget(this);
+        }
+    }
+}
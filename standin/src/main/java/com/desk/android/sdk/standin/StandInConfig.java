@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of a {@link StandInServer}: the size of the generated dataset and the network conditions
+ * to simulate. Create one with the {@link StandInConfig.Builder}.
+ */
+public class StandInConfig {
+
+    /**
+     * The largest page size the Desk API allows
+     */
+    public static final int MAX_PER_PAGE = 100;
+
+    private final long seed;
+    private final int brands;
+    private final int topicsPerBrand;
+    private final int articlesPerTopic;
+    private final int inboundMailboxes;
+    private final Latency latency;
+    private final long bytesPerSecond;
+    private final double serverErrorRate;
+    private final double disconnectRate;
+    private final int rateLimitRequests;
+    private final long rateLimitWindowMillis;
+
+    private StandInConfig(Builder builder) {
+        this.seed = builder.seed;
+        this.brands = builder.brands;
+        this.topicsPerBrand = builder.topicsPerBrand;
+        this.articlesPerTopic = builder.articlesPerTopic;
+        this.inboundMailboxes = builder.inboundMailboxes;
+        this.latency = builder.latency;
+        this.bytesPerSecond = builder.bytesPerSecond;
+        this.serverErrorRate = builder.serverErrorRate;
+        this.disconnectRate = builder.disconnectRate;
+        this.rateLimitRequests = builder.rateLimitRequests;
+        this.rateLimitWindowMillis = builder.rateLimitWindowMillis;
+    }
+
+    /**
+     * Returns the seed used to generate the dataset and to draw latencies and failures
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of brands
+     * @return the brand count
+     */
+    public int getBrands() {
+        return brands;
+    }
+
+    /**
+     * Returns the number of topics in each brand
+     * @return the topic count
+     */
+    public int getTopicsPerBrand() {
+        return topicsPerBrand;
+    }
+
+    /**
+     * Returns the number of articles in each topic
+     * @return the article count
+     */
+    public int getArticlesPerTopic() {
+        return articlesPerTopic;
+    }
+
+    /**
+     * Returns the number of inbound mailboxes
+     * @return the mailbox count
+     */
+    public int getInboundMailboxes() {
+        return inboundMailboxes;
+    }
+
+    /**
+     * Returns the latency before the response headers are sent
+     * @return the latency
+     */
+    public Latency getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the rate at which response bodies are sent
+     * @return the bytes per second, 0 if unlimited
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Returns the fraction of requests answered with a 503
+     * @return the server error rate between 0 and 1
+     */
+    public double getServerErrorRate() {
+        return serverErrorRate;
+    }
+
+    /**
+     * Returns the fraction of requests whose connection is dropped without a response
+     * @return the disconnect rate between 0 and 1
+     */
+    public double getDisconnectRate() {
+        return disconnectRate;
+    }
+
+    /**
+     * Returns the number of requests allowed per rate limit window
+     * @return the request count, 0 if requests are not rate limited
+     */
+    public int getRateLimitRequests() {
+        return rateLimitRequests;
+    }
+
+    /**
+     * Returns the length of the rate limit window
+     * @return the window in milliseconds
+     */
+    public long getRateLimitWindowMillis() {
+        return rateLimitWindowMillis;
+    }
+
+    /**
+     * Builder which aids in creating {@link StandInConfig} instances. The defaults describe a small
+     * support center on a fast, reliable network.
+     */
+    public static class Builder {
+
+        private long seed = 42;
+        private int brands = 1;
+        private int topicsPerBrand = 10;
+        private int articlesPerTopic = 30;
+        private int inboundMailboxes = 2;
+        private Latency latency = Latency.NONE;
+        private long bytesPerSecond;
+        private double serverErrorRate;
+        private double disconnectRate;
+        private int rateLimitRequests;
+        private long rateLimitWindowMillis;
+
+        /**
+         * Set the seed so runs with the same configuration see the same data and failures
+         * @param seed the seed
+         * @return the builder instance
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Set the size of the generated dataset
+         * @param brands the number of brands
+         * @param topicsPerBrand the number of topics in each brand
+         * @param articlesPerTopic the number of articles in each topic
+         * @return the builder instance
+         */
+        public Builder dataset(int brands, int topicsPerBrand, int articlesPerTopic) {
+            if (brands < 1 || topicsPerBrand < 0 || articlesPerTopic < 0) {
+                throw new IllegalArgumentException("Need at least one brand and no negative counts.");
+            }
+            this.brands = brands;
+            this.topicsPerBrand = topicsPerBrand;
+            this.articlesPerTopic = articlesPerTopic;
+            return this;
+        }
+
+        /**
+         * Set the number of inbound mailboxes
+         * @param inboundMailboxes the mailbox count
+         * @return the builder instance
+         */
+        public Builder inboundMailboxes(int inboundMailboxes) {
+            if (inboundMailboxes < 0) {
+                throw new IllegalArgumentException("inboundMailboxes cannot be negative.");
+            }
+            this.inboundMailboxes = inboundMailboxes;
+            return this;
+        }
+
+        /**
+         * Set the latency before the response headers are sent
+         * @param latency the latency
+         * @return the builder instance
+         */
+        public Builder latency(Latency latency) {
+            if (latency == null) {
+                throw new NullPointerException("latency cannot be null.");
+            }
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Throttle response bodies to the given rate
+         * @param bytesPerSecond the bytes per second, 0 for unlimited
+         * @return the builder instance
+         */
+        public Builder bandwidth(long bytesPerSecond) {
+            if (bytesPerSecond < 0) {
+                throw new IllegalArgumentException("bytesPerSecond cannot be negative.");
+            }
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Answer a fraction of requests with a 503 Service Unavailable
+         * @param serverErrorRate the fraction between 0 and 1
+         * @return the builder instance
+         */
+        public Builder serverErrorRate(double serverErrorRate) {
+            this.serverErrorRate = checkRate(serverErrorRate);
+            return this;
+        }
+
+        /**
+         * Drop the connection of a fraction of requests without responding, which clients see as an
+         * IOException
+         * @param disconnectRate the fraction between 0 and 1
+         * @return the builder instance
+         */
+        public Builder disconnectRate(double disconnectRate) {
+            this.disconnectRate = checkRate(disconnectRate);
+            return this;
+        }
+
+        /**
+         * Answer requests over the limit with a 429 Too Many Requests the way the Desk API does
+         * @param requests the requests allowed per window
+         * @param window the window length
+         * @param unit the unit of the window
+         * @return the builder instance
+         */
+        public Builder rateLimit(int requests, long window, TimeUnit unit) {
+            if (requests < 1 || window < 1) {
+                throw new IllegalArgumentException("requests and window must be positive.");
+            }
+            this.rateLimitRequests = requests;
+            this.rateLimitWindowMillis = unit.toMillis(window);
+            return this;
+        }
+
+        /**
+         * Creates the {@link StandInConfig} instance
+         * @return the instance
+         */
+        public StandInConfig create() {
+            return new StandInConfig(this);
+        }
+
+        private static double checkRate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("rate must be between 0 and 1.");
+            }
+            return rate;
+        }
+    }
+}
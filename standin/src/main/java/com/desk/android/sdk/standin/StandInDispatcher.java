@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Routes requests to the Desk API endpoints the SDK uses and applies the simulated network conditions.
+ */
+class StandInDispatcher extends Dispatcher {
+
+    private static final Pattern BRAND_TOPICS = Pattern.compile("/api/v2/brands/(\\d+)/topics/?");
+    private static final Pattern TOPICS = Pattern.compile("/api/v2/topics/?");
+    private static final Pattern TOPIC_ARTICLES = Pattern.compile("/api/v2/topics/(\\d+)/articles(/search)?/?");
+    private static final Pattern BRAND_ARTICLES = Pattern.compile("/api/v2/brands/(\\d+)/articles(/search)?/?");
+    private static final Pattern ARTICLES = Pattern.compile("/api/v2/articles(/search)?/?");
+    private static final Pattern INBOUND_MAILBOXES = Pattern.compile("/api/v2/mailboxes/inbound/?");
+    private static final Pattern CASES = Pattern.compile("/api/v2/(customers/\\d+/)?cases/?");
+
+    private static final int DEFAULT_PER_PAGE = 50;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final StandInConfig config;
+    private final Dataset dataset;
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+    private final Random random;
+    private final List<Exchange> exchanges = new ArrayList<>();
+
+    private long windowStart;
+    private int windowCount;
+
+    StandInDispatcher(StandInConfig config, Dataset dataset) {
+        this.config = config;
+        this.dataset = dataset;
+        this.random = new Random(config.getSeed());
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        long latency = nextLatency();
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+
+        MockResponse response;
+        String body = null;
+        int status;
+        long retryAfter = acquire(System.currentTimeMillis());
+        if (retryAfter > 0) {
+            long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfter + 999));
+            body = error("Too Many Requests");
+            status = 429;
+            response = json(status, body)
+                    .setHeader("Retry-After", seconds)
+                    .setHeader("X-Rate-Limit-Limit", config.getRateLimitRequests())
+                    .setHeader("X-Rate-Limit-Remaining", 0)
+                    .setHeader("X-Rate-Limit-Reset", seconds);
+        } else if (nextDouble() < config.getDisconnectRate()) {
+            status = Exchange.DISCONNECTED;
+            response = new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+        } else if (nextDouble() < config.getServerErrorRate()) {
+            body = error("Service Unavailable");
+            status = 503;
+            response = json(status, body);
+        } else {
+            HttpUrl url = HttpUrl.parse("http://standin" + request.getPath());
+            try {
+                body = route(request, url);
+                status = body != null ? ("POST".equals(request.getMethod()) ? 201 : 200) : 404;
+                if (body == null) {
+                    body = error("Resource Not Found");
+                }
+            } catch (JsonParseException | IllegalStateException e) {
+                body = error("Validation Failed");
+                status = 422;
+            }
+            response = json(status, body);
+            if (status == 200) {
+                String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+                response.setHeader("ETag", etag).setHeader("Cache-Control", "max-age=0, private, must-revalidate");
+                if (etag.equals(request.getHeader("If-None-Match"))) {
+                    body = null;
+                    status = 304;
+                    response = new MockResponse().setResponseCode(status)
+                            .setHeader("ETag", etag)
+                            .setHeader("Cache-Control", "max-age=0, private, must-revalidate");
+                }
+            }
+        }
+
+        if (config.getBytesPerSecond() > 0) {
+            // send a tenth of the budget every 100ms so small bodies aren't held back a whole second
+            response.throttleBody(Math.max(1, config.getBytesPerSecond() / 10), 100, TimeUnit.MILLISECONDS);
+        }
+
+        long responseBytes = body != null ? body.getBytes(UTF_8).length : 0;
+        record(new Exchange(request.getMethod(), request.getPath(), status, request.getBodySize(), responseBytes, latency));
+        return response;
+    }
+
+    synchronized List<Exchange> getExchanges() {
+        return new ArrayList<>(exchanges);
+    }
+
+    synchronized void clearExchanges() {
+        exchanges.clear();
+    }
+
+    private synchronized void record(Exchange exchange) {
+        exchanges.add(exchange);
+    }
+
+    private String route(RecordedRequest request, HttpUrl url) {
+        String path = url.encodedPath();
+        Matcher matcher;
+        if ("POST".equals(request.getMethod())) {
+            if (CASES.matcher(path).matches()) {
+                JsonObject newCase = new JsonParser().parse(request.getBody().readUtf8()).getAsJsonObject();
+                return gson.toJson(dataset.createCase(newCase));
+            }
+            return null;
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+
+        if ((matcher = BRAND_TOPICS.matcher(path)).matches()) {
+            return page(dataset.topics(Collections.singleton(Long.parseLong(matcher.group(1)))), url);
+        } else if (TOPICS.matcher(path).matches()) {
+            return page(dataset.topics(brandIds(url)), url);
+        } else if ((matcher = TOPIC_ARTICLES.matcher(path)).matches()) {
+            Set<Long> topicIds = Collections.singleton(Long.parseLong(matcher.group(1)));
+            return page(dataset.articles(topicIds, brandIds(url), searchText(url, matcher.group(2))), url);
+        } else if ((matcher = BRAND_ARTICLES.matcher(path)).matches()) {
+            Set<Long> brandIds = Collections.singleton(Long.parseLong(matcher.group(1)));
+            return page(dataset.articles(ids(url, "topic_ids"), brandIds, searchText(url, matcher.group(2))), url);
+        } else if ((matcher = ARTICLES.matcher(path)).matches()) {
+            return page(dataset.articles(ids(url, "topic_ids"), brandIds(url), searchText(url, matcher.group(1))), url);
+        } else if (INBOUND_MAILBOXES.matcher(path).matches()) {
+            return page(dataset.inboundMailboxes(), url);
+        }
+        return null;
+    }
+
+    private String page(List<JsonObject> entries, HttpUrl url) {
+        int page = Math.max(1, intParameter(url, "page", 1));
+        int perPage = Math.min(StandInConfig.MAX_PER_PAGE, Math.max(1, intParameter(url, "per_page", DEFAULT_PER_PAGE)));
+        int lastPage = Math.max(1, (entries.size() + perPage - 1) / perPage);
+        int from = Math.min(entries.size(), (page - 1) * perPage);
+        int to = Math.min(entries.size(), from + perPage);
+
+        JsonArray embeddedEntries = new JsonArray();
+        for (JsonObject entry : entries.subList(from, to)) {
+            embeddedEntries.add(entry);
+        }
+        JsonObject embedded = new JsonObject();
+        embedded.add("entries", embeddedEntries);
+
+        JsonObject links = new JsonObject();
+        links.add("self", pageLink(url, page));
+        links.add("first", pageLink(url, 1));
+        links.add("last", pageLink(url, lastPage));
+        links.add("previous", page > 1 ? pageLink(url, page - 1) : JsonNull.INSTANCE);
+        links.add("next", page < lastPage ? pageLink(url, page + 1) : JsonNull.INSTANCE);
+
+        JsonObject response = new JsonObject();
+        response.addProperty("total_entries", entries.size());
+        response.addProperty("page", page);
+        response.add("_links", links);
+        response.add("_embedded", embedded);
+        return gson.toJson(response);
+    }
+
+    private static JsonObject pageLink(HttpUrl url, int page) {
+        HttpUrl pageUrl = url.newBuilder().setQueryParameter("page", String.valueOf(page)).build();
+        return Dataset.link(pageUrl.encodedPath() + "?" + pageUrl.encodedQuery(), "page");
+    }
+
+    private static String searchText(HttpUrl url, String search) {
+        if (search == null) {
+            return null;
+        }
+        for (String name : new String[] {"text", "phrase", "q"}) {
+            String value = url.queryParameter(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return "";
+    }
+
+    private static Set<Long> brandIds(HttpUrl url) {
+        Set<Long> ids = ids(url, "brand_ids");
+        return ids != null ? ids : ids(url, "brand_id");
+    }
+
+    private static Set<Long> ids(HttpUrl url, String name) {
+        String value = url.queryParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (String id : value.split(",")) {
+            try {
+                ids.add(Long.parseLong(id.trim()));
+            } catch (NumberFormatException ignored) {
+                // the real API ignores ids it can't parse
+            }
+        }
+        return ids;
+    }
+
+    private static int intParameter(HttpUrl url, String name, int defaultValue) {
+        String value = url.queryParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body);
+    }
+
+    private String error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("message", message);
+        return gson.toJson(error);
+    }
+
+    /**
+     * Counts the request against the fixed rate limit window.
+     * @return 0 if the request is allowed, otherwise the millis until the window resets
+     */
+    private synchronized long acquire(long now) {
+        if (config.getRateLimitRequests() == 0) {
+            return 0;
+        }
+        if (now - windowStart >= config.getRateLimitWindowMillis()) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        if (windowCount < config.getRateLimitRequests()) {
+            windowCount++;
+            return 0;
+        }
+        return Math.max(1, windowStart + config.getRateLimitWindowMillis() - now);
+    }
+
+    private synchronized long nextLatency() {
+        return config.getLatency().nextMillis(random);
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * <p>A local stand-in for the Desk.com API. It serves the topics, articles (list and search), inbound
+ * mailboxes and cases endpoints the SDK uses from a generated {@link Dataset}, with the latency, bandwidth,
+ * error rate and rate limit described by its {@link StandInConfig}. GET responses carry an ETag so the
+ * SDK's response cache revalidates against it the way it does against the real API.</p>
+ *
+ * <p>Route the SDK to the stand-in by adding its {@link #interceptor()} to Desk, which rewrites every
+ * request to this server:</p>
+ *
+ * <pre>
+ * StandInServer server = new StandInServer(new StandInConfig.Builder()
+ *         .dataset(2, 10, 40)
+ *         .latency(Latency.logNormal(120, 0.5))
+ *         .serverErrorRate(0.01)
+ *         .create());
+ * server.start();
+ * Desk.with(context).addInterceptor(server.interceptor());
+ * </pre>
+ *
+ * <p>On Android {@link #start()} and {@link #shutdown()} do network I/O and must be called off of the
+ * main thread.</p>
+ */
+public class StandInServer {
+
+    private final StandInConfig config;
+    private final Dataset dataset;
+    private final StandInDispatcher dispatcher;
+    private final MockWebServer server;
+
+    /**
+     * Creates a stand-in with the default configuration
+     */
+    public StandInServer() {
+        this(new StandInConfig.Builder().create());
+    }
+
+    public StandInServer(StandInConfig config) {
+        this.config = config;
+        this.dataset = new Dataset(config);
+        this.dispatcher = new StandInDispatcher(config, dataset);
+        this.server = new MockWebServer();
+        this.server.setDispatcher(dispatcher);
+    }
+
+    /**
+     * Starts the server on a free local port
+     * @throws IOException if the server couldn't bind
+     */
+    public void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * Stops the server
+     * @throws IOException if the server couldn't be closed
+     */
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Returns the url of the API root, e.g. http://localhost:54321/
+     * @return the url
+     */
+    public HttpUrl url() {
+        return server.url("/");
+    }
+
+    /**
+     * Returns an OkHttp interceptor which sends every request to this server instead of the host it was
+     * addressed to, keeping the path and query.
+     * @return the interceptor
+     */
+    public Interceptor interceptor() {
+        return new Interceptor() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                Request request = chain.request();
+                HttpUrl root = url();
+                HttpUrl url = request.url().newBuilder()
+                        .scheme(root.scheme())
+                        .host(root.host())
+                        .port(root.port())
+                        .build();
+                return chain.proceed(request.newBuilder().url(url).build());
+            }
+        };
+    }
+
+    /**
+     * Returns the configuration
+     * @return the config
+     */
+    public StandInConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the data being served
+     * @return the dataset
+     */
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    /**
+     * Returns every request received so far in the order they arrived. Requests answered by a client side
+     * cache never reach the server and are not included.
+     * @return the exchanges
+     */
+    public List<Exchange> getExchanges() {
+        return dispatcher.getExchanges();
+    }
+
+    /**
+     * Returns the number of requests received so far
+     * @return the request count
+     */
+    public int getRequestCount() {
+        return getExchanges().size();
+    }
+
+    /**
+     * Returns the total size of the response bodies sent so far
+     * @return the bytes sent
+     */
+    public long getResponseBytes() {
+        long bytes = 0;
+        for (Exchange exchange : getExchanges()) {
+            bytes += exchange.getResponseBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Forgets the requests received so far
+     */
+    public void clearExchanges() {
+        dispatcher.clearExchanges();
+    }
+}
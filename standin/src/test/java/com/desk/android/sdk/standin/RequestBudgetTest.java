@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestBudgetTest {
+
+    private static final List<Exchange> JOURNEY = Arrays.asList(
+            new Exchange("GET", "/api/v2/topics?page=1", 200, 0, 4000, 0),
+            new Exchange("GET", "/api/v2/mailboxes/inbound?page=1", 200, 0, 600, 0),
+            new Exchange("GET", "/api/v2/mailboxes/inbound?page=1", 304, 0, 0, 0));
+
+    @Test
+    public void passesWithinBudget() throws Exception {
+        new RequestBudget.Builder()
+                .endpoint("topics", "/api/v2/topics.*", 1)
+                .endpoint("inbound mailboxes", "/api/v2/mailboxes/inbound.*", 2)
+                .maxRequests(3)
+                .maxResponseBytes(4600)
+                .create()
+                .check(JOURNEY);
+    }
+
+    @Test
+    public void unsetLimitsAreNotChecked() throws Exception {
+        new RequestBudget.Builder().create().check(JOURNEY);
+    }
+
+    @Test
+    public void failsWhenEndpointIsOverBudget() throws Exception {
+        try {
+            new RequestBudget.Builder()
+                    .endpoint("inbound mailboxes", "/api/v2/mailboxes/inbound.*", 1)
+                    .create()
+                    .check(JOURNEY);
+            fail("Expected the budget to be exceeded");
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage().contains("inbound mailboxes: 2 requests, budget is 1"));
+            assertTrue(e.getMessage().contains("/api/v2/topics?page=1"));
+        }
+    }
+
+    @Test
+    public void failsWhenTotalsAreOverBudget() throws Exception {
+        try {
+            new RequestBudget.Builder().maxRequests(2).maxResponseBytes(1000).create().check(JOURNEY);
+            fail("Expected the budget to be exceeded");
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage().contains("total: 3 requests, budget is 2"));
+            assertTrue(e.getMessage().contains("total: 4600 response bytes, budget is 1000"));
+        }
+    }
+
+    @Test
+    public void emptyJourneyPasses() throws Exception {
+        new RequestBudget.Builder().maxRequests(0).create().check(Collections.<Exchange>emptyList());
+    }
+}
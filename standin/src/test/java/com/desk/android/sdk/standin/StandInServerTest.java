@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2015, Salesforce.com, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of Salesforce.com, Inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.desk.android.sdk.standin;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StandInServerTest {
+
+    private final OkHttpClient client = new OkHttpClient();
+    private StandInServer server;
+
+    @After
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void topicsArePaginated() throws Exception {
+        start(new StandInConfig.Builder().dataset(1, 30, 0).create());
+        JsonObject page = getJson("/api/v2/topics?page=2&per_page=25");
+        assertEquals(30, page.get("total_entries").getAsInt());
+        assertEquals(2, page.get("page").getAsInt());
+        assertEquals(5, page.getAsJsonObject("_embedded").getAsJsonArray("entries").size());
+        assertTrue(page.getAsJsonObject("_links").get("next").isJsonNull());
+        assertTrue(page.getAsJsonObject("_links").getAsJsonObject("previous").get("href").getAsString().contains("page=1"));
+    }
+
+    @Test
+    public void perPageIsCappedAtApiMaximum() throws Exception {
+        start(new StandInConfig.Builder().dataset(1, 1, 250).create());
+        long topicId = server.getDataset().getTopicIds(server.getDataset().getBrandIds().get(0)).get(0);
+        JsonObject page = getJson("/api/v2/articles?per_page=500&topic_ids=" + topicId);
+        assertEquals(250, page.get("total_entries").getAsInt());
+        assertEquals(StandInConfig.MAX_PER_PAGE, page.getAsJsonObject("_embedded").getAsJsonArray("entries").size());
+    }
+
+    @Test
+    public void articlesAreFilteredByTopicAndBrand() throws Exception {
+        start(new StandInConfig.Builder().dataset(2, 3, 7).create());
+        long brandId = server.getDataset().getBrandIds().get(1);
+        long topicId = server.getDataset().getTopicIds(brandId).get(0);
+        assertEquals(7, getJson("/api/v2/topics/" + topicId + "/articles").get("total_entries").getAsInt());
+        assertEquals(21, getJson("/api/v2/articles?brand_ids=" + brandId).get("total_entries").getAsInt());
+        assertEquals(42, getJson("/api/v2/articles").get("total_entries").getAsInt());
+        assertEquals(3, getJson("/api/v2/brands/" + brandId + "/topics").get("total_entries").getAsInt());
+    }
+
+    @Test
+    public void searchMatchesSubjectAndBody() throws Exception {
+        start(new StandInConfig.Builder().dataset(1, 5, 20).create());
+        JsonObject all = getJson("/api/v2/articles/search?per_page=1");
+        String subject = all.getAsJsonObject("_embedded").getAsJsonArray("entries").get(0).getAsJsonObject()
+                .get("subject").getAsString();
+        int matches = getJson("/api/v2/articles/search?text=" + subject.toUpperCase()).get("total_entries").getAsInt();
+        assertEquals(100, all.get("total_entries").getAsInt());
+        assertTrue(matches > 0 && matches < 100);
+        assertEquals(0, getJson("/api/v2/articles/search?text=nomatchatall").get("total_entries").getAsInt());
+    }
+
+    @Test
+    public void sameSeedServesSamePayloads() throws Exception {
+        start(new StandInConfig.Builder().seed(7).create());
+        String first = get("/api/v2/topics").body().string();
+        server.shutdown();
+        start(new StandInConfig.Builder().seed(7).create());
+        assertEquals(first, get("/api/v2/topics").body().string());
+    }
+
+    @Test
+    public void matchingEtagReturnsNotModified() throws Exception {
+        start(new StandInConfig.Builder().create());
+        Response response = get("/api/v2/mailboxes/inbound");
+        String etag = response.header("ETag");
+        response.body().close();
+        assertNotNull(etag);
+
+        Response revalidated = client.newCall(new Request.Builder()
+                .url(server.url().resolve("/api/v2/mailboxes/inbound"))
+                .header("If-None-Match", etag)
+                .build()).execute();
+        assertEquals(304, revalidated.code());
+        revalidated.body().close();
+    }
+
+    @Test
+    public void createCaseReturnsCreatedCase() throws Exception {
+        start(new StandInConfig.Builder().create());
+        String json = "{\"type\":\"email\",\"subject\":\"Help\",\"message\":{\"body\":\"It broke\",\"direction\":\"in\"}}";
+        Response response = client.newCall(new Request.Builder()
+                .url(server.url().resolve("/api/v2/cases"))
+                .post(RequestBody.create(MediaType.parse("application/json"), json))
+                .build()).execute();
+        assertEquals(201, response.code());
+        JsonObject deskCase = new JsonParser().parse(response.body().string()).getAsJsonObject();
+        assertEquals("Help", deskCase.get("subject").getAsString());
+        assertEquals("It broke", deskCase.get("blurb").getAsString());
+    }
+
+    @Test
+    public void unknownPathReturnsNotFound() throws Exception {
+        start(new StandInConfig.Builder().create());
+        Response response = get("/api/v2/unknown");
+        assertEquals(404, response.code());
+        response.body().close();
+    }
+
+    @Test
+    public void requestsOverRateLimitReturnTooManyRequests() throws Exception {
+        start(new StandInConfig.Builder().rateLimit(2, 1, TimeUnit.MINUTES).create());
+        get("/api/v2/topics").body().close();
+        get("/api/v2/topics").body().close();
+        Response limited = get("/api/v2/topics");
+        assertEquals(429, limited.code());
+        assertNotNull(limited.header("Retry-After"));
+        limited.body().close();
+    }
+
+    @Test
+    public void serverErrorRateReturnsServiceUnavailable() throws Exception {
+        start(new StandInConfig.Builder().serverErrorRate(1).create());
+        Response response = get("/api/v2/topics");
+        assertEquals(503, response.code());
+        response.body().close();
+    }
+
+    @Test
+    public void disconnectRateDropsConnection() throws Exception {
+        start(new StandInConfig.Builder().disconnectRate(1).create());
+        try {
+            get("/api/v2/topics").body().close();
+            fail("Expected an IOException");
+        } catch (IOException expected) {
+            assertEquals(Exchange.DISCONNECTED, server.getExchanges().get(0).getStatus());
+        }
+    }
+
+    @Test
+    public void latencyDelaysResponse() throws Exception {
+        start(new StandInConfig.Builder().latency(Latency.fixed(200)).create());
+        long start = System.nanoTime();
+        get("/api/v2/topics").body().close();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+        assertEquals(200, server.getExchanges().get(0).getLatencyMillis());
+    }
+
+    @Test
+    public void interceptorRoutesRequestsToServer() throws Exception {
+        start(new StandInConfig.Builder().create());
+        OkHttpClient routed = client.newBuilder().addInterceptor(server.interceptor()).build();
+        Response response = routed.newCall(new Request.Builder()
+                .url("https://example.desk.com/api/v2/topics?page=1")
+                .build()).execute();
+        assertEquals(200, response.code());
+        response.body().close();
+        assertEquals("/api/v2/topics?page=1", server.getExchanges().get(0).getPath());
+    }
+
+    @Test
+    public void exchangesRecordRequestsAndBytes() throws Exception {
+        start(new StandInConfig.Builder().create());
+        String body = get("/api/v2/topics").body().string();
+        get("/api/v2/mailboxes/inbound").body().close();
+        assertEquals(2, server.getRequestCount());
+        assertEquals(body.getBytes("UTF-8").length, server.getExchanges().get(0).getResponseBytes());
+        server.clearExchanges();
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private void start(StandInConfig config) throws IOException {
+        server = new StandInServer(config);
+        server.start();
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url().resolve(path)).build()).execute();
+    }
+
+    private JsonObject getJson(String path) throws IOException {
+        return new JsonParser().parse(get(path).body().string()).getAsJsonObject();
+    }
+}